@@ -0,0 +1,53 @@
+package com.cinematch.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Pool για παράλληλα TMDb calls (streaming recommendations κ.λπ.).
+     * Bounded queue: όταν γεμίσει, το task τρέχει στο thread του caller αντί να χαθεί.
+     */
+    @Bean(name = "tmdbExecutor")
+    public ThreadPoolTaskExecutor tmdbExecutor(
+            @Value("${tmdb.executor.core-size:8}") int coreSize,
+            @Value("${tmdb.executor.max-size:16}") int maxSize,
+            @Value("${tmdb.executor.queue-capacity:200}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tmdb-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool για τα async KPI paths (batch endpoint, person stats), με deadline στον caller.
+     * AbortPolicy: με γεμάτη queue το task απορρίπτεται (ο caller το δίνει ως pending) αντί
+     * να τρέξει στο request thread και να περάσει το deadline.
+     */
+    @Bean(name = "kpiExecutor")
+    public ThreadPoolTaskExecutor kpiExecutor(
+            @Value("${kpi.executor.core-size:8}") int coreSize,
+            @Value("${kpi.executor.max-size:16}") int maxSize,
+            @Value("${kpi.executor.queue-capacity:500}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("kpi-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
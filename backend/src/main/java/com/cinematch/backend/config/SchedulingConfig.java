@@ -0,0 +1,13 @@
+package com.cinematch.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Ενεργοποιεί τα @Scheduled background jobs (π.χ. refresh των quiz candidate pools).
+ * Το μέγεθος του scheduler pool ορίζεται από το spring.task.scheduling.pool.size.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,203 @@
+package com.cinematch.backend.config.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-time μετατροπή ενός παλιού (unpartitioned, από το Hibernate) user_events σε monthly
+ * range partitions. Σε νέες βάσεις το V1 το φτιάχνει ήδη partitioned και εδώ δεν γίνεται τίποτα.
+ *
+ * Χωρίς copy: το παλιό table γίνεται ATTACH ως ένα ιστορικό partition
+ * (MINVALUE .. αρχή του επόμενου μήνα), και τα monthly partitions ξεκινάνε από εκεί.
+ *  1. online, χωρίς write lock: unique index (id, created_at) CONCURRENTLY και CHECK στο range
+ *     με NOT VALID + VALIDATE (SHARE UPDATE EXCLUSIVE). Το ATTACH βλέπει το validated CHECK
+ *     και δεν ξανασκανάρει το table.
+ *  2. ένα σύντομο ACCESS EXCLUSIVE transaction με μόνο catalog changes: το παλιό PK (id) γίνεται
+ *     PK (id, created_at) πάνω στο έτοιμο unique index, rename, νέο parent, sequence, PK / FK,
+ *     ATTACH, default partition. Το ATTACH ξαναχρησιμοποιεί μόνο index που είναι ήδη PK constraint,
+ *     αλλιώς θα έχτιζε νέο index κάτω από το lock.
+ *  3. indexes όπως στο V5: ON ONLY στο parent, τα υπάρχοντα indexes του παλιού table γίνονται attach,
+ *     ό,τι λείπει χτίζεται CONCURRENTLY.
+ *
+ * Το όνομα του ιστορικού partition κρατάει το (exclusive) πάνω όριο, π.χ. user_events_legacy_202611,
+ * για το retention του UserEventPartitionService.
+ */
+@Component
+@Slf4j
+public class V10__UserEventsPartitioned extends BaseJavaMigration {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private record PartitionIndex(String name, String suffix, String columns) {
+    }
+
+    // ίδια ονόματα με τα @Index του UserEvent, το V1 και το V5
+    private static final List<PartitionIndex> INDEXES = List.of(
+            new PartitionIndex("idx_user_events_user_created_desc", "user_created_desc", "user_id, created_at DESC"),
+            new PartitionIndex("idx_user_events_user_type_created", "user_type_created", "user_id, type, created_at DESC"),
+            new PartitionIndex("idx_user_events_type_movie", "type_movie", "type, movie_id"),
+            new PartitionIndex("idx_user_events_type_person", "type_person", "type, person_id"),
+            new PartitionIndex("idx_user_events_genre", "genre", "genre_id")
+    );
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement st = connection.createStatement()) {
+            if (!exists(st, "SELECT to_regclass('public.user_events') IS NOT NULL")) return;
+            if (exists(st, """
+                    SELECT EXISTS (
+                        SELECT 1 FROM pg_partitioned_table pt
+                        JOIN pg_class c ON c.oid = pt.partrelid
+                        WHERE c.relname = 'user_events'
+                    )
+                    """)) return;
+
+            long started = System.currentTimeMillis();
+            YearMonth until = YearMonth.now(ZoneOffset.UTC).plusMonths(1);
+            String legacy = legacyName(until);
+            String bound = until.atDay(1) + " 00:00:00+00";
+
+            // 1. online
+            st.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + legacy + "_pkey"
+                    + " ON user_events (id, created_at)");
+            st.execute("ALTER TABLE user_events DROP CONSTRAINT IF EXISTS " + legacy + "_range");
+            st.execute("ALTER TABLE user_events ADD CONSTRAINT " + legacy + "_range"
+                    + " CHECK (created_at < '" + bound + "') NOT VALID");
+            st.execute("ALTER TABLE user_events VALIDATE CONSTRAINT " + legacy + "_range");
+
+            // 2. catalog swap
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                st.execute("LOCK TABLE user_events IN ACCESS EXCLUSIVE MODE");
+                long nextId = nextId(st);
+
+                String oldPk = primaryKey(st);
+                if (!(legacy + "_pkey").equals(oldPk)) {
+                    if (oldPk != null) st.execute("ALTER TABLE user_events DROP CONSTRAINT " + oldPk);
+                    st.execute("ALTER TABLE user_events ADD CONSTRAINT " + legacy + "_pkey"
+                            + " PRIMARY KEY USING INDEX " + legacy + "_pkey");
+                }
+
+                st.execute("ALTER TABLE user_events RENAME TO " + legacy);
+                for (PartitionIndex index : INDEXES) {
+                    st.execute("ALTER INDEX IF EXISTS " + index.name() + " RENAME TO " + legacy + "_" + index.suffix());
+                }
+                // το identity δεν γίνεται attach κάτω από parent χωρίς identity, τα νέα ids έρχονται από το sequence
+                st.execute("ALTER TABLE " + legacy + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+
+                st.execute("CREATE TABLE user_events (LIKE " + legacy + " INCLUDING DEFAULTS) PARTITION BY RANGE (created_at)");
+                st.execute("CREATE SEQUENCE IF NOT EXISTS user_events_id_part_seq OWNED BY user_events.id");
+                st.execute("SELECT setval('user_events_id_part_seq', " + nextId + ", false)");
+                st.execute("ALTER TABLE user_events ALTER COLUMN id SET DEFAULT nextval('user_events_id_part_seq')");
+                st.execute("ALTER TABLE user_events ADD CONSTRAINT user_events_pkey_part PRIMARY KEY (id, created_at)");
+                // ίδιο FK με του παλιού table -> το ATTACH το ξαναχρησιμοποιεί, χωρίς validation scan
+                st.execute("""
+                        ALTER TABLE user_events ADD CONSTRAINT fk_user_events_user
+                        FOREIGN KEY (user_id) REFERENCES users (id)
+                        """);
+                st.execute("ALTER TABLE user_events ATTACH PARTITION " + legacy
+                        + " FOR VALUES FROM (MINVALUE) TO ('" + bound + "')");
+                st.execute("CREATE TABLE IF NOT EXISTS user_events_default PARTITION OF user_events DEFAULT");
+
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            // 3. indexes
+            List<String> partitions = partitions(st);
+            for (PartitionIndex index : INDEXES) {
+                st.execute("CREATE INDEX IF NOT EXISTS " + index.name()
+                        + " ON ONLY user_events (" + index.columns() + ")");
+
+                for (String partition : partitions) {
+                    String child = partition + "_" + index.suffix();
+                    st.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + child
+                            + " ON " + partition + " (" + index.columns() + ")");
+                    if (!attached(st, child)) {
+                        st.execute("ALTER INDEX " + index.name() + " ATTACH PARTITION " + child);
+                    }
+                }
+            }
+
+            log.info("[V10] Attached user_events as partition {} in {} ms", legacy, System.currentTimeMillis() - started);
+        }
+    }
+
+    static String legacyName(YearMonth until) {
+        return "user_events_legacy_" + until.format(SUFFIX);
+    }
+
+    // =================== helpers ===================
+
+    private static long nextId(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM user_events")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String primaryKey(Statement st) throws SQLException {
+        try (ResultSet rs = st.executeQuery("""
+                SELECT conname FROM pg_constraint
+                WHERE conrelid = 'user_events'::regclass AND contype = 'p'
+                """)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static boolean exists(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static List<String> partitions(Statement st) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'user_events'
+                ORDER BY c.relname
+                """)) {
+            while (rs.next()) names.add(rs.getString(1));
+        }
+        return names;
+    }
+
+    private static boolean attached(Statement st, String indexName) throws SQLException {
+        // τα ονόματα είναι δικά μας σταθερά (partition names από pg_class), όχι user input
+        return exists(st, """
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE c.relname = '%s'
+                )
+                """.formatted(indexName));
+    }
+}
@@ -0,0 +1,160 @@
+package com.cinematch.backend.config.migration;
+
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.service.event.UserEventPayloads;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Backfill των typed columns (+ payload_hash) για τα legacy user_events με μόνο TEXT payload.
+ * Τα columns τα έχει ήδη προσθέσει το V1_1 (σε νέες βάσεις το V1, όπου δεν βρίσκει rows),
+ * μαζί με το DROP NOT NULL του payload.
+ *
+ * One-shot, σε batches με keyset στο id και commit ανά batch: κανένα μεγάλο transaction /
+ * lock σε όλο το table, και ένα restart συνεχίζει από όσα έμειναν (attributes IS NULL).
+ * Το parse γίνεται εδώ με το {@link UserEventPayloads}, άρα το payload_hash είναι ίδιο με
+ * αυτό που γράφει το app. Malformed JSON δεν σταματάει το migration: το row μένει όπως είναι
+ * (το app κάνει ήδη skip στο in-memory upgradeLegacy).
+ */
+@Component
+@Slf4j
+public class V2__UserEventsTypedColumns extends BaseJavaMigration {
+
+    private static final int DEFAULT_BATCH_SIZE = 5000;
+    private static final int SOURCE_MAX = 50;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String SELECT_BATCH = """
+            SELECT id, created_at, payload FROM user_events
+            WHERE attributes IS NULL AND payload IS NOT NULL AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_ROW = """
+            UPDATE user_events
+            SET movie_id = ?, person_id = ?, genre_id = ?, cast_id = ?, crew_id = ?,
+                source = ?, attributes = CAST(? AS jsonb), payload_hash = ?
+            WHERE id = ? AND created_at = ?
+            """;
+
+    private final int batchSize;
+
+    public V2__UserEventsTypedColumns() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    V2__UserEventsTypedColumns(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long lastId = 0;
+        long updated = 0;
+        long malformed = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(SELECT_BATCH);
+             PreparedStatement update = connection.prepareStatement(UPDATE_ROW)) {
+
+            while (true) {
+                select.setLong(1, lastId);
+                select.setInt(2, batchSize);
+
+                int rows = 0;
+                int pending = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong(1);
+
+                        UserEvent typed = parse(rs.getString(3));
+                        if (typed == null) {
+                            malformed++;
+                            continue;
+                        }
+                        bind(update, typed, lastId, rs.getObject(2, OffsetDateTime.class));
+                        update.addBatch();
+                        pending++;
+                    }
+                }
+
+                if (pending > 0) update.executeBatch();
+                connection.commit();
+                updated += pending;
+
+                if (rows < batchSize) break;
+            }
+        } catch (Exception e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        if (updated > 0 || malformed > 0) {
+            log.info("[V2] Backfilled {} legacy user_events ({} malformed payloads left as-is)", updated, malformed);
+        }
+    }
+
+    /**
+     * Legacy TEXT payload -> typed fields, ή null αν δεν είναι JSON object.
+     */
+    static UserEvent parse(String payload) {
+        if (payload == null || payload.isBlank()) return null;
+
+        Map<String, Object> map;
+        try {
+            map = MAPPER.readValue(payload, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            return null;
+        }
+        if (map == null) return null;
+
+        UserEvent event = new UserEvent();
+        UserEventPayloads.apply(event, map);
+        if (event.getSource() != null && event.getSource().length() > SOURCE_MAX) {
+            event.setSource(event.getSource().substring(0, SOURCE_MAX));
+        }
+        return event;
+    }
+
+    // =================== helpers ===================
+
+    private static void bind(PreparedStatement update, UserEvent e, long id, OffsetDateTime createdAt) throws Exception {
+        setLong(update, 1, e.getMovieId());
+        setLong(update, 2, e.getPersonId());
+        setLong(update, 3, e.getGenreId());
+        setLong(update, 4, e.getCastId());
+        setLong(update, 5, e.getCrewId());
+        update.setString(6, e.getSource());
+        update.setString(7, MAPPER.writeValueAsString(e.getAttributes()));
+        setLong(update, 8, e.getPayloadHash());
+        update.setLong(9, id);
+        update.setObject(10, createdAt);
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws Exception {
+        if (value == null) ps.setNull(index, Types.BIGINT);
+        else ps.setLong(index, value);
+    }
+}
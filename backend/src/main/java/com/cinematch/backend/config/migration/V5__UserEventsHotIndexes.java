@@ -0,0 +1,129 @@
+package com.cinematch.backend.config.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hot-path indexes του user_events, χωρίς να κλειδώνουμε τα writes.
+ *
+ * Ο Postgres δεν κάνει CREATE INDEX CONCURRENTLY σε partitioned table, οπότε:
+ *  - partitioned: index ON ONLY στο parent (invalid), CONCURRENTLY σε κάθε partition, ATTACH.
+ *    Όταν γίνουν attach όλα, το parent index γίνεται valid και τα νέα partitions τον παίρνουν αυτόματα.
+ *  - unpartitioned (παλιά βάση, πριν το V10__UserEventsPartitioned): απλό CONCURRENTLY.
+ *
+ * Το Spring Boot περνάει τα JavaMigration beans στο Flyway.
+ */
+@Component
+public class V5__UserEventsHotIndexes extends BaseJavaMigration {
+
+    private record HotIndex(String name, String suffix, String columns) {
+    }
+
+    private static final List<HotIndex> INDEXES = List.of(
+            // findTop{200,2000}ByUser_IdOrderByCreatedAtDesc
+            new HotIndex("idx_user_events_user_created_desc", "user_created_desc", "user_id, created_at DESC"),
+            // findTop200ByUser_IdAndTypeOrderByCreatedAtDesc
+            new HotIndex("idx_user_events_user_type_created", "user_type_created", "user_id, type, created_at DESC")
+    );
+
+    private static final List<String> SUPERSEDED = List.of(
+            // το (user_id, created_at) ASC καλύπτεται πλέον από το DESC index
+            "idx_user_events_user_created",
+            // το παλιό DB dedupe lookup, που αντικαταστάθηκε από το in-memory RecentEventDeduplicator
+            "idx_user_events_dedupe"
+    );
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement st = connection.createStatement()) {
+            if (!exists(st, "SELECT to_regclass('public.user_events') IS NOT NULL")) return;
+
+            boolean partitioned = exists(st, """
+                    SELECT EXISTS (
+                        SELECT 1 FROM pg_partitioned_table pt
+                        JOIN pg_class c ON c.oid = pt.partrelid
+                        WHERE c.relname = 'user_events'
+                    )
+                    """);
+
+            if (!partitioned) {
+                for (HotIndex index : INDEXES) {
+                    st.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name()
+                            + " ON user_events (" + index.columns() + ")");
+                }
+                for (String index : SUPERSEDED) {
+                    st.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+                }
+                return;
+            }
+
+            List<String> partitions = partitions(st);
+            for (HotIndex index : INDEXES) {
+                st.execute("CREATE INDEX IF NOT EXISTS " + index.name()
+                        + " ON ONLY user_events (" + index.columns() + ")");
+
+                for (String partition : partitions) {
+                    String child = partition + "_" + index.suffix();
+                    st.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + child
+                            + " ON " + partition + " (" + index.columns() + ")");
+                    if (!attached(st, child)) {
+                        st.execute("ALTER INDEX " + index.name() + " ATTACH PARTITION " + child);
+                    }
+                }
+            }
+            // σε partitioned parent δεν υπάρχει DROP INDEX CONCURRENTLY, είναι μόνο catalog change
+            for (String index : SUPERSEDED) {
+                st.execute("DROP INDEX IF EXISTS " + index);
+            }
+        }
+    }
+
+    // =================== helpers ===================
+
+    private static boolean exists(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static List<String> partitions(Statement st) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'user_events'
+                ORDER BY c.relname
+                """)) {
+            while (rs.next()) names.add(rs.getString(1));
+        }
+        return names;
+    }
+
+    private static boolean attached(Statement st, String indexName) throws SQLException {
+        // τα ονόματα είναι δικά μας σταθερά (partition names από pg_class), όχι user input
+        return exists(st, """
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE c.relname = '%s'
+                )
+                """.formatted(indexName));
+    }
+}
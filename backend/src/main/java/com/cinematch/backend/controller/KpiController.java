@@ -1,18 +1,32 @@
 package com.cinematch.backend.controller;
 
 import com.cinematch.backend.dto.AudienceEngagementResponse;
+import com.cinematch.backend.dto.KpiBatchRequest;
+import com.cinematch.backend.dto.KpiBatchResponse;
+import com.cinematch.backend.dto.KpiLeaderboardDto;
 import com.cinematch.backend.dto.StarPowerResponse;
+import com.cinematch.backend.dto.UniqueViewersDto;
+import com.cinematch.backend.model.ViewedEntityKind;
 import com.cinematch.backend.service.KpiService;
+import com.cinematch.backend.service.kpi.KpiBatchService;
+import com.cinematch.backend.service.kpi.KpiLeaderboardService;
+import com.cinematch.backend.service.kpi.KpiLeaderboards;
+import com.cinematch.backend.service.trending.UniqueViewerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/kpi")
 @RequiredArgsConstructor
 public class KpiController {
 
     private final KpiService kpiService;
+    private final UniqueViewerService uniqueViewerService;
+    private final KpiBatchService kpiBatchService;
+    private final KpiLeaderboardService kpiLeaderboardService;
 
     // ⭐ Star Power ανά ΤΑΙΝΙΑ
     @GetMapping("/star-power/movie/{movieId}")
@@ -29,4 +43,65 @@ public class KpiController {
     ) {
         return ResponseEntity.ok(kpiService.calculateAudienceEngagement(movieId));
     }
+
+    // 🧮 Batch: Star Power + Audience Engagement για πολλές ταινίες (grid) μέσα σε deadline
+    // POST /kpi/batch  {"movieIds": [603, 550, ...], "timeoutMs": 1500}
+    // 429 όταν τρέχουν ήδη kpi.batch.max-concurrent batches
+    @PostMapping("/batch")
+    public ResponseEntity<KpiBatchResponse> getBatch(@RequestBody KpiBatchRequest request) {
+        List<Long> movieIds = request != null ? request.getMovieIds() : null;
+        if (movieIds == null || movieIds.isEmpty() || movieIds.size() > kpiBatchService.maxMovies()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return kpiBatchService.tryCalculate(movieIds, request.getTimeoutMs())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(429).build());
+    }
+
+    // 🏅 Leaderboards όλου του καταλόγου (materialized, ανανεώνονται στο background)
+    // GET /kpi/leaderboard/engagement?genre=28&year=2019&limit=20   (metric: engagement | star-power)
+    @GetMapping("/leaderboard/{metric}")
+    public ResponseEntity<KpiLeaderboardDto> getLeaderboard(
+            @PathVariable String metric,
+            @RequestParam(required = false) Integer genre,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        KpiLeaderboards.Metric parsed = KpiLeaderboards.Metric.fromPath(metric);
+        if (parsed == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(kpiLeaderboardService.leaderboard(
+                parsed, genre, year, Math.min(limit, kpiLeaderboardService.maxLimit())));
+    }
+
+    // 👀 Unique viewers (HyperLogLog) ανά movie / actor / director
+    // GET /kpi/unique-viewers/movie/603?days=7  (χωρίς days = all-time)
+    @GetMapping("/unique-viewers/{kind}/{entityId}")
+    public ResponseEntity<UniqueViewersDto> getUniqueViewers(
+            @PathVariable String kind,
+            @PathVariable Long entityId,
+            @RequestParam(required = false) Integer days
+    ) {
+        ViewedEntityKind parsed = parseKind(kind);
+        if (parsed == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(uniqueViewerService.uniqueViewers(parsed, entityId, days));
+    }
+
+    // 🏆 Ranking με βάση τους unique viewers (all-time)
+    @GetMapping("/unique-viewers/{kind}")
+    public ResponseEntity<List<UniqueViewersDto>> getTopByUniqueViewers(
+            @PathVariable String kind,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        ViewedEntityKind parsed = parseKind(kind);
+        if (parsed == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(uniqueViewerService.top(parsed, Math.min(Math.max(limit, 1), 100)));
+    }
+
+    private ViewedEntityKind parseKind(String kind) {
+        try {
+            return ViewedEntityKind.valueOf(kind.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.cinematch.backend.model.UserEventType;
 import com.cinematch.backend.service.CurrentUserService;
 import com.cinematch.backend.service.TmdbService;
 import com.cinematch.backend.service.UserEventService;
+import com.cinematch.backend.service.trending.InAppTrendingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +23,7 @@ public class MovieController {
     private final TmdbService tmdbService;
     private final CurrentUserService currentUserService;
     private final UserEventService userEventService;
+    private final InAppTrendingService inAppTrendingService;
 
     /**
      * US11 – Search movies
@@ -71,6 +73,32 @@ public class MovieController {
         );
     }
 
+    /**
+     * Trending on CineMatch (από τα δικά μας OPEN_MOVIE / LIKE_MOVIE events)
+     * GET /movies/trending/cinematch?limit=20
+     */
+    @GetMapping("/trending/cinematch")
+    public ResponseEntity<List<InAppTrendingDto>> getInAppTrending(
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(
+                inAppTrendingService.topMovies(Math.min(Math.max(limit, 1), 100))
+        );
+    }
+
+    /**
+     * Trending actors on CineMatch (από τα OPEN_ACTOR events)
+     * GET /movies/trending-actors/cinematch?limit=20
+     */
+    @GetMapping("/trending-actors/cinematch")
+    public ResponseEntity<List<InAppTrendingDto>> getInAppTrendingActors(
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(
+                inAppTrendingService.topActors(Math.min(Math.max(limit, 1), 100))
+        );
+    }
+
     /**
      * US45 – Explore Movies
      * GET /movies/explore
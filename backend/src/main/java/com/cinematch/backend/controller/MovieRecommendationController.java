@@ -1,15 +1,20 @@
 package com.cinematch.backend.controller;
 
+import com.cinematch.backend.dto.SimilarItemDto;
 import com.cinematch.backend.model.User;
 import com.cinematch.backend.service.CurrentUserService;
 import com.cinematch.backend.service.MovieRecommendationService;
+import com.cinematch.backend.service.recommendation.ItemSimilarityService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/movies")
@@ -18,16 +23,92 @@ public class MovieRecommendationController {
 
     private final CurrentUserService currentUserService;
     private final MovieRecommendationService movieRecommendationService;
+    private final ItemSimilarityService itemSimilarityService;
 
+    private static final long STREAM_TIMEOUT_MS = 30_000;
+
+    /**
+     * GET /movies/recommendations?limit=20&cursor=...
+     *
+     * Χωρίς cursor υπολογίζεται νέο ranked snapshot. Το nextCursor (opaque, signed)
+     * διαβάζει την επόμενη σελίδα από το ίδιο snapshot μέχρι να λήξει.
+     */
     @GetMapping("/recommendations")
-    public ResponseEntity<?> getRecommendations() {
+    public ResponseEntity<?> getRecommendations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "60") int limit
+    ) {
         User user = currentUserService.getCurrentUserOrNull();
         if (user == null) {
             return ResponseEntity.status(401).build();
         }
 
-        return ResponseEntity.ok(
-                movieRecommendationService.getRecommendationsForUser(user)
-        );
+        int safeLimit = Math.max(1, Math.min(limit, 60));
+
+        try {
+            return ResponseEntity.ok(
+                    movieRecommendationService.getRecommendationsPage(user, cursor, safeLimit)
+            );
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(410).body(e.getMessage());
+        }
+    }
+
+    /**
+     * GET /movies/recommendations/stream  (text/event-stream)
+     *
+     * Events:
+     *  - "batch": { source, results } μόλις τελειώσει κάθε πηγή (top genre πρώτο)
+     *  - "done":  { total }
+     */
+    @GetMapping(value = "/recommendations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRecommendations() {
+        User user = currentUserService.getCurrentUserOrNull();
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        movieRecommendationService
+                .streamRecommendations(user, batch -> send(emitter, "batch", batch))
+                .whenComplete((total, error) -> {
+                    if (error != null) {
+                        emitter.completeWithError(error);
+                        return;
+                    }
+                    try {
+                        send(emitter, "done", Map.of("total", total));
+                        emitter.complete();
+                    } catch (UncheckedIOException e) {
+                        emitter.completeWithError(e);
+                    }
+                });
+
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Users who opened X also opened
+     * GET /movies/{movieId}/also-opened?limit=10
+     */
+    @GetMapping("/{movieId}/also-opened")
+    public ResponseEntity<List<SimilarItemDto>> getAlsoOpened(
+            @PathVariable Long movieId,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        int safeLimit = Math.max(1, Math.min(limit, 50));
+        return ResponseEntity.ok(itemSimilarityService.alsoOpened(movieId, safeLimit));
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // ο client έκλεισε τη σύνδεση
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.cinematch.backend.controller;
+
+import com.cinematch.backend.auth.Role;
+import com.cinematch.backend.dto.PreferenceRebuildStatusDto;
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.service.CurrentUserService;
+import com.cinematch.backend.service.preference.PreferenceRebuildJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/preferences/rebuild")
+@RequiredArgsConstructor
+public class PreferenceRebuildAdminController {
+
+    private final CurrentUserService currentUserService;
+    private final PreferenceRebuildJob preferenceRebuildJob;
+
+    /**
+     * POST /admin/preferences/rebuild?parallelism=4&resume=true
+     *
+     * Ξεκινάει το bulk rebuild (ή συνεχίζει το προηγούμενο αν resume=true).
+     */
+    @PostMapping
+    public ResponseEntity<?> start(
+            @RequestParam(defaultValue = "4") int parallelism,
+            @RequestParam(defaultValue = "true") boolean resume
+    ) {
+        if (!isAdmin()) return ResponseEntity.status(403).build();
+
+        int safeParallelism = Math.max(1, Math.min(parallelism, 16));
+        if (!preferenceRebuildJob.start(safeParallelism, resume)) {
+            return ResponseEntity.status(409).body("Rebuild already running");
+        }
+        return ResponseEntity.accepted().body(preferenceRebuildJob.status());
+    }
+
+    /**
+     * GET /admin/preferences/rebuild  -> progress, events/sec, users/sec
+     */
+    @GetMapping
+    public ResponseEntity<PreferenceRebuildStatusDto> status() {
+        if (!isAdmin()) return ResponseEntity.status(403).build();
+        return ResponseEntity.ok(preferenceRebuildJob.status());
+    }
+
+    /**
+     * POST /admin/preferences/rebuild/stop  -> σταματάει μετά το τρέχον chunk
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<PreferenceRebuildStatusDto> stop() {
+        if (!isAdmin()) return ResponseEntity.status(403).build();
+        preferenceRebuildJob.stop();
+        return ResponseEntity.ok(preferenceRebuildJob.status());
+    }
+
+    private boolean isAdmin() {
+        User user = currentUserService.getCurrentUserOrNull();
+        return user != null && user.getRole() == Role.ADMIN;
+    }
+}
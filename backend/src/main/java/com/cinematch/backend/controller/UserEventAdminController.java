@@ -1,15 +1,20 @@
 package com.cinematch.backend.controller;
 
+import com.cinematch.backend.dto.EventIngestionStatsDto;
 import com.cinematch.backend.dto.UserEventDto;
 import com.cinematch.backend.model.User;
 import com.cinematch.backend.model.UserEvent;
 import com.cinematch.backend.model.UserEventType;
 import com.cinematch.backend.repository.UserEventRepository;
 import com.cinematch.backend.repository.UserRepository;
+import com.cinematch.backend.service.event.UserEventIngestionPipeline;
+import com.cinematch.backend.service.event.UserEventPayloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,6 +24,17 @@ public class UserEventAdminController {
 
     private final UserEventRepository userEventRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final UserEventIngestionPipeline userEventIngestionPipeline;
+
+    // ==========================================
+    // GET /debug/user-events/ingestion
+    // queue depth, shed / written counters, flush latency
+    // ==========================================
+    @GetMapping("/ingestion")
+    public EventIngestionStatsDto getIngestionStats() {
+        return userEventIngestionPipeline.stats();
+    }
 
     // ==========================================
     // GET /debug/user-events/{userId}
@@ -42,7 +58,7 @@ public class UserEventAdminController {
                 .map(e -> UserEventDto.builder()
                         .userId(e.getUser().getId())
                         .type(e.getType())
-                        .payload(e.getPayload())
+                        .payload(payloadJson(e))
                         .createdAt(e.getCreatedAt())
                         .build()
                 )
@@ -57,13 +73,11 @@ public class UserEventAdminController {
     public String createTestEvent(@RequestParam Long userId) {
         return userRepository.findById(userId)
                 .map((User user) -> {
-                    String payload = "{\"query\":\"test-from-debug\"}";
-
                     UserEvent event = UserEvent.builder()
                             .user(user)
                             .type(UserEventType.SEARCH_MOVIE)
-                            .payload(payload)
                             .build();
+                    UserEventPayloads.apply(event, Map.of("query", "test-from-debug"));
 
                     userEventRepository.save(event);
 
@@ -71,4 +85,14 @@ public class UserEventAdminController {
                 })
                 .orElse("User " + userId + " not found");
     }
+
+    // typed columns + attributes -> JSON, όπως ήταν το παλιό payload
+    private String payloadJson(UserEvent e) {
+        UserEventPayloads.upgradeLegacy(e, objectMapper);
+        try {
+            return objectMapper.writeValueAsString(UserEventPayloads.toMap(e));
+        } catch (Exception ex) {
+            return e.getPayload();
+        }
+    }
 }
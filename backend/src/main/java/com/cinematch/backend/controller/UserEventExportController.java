@@ -0,0 +1,74 @@
+package com.cinematch.backend.controller;
+
+import com.cinematch.backend.auth.Role;
+import com.cinematch.backend.dto.UserEventPageDto;
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.model.UserEventType;
+import com.cinematch.backend.service.CurrentUserService;
+import com.cinematch.backend.service.event.UserEventExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Ολόκληρο το event history ενός user: μόνο για ADMIN.
+ */
+@RestController
+@RequestMapping("/admin/user-events")
+@RequiredArgsConstructor
+public class UserEventExportController {
+
+    private final CurrentUserService currentUserService;
+    private final UserEventExportService userEventExportService;
+
+    // ==========================================
+    // GET /admin/user-events/{userId}/page?limit=100&cursor=...
+    // keyset pagination (created_at, id), newest-first
+    // ==========================================
+    @GetMapping("/{userId}/page")
+    public ResponseEntity<UserEventPageDto> getUserEventsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) UserEventType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (!isAdmin()) return ResponseEntity.status(403).build();
+        try {
+            return ResponseEntity.ok(userEventExportService.page(userId, type, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // ==========================================
+    // GET /admin/user-events/{userId}/export
+    // όλο το history σε NDJSON (ένα event ανά γραμμή), oldest-first, streaming
+    // ==========================================
+    @GetMapping("/{userId}/export")
+    public void exportUserEvents(
+            @PathVariable Long userId,
+            @RequestParam(required = false) UserEventType type,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!isAdmin()) {
+            response.sendError(403);
+            return;
+        }
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"user-" + userId + "-events.ndjson\"");
+
+        userEventExportService.exportNdjson(userId, type, response.getOutputStream());
+    }
+
+    private boolean isAdmin() {
+        User user = currentUserService.getCurrentUserOrNull();
+        return user != null && user.getRole() == Role.ADMIN;
+    }
+}
@@ -0,0 +1,26 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventIngestionStatsDto {
+    private int queueDepth;
+    private int capacity;
+    private long accepted;
+    private long sampledOut;   // πάνω από το high watermark
+    private long dropped;      // γεμάτη queue / shutdown
+    private long written;
+    private long failed;
+    private long spilled;      // γράφτηκαν στο local spill log
+    private long replayed;     // από το spill log στη DB
+    private long deadLettered; // απορρίφθηκαν από τη DB στο replay
+    private long spillBacklogBytes;
+    private long batches;
+    private double avgFlushMs;
+    private double lastFlushMs;
+    private double maxFlushMs;
+}
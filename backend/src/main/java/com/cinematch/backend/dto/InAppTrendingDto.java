@@ -0,0 +1,15 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InAppTrendingDto {
+    // TMDb id (movie ή person)
+    private Long id;
+    // weighted events μέσα στο window (άνω φράγμα, count-min)
+    private long score;
+}
@@ -0,0 +1,11 @@
+package com.cinematch.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class KpiBatchRequest {
+    private List<Long> movieIds;
+    private Long timeoutMs; // null = kpi.batch.timeout-ms
+}
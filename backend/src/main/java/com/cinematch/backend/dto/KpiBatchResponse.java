@@ -0,0 +1,17 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KpiBatchResponse {
+    private List<MovieKpiDto> results; // με τη σειρά του request, χωρίς διπλά ids
+    private List<Long> pending;        // δεν ολοκληρώθηκαν μέσα στο deadline (συνεχίζουν στο background)
+    private List<Long> failed;         // απέτυχαν (π.χ. TMDb error)
+    private long elapsedMs;
+}
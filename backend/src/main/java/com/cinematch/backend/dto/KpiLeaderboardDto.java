@@ -0,0 +1,20 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KpiLeaderboardDto {
+    private String metric;       // ENGAGEMENT | STAR_POWER
+    private Integer genreId;     // null = όλα
+    private Integer year;        // null = όλα
+    private int catalogSize;
+    private Instant refreshedAt; // null = δεν έχει γίνει ακόμα το πρώτο build
+    private List<KpiLeaderboardEntryDto> entries;
+}
@@ -0,0 +1,15 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KpiLeaderboardEntryDto {
+    private int rank;
+    private Long movieId;
+    private String title;
+    private double score; // 0–100, πριν το rounding του KPI endpoint
+}
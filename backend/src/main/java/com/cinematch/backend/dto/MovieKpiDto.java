@@ -0,0 +1,14 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieKpiDto {
+    private Long movieId;
+    private Integer starPower;          // null = δεν πρόλαβε / απέτυχε
+    private Integer audienceEngagement; // null = δεν πρόλαβε / απέτυχε
+}
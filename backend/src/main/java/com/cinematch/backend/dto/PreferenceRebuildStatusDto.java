@@ -0,0 +1,23 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PreferenceRebuildStatusDto {
+    private boolean running;
+    private int partitions;
+    private int partitionsDone;
+    private double progressPercent;   // πάνω στο user id range
+    private long usersProcessed;      // σύνολο, και από προηγούμενα runs (resume)
+    private long eventsProcessed;
+    private double eventsPerSecond;   // μόνο για το τρέχον run
+    private double usersPerSecond;
+    private Instant startedAt;
+    private String lastError;
+}
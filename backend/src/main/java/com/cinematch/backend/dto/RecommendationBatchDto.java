@@ -0,0 +1,15 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecommendationBatchDto {
+    private String source;                 // π.χ. "genre:28", "cast", "crew", "trending"
+    private List<MovieResultDto> results;  // μόνο νέα (deduplicated) movies
+}
@@ -0,0 +1,16 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecommendationPageResponse {
+    private List<MovieResultDto> results;
+    private String nextCursor;   // null όταν δεν υπάρχει επόμενη σελίδα
+    private int total;           // μέγεθος του snapshot
+}
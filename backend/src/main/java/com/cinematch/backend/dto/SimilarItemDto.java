@@ -0,0 +1,13 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimilarItemDto {
+    private Long movieId;
+    private double score;
+}
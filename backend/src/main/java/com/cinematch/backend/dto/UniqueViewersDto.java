@@ -0,0 +1,16 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UniqueViewersDto {
+    private String kind;          // MOVIE | ACTOR | DIRECTOR
+    private Long entityId;
+    private Integer days;         // null = all-time
+    private long uniqueViewers;   // HyperLogLog estimate
+    private double standardError; // σχετικό, π.χ. 0.023 = ±2.3%
+}
@@ -0,0 +1,16 @@
+package com.cinematch.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserEventPageDto {
+    private List<UserEventDto> items;
+    // null όταν δεν υπάρχουν άλλα (παλαιότερα) events
+    private String nextCursor;
+}
@@ -0,0 +1,48 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Στατιστικά ηθοποιού για το Star Power, από τα TMDb person details / movie_credits.
+ *
+ * Το row γράφεται από το PersonStatsService μετά από κάθε TMDb fetch και γίνεται stale
+ * όταν το TMDb αναφέρει αλλαγή στο person (ActorStatsSyncJob).
+ */
+@Entity
+@Table(
+        name = "actor_stats",
+        indexes = {
+                @Index(name = "idx_actor_stats_stale", columnList = "refreshed_at"),
+                @Index(name = "idx_actor_stats_refreshed", columnList = "refreshed_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActorStats {
+
+    @Id
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Column(nullable = false)
+    private double popularity;
+
+    @Column(name = "credit_count", nullable = false)
+    private int creditCount;
+
+    // titles με vote_average ≥ 7.5 ("award proxy")
+    @Column(name = "highly_rated_count", nullable = false)
+    private int highlyRatedCount;
+
+    @Column(nullable = false)
+    private boolean stale;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+}
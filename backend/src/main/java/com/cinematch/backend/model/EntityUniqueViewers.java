@@ -0,0 +1,54 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * HyperLogLog sketch (util.HyperLogLog) των distinct users που άνοιξαν ένα entity.
+ *
+ * Ένα row ανά UTC ημέρα και ένα all-time row (bucket_day = UniqueViewerService.ALL_TIME).
+ * Το estimate είναι αποθηκευμένο δίπλα στα registers για ranking χωρίς decode.
+ */
+@Entity
+@Table(
+        name = "entity_unique_viewers",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_entity_unique_viewers",
+                columnNames = {"entity_kind", "entity_id", "bucket_day"}
+        ),
+        indexes = @Index(name = "idx_entity_unique_viewers_rank", columnList = "entity_kind, bucket_day, estimate DESC")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntityUniqueViewers {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_kind", nullable = false, length = 10)
+    private ViewedEntityKind entityKind;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate bucketDay;
+
+    // HyperLogLog.toBytes(): dense ή sparse
+    @Column(nullable = false)
+    private byte[] registers;
+
+    @Column(nullable = false)
+    private long estimate;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Μια ταινία του τοπικού καταλόγου, με τα TMDb πεδία που χρειάζονται τα KPI leaderboards.
+ */
+@Entity
+@Table(
+        name = "movie_catalog",
+        indexes = {
+                @Index(name = "idx_movie_catalog_updated", columnList = "updated_at"),
+                @Index(name = "idx_movie_catalog_stale", columnList = "updated_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieCatalogEntry {
+
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Column(length = 512)
+    private String title;
+
+    @Column(name = "release_year")
+    private Short releaseYear;
+
+    // TMDb genre ids, comma separated
+    @Column(name = "genre_ids", nullable = false, length = 128)
+    private String genreIds;
+
+    @Column(nullable = false)
+    private double popularity;
+
+    @Column(name = "vote_average", nullable = false)
+    private double voteAverage;
+
+    @Column(name = "vote_count", nullable = false)
+    private int voteCount;
+
+    @Column(nullable = false)
+    private boolean stale;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Οι top-billed ηθοποιοί μιας ταινίας (billing_order 0..4), για Star Power χωρίς TMDb calls.
+ */
+@Entity
+@Table(
+        name = "movie_top_cast",
+        indexes = {
+                @Index(name = "idx_movie_top_cast_person", columnList = "person_id"),
+                @Index(name = "idx_movie_top_cast_refreshed", columnList = "refreshed_at")
+        }
+)
+@IdClass(MovieTopCast.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieTopCast {
+
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Id
+    @Column(name = "billing_order")
+    private Integer billingOrder;
+
+    @Column(name = "person_id", nullable = false)
+    private Long personId;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long movieId;
+        private Integer billingOrder;
+    }
+}
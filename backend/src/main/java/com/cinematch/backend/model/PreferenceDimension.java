@@ -0,0 +1,7 @@
+package com.cinematch.backend.model;
+
+public enum PreferenceDimension {
+    GENRE,
+    ACTOR,
+    DIRECTOR
+}
@@ -0,0 +1,46 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Checkpoint ανά partition (user id range) του bulk preference rebuild.
+ * Το lastUserId γράφεται μετά από κάθε chunk, ώστε ένα resume να συνεχίζει από εκεί.
+ */
+@Entity
+@Table(name = "preference_rebuild_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PreferenceRebuildCheckpoint {
+
+    @Id
+    @Column(name = "partition_no")
+    private Integer partitionNo;
+
+    // (rangeStart, rangeEnd]: exclusive αρχή, inclusive τέλος
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId;
+
+    @Column(name = "users_processed", nullable = false)
+    private long usersProcessed;
+
+    @Column(name = "events_processed", nullable = false)
+    private long eventsProcessed;
+
+    @Column(nullable = false)
+    private boolean done;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
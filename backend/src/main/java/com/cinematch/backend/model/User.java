@@ -45,6 +45,13 @@ public class User {
     // US54: preference profile
     // =========================
 
+    // Typed profile (PreferenceProfileCodec). Διαβάζεται μέσω PreferenceProfileStore.
+    @Column(name = "preference_profile")
+    private byte[] preferenceProfile;
+
+    // LEGACY: JSON strings πριν το preference_profile. Διαβάζονται μόνο ως fallback
+    // για users που δεν έχουν ξαναϋπολογίσει preferences.
+
     // JSON array string: [{ "genreId": 28, "score": 3.0 }, ...]
     @Column(name = "top_genres", columnDefinition = "TEXT")
     private String topGenres;
@@ -59,4 +66,8 @@ public class User {
 
     @Column(name = "preferences_last_updated")
     private Instant preferencesLastUpdated;
+
+    // true όταν τα user_preference_scores έχουν χτιστεί από το history (μία φορά ανά user)
+    @Column(name = "preference_scores_ready")
+    private Boolean preferenceScoresReady;
 }
@@ -3,11 +3,23 @@ package com.cinematch.backend.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Entity
-@Table(name = "user_events")
+@Table(
+        name = "user_events",
+        indexes = {
+                @Index(name = "idx_user_events_user_created_desc", columnList = "user_id, created_at DESC"),
+                @Index(name = "idx_user_events_user_type_created", columnList = "user_id, type, created_at DESC"),
+                @Index(name = "idx_user_events_type_movie", columnList = "type, movie_id"),
+                @Index(name = "idx_user_events_type_person", columnList = "type, person_id"),
+                @Index(name = "idx_user_events_genre", columnList = "genre_id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,8 +39,41 @@ public class UserEvent {
     @Column(nullable = false, length = 50)
     private UserEventType type;
 
+    // =========================
+    // Typed payload (βλ. UserEventPayloads)
+    // =========================
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    // actorId / directorId / personId
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Column(name = "genre_id")
+    private Long genreId;
+
+    @Column(name = "cast_id")
+    private Long castId;
+
+    @Column(name = "crew_id")
+    private Long crewId;
+
+    @Column(length = 50)
+    private String source;
+
+    // ό,τι δεν έχει δικό του column
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> attributes;
+
+    // dedupe key: UserEventPayloads.hash(payload)
+    @Column(name = "payload_hash")
+    private Long payloadHash;
+
+    // LEGACY: JSON TEXT πριν τα typed columns. Τα νέα events δεν το γράφουν,
+    // τα παλιά γίνονται backfill από το migration V2__UserEventsTypedColumns.
     // IMPORTANT: ΜΗΝ είναι @Lob. Θέλουμε TEXT για να μη γίνεται CLOB/LO.
-    @Column(columnDefinition = "TEXT", nullable = false)
+    @Column(columnDefinition = "TEXT")
     private String payload;
 
     @CreationTimestamp
@@ -0,0 +1,51 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Ημερήσιο aggregate των user events ανά (user, type, entity), για partitions
+ * που βγήκαν εκτός retention και έγιναν drop.
+ */
+@Entity
+@Table(
+        name = "user_event_daily_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_user_event_daily_rollups",
+                columnNames = {"day", "user_id", "type", "entity_kind", "entity_id"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserEventDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // UTC ημέρα
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private UserEventType type;
+
+    // MOVIE / PERSON / GENRE / CAST / CREW, ή NONE για events χωρίς entity
+    @Column(name = "entity_kind", nullable = false, length = 10)
+    private String entityKind;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+}
@@ -0,0 +1,59 @@
+package com.cinematch.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * Running score ανά (user, dimension, entity, event type).
+ * Ενημερώνεται με upsert σε κάθε νέο event, οπότε το top-N δεν ξανασκανάρει το history.
+ *
+ * Το score ισχύει τη στιγμή updated_at και φθίνει εκθετικά με half_life_seconds:
+ * το decay εφαρμόζεται lazily στο επόμενο upsert ή read (χωρίς batch job).
+ */
+@Entity
+@Table(
+        name = "user_preference_scores",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_user_preference_scores",
+                columnNames = {"user_id", "dimension", "entity_id", "event_type"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPreferenceScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PreferenceDimension dimension;
+
+    // genreId ή personId, ανάλογα με το dimension
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private UserEventType eventType;
+
+    @Column(nullable = false)
+    private double score;
+
+    @ColumnDefault("2592000")
+    @Column(name = "half_life_seconds", nullable = false)
+    private double halfLifeSeconds;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
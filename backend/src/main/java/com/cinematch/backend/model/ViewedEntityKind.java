@@ -0,0 +1,10 @@
+package com.cinematch.backend.model;
+
+/**
+ * Τι είδους entity μετράμε στους unique viewers.
+ */
+public enum ViewedEntityKind {
+    MOVIE,
+    ACTOR,
+    DIRECTOR
+}
@@ -4,7 +4,13 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "movie_sentiment")
+@Table(
+        name = "movie_sentiment",
+        indexes = {
+                @Index(name = "idx_movie_sentiment_tag_score", columnList = "tag, score DESC"),
+                @Index(name = "idx_movie_sentiment_movie_tag_source", columnList = "movie_id, tag, source")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -7,7 +7,14 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "posts")
+@Table(
+        name = "posts",
+        indexes = {
+                @Index(name = "idx_posts_created", columnList = "created_at DESC"),
+                @Index(name = "idx_posts_user_created", columnList = "user_id, created_at DESC"),
+                @Index(name = "idx_posts_movie_created", columnList = "movie_id, created_at DESC")
+        }
+)
 @Getter
 @Setter
 @Builder
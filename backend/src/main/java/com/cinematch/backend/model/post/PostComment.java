@@ -7,7 +7,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post_comments")
+@Table(
+        name = "post_comments",
+        indexes = @Index(name = "idx_post_comments_post_created", columnList = "post_id, created_at")
+)
 @Getter
 @Setter
 @Builder
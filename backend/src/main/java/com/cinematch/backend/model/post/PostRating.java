@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "post_ratings")
+@Table(
+        name = "post_ratings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_ratings_post_user", columnNames = {"post_id", "user_id"}),
+        indexes = @Index(name = "idx_post_ratings_post_value", columnList = "post_id, value")
+)
 @Getter
 @Setter
 @Builder
@@ -0,0 +1,11 @@
+package com.cinematch.backend.repository;
+
+import com.cinematch.backend.model.PreferenceRebuildCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PreferenceRebuildCheckpointRepository extends JpaRepository<PreferenceRebuildCheckpoint, Integer> {
+
+    List<PreferenceRebuildCheckpoint> findAllByOrderByPartitionNoAsc();
+}
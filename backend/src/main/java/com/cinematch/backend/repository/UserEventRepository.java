@@ -2,24 +2,37 @@ package com.cinematch.backend.repository;
 
 import com.cinematch.backend.model.UserEvent;
 import com.cinematch.backend.model.UserEventType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface UserEventRepository extends JpaRepository<UserEvent, Long> {
 
+    interface MovieEventView {
+        Long getUserId();
+
+        UserEventType getType();
+
+        Long getMovieId();
+    }
+
     List<UserEvent> findTop200ByUser_IdOrderByCreatedAtDesc(Long userId);
 
     List<UserEvent> findTop200ByUser_IdAndTypeOrderByCreatedAtDesc(Long userId, UserEventType type);
 
-    boolean existsByUser_IdAndTypeAndPayloadAndCreatedAtAfter(
-            Long userId,
-            UserEventType type,
-            String payload,
-            Instant createdAfter
-    );
-
     // US54: παίρνουμε αρκετά events για scoring
     List<UserEvent> findTop2000ByUser_IdOrderByCreatedAtDesc(Long userId);
+
+    // Warm-up του item co-occurrence index στο startup (μόνο τα typed columns, χωρίς entities)
+    @Query("""
+            SELECT e.user.id AS userId, e.type AS type, e.movieId AS movieId
+            FROM UserEvent e
+            WHERE e.type IN :types AND e.movieId IS NOT NULL
+            ORDER BY e.createdAt DESC
+            """)
+    List<MovieEventView> findRecentMovieEvents(@Param("types") Collection<UserEventType> types, Pageable pageable);
 }
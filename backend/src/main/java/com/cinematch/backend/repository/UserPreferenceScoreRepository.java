@@ -0,0 +1,66 @@
+package com.cinematch.backend.repository;
+
+import com.cinematch.backend.model.UserPreferenceScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserPreferenceScoreRepository extends JpaRepository<UserPreferenceScore, Long> {
+
+    interface ScoreView {
+        Long getId();
+
+        Double getScore();
+    }
+
+    // O(1) ανά event: ένα row ανά (user, dimension, entity, event type).
+    // :now = χρόνος του event. Νεότερο event: το παλιό score φθίνει μέχρι το :now πριν προστεθεί
+    // το delta. Παλαιότερο (καθυστερημένο) event: φθίνει το delta μέχρι το updated_at του row.
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_preference_scores
+                (user_id, dimension, entity_id, event_type, score, half_life_seconds, updated_at)
+            VALUES (:userId, :dimension, :entityId, :eventType, :delta, :halfLifeSeconds, :now)
+            ON CONFLICT (user_id, dimension, entity_id, event_type)
+            DO UPDATE SET score = user_preference_scores.score * power(0.5, GREATEST(
+                                      CAST(EXTRACT(EPOCH FROM (EXCLUDED.updated_at - user_preference_scores.updated_at)) AS double precision),
+                                      0) / EXCLUDED.half_life_seconds)
+                                  + EXCLUDED.score * power(0.5, GREATEST(
+                                      CAST(EXTRACT(EPOCH FROM (user_preference_scores.updated_at - EXCLUDED.updated_at)) AS double precision),
+                                      0) / EXCLUDED.half_life_seconds),
+                          half_life_seconds = EXCLUDED.half_life_seconds,
+                          updated_at = GREATEST(EXCLUDED.updated_at, user_preference_scores.updated_at)
+            """, nativeQuery = true)
+    void upsertScore(@Param("userId") Long userId,
+                     @Param("dimension") String dimension,
+                     @Param("entityId") Long entityId,
+                     @Param("eventType") String eventType,
+                     @Param("delta") double delta,
+                     @Param("halfLifeSeconds") double halfLifeSeconds,
+                     @Param("now") Instant now);
+
+    // decayed score τη στιγμή :now, αθροισμένο πάνω στα event types
+    @Query(value = """
+            SELECT s.entity_id AS id,
+                   SUM(s.score * power(0.5, GREATEST(
+                           CAST(EXTRACT(EPOCH FROM (:now - s.updated_at)) AS double precision),
+                           0) / s.half_life_seconds)) AS score
+            FROM user_preference_scores s
+            WHERE s.user_id = :userId AND s.dimension = :dimension
+            GROUP BY s.entity_id
+            ORDER BY 2 DESC, s.entity_id ASC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ScoreView> findTopScores(@Param("userId") Long userId,
+                                  @Param("dimension") String dimension,
+                                  @Param("now") Instant now,
+                                  @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM UserPreferenceScore s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -2,30 +2,184 @@ package com.cinematch.backend.service;
 
 import com.cinematch.backend.dto.AudienceEngagementResponse;
 import com.cinematch.backend.dto.StarPowerResponse;
+import com.cinematch.backend.service.kpi.ActorStatsStore;
+import com.cinematch.backend.service.kpi.PersonStatsService;
+import com.cinematch.backend.service.kpi.PersonStatsService.PersonStats;
+import com.cinematch.backend.util.TtlCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * KPIs ανά ταινία (Star Power, Audience Engagement) από τα TMDb data.
+ *
+ * Τα αποτελέσματα κρατιούνται σε TTL cache ανά movieId: το Star Power κοστίζει έως 11 TMDb calls
+ * και αλλάζει αργά. Τα per-actor stats έρχονται από το {@link PersonStatsService} (κοινό cache,
+ * παράλληλα fetches), οπότε μια ταινία με γνωστούς ηθοποιούς συχνά χρειάζεται μόνο το /credits.
+ * Το KpiPrecomputeJob ξαναϋπολογίζει στο background τις trending / πιο ανοιγμένες ταινίες
+ * ({@link #refresh}), ώστε αυτές να σερβίρονται πάντα από τη μνήμη.
+ *
+ * Όταν το cast της ταινίας και τα stats των ηθοποιών υπάρχουν ήδη στα movie_top_cast /
+ * actor_stats (V8, τα κρατάει φρέσκα το ActorStatsSyncJob), το Star Power βγαίνει από ένα
+ * indexed query, χωρίς TMDb.
+ *
+ * Τα *Async entry points (για το batch endpoint) δεν μπλοκάρουν threads του kpiExecutor:
+ * credits -> person futures -> score, όλα ως CompletableFuture chain. Με γεμάτο pool το future
+ * τελειώνει με RejectedExecutionException, χωρίς να τρέξει τίποτα στο thread του caller.
+ * Τα σύγχρονα paths (GET /kpi/star-power, {@link #refresh}) αντίθετα δεν αποτυγχάνουν όταν
+ * το pool είναι γεμάτο: οι actors που δεν χωράνε φορτώνονται στο thread του caller.
+ */
 @Service
-@RequiredArgsConstructor
 public class KpiService {
 
     private final TmdbService tmdbService;
+    private final PersonStatsService personStatsService;
+    private final ActorStatsStore actorStatsStore;
+    private final Executor kpiExecutor;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final Logger logger = LoggerFactory.getLogger(KpiService.class);
 
+    private final TtlCache<Long, StarPowerResponse> starPowerCache;
+    private final TtlCache<Long, AudienceEngagementResponse> engagementCache;
+
+    public KpiService(
+            TmdbService tmdbService,
+            PersonStatsService personStatsService,
+            ActorStatsStore actorStatsStore,
+            @Qualifier("kpiExecutor") Executor kpiExecutor,
+            @Value("${kpi.cache.star-power-ttl-ms:43200000}") long starPowerTtlMs,
+            @Value("${kpi.cache.engagement-ttl-ms:3600000}") long engagementTtlMs,
+            @Value("${kpi.cache.max-entries:5000}") int maxEntries
+    ) {
+        this.tmdbService = tmdbService;
+        this.personStatsService = personStatsService;
+        this.actorStatsStore = actorStatsStore;
+        this.kpiExecutor = kpiExecutor;
+        this.starPowerCache = new TtlCache<>(starPowerTtlMs, maxEntries);
+        this.engagementCache = new TtlCache<>(engagementTtlMs, maxEntries);
+    }
+
+    // ==========================================================
+    // CACHED ENTRY POINTS
+    // ==========================================================
+    public StarPowerResponse calculateStarPower(Long movieId) {
+        return starPowerCache.getOrLoad(movieId, this::computeStarPower);
+    }
+
+    public AudienceEngagementResponse calculateAudienceEngagement(Long movieId) {
+        return engagementCache.getOrLoad(movieId, this::computeAudienceEngagement);
+    }
+
+    /**
+     * Non-blocking εκδοχή για batch: cached value ή υπολογισμός στο kpiExecutor.
+     * Το αποτέλεσμα μπαίνει στο cache ακόμα κι αν ο caller έχει σταματήσει να περιμένει.
+     */
+    public CompletableFuture<StarPowerResponse> starPowerAsync(Long movieId) {
+        StarPowerResponse cached = starPowerCache.get(movieId);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        return computeStarPowerAsync(movieId, kpiExecutor, false)
+                .whenComplete((result, e) -> {
+                    if (result != null) starPowerCache.put(movieId, result);
+                });
+    }
+
+    public CompletableFuture<AudienceEngagementResponse> audienceEngagementAsync(Long movieId) {
+        AudienceEngagementResponse cached = engagementCache.get(movieId);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        return supplyAsync(() -> computeAudienceEngagement(movieId), kpiExecutor)
+                .whenComplete((result, e) -> {
+                    if (result != null) engagementCache.put(movieId, result);
+                });
+    }
+
+    /**
+     * Background precompute: υπολογίζει από την αρχή και αντικαθιστά τα cached values
+     * (με νέο TTL). Σε αποτυχία μένει το προηγούμενο value.
+     */
+    public void refresh(Long movieId) {
+        starPowerCache.put(movieId, computeStarPower(movieId));
+        engagementCache.put(movieId, computeAudienceEngagement(movieId));
+    }
+
+    public boolean isCached(Long movieId) {
+        return starPowerCache.get(movieId) != null && engagementCache.get(movieId) != null;
+    }
+
+    @Scheduled(fixedDelayString = "${kpi.cache.purge-ms:600000}")
+    public void purgeExpired() {
+        starPowerCache.purgeExpired();
+        engagementCache.purgeExpired();
+    }
+
     // ==========================================================
     // 1) STAR POWER ΓΙΑ ΣΥΓΚΕΚΡΙΜΕΝΗ ΤΑΙΝΙΑ (movieId)
     //    Βασίζεται στους 5 top-billed actors του cast
     // ==========================================================
-    public StarPowerResponse calculateStarPower(Long movieId) {
+    private StarPowerResponse computeStarPower(Long movieId) {
+        // σύγχρονο path: τα credits στο caller thread, οι actors παράλληλα στο kpiExecutor
+        // (ή στο caller thread όταν το pool είναι γεμάτο)
+        try {
+            return computeStarPowerAsync(movieId, Runnable::run, true).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to compute Star Power Index");
+        }
+    }
+
+    private CompletableFuture<StarPowerResponse> computeStarPowerAsync(
+            Long movieId, Executor creditsExecutor, boolean callerRunsWhenFull) {
+        return supplyAsync(() -> storedTopCastStats(movieId), creditsExecutor)
+                .thenCompose(stored -> stored != null
+                        // 0️⃣ Cast + actor stats ήδη στη DB: κανένα TMDb call
+                        ? CompletableFuture.completedFuture(starPowerScore(movieId, stored))
+                        : computeStarPowerFromTmdb(movieId, creditsExecutor, callerRunsWhenFull))
+                .whenComplete((result, e) -> {
+                    if (e != null) logger.error("Failed to compute star power for movie {}", movieId, e);
+                });
+    }
+
+    private CompletableFuture<StarPowerResponse> computeStarPowerFromTmdb(
+            Long movieId, Executor creditsExecutor, boolean callerRunsWhenFull) {
+        return supplyAsync(() -> topCastIds(movieId), creditsExecutor)
+                .thenCompose(actorIds -> {
+                    // 3️⃣ Stats των ηθοποιών: από το κοινό cache ή με παράλληλα TMDb fetches
+                    List<CompletableFuture<PersonStats>> pending = actorIds.stream()
+                            .map(id -> personStatsService.statsAsync(id, callerRunsWhenFull))
+                            .toList();
+
+                    return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> starPowerScore(movieId, pending.stream()
+                                    .map(CompletableFuture::join)
+                                    .toList()));
+                });
+    }
+
+    private List<PersonStats> storedTopCastStats(Long movieId) {
+        try {
+            return actorStatsStore.topCastStats(movieId).orElse(null);
+        } catch (Exception e) {
+            logger.debug("actor_stats lookup failed for movie {}: {}", movieId, e.getMessage());
+            return null;
+        }
+    }
 
+    @SuppressWarnings("unchecked")
+    private List<Long> topCastIds(Long movieId) {
         try {
             // 1️⃣ Credits της ταινίας
             String creditsJson = tmdbService.fetchFromTmdb(
@@ -33,95 +187,62 @@ public class KpiService {
                     Map.of("language", "en-US")
             );
 
-            Map<String, Object> credits = objectMapper.readValue(creditsJson, Map.class);
-            List<Map<String, Object>> cast = (List<Map<String, Object>>) credits.get("cast");
+            // 2️⃣ Κρατάμε τους 5 πρώτους βάσει "order" (top billed)
+            List<Long> topCast = topBilledCast(objectMapper.readValue(creditsJson, Map.class));
 
-            if (cast == null || cast.isEmpty()) {
-                return new StarPowerResponse(movieId, 0);
+            try {
+                actorStatsStore.saveTopCast(movieId, topCast);
+            } catch (Exception e) {
+                logger.debug("Could not store top cast for movie {}: {}", movieId, e.getMessage());
             }
+            return topCast;
 
-            // 2️⃣ Κρατάμε τους 5 πρώτους βάσει "order" (top billed)
-            List<Map<String, Object>> topCast = cast.stream()
-                    .sorted(Comparator.comparingInt(a ->
-                            ((Number) a.getOrDefault("order", 999)).intValue()
-                    ))
-                    .limit(5)
-                    .toList();
-
-            double totalScore = 0.0;
-            int consideredActors = 0;
-
-            // 3️⃣ Υπολογισμός score για κάθε ηθοποιό
-            for (Map<String, Object> actor : topCast) {
-                Integer actorId = (Integer) actor.get("id");
-                if (actorId == null) continue;
-
-                consideredActors++;
-
-                // 3.1 Λεπτομέρειες ηθοποιού (popularity)
-                String detailsJson = tmdbService.fetchFromTmdb(
-                        "/person/" + actorId,
-                        Map.of("language", "en-US")
-                );
-                Map<String, Object> details = objectMapper.readValue(detailsJson, Map.class);
-
-                double popularity = details.get("popularity") != null
-                        ? ((Number) details.get("popularity")).doubleValue()
-                        : 0.0;
-                // Κανονικοποίηση 0–100 (λίγο «γενναιόδωρη» για γνωστούς ηθοποιούς)
-                double popularityScore = Math.min(100.0, popularity * 4.0);
-
-                // 3.2 Credits καριέρας
-                String actorCreditsJson = tmdbService.fetchFromTmdb(
-                        "/person/" + actorId + "/movie_credits",
-                        Map.of("language", "en-US")
-                );
-                Map<String, Object> actorCredits = objectMapper.readValue(actorCreditsJson, Map.class);
-                List<Map<String, Object>> actorCastList =
-                        (List<Map<String, Object>>) actorCredits.get("cast");
-
-                int movieCount = actorCastList != null ? actorCastList.size() : 0;
-                double careerScore = Math.min(100.0, movieCount * 1.0);
-
-                // 3.3 Proxy «βραβείων» = πόσες ταινίες με vote_average > 7.5
-                int awardProxy = 0;
-                if (actorCastList != null) {
-                    for (Map<String, Object> m : actorCastList) {
-                        if (m.get("vote_average") != null) {
-                            double v = ((Number) m.get("vote_average")).doubleValue();
-                            if (v >= 7.5) awardProxy++;
-                        }
-                    }
-                }
-                double awardScore = Math.min(100.0, awardProxy * 4.0);
-
-                // 3.4 Τελικό score ηθοποιού (weights: 50% popularity, 30% career, 20% awards)
-                double actorScore =
-                        (popularityScore * 0.5) +
-                                (careerScore * 0.3) +
-                                (awardScore * 0.2);
-
-                totalScore += actorScore;
-            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read credits for movie " + movieId, e);
+        }
+    }
 
-            // 4️⃣ Τελικό Star Power της ταινίας = μέσος όρος των top ηθοποιών
-            int finalScore = 0;
-            if (consideredActors > 0) {
-                finalScore = (int) Math.round(Math.min(100.0, totalScore / consideredActors));
-            }
+    /**
+     * Οι 5 πρώτοι του cast βάσει "order". Κοινό με το MovieCatalogSyncJob (append_to_response=credits).
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Long> topBilledCast(Map<String, Object> credits) {
+        if (credits == null || !(credits.get("cast") instanceof List<?> list) || list.isEmpty()) {
+            return List.of();
+        }
 
-            return new StarPowerResponse(movieId, finalScore);
+        List<Map<String, Object>> cast = (List<Map<String, Object>>) list;
+        return cast.stream()
+                .sorted(Comparator.comparingInt(a ->
+                        a.get("order") instanceof Number n ? n.intValue() : 999
+                ))
+                .limit(5)
+                .map(actor -> actor.get("id") instanceof Number n ? n : null)
+                .filter(Objects::nonNull)
+                .map(Number::longValue)
+                .toList();
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to compute star power for movie {}", movieId, e);
-            throw new RuntimeException("Failed to compute Star Power Index");
+    private static StarPowerResponse starPowerScore(Long movieId, List<PersonStats> actors) {
+        double totalScore = 0.0;
+
+        for (PersonStats stats : actors) {
+            totalScore += actorScore(stats.popularity(), stats.creditCount(), stats.highlyRatedCount());
+        }
+
+        // 4️⃣ Τελικό Star Power της ταινίας = μέσος όρος των top ηθοποιών
+        int finalScore = 0;
+        if (!actors.isEmpty()) {
+            finalScore = (int) Math.round(Math.min(100.0, totalScore / actors.size()));
         }
+
+        return new StarPowerResponse(movieId, finalScore);
     }
 
     // ==========================================================
     // 2) AUDIENCE ENGAGEMENT (όπως το είχες – ΔΕΝ το πειράζουμε)
     // ==========================================================
-    public AudienceEngagementResponse calculateAudienceEngagement(Long movieId) {
+    private AudienceEngagementResponse computeAudienceEngagement(Long movieId) {
         try {
             String json = tmdbService.fetchFromTmdb(
                     "/movie/" + movieId,
@@ -142,16 +263,7 @@ public class KpiService {
                     ? ((Number) movie.get("popularity")).doubleValue()
                     : 0.0;
 
-            double normVoteCount = Math.min(1.0, voteCount / 50000.0);
-            double normPopularity = Math.min(1.0, popularity / 300.0);
-            double normVoteAverage = voteAverage / 10.0;
-
-            double engagement =
-                    (normVoteCount * 50) +
-                            (normVoteAverage * 30) +
-                            (normPopularity * 20);
-
-            int finalScore = (int) Math.round(Math.min(100, engagement));
+            int finalScore = (int) Math.round(engagementScore(voteCount, voteAverage, popularity));
 
             return new AudienceEngagementResponse(movieId, finalScore);
 
@@ -160,4 +272,50 @@ public class KpiService {
             throw new RuntimeException("Failed to compute audience engagement score");
         }
     }
+
+    // ==========================================================
+    // 3) ΤΥΠΟΙ (κοινοί με τα catalog leaderboards)
+    // ==========================================================
+
+    /**
+     * Score ηθοποιού 0–100 (weights: 50% popularity, 30% career, 20% awards).
+     */
+    public static double actorScore(double popularity, int creditCount, int highlyRatedCount) {
+        // Κανονικοποίηση 0–100 (λίγο «γενναιόδωρη» για γνωστούς ηθοποιούς)
+        double popularityScore = Math.min(100.0, popularity * 4.0);
+        double careerScore = Math.min(100.0, creditCount * 1.0);
+        // Proxy «βραβείων» = πόσες ταινίες με vote_average ≥ 7.5
+        double awardScore = Math.min(100.0, highlyRatedCount * 4.0);
+
+        return (popularityScore * 0.5) +
+                (careerScore * 0.3) +
+                (awardScore * 0.2);
+    }
+
+    /**
+     * Audience Engagement 0–100, πριν το rounding.
+     */
+    public static double engagementScore(int voteCount, double voteAverage, double popularity) {
+        double normVoteCount = Math.min(1.0, voteCount / 50000.0);
+        double normPopularity = Math.min(1.0, popularity / 300.0);
+        double normVoteAverage = voteAverage / 10.0;
+
+        double engagement =
+                (normVoteCount * 50) +
+                        (normVoteAverage * 30) +
+                        (normPopularity * 20);
+
+        return Math.min(100, engagement);
+    }
+
+    // =================== helpers ===================
+
+    // το CompletableFuture.supplyAsync πετάει το RejectedExecutionException στον caller
+    private static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
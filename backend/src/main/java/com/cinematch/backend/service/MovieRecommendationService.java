@@ -3,230 +3,347 @@ package com.cinematch.backend.service;
 import com.cinematch.backend.dto.MovieResultDto;
 import com.cinematch.backend.dto.MovieSearchResponse;
 import com.cinematch.backend.dto.PreferenceScoreDto;
+import com.cinematch.backend.dto.RecommendationBatchDto;
+import com.cinematch.backend.dto.RecommendationPageResponse;
+import com.cinematch.backend.dto.SimilarItemDto;
+import com.cinematch.backend.dto.TrendingMovieDto;
 import com.cinematch.backend.model.User;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.cinematch.backend.service.preference.PreferenceProfile;
+import com.cinematch.backend.service.preference.PreferenceProfileStore;
+import com.cinematch.backend.service.recommendation.ItemSimilarityService;
+import com.cinematch.backend.service.recommendation.RecommendationCursorCodec;
+import com.cinematch.backend.service.recommendation.RecommendationSnapshotStore;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.time.Year;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
-@RequiredArgsConstructor
 public class MovieRecommendationService {
 
-    private final ObjectMapper objectMapper;
     private final TmdbService tmdbService;
+    private final PreferenceProfileStore preferenceProfileStore;
+    private final ItemSimilarityService itemSimilarityService;
+    private final QuizCandidatePoolService quizCandidatePoolService;
+    private final RecommendationSnapshotStore snapshotStore;
+    private final RecommendationCursorCodec cursorCodec;
+    private final Executor tmdbExecutor;
+
+    // πόσα item-to-item (co-occurrence) movies μπαίνουν πρώτα στις προτάσεις
+    private static final int MAX_COLLABORATIVE = 5;
+
+    private static final int MAX_RESULTS = 60;
+    private static final int MIN_BEFORE_TRENDING = 20;
+
+    public MovieRecommendationService(TmdbService tmdbService,
+                                      PreferenceProfileStore preferenceProfileStore,
+                                      ItemSimilarityService itemSimilarityService,
+                                      QuizCandidatePoolService quizCandidatePoolService,
+                                      RecommendationSnapshotStore snapshotStore,
+                                      RecommendationCursorCodec cursorCodec,
+                                      @Qualifier("tmdbExecutor") Executor tmdbExecutor) {
+        this.tmdbService = tmdbService;
+        this.preferenceProfileStore = preferenceProfileStore;
+        this.itemSimilarityService = itemSimilarityService;
+        this.quizCandidatePoolService = quizCandidatePoolService;
+        this.snapshotStore = snapshotStore;
+        this.cursorCodec = cursorCodec;
+        this.tmdbExecutor = tmdbExecutor;
+    }
 
     // -------------------------------------------------------------------------
     // FIXED: Recommendations by Genres (NOT comma-AND). We do per-genre discover + merge.
     // -------------------------------------------------------------------------
     public MovieSearchResponse getRecommendationsForUser(User user) {
+        MovieSearchResponse out = new MovieSearchResponse();
+        out.setResults(rankRecommendations(user, new Random()));
+        return out;
+    }
 
-        List<PreferenceScoreDto> genres = parse(user.getTopGenres());
-        List<PreferenceScoreDto> actors = parse(user.getTopActors());
-        List<PreferenceScoreDto> directors = parse(user.getTopDirectors());
-
-        boolean hasData = !genres.isEmpty() || !actors.isEmpty() || !directors.isEmpty();
-        if (!hasData) {
-            return trendingFallback();
+    // -------------------------------------------------------------------------
+    // CURSOR PAGING: η πρώτη σελίδα υπολογίζει & αποθηκεύει το ranked snapshot,
+    // οι επόμενες διαβάζουν μόνο από αυτό (χωρίς TMDb calls).
+    // -------------------------------------------------------------------------
+    public RecommendationPageResponse getRecommendationsPage(User user, String cursor, int limit) {
+
+        RecommendationSnapshotStore.Snapshot snapshot;
+        int offset;
+
+        if (cursor == null || cursor.isBlank()) {
+            long seed = snapshotStore.newSeed();
+            List<MovieResultDto> ranked = rankRecommendations(user, new Random(seed));
+            snapshot = snapshotStore.save(user.getId(), seed, ranked);
+            offset = 0;
+        } else {
+            RecommendationCursorCodec.Cursor c = cursorCodec.decode(cursor);
+            if (c.userId() != user.getId()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            snapshot = snapshotStore.find(c.snapshotId());
+            if (snapshot == null) {
+                throw new IllegalStateException("Cursor expired");
+            }
+            offset = c.offset();
         }
 
+        List<MovieResultDto> items = snapshot.items();
+        int from = Math.min(offset, items.size());
+        int to = Math.min(from + limit, items.size());
 
+        String next = to < items.size()
+                ? cursorCodec.encode(new RecommendationCursorCodec.Cursor(user.getId(), snapshot.id(), to))
+                : null;
+
+        return RecommendationPageResponse.builder()
+                .results(items.subList(from, to))
+                .nextCursor(next)
+                .total(items.size())
+                .build();
+    }
+
+    private List<MovieResultDto> rankRecommendations(User user, Random rnd) {
+
+        List<Source> sources = planSources(user, rnd);
+        if (sources.isEmpty()) {
+            return trendingFallback().getResults();
+        }
 
         Map<Integer, MovieResultDto> unique = new LinkedHashMap<>();
-        Random rnd = new Random();
+
+        // σειριακά, με τη σειρά του plan: item-to-item, genres, actors, directors
+        for (Source s : sources) {
+            // stop early if we already have enough
+            if (unique.size() >= MAX_RESULTS) break;
+            addAll(unique, fetch(s));
+        }
+
+        // Fallback if still very few -> trending fill (NOT replace)
+        if (unique.size() < MIN_BEFORE_TRENDING) {
+            MovieSearchResponse tr = trendingFallback();
+            addResults(unique, tr);
+        }
+
+        // Filter out extremely “empty” items (optional but helps UI quality)
+        List<MovieResultDto> results = unique.values().stream()
+                .filter(MovieRecommendationService::isDisplayable)
+                .limit(MAX_RESULTS)
+                .toList();
+
+        if (results.isEmpty()) {
+            return trendingFallback().getResults();
+        }
+
+        return results;
+    }
+
+    // -------------------------------------------------------------------------
+    // STREAMING: όλες οι πηγές τρέχουν παράλληλα στο tmdbExecutor και κάθε batch
+    // (deduplicated + filtered) φεύγει μόλις τελειώσει το δικό του call.
+    // Το onBatch καλείται serialized. Το future δίνει το σύνολο των movies που στάλθηκαν.
+    // -------------------------------------------------------------------------
+    public CompletableFuture<Integer> streamRecommendations(User user, Consumer<RecommendationBatchDto> onBatch) {
+
+        List<Source> sources = new ArrayList<>(planSources(user, new Random()));
+        // χωρίς preferences το trending είναι η μόνη πηγή: δεν το ξαναζητάμε ως fill στο τέλος
+        boolean trendingPlanned = sources.isEmpty();
+        if (trendingPlanned) {
+            sources.add(trendingSource());
+        }
+
+        // top genre πρώτο στο executor -> πρώτο batch όσο πιο γρήγορα γίνεται
+        sources.sort(Comparator.comparingInt(Source::priority));
+
+        StreamState state = new StreamState(onBatch);
+
+        CompletableFuture<?>[] calls = sources.stream()
+                .map(s -> CompletableFuture
+                        .supplyAsync(() -> fetch(s), tmdbExecutor)
+                        .thenAccept(movies -> state.emit(s.name(), movies)))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(calls).thenApply(v -> {
+            if (!trendingPlanned && state.emitted < MIN_BEFORE_TRENDING) {
+                state.emit("trending", fetch(trendingSource()));
+            }
+            return state.emitted;
+        });
+    }
+
+    /**
+     * Μία πηγή recommendations = ένα TMDb call.
+     * priority: σειρά υποβολής στο streaming (μικρότερο = νωρίτερα).
+     */
+    private record Source(String name, int priority, Supplier<List<MovieResultDto>> call) {
+    }
+
+    /**
+     * Οι πηγές με τη σειρά που τις συνδυάζει το ranking. Κενή λίστα = δεν υπάρχουν preferences.
+     * Τα random pages τραβιούνται εδώ, ώστε το ίδιο seed να δίνει το ίδιο plan.
+     */
+    private List<Source> planSources(User user, Random rnd) {
+
+        PreferenceProfile profile = preferenceProfileStore.load(user);
+        List<PreferenceScoreDto> genres = profile.genres();
+        List<PreferenceScoreDto> actors = profile.actors();
+        List<PreferenceScoreDto> directors = profile.directors();
+        List<SimilarItemDto> collaborative =
+                itemSimilarityService.recommendForUser(user.getId(), MAX_COLLABORATIVE);
+
+        List<Source> sources = new ArrayList<>();
+
+        // 0) ITEM-TO-ITEM ("users who opened X also opened")
+        for (SimilarItemDto s : collaborative) {
+            sources.add(new Source("similar:" + s.getMovieId(), 1, () -> {
+                MovieResultDto card = tmdbService.getMovieCard(s.getMovieId());
+                return card != null ? List.of(card) : List.of();
+            }));
+        }
 
         // 1) GENRES (per-genre discover, weighted by score order)
         // Action first (28) -> more chances to contribute results
         int maxGenreCalls = 5; // top N genres
+        boolean top = true;
         for (PreferenceScoreDto g : genres.stream().limit(maxGenreCalls).toList()) {
             if (g.getId() == null) continue;
 
             String genreIdStr = String.valueOf(g.getId());
 
             // 2 pages for top genre, 1 page for the rest (simple weighting)
-            int pages = (g.equals(genres.get(0)) ? 2 : 1);
+            int pages = top ? 2 : 1;
 
             for (int p = 0; p < pages; p++) {
-                safeAddDiscover(unique,
-                        1 + rnd.nextInt(2),           // page 1-2
-                        "popularity.desc",
-                        genreIdStr,                  // SINGLE GENRE ID (not CSV)
-                        null,
-                        null
-                );
+                int page = 1 + rnd.nextInt(2);  // page 1-2
+                sources.add(new Source(
+                        "genre:" + genreIdStr,
+                        top && p == 0 ? 0 : 2,
+                        () -> discover(page, genreIdStr, null, null)   // SINGLE GENRE ID (not CSV)
+                ));
             }
-
-            // stop early if we already have enough
-            if (unique.size() >= 60) break;
+            top = false;
         }
 
         // 2) ACTORS (works well already, keep it as-is)
         // Use only top few, but keep CSV for cast (it's okay)
-        if (unique.size() < 60 && !actors.isEmpty()) {
-            String withCastCsv = joinIds(actors, 3); // comma is fine here
-            safeAddDiscover(unique, 1, "popularity.desc", null, withCastCsv, null);
+        String withCastCsv = joinIds(actors, 3); // comma is fine here
+        if (withCastCsv != null) {
+            sources.add(new Source("cast", 3, () -> discover(1, null, withCastCsv, null)));
         }
 
         // 3) DIRECTORS (works well already, keep it as-is)
-        if (unique.size() < 60 && !directors.isEmpty()) {
-            String withCrewCsv = joinIds(directors, 2);
-            safeAddDiscover(unique, 1, "popularity.desc", null, null, withCrewCsv);
+        String withCrewCsv = joinIds(directors, 2);
+        if (withCrewCsv != null) {
+            sources.add(new Source("crew", 4, () -> discover(1, null, null, withCrewCsv)));
         }
 
-        // 4) Fallback if still very few -> trending fill (NOT replace)
-        if (unique.size() < 20) {
-            MovieSearchResponse tr = trendingFallback();
-            addResults(unique, tr);
-        }
+        return sources;
+    }
 
-        // Filter out extremely “empty” items (optional but helps UI quality)
-        List<MovieResultDto> results = unique.values().stream()
-                .filter(m -> m != null && m.getTitle() != null && !m.getTitle().isBlank())
-                .filter(m -> m.getPoster_path() != null && !m.getPoster_path().isBlank())
-                .limit(60)
-                .toList();
+    private Source trendingSource() {
+        return new Source("trending", 5, () -> trendingFallback().getResults());
+    }
 
-        MovieSearchResponse out = new MovieSearchResponse();
-        out.setResults(results);
+    private List<MovieResultDto> discover(int page, String withGenresCsv, String withCastCsv, String withCrewCsv) {
+        MovieSearchResponse r = tmdbService.discoverMovies(
+                page,
+                "popularity.desc",
+                withGenresCsv,
+                withCastCsv,
+                withCrewCsv
+        );
+        return r != null && r.getResults() != null ? r.getResults() : List.of();
+    }
 
-        if (out.getResults() == null || out.getResults().isEmpty()) {
-            return trendingFallback();
+    private List<MovieResultDto> fetch(Source source) {
+        try {
+            List<MovieResultDto> movies = source.call().get();
+            return movies != null ? movies : List.of();
+        } catch (Exception ignored) {
+            return List.of();
         }
-
-        return out;
     }
 
-    private void safeAddDiscover(
-            Map<Integer, MovieResultDto> unique,
-            int page,
-            String sortBy,
-            String withGenresCsv,
-            String withCastCsv,
-            String withCrewCsv
-    ) {
-        boolean empty =
-                (withGenresCsv == null || withGenresCsv.isBlank()) &&
-                        (withCastCsv == null || withCastCsv.isBlank()) &&
-                        (withCrewCsv == null || withCrewCsv.isBlank());
-
-        if (empty) return;
+    /**
+     * Dedupe + filtering για το streaming. Τα batches έρχονται από διαφορετικά
+     * threads, οπότε όλο το emit γίνεται κάτω από το ίδιο lock.
+     */
+    private static final class StreamState {
+        private final Consumer<RecommendationBatchDto> onBatch;
+        private final Set<Integer> seen = new HashSet<>();
+        private int emitted;
+
+        private StreamState(Consumer<RecommendationBatchDto> onBatch) {
+            this.onBatch = onBatch;
+        }
 
-        try {
-            MovieSearchResponse r = tmdbService.discoverMovies(
-                    page,
-                    sortBy,
-                    withGenresCsv,
-                    withCastCsv,
-                    withCrewCsv
-            );
-            addResults(unique, r);
-        } catch (Exception ignored) {}
+        synchronized void emit(String source, List<MovieResultDto> movies) {
+            List<MovieResultDto> fresh = new ArrayList<>();
+            for (MovieResultDto m : movies) {
+                if (emitted + fresh.size() >= MAX_RESULTS) break;
+                if (m == null || m.getId() <= 0 || !isDisplayable(m)) continue;
+                if (seen.add(m.getId())) fresh.add(m);
+            }
+            if (fresh.isEmpty()) return;
+
+            emitted += fresh.size();
+            onBatch.accept(new RecommendationBatchDto(source, fresh));
+        }
     }
 
     // -------------------------------------------------------------------------
-    // QUIZ FEATURE (same as you had)
+    // QUIZ FEATURE: sampling από τα pre-fetched pools (χωρίς TMDb calls στο request)
     // -------------------------------------------------------------------------
     public List<MovieResultDto> getQuizCandidatesForUser(User user, int targetCount) {
 
-        if (user == null) {
-            MovieSearchResponse tr = trendingFallback();
-            List<MovieResultDto> out = new ArrayList<>(tr.getResults() == null ? List.of() : tr.getResults());
-            out.removeIf(m -> !isAcceptableForQuiz(m));
-            Collections.shuffle(out, new Random());
-            return out.size() > targetCount ? out.subList(0, targetCount) : out;
-        }
+        Random rnd = new Random();
 
-        List<PreferenceScoreDto> genres = parse(user.getTopGenres());
-        List<PreferenceScoreDto> actors = parse(user.getTopActors());
-        List<PreferenceScoreDto> directors = parse(user.getTopDirectors());
+        PreferenceProfile profile = preferenceProfileStore.load(user);
+        List<PreferenceScoreDto> genres = profile.genres();
+        List<PreferenceScoreDto> actors = profile.actors();
+        List<PreferenceScoreDto> directors = profile.directors();
 
         boolean hasPrefs = !genres.isEmpty() || !actors.isEmpty() || !directors.isEmpty();
         if (!hasPrefs) {
-            MovieSearchResponse tr = trendingFallback();
-            List<MovieResultDto> out = new ArrayList<>(tr.getResults() == null ? List.of() : tr.getResults());
-            out.removeIf(m -> !isAcceptableForQuiz(m));
-            Collections.shuffle(out, new Random());
-            return out.size() > targetCount ? out.subList(0, targetCount) : out;
+            return sampleTrending(targetCount, rnd);
         }
 
-        Random rnd = new Random();
-        List<String> sorts = List.of(
-                "popularity.desc",
-                "vote_average.desc",
-                "revenue.desc"
-        );
-
         Map<Integer, MovieResultDto> unique = new LinkedHashMap<>();
 
         int maxGenre = 6;
         int maxActor = 3;
         int maxDirector = 2;
 
+        // ~όσα έδιναν πριν τα 2 explore calls ανά genre / 1 ανά person
+        int perGenre = 40;
+        int perPerson = 20;
+
         // 1) GENRES
         for (PreferenceScoreDto g : genres.stream().limit(maxGenre).toList()) {
-            Integer genreId = g.getId() != null ? g.getId().intValue() : null;
-            if (genreId == null) continue;
-
-            for (int i = 0; i < 2; i++) {
-                MovieSearchResponse r = tmdbService.exploreMovies(
-                        1 + rnd.nextInt(3),
-                        sorts.get(rnd.nextInt(sorts.size())),
-                        null, null,
-                        5.5,
-                        null, null,
-                        genreId
-                );
-                addResults(unique, r);
-            }
+            sampleInto(unique, quizCandidatePoolService.genrePool(g.getId()), perGenre, rnd);
         }
 
         // 2) ACTORS
         for (PreferenceScoreDto a : actors.stream().limit(maxActor).toList()) {
-            Long castId = a.getId();
-            if (castId == null) continue;
-
-            MovieSearchResponse r = tmdbService.exploreMovies(
-                    1 + rnd.nextInt(3),
-                    "popularity.desc",
-                    null, null,
-                    5.5,
-                    castId,
-                    null,
-                    null
-            );
-            addResults(unique, r);
+            sampleInto(unique, quizCandidatePoolService.actorPool(a.getId()), perPerson, rnd);
         }
 
         // 3) DIRECTORS
         for (PreferenceScoreDto d : directors.stream().limit(maxDirector).toList()) {
-            Long crewId = d.getId();
-            if (crewId == null) continue;
-
-            MovieSearchResponse r = tmdbService.exploreMovies(
-                    1 + rnd.nextInt(3),
-                    "popularity.desc",
-                    null, null,
-                    5.5,
-                    null,
-                    crewId,
-                    null
-            );
-            addResults(unique, r);
+            sampleInto(unique, quizCandidatePoolService.directorPool(d.getId()), perPerson, rnd);
         }
 
         // 4) Fill with trending if low
         if (unique.size() < Math.max(30, targetCount / 2)) {
-            MovieSearchResponse tr = trendingFallback();
-            addResults(unique, tr);
+            for (MovieResultDto m : sampleTrending(targetCount, rnd)) {
+                unique.putIfAbsent(m.getId(), m);
+            }
         }
 
-        // 5) Final filter
+        // 5) Τα pools είναι ήδη φιλτραρισμένα (isAcceptableForQuiz)
         List<MovieResultDto> out = new ArrayList<>(unique.values());
-        out.removeIf(m -> !isAcceptableForQuiz(m));
-
         Collections.shuffle(out, rnd);
 
         if (out.size() > targetCount) {
@@ -235,6 +352,40 @@ public class MovieRecommendationService {
         return out;
     }
 
+    private List<MovieResultDto> sampleTrending(int targetCount, Random rnd) {
+        List<MovieResultDto> out = new ArrayList<>(quizCandidatePoolService.trendingPool());
+
+        // cold start (πριν το πρώτο refresh): ένα live trending call
+        if (out.isEmpty()) {
+            MovieSearchResponse tr = trendingFallback();
+            if (tr.getResults() != null) out.addAll(tr.getResults());
+            out.removeIf(m -> !QuizCandidatePoolService.isAcceptableForQuiz(m));
+        }
+
+        Collections.shuffle(out, rnd);
+        return out.size() > targetCount ? out.subList(0, targetCount) : out;
+    }
+
+    // partial Fisher-Yates πάνω σε αντίγραφο των indices: O(count), το pool μένει αμετάβλητο
+    private void sampleInto(Map<Integer, MovieResultDto> unique, List<MovieResultDto> pool, int count, Random rnd) {
+        int n = pool.size();
+        if (n == 0) return;
+
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+
+        int take = Math.min(count, n);
+        for (int i = 0; i < take; i++) {
+            int j = i + rnd.nextInt(n - i);
+            int tmp = idx[i];
+            idx[i] = idx[j];
+            idx[j] = tmp;
+
+            MovieResultDto m = pool.get(idx[i]);
+            unique.putIfAbsent(m.getId(), m);
+        }
+    }
+
     // -------------------------------------------------------------------------
     // HELPERS
     // -------------------------------------------------------------------------
@@ -242,24 +393,31 @@ public class MovieRecommendationService {
         MovieSearchResponse response = new MovieSearchResponse();
         response.setResults(
                 tmdbService.getTrendingMovies("day").stream()
-                        .map(t -> {
-                            MovieResultDto m = new MovieResultDto();
-                            m.setId(t.getId().intValue());
-                            m.setTitle(t.getTitle());
-                            m.setOverview(t.getOverview());
-                            m.setPoster_path(t.getPosterPath());
-                            m.setRelease_date(t.getReleaseDate());
-                            m.setPopularity(t.getPopularity());
-                            return m;
-                        })
+                        .map(MovieRecommendationService::toMovieResult)
                         .toList()
         );
         return response;
     }
 
+    static MovieResultDto toMovieResult(TrendingMovieDto t) {
+        MovieResultDto m = new MovieResultDto();
+        m.setId(t.getId().intValue());
+        m.setTitle(t.getTitle());
+        m.setOverview(t.getOverview());
+        m.setPoster_path(t.getPosterPath());
+        m.setRelease_date(t.getReleaseDate());
+        m.setPopularity(t.getPopularity());
+        return m;
+    }
+
     private void addResults(Map<Integer, MovieResultDto> unique, MovieSearchResponse response) {
-        if (response == null || response.getResults() == null) return;
-        for (MovieResultDto m : response.getResults()) {
+        if (response == null) return;
+        addAll(unique, response.getResults());
+    }
+
+    private void addAll(Map<Integer, MovieResultDto> unique, List<MovieResultDto> movies) {
+        if (movies == null) return;
+        for (MovieResultDto m : movies) {
             if (m == null) continue;
             int id = m.getId();
             if (id <= 0) continue;
@@ -267,29 +425,10 @@ public class MovieRecommendationService {
         }
     }
 
-    private boolean isAcceptableForQuiz(MovieResultDto m) {
-        if (m == null) return false;
-        if (m.getTitle() == null || m.getTitle().isBlank()) return false;
-
-        Integer y = extractYear(m.getRelease_date());
-        if (y == null) return false;
-        int maxYear = Year.now().getValue() - 1;
-        if (y > maxYear) return false;
-
-        if (m.getOverview() == null || m.getOverview().trim().length() < 60) return false;
-
-        try {
-            Double pop = m.getPopularity();
-            if (pop != null && pop < 5.0) return false;
-        } catch (Exception ignored) {}
-
-        return true;
-    }
-
-    private Integer extractYear(String releaseDate) {
-        if (releaseDate == null || releaseDate.length() < 4) return null;
-        try { return Integer.parseInt(releaseDate.substring(0, 4)); }
-        catch (Exception e) { return null; }
+    private static boolean isDisplayable(MovieResultDto m) {
+        return m != null
+                && m.getTitle() != null && !m.getTitle().isBlank()
+                && m.getPoster_path() != null && !m.getPoster_path().isBlank();
     }
 
     private String joinIds(List<PreferenceScoreDto> list, int limit) {
@@ -303,13 +442,4 @@ public class MovieRecommendationService {
                 .reduce((a, b) -> a + "," + b)
                 .orElse(null);
     }
-
-    private List<PreferenceScoreDto> parse(String json) {
-        if (json == null || json.isBlank()) return Collections.emptyList();
-        try {
-            return objectMapper.readValue(json, new TypeReference<List<PreferenceScoreDto>>() {});
-        } catch (Exception e) {
-            return Collections.emptyList();
-        }
-    }
 }
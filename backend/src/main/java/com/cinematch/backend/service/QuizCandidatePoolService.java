@@ -0,0 +1,323 @@
+package com.cinematch.backend.service;
+
+import com.cinematch.backend.dto.GenreDto;
+import com.cinematch.backend.dto.GenreListResponse;
+import com.cinematch.backend.dto.MovieResultDto;
+import com.cinematch.backend.dto.MovieSearchResponse;
+import com.cinematch.backend.dto.TrendingPersonDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Κοινόχρηστα, pre-filtered pools από movies για το quiz.
+ *
+ * Ένα background job γεμίζει pools ανά genre id και ανά popular person (actor / director),
+ * ώστε το /quiz/start να κάνει μόνο sampling στη μνήμη αντί για ~15 σειριακά TMDb calls.
+ * Persons που ζητάει κάποιο profile αλλά δεν έχουν ακόμα pool μπαίνουν σε ουρά
+ * και γεμίζουν από ένα πιο συχνό job.
+ *
+ * Τα TMDb fetches (έως εκατοντάδες σειριακά calls) τρέχουν σε δικό τους thread, όχι στο
+ * scheduler thread: το @Scheduled απλώς κάνει submit, ώστε τα υπόλοιπα jobs να μην περιμένουν.
+ * Ένα thread για refresh και fill μαζί, άρα τα person pools δεν γράφονται ποτέ παράλληλα.
+ */
+@Service
+@Slf4j
+public class QuizCandidatePoolService {
+
+    private static final List<String> SORTS = List.of(
+            "popularity.desc",
+            "vote_average.desc",
+            "revenue.desc"
+    );
+
+    private static final double MIN_RATING = 5.5;
+    private static final long REQUEST_TTL_MS = 24L * 60 * 60 * 1000;
+
+    private final TmdbService tmdbService;
+    private final int pagesPerSort;
+    private final int maxPoolSize;
+    private final int maxPersonPools;
+    private final int pendingPerRun;
+
+    // volatile snapshots: το refresh χτίζει νέα maps και τα κάνει swap
+    private volatile Map<Long, List<MovieResultDto>> genrePools = Map.of();
+    private volatile List<MovieResultDto> trendingPool = List.of();
+
+    private final Map<Long, List<MovieResultDto>> actorPools = new ConcurrentHashMap<>();
+    private final Map<Long, List<MovieResultDto>> directorPools = new ConcurrentHashMap<>();
+
+    // personId -> τελευταία φορά που το ζήτησε κάποιο quiz
+    private final Map<Long, Long> requestedActors = new ConcurrentHashMap<>();
+    private final Map<Long, Long> requestedDirectors = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final AtomicBoolean fillQueued = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "quiz-pools");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public QuizCandidatePoolService(
+            TmdbService tmdbService,
+            @Value("${quiz.pools.pages-per-sort:1}") int pagesPerSort,
+            @Value("${quiz.pools.max-pool-size:200}") int maxPoolSize,
+            @Value("${quiz.pools.max-person-pools:300}") int maxPersonPools,
+            @Value("${quiz.pools.pending-persons-per-run:10}") int pendingPerRun
+    ) {
+        this.tmdbService = tmdbService;
+        this.pagesPerSort = Math.max(1, pagesPerSort);
+        this.maxPoolSize = maxPoolSize;
+        this.maxPersonPools = maxPersonPools;
+        this.pendingPerRun = pendingPerRun;
+    }
+
+    // =====================================================
+    //                  READ (request path)
+    // =====================================================
+    public List<MovieResultDto> genrePool(Long genreId) {
+        if (genreId == null) return List.of();
+        return genrePools.getOrDefault(genreId, List.of());
+    }
+
+    public List<MovieResultDto> actorPool(Long personId) {
+        if (personId == null) return List.of();
+        List<MovieResultDto> pool = actorPools.get(personId);
+        if (pool == null) requestedActors.put(personId, System.currentTimeMillis());
+        return pool != null ? pool : List.of();
+    }
+
+    public List<MovieResultDto> directorPool(Long personId) {
+        if (personId == null) return List.of();
+        List<MovieResultDto> pool = directorPools.get(personId);
+        if (pool == null) requestedDirectors.put(personId, System.currentTimeMillis());
+        return pool != null ? pool : List.of();
+    }
+
+    public List<MovieResultDto> trendingPool() {
+        return trendingPool;
+    }
+
+    public boolean isWarm() {
+        return !genrePools.isEmpty();
+    }
+
+    // =====================================================
+    //                  BACKGROUND REFRESH
+    // =====================================================
+    @Scheduled(
+            initialDelayString = "${quiz.pools.initial-delay-ms:5000}",
+            fixedDelayString = "${quiz.pools.refresh-ms:1800000}"
+    )
+    public void refreshAll() {
+        submit(refreshQueued, this::refreshAllNow);
+    }
+
+    /**
+     * Γεμίζει pools για persons που ζητήθηκαν από profiles και δεν έχουν ακόμα pool.
+     */
+    @Scheduled(
+            initialDelayString = "${quiz.pools.initial-delay-ms:5000}",
+            fixedDelayString = "${quiz.pools.pending-refresh-ms:30000}"
+    )
+    public void fillRequestedPersons() {
+        submit(fillQueued, this::fillRequestedPersonsNow);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // ένα task ανά είδος στην ουρά: αν το προηγούμενο δεν έχει ξεκινήσει/τελειώσει, το tick χάνεται
+    private void submit(AtomicBoolean queued, Runnable task) {
+        if (!queued.compareAndSet(false, true)) return;
+        try {
+            worker.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("[QuizCandidatePoolService] Background refresh failed: {}", e.getMessage());
+                } finally {
+                    queued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.set(false);
+        }
+    }
+
+    private void refreshAllNow() {
+        long started = System.currentTimeMillis();
+
+        refreshGenrePools();
+        refreshTrendingPool();
+        refreshPersonPools();
+
+        log.info("[QuizCandidatePoolService] Refreshed {} genre pools, {} actor pools, {} director pools in {} ms",
+                genrePools.size(), actorPools.size(), directorPools.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    private void fillRequestedPersonsNow() {
+        int budget = pendingPerRun;
+        budget = fillMissing(requestedActors, actorPools, true, budget);
+        fillMissing(requestedDirectors, directorPools, false, budget);
+    }
+
+    private void refreshGenrePools() {
+        try {
+            GenreListResponse genres = tmdbService.getMovieGenres();
+            if (genres == null || genres.getGenres() == null) return;
+
+            Map<Long, List<MovieResultDto>> next = new HashMap<>();
+            for (GenreDto g : genres.getGenres()) {
+                Map<Integer, MovieResultDto> unique = new LinkedHashMap<>();
+                for (String sort : SORTS) {
+                    for (int page = 1; page <= pagesPerSort; page++) {
+                        addAcceptable(unique, safeExplore(page, sort, null, null, g.getId()));
+                    }
+                }
+                next.put((long) g.getId(), freeze(unique));
+            }
+
+            if (!next.isEmpty()) genrePools = Map.copyOf(next);
+
+        } catch (Exception e) {
+            log.warn("[QuizCandidatePoolService] Genre pools refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void refreshTrendingPool() {
+        try {
+            Map<Integer, MovieResultDto> unique = new LinkedHashMap<>();
+            for (String window : List.of("day", "week")) {
+                tmdbService.getTrendingMovies(window).stream()
+                        .map(MovieRecommendationService::toMovieResult)
+                        .filter(QuizCandidatePoolService::isAcceptableForQuiz)
+                        .forEach(m -> unique.putIfAbsent(m.getId(), m));
+            }
+            if (!unique.isEmpty()) trendingPool = freeze(unique);
+
+        } catch (Exception e) {
+            log.warn("[QuizCandidatePoolService] Trending pool refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void refreshPersonPools() {
+        long cutoff = System.currentTimeMillis() - REQUEST_TTL_MS;
+        requestedActors.values().removeIf(t -> t < cutoff);
+        requestedDirectors.values().removeIf(t -> t < cutoff);
+
+        Set<Long> actors = new LinkedHashSet<>(requestedActors.keySet());
+        Set<Long> directors = new LinkedHashSet<>(requestedDirectors.keySet());
+
+        try {
+            tmdbService.getTrendingActors("week").stream()
+                    .map(TrendingPersonDto::getId)
+                    .forEach(actors::add);
+            tmdbService.getTrendingDirectors("week").stream()
+                    .map(TrendingPersonDto::getId)
+                    .forEach(directors::add);
+        } catch (Exception e) {
+            log.warn("[QuizCandidatePoolService] Trending persons failed: {}", e.getMessage());
+        }
+
+        rebuildPersonPools(actors, actorPools, true);
+        rebuildPersonPools(directors, directorPools, false);
+    }
+
+    private void rebuildPersonPools(Set<Long> ids, Map<Long, List<MovieResultDto>> pools, boolean actor) {
+        Set<Long> keep = new HashSet<>();
+        for (Long id : ids) {
+            if (id == null || keep.size() >= maxPersonPools) continue;
+            keep.add(id);
+            pools.put(id, fetchPersonPool(id, actor));
+        }
+        pools.keySet().retainAll(keep);
+    }
+
+    private int fillMissing(Map<Long, Long> requested,
+                            Map<Long, List<MovieResultDto>> pools,
+                            boolean actor,
+                            int budget) {
+        for (Long id : requested.keySet()) {
+            if (budget <= 0 || pools.size() >= maxPersonPools) break;
+            if (pools.containsKey(id)) continue;
+
+            pools.put(id, fetchPersonPool(id, actor));
+            budget--;
+        }
+        return budget;
+    }
+
+    private List<MovieResultDto> fetchPersonPool(Long personId, boolean actor) {
+        Map<Integer, MovieResultDto> unique = new LinkedHashMap<>();
+        for (int page = 1; page <= pagesPerSort; page++) {
+            addAcceptable(unique, safeExplore(
+                    page,
+                    "popularity.desc",
+                    actor ? personId : null,
+                    actor ? null : personId,
+                    null
+            ));
+        }
+        return freeze(unique);
+    }
+
+    // =================== helpers ===================
+
+    private MovieSearchResponse safeExplore(int page, String sort, Long castId, Long crewId, Integer genreId) {
+        try {
+            return tmdbService.exploreMovies(page, sort, null, null, MIN_RATING, castId, crewId, genreId);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void addAcceptable(Map<Integer, MovieResultDto> unique, MovieSearchResponse response) {
+        if (response == null || response.getResults() == null) return;
+        for (MovieResultDto m : response.getResults()) {
+            if (unique.size() >= maxPoolSize) return;
+            if (isAcceptableForQuiz(m)) unique.putIfAbsent(m.getId(), m);
+        }
+    }
+
+    private List<MovieResultDto> freeze(Map<Integer, MovieResultDto> unique) {
+        return List.copyOf(unique.values());
+    }
+
+    public static boolean isAcceptableForQuiz(MovieResultDto m) {
+        if (m == null || m.getId() <= 0) return false;
+        if (m.getTitle() == null || m.getTitle().isBlank()) return false;
+
+        Integer y = extractYear(m.getRelease_date());
+        if (y == null) return false;
+        int maxYear = Year.now().getValue() - 1;
+        if (y > maxYear) return false;
+
+        if (m.getOverview() == null || m.getOverview().trim().length() < 60) return false;
+
+        Double pop = m.getPopularity();
+        if (pop != null && pop < 5.0) return false;
+
+        return true;
+    }
+
+    private static Integer extractYear(String releaseDate) {
+        if (releaseDate == null || releaseDate.length() < 4) return null;
+        try { return Integer.parseInt(releaseDate.substring(0, 4)); }
+        catch (Exception e) { return null; }
+    }
+}
@@ -0,0 +1,11 @@
+package com.cinematch.backend.service;
+
+/**
+ * Το TMDb απάντησε 404: το movie / person δεν υπάρχει (πλέον). Ένα retry δεν θα βοηθήσει.
+ */
+public class TmdbNotFoundException extends RuntimeException {
+
+    public TmdbNotFoundException(String path) {
+        super("TMDb HTTP Error: 404 NOT_FOUND (" + path + ")");
+    }
+}
@@ -66,6 +66,10 @@ public class TmdbService {
             return response.getBody();
 
         } catch (HttpStatusCodeException ex) {
+            if (ex.getStatusCode().value() == 404) {
+                logger.warn("TMDb 404 for {}", path);
+                throw new TmdbNotFoundException(path);
+            }
             logger.error("TMDb HTTP Error: {} - {}", ex.getStatusCode(), ex.getResponseBodyAsString());
             throw new RuntimeException("TMDb HTTP Error: " + ex.getStatusCode());
         } catch (RestClientException ex) {
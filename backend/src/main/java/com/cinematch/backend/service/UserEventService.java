@@ -3,12 +3,15 @@ package com.cinematch.backend.service;
 import com.cinematch.backend.model.User;
 import com.cinematch.backend.model.UserEvent;
 import com.cinematch.backend.model.UserEventType;
-import com.cinematch.backend.repository.UserEventRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.cinematch.backend.service.event.RecentEventDeduplicator;
+import com.cinematch.backend.service.event.UserEventIngestionPipeline;
+import com.cinematch.backend.service.event.UserEventPayloads;
+import com.cinematch.backend.service.recommendation.ItemSimilarityService;
+import com.cinematch.backend.service.trending.InAppTrendingService;
+import com.cinematch.backend.service.trending.UniqueViewerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Map;
@@ -18,17 +21,12 @@ import java.util.Map;
 @Slf4j
 public class UserEventService {
 
-    private static final int DEDUPE_WINDOW_SECONDS = 5;
-    private static final int PREFS_THROTTLE_SECONDS = 10; // ✅ μην υπολογίζεις preferences σε κάθε click
-    private static final int PREFS_TOP_N = 5;
+    private final RecentEventDeduplicator recentEventDeduplicator;
+    private final ItemSimilarityService itemSimilarityService;
+    private final UserEventIngestionPipeline userEventIngestionPipeline;
+    private final InAppTrendingService inAppTrendingService;
+    private final UniqueViewerService uniqueViewerService;
 
-    private final UserEventRepository userEventRepository;
-    private final ObjectMapper objectMapper;
-
-    // ✅ add
-    private final UserPreferenceService userPreferenceService;
-
-    @Transactional
     public void logEvent(User user, UserEventType type, Map<String, Object> payload) {
         if (user == null) {
             log.debug("Skipping user event {} because user is null", type);
@@ -36,46 +34,40 @@ public class UserEventService {
         }
 
         try {
-            String payloadJson;
-            if (payload == null || payload.isEmpty()) payloadJson = "{}";
-            else payloadJson = objectMapper.writeValueAsString(payload);
-
-            Instant threshold = Instant.now().minusSeconds(DEDUPE_WINDOW_SECONDS);
+            UserEvent event = UserEvent.builder()
+                    .user(user)
+                    .type(type)
+                    .build();
+            UserEventPayloads.apply(event, payload);
 
+            // sliding-window dedupe στη μνήμη (ίδιο type + payload μέσα σε λίγα δευτερόλεπτα)
             boolean existsRecently =
-                    userEventRepository.existsByUser_IdAndTypeAndPayloadAndCreatedAtAfter(
-                            user.getId(),
-                            type,
-                            payloadJson,
-                            threshold
-                    );
+                    recentEventDeduplicator.isDuplicate(user.getId(), type, event.getPayloadHash());
 
             if (existsRecently) {
                 log.debug("Skipping duplicate user event {} for user {}", type, user.getId());
                 return;
             }
 
-            UserEvent event = UserEvent.builder()
-                    .user(user)
-                    .type(type)
-                    .payload(payloadJson)
-                    .build();
-
-            userEventRepository.save(event);
+            // INSERT + preference aggregates γίνονται batched από τον writer της pipeline
+            event.setCreatedAt(Instant.now());
+            if (!userEventIngestionPipeline.submit(user, event)) {
+                log.debug("Shed user event {} for user {} (ingestion queue under pressure)", type, user.getId());
+                return;
+            }
+            // μόνο όταν έγινε δεκτό: ένα retry μετά από shed δεν είναι duplicate
+            recentEventDeduplicator.record(user.getId(), type, event.getPayloadHash());
 
-            // ✅ AUTO-COMPUTE preferences όταν υπάρχει relevant click/filter
-            if (type == UserEventType.CHOOSE_FILTER
-                    || type == UserEventType.OPEN_ACTOR
-                    || type == UserEventType.OPEN_DIRECTOR
-                    || type == UserEventType.OPEN_MOVIE) {
+            // item-to-item co-occurrence (OPEN_MOVIE / LIKE_MOVIE): in-memory, αμέσως
+            if (type == UserEventType.OPEN_MOVIE || type == UserEventType.LIKE_MOVIE) {
+                itemSimilarityService.record(user.getId(), type, event.getMovieId());
+            }
 
-                Instant last = user.getPreferencesLastUpdated();
-                boolean tooSoon = last != null && last.isAfter(Instant.now().minusSeconds(PREFS_THROTTLE_SECONDS));
+            // in-app trending (sliding-window heavy hitters), επίσης in-memory
+            inAppTrendingService.record(event);
 
-                if (!tooSoon) {
-                    userPreferenceService.computeAndPersist(user, PREFS_TOP_N);
-                }
-            }
+            // unique viewers ανά movie / person (HyperLogLog, periodic flush)
+            uniqueViewerService.record(event);
 
         } catch (Exception e) {
             log.error("Failed to log user event {} for user {}: {}", type, user.getId(), e.getMessage(), e);
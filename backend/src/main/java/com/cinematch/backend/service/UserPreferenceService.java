@@ -2,119 +2,124 @@ package com.cinematch.backend.service;
 
 import com.cinematch.backend.dto.PreferenceScoreDto;
 import com.cinematch.backend.dto.UserPreferencesResponseDto;
+import com.cinematch.backend.model.PreferenceDimension;
 import com.cinematch.backend.model.User;
 import com.cinematch.backend.model.UserEvent;
 import com.cinematch.backend.model.UserEventType;
 import com.cinematch.backend.repository.UserEventRepository;
+import com.cinematch.backend.repository.UserPreferenceScoreRepository;
 import com.cinematch.backend.repository.UserRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.cinematch.backend.service.event.UserEventPayloads;
+import com.cinematch.backend.service.preference.PreferenceDecayProperties;
+import com.cinematch.backend.service.preference.PreferenceLocks;
+import com.cinematch.backend.service.preference.PreferenceProfile;
+import com.cinematch.backend.service.preference.PreferenceProfileStore;
+import com.cinematch.backend.service.preference.PreferenceScoreAccumulator;
+import com.cinematch.backend.service.preference.PreferenceSignals;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserPreferenceService {
 
     private final UserEventRepository userEventRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final PreferenceProfileStore preferenceProfileStore;
+    private final UserPreferenceScoreRepository userPreferenceScoreRepository;
+    private final PreferenceDecayProperties preferenceDecayProperties;
+    private final JdbcTemplate jdbcTemplate;
+
+    // το γράψιμο των rebuilt scores σε δικό του transaction: ένα failure εκεί δεν κάνει
+    // rollback-only το transaction του computeAndPersist
+    private final TransactionTemplate scoreWriteTx;
+
+    public UserPreferenceService(UserEventRepository userEventRepository,
+                                 UserRepository userRepository,
+                                 ObjectMapper objectMapper,
+                                 PreferenceProfileStore preferenceProfileStore,
+                                 UserPreferenceScoreRepository userPreferenceScoreRepository,
+                                 PreferenceDecayProperties preferenceDecayProperties,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.userEventRepository = userEventRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.preferenceProfileStore = preferenceProfileStore;
+        this.userPreferenceScoreRepository = userPreferenceScoreRepository;
+        this.preferenceDecayProperties = preferenceDecayProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.scoreWriteTx = new TransactionTemplate(transactionManager);
+        this.scoreWriteTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
-    private static final double FILTER_WEIGHT = 1.0;
-
+    // =====================================================
+    //        INCREMENTAL UPDATE (ένα upsert ανά signal)
+    // =====================================================
+    /**
+     * Ο caller έχει κλειδώσει τον user ({@code PreferenceLocks}) και έχει δει στη DB ότι τα
+     * aggregates είναι ready. Χωρίς aggregates ακόμα, το event το μετράει το rebuild.
+     */
     @Transactional
-    public UserPreferencesResponseDto computeAndPersist(User user, int topN) {
+    public void recordEvent(Long userId, UserEvent event) {
+        if (userId == null || event == null) return;
 
-        List<UserEvent> events =
-                userEventRepository.findTop2000ByUser_IdOrderByCreatedAtDesc(user.getId());
+        UserEventType type = event.getType();
+        if (!PreferenceSignals.isRelevant(type)) return;
 
-        Map<Long, Double> genreScores = new HashMap<>();     // key = genreId
-        Map<Long, Double> actorScores = new HashMap<>();     // key = personId
-        Map<Long, Double> directorScores = new HashMap<>();  // key = personId
+        // reference time = η στιγμή του event, όχι του write: με async writes / spill replay
+        // ένα καθυστερημένο event φθίνει σαν να γράφτηκε τότε
+        Instant at = event.getCreatedAt() != null ? event.getCreatedAt() : Instant.now();
+        double halfLife = preferenceDecayProperties.halfLifeSeconds(type);
 
-        for (UserEvent e : events) {
-            if (e.getPayload() == null || e.getPayload().isBlank()) continue;
-
-            JsonNode node;
-            try {
-                node = objectMapper.readTree(e.getPayload());
-            } catch (Exception ex) {
-                continue;
-            }
-
-            // Σήμερα έχεις σίγουρα CHOOSE_FILTER. (OPEN_MOVIE μπορεί να εμπλουτιστεί αργότερα)
-            if (e.getType() == UserEventType.CHOOSE_FILTER) {
-
-                // genreId
-                if (node.hasNonNull("genreId")) {
-                    long genreId = node.get("genreId").asLong();
-                    addScore(genreScores, genreId, FILTER_WEIGHT);
-                }
-
-                // castId (actor)
-                if (node.hasNonNull("castId")) {
-                    long actorId = node.get("castId").asLong();
-                    addScore(actorScores, actorId, FILTER_WEIGHT);
-                }
-
-                // crewId (director)
-                if (node.hasNonNull("crewId")) {
-                    long directorId = node.get("crewId").asLong();
-                    addScore(directorScores, directorId, FILTER_WEIGHT);
-                }
-            }
-
-            // Optional: αν στο μέλλον βάλεις OPEN_MOVIE payload με genreIds/castId/crewId, θα “πιάσει” εδώ.
-            if (e.getType() == UserEventType.OPEN_MOVIE) {
-                if (node.has("genreIds") && node.get("genreIds").isArray()) {
-                    for (JsonNode g : node.get("genreIds")) {
-                        if (g != null && g.isNumber()) addScore(genreScores, g.asLong(), 1.0);
-                    }
-                }
-                if (node.hasNonNull("castId")) addScore(actorScores, node.get("castId").asLong(), 1.0);
-                if (node.hasNonNull("crewId")) addScore(directorScores, node.get("crewId").asLong(), 1.0);
-            }
-            // actor click event (payload: personId ή actorId)
-            if (e.getType() == UserEventType.OPEN_ACTOR) {
-                Long pid = null;
-
-                if (node.hasNonNull("personId")) pid = node.get("personId").asLong();
-                else if (node.hasNonNull("actorId")) pid = node.get("actorId").asLong();
-                else if (node.hasNonNull("castId")) pid = node.get("castId").asLong();
-
-                if (pid != null) addScore(actorScores, pid, 1.0);
-            }
-            if (e.getType() == UserEventType.OPEN_DIRECTOR) {
-                Long pid = null;
-
-                if (node.hasNonNull("personId")) pid = node.get("personId").asLong();
-                else if (node.hasNonNull("directorId")) pid = node.get("directorId").asLong();
-                else if (node.hasNonNull("crewId")) pid = node.get("crewId").asLong();
-
-                if (pid != null) addScore(directorScores, pid, 1.0);
-            }
-        }
+        PreferenceSignals.extract(event, (dimension, entityId, weight) ->
+                userPreferenceScoreRepository.upsertScore(
+                        userId, dimension.name(), entityId, type.name(), weight, halfLife, at
+                ));
+    }
+
+    // =====================================================
+    //        TOP-N + persist στο profile
+    // =====================================================
+    @Transactional
+    public UserPreferencesResponseDto computeAndPersist(User user, int topN) {
 
-        List<PreferenceScoreDto> topGenres = toTopList(genreScores, topN);
-        List<PreferenceScoreDto> topActors = toTopList(actorScores, topN);
-        List<PreferenceScoreDto> topDirectors = toTopList(directorScores, topN);
+        List<PreferenceScoreDto> topGenres;
+        List<PreferenceScoreDto> topActors;
+        List<PreferenceScoreDto> topDirectors;
+
+        if (Boolean.TRUE.equals(user.getPreferenceScoresReady())) {
+            Instant at = Instant.now();
+            topGenres = topScores(user.getId(), PreferenceDimension.GENRE, at, topN);
+            topActors = topScores(user.getId(), PreferenceDimension.ACTOR, at, topN);
+            topDirectors = topScores(user.getId(), PreferenceDimension.DIRECTOR, at, topN);
+        } else {
+            PreferenceScoreAccumulator scores = rebuildFromHistory(user);
+            topGenres = scores.top(PreferenceDimension.GENRE, topN);
+            topActors = scores.top(PreferenceDimension.ACTOR, topN);
+            topDirectors = scores.top(PreferenceDimension.DIRECTOR, topN);
+        }
 
-        Instant now = Instant.now();
+        // millis precision: ίδιο με ό,τι διαβάζεται πίσω από τη DB (cache version check)
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
 
-        // Persist στο users table ως JSON string
+        // Persist στο users table ως typed binary profile
         try {
-            user.setTopGenres(objectMapper.writeValueAsString(topGenres));
-            user.setTopActors(objectMapper.writeValueAsString(topActors));
-            user.setTopDirectors(objectMapper.writeValueAsString(topDirectors));
-            user.setPreferencesLastUpdated(now);
+            preferenceProfileStore.write(user, new PreferenceProfile(topGenres, topActors, topDirectors, now));
             userRepository.save(user);
         } catch (Exception ex) {
+            preferenceProfileStore.invalidate(user.getId());
             log.error("Failed to persist preferences for user {}: {}", user.getId(), ex.getMessage());
         }
 
@@ -126,21 +131,66 @@ public class UserPreferenceService {
                 .build();
     }
 
-    private void addScore(Map<Long, Double> map, long key, double delta) {
-        map.put(key, map.getOrDefault(key, 0.0) + delta);
+    /**
+     * Μία φορά ανά user (πριν υπάρξουν aggregates): scan των τελευταίων 2000 events,
+     * γράψιμο των running scores και σήμανση του user ως ready.
+     *
+     * Read, replace και ready flag γίνονται σε ένα transaction με τον user κλειδωμένο
+     * ({@link PreferenceLocks}), όπως στο bulk rebuild: ο ingestion writer περιμένει, και μετά
+     * βλέπει ready και κάνει increment μόνο για events που δεν μέτρησε το rebuild.
+     */
+    private PreferenceScoreAccumulator rebuildFromHistory(User user) {
+        try {
+            PreferenceScoreAccumulator scores = scoreWriteTx.execute(tx -> {
+                PreferenceLocks.lockUsers(jdbcTemplate, List.of(user.getId()));
+
+                PreferenceScoreAccumulator s = scoresFromHistory(user.getId());
+                userPreferenceScoreRepository.deleteByUserId(user.getId());
+                userPreferenceScoreRepository.saveAll(s.rows());
+                jdbcTemplate.update("UPDATE users SET preference_scores_ready = TRUE WHERE id = ?", user.getId());
+                return s;
+            });
+            user.setPreferenceScoresReady(true);
+            return scores;
+        } catch (Exception ex) {
+            // το inner transaction έκανε rollback, το εξωτερικό συνεχίζει:
+            // το profile γράφεται κανονικά και τα scores ξαναδοκιμάζονται στο επόμενο compute
+            log.error("Failed to store preference scores for user {}: {}", user.getId(), ex.getMessage());
+            return scoresFromHistory(user.getId());
+        }
+    }
+
+    /**
+     * Τα scores φθίνουν μέχρι τη στιγμή του πιο πρόσφατου event (reference time του row),
+     * από εκεί και πέρα το decay γίνεται lazily στο read / upsert.
+     */
+    private PreferenceScoreAccumulator scoresFromHistory(Long userId) {
+
+        List<UserEvent> events =
+                userEventRepository.findTop2000ByUser_IdOrderByCreatedAtDesc(userId);
+
+        Instant reference = events.stream()
+                .map(UserEvent::getCreatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElseGet(Instant::now);
+
+        PreferenceScoreAccumulator scores =
+                new PreferenceScoreAccumulator(userId, reference, preferenceDecayProperties);
+
+        for (UserEvent e : events) {
+            // rows πριν το backfill των typed columns
+            UserEventPayloads.upgradeLegacy(e, objectMapper);
+            scores.add(e);
+        }
+        return scores;
     }
 
-    private List<PreferenceScoreDto> toTopList(Map<Long, Double> scores, int topN) {
-        return scores.entrySet().stream()
-                .sorted((a, b) -> {
-                    int cmp = Double.compare(b.getValue(), a.getValue());
-                    if (cmp != 0) return cmp;
-                    return Long.compare(a.getKey(), b.getKey());
-                })
-                .limit(topN)
-                .map(e -> PreferenceScoreDto.builder()
-                        .id(e.getKey())
-                        .score(e.getValue())
+    private List<PreferenceScoreDto> topScores(Long userId, PreferenceDimension dimension, Instant at, int topN) {
+        return userPreferenceScoreRepository.findTopScores(userId, dimension.name(), at, topN).stream()
+                .map(v -> PreferenceScoreDto.builder()
+                        .id(v.getId())
+                        .score(v.getScore())
                         .build())
                 .toList();
     }
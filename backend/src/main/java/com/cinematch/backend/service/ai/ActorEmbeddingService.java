@@ -6,34 +6,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Actor embeddings (Recast) στη μνήμη για το "Ποιος ηθοποιός είσαι;".
+ *
+ * Τα vectors κρατιούνται σε ένα {@link EmbeddingGallery} (contiguous float32, L2-normalized
+ * στο load), οπότε το findBestMatch είναι ένα dot-product scan χωρίς pointer chasing.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ActorEmbeddingService {
 
     private final ActorEmbeddingRepository repository;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int loadPageSize;
 
     // cache στη μνήμη
-    private final Map<Long, CachedEmbedding> cache = new ConcurrentHashMap<>();
-
-    @Data
-    @AllArgsConstructor
-    public static class CachedEmbedding {
-        private Long actorId;
-        private String name;
-        private String imageUrl;
-        private double[] embedding; // L2-normalized vector
-    }
+    private final EmbeddingGallery gallery;
 
     @Data
     @AllArgsConstructor
@@ -44,31 +41,41 @@ public class ActorEmbeddingService {
         private double similarity;
     }
 
+    public ActorEmbeddingService(
+            ActorEmbeddingRepository repository,
+            @Value("${ai.gallery.dimension:512}") int dimension,
+            @Value("${ai.gallery.expected-actors:10000}") int expectedActors,
+            @Value("${ai.gallery.load-page-size:1000}") int loadPageSize
+    ) {
+        this.repository = repository;
+        this.gallery = new EmbeddingGallery(dimension, expectedActors);
+        this.loadPageSize = loadPageSize;
+    }
+
     // =====================================================
     //          CACHE LOAD ΣΤΟ STARTUP  (+ RDJ DEBUG)
     // =====================================================
     @PostConstruct
     public void loadCache() {
-        List<ActorEmbedding> all = repository.findAll();
-
-        for (ActorEmbedding e : all) {
-            double[] emb = parseEmbedding(e.getEmbeddingJson());
-
-            cache.put(
-                    e.getActorId(),
-                    new CachedEmbedding(
-                            e.getActorId(),
-                            e.getName(),
-                            e.getImageUrl(),
-                            emb
-                    )
-            );
+        long started = System.currentTimeMillis();
+        int skipped = 0;
+
+        // σε σελίδες: δεν κρατάμε ποτέ όλα τα JSON strings στη μνήμη μαζί
+        Page<ActorEmbedding> page = repository.findAll(PageRequest.of(0, loadPageSize, Sort.by("actorId")));
+        while (true) {
+            for (ActorEmbedding e : page.getContent()) {
+                double[] emb = parseEmbedding(e.getEmbeddingJson());
+                if (!gallery.put(e.getActorId(), e.getName(), e.getImageUrl(), emb)) skipped++;
+            }
+            if (!page.hasNext()) break;
+            page = repository.findAll(page.nextPageable());
         }
 
-        log.info("[ActorEmbeddingService] Loaded {} embeddings into cache", cache.size());
+        log.info("[ActorEmbeddingService] Loaded {} embeddings into cache ({} skipped, {} MB vectors) in {} ms",
+                gallery.size(), skipped, gallery.vectorBytes() / (1024 * 1024), System.currentTimeMillis() - started);
 
         // 🔍 EXTRA DEBUG – για RDJ
-        if (cache.containsKey(3223L)) {
+        if (gallery.contains(3223L)) {
             log.info("[ActorEmbeddingService] RDJ (3223) FOUND in cache at startup.");
         } else {
             log.warn("[ActorEmbeddingService] RDJ (3223) NOT FOUND in cache at startup.");
@@ -77,11 +84,18 @@ public class ActorEmbeddingService {
 
     // Χρησιμοποιείται από το batch για να μη διπλο-σώζουμε actors
     public boolean exists(Long actorId) {
-        return cache.containsKey(actorId);
+        return gallery.contains(actorId);
     }
 
     public boolean hasEmbeddings() {
-        return !cache.isEmpty();
+        return gallery.size() > 0;
+    }
+
+    /**
+     * Το κοινό gallery (read-only χρήση από άλλα services).
+     */
+    public EmbeddingGallery gallery() {
+        return gallery;
     }
 
     /**
@@ -104,7 +118,10 @@ public class ActorEmbeddingService {
         entity.setEmbeddingJson(embeddingToJson(embedding));
         repository.save(entity);
 
-        cache.put(actorId, new CachedEmbedding(actorId, name, imageUrl, embedding));
+        if (!gallery.put(actorId, name, imageUrl, embedding)) {
+            log.warn("[ActorEmbeddingService] Embedding of actor {} not cached (dimension {} != {} or zero vector)",
+                    actorId, embedding != null ? embedding.length : 0, gallery.dimension());
+        }
 
         // 🔍 EXTRA DEBUG για RDJ
         if (actorId == 3223L) {
@@ -116,71 +133,21 @@ public class ActorEmbeddingService {
      * Βρίσκει τον καλύτερο ηθοποιό με βάση cosine similarity
      */
     public Optional<MatchResult> findBestMatch(double[] queryEmbedding) {
-        if (cache.isEmpty()) {
-            return Optional.empty();
-        }
-
-        normalizeInPlace(queryEmbedding);
-
-        CachedEmbedding best = null;
-        double bestScore = -1.0;
-
-        for (CachedEmbedding candidate : cache.values()) {
-            double score = cosineSimilarity(queryEmbedding, candidate.getEmbedding());
-
-            // 🔍 DEBUG similarity για RDJ
-            if (candidate.getActorId() == 3223L) {
-                log.info("[DEBUG] Similarity with RDJ (3223) = {}", score);
-            }
-
-            if (score > bestScore) {
-                bestScore = score;
-                best = candidate;
-            }
-        }
-
+        EmbeddingGallery.Match best = gallery.bestMatch(queryEmbedding);
         if (best == null) {
             return Optional.empty();
         }
 
         return Optional.of(new MatchResult(
-                best.getActorId(),
-                best.getName(),
-                best.getImageUrl(),
-                bestScore
+                best.actorId(),
+                best.name(),
+                best.imageUrl(),
+                best.similarity()
         ));
     }
 
     // =================== helpers ===================
 
-    private void normalizeInPlace(double[] v) {
-        double norm = 0.0;
-        for (double d : v) {
-            norm += d * d;
-        }
-        norm = Math.sqrt(norm);
-        if (norm == 0.0) return;
-        for (int i = 0; i < v.length; i++) {
-            v[i] /= norm;
-        }
-    }
-
-    private double cosineSimilarity(double[] a, double[] b) {
-        int len = Math.min(a.length, b.length);
-        double dot = 0.0;
-        double na = 0.0;
-        double nb = 0.0;
-
-        for (int i = 0; i < len; i++) {
-            dot += a[i] * b[i];
-            na += a[i] * a[i];
-            nb += b[i] * b[i];
-        }
-
-        if (na == 0 || nb == 0) return 0.0;
-        return dot / (Math.sqrt(na) * Math.sqrt(nb));
-    }
-
     private double[] parseEmbedding(String json) {
         if (json == null || json.isBlank()) {
             return new double[0];
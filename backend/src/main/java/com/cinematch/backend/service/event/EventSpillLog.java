@@ -0,0 +1,312 @@
+package com.cinematch.backend.service.event;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented log στο local disk για events που δεν μπόρεσαν να γραφτούν στη DB.
+ *
+ * Format ανά record: [int length][int crc32][payload]. Τα segments ({@code events-<n>.log})
+ * γυρίζουν μετά από {@code segmentBytes} και σβήνονται όταν γίνουν replay ολόκληρα.
+ * Το replay cursor (segment, offset) γράφεται atomically στο {@code cursor} μετά από κάθε
+ * commit, άρα μετά από crash το replay συνεχίζει από εκεί (at-least-once για το τελευταίο batch).
+ *
+ * Recovery στο open: το τελευταίο segment κόβεται στο τελευταίο έγκυρο record (torn write),
+ * ενώ ένα χαλασμένο record σε παλαιότερο segment προσπερνάει το υπόλοιπο segment.
+ */
+public class EventSpillLog implements Closeable {
+
+    public record Position(long segment, long offset) {
+    }
+
+    public record Batch(List<byte[]> records, Position next) {
+    }
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("^events-(\\d{20})\\.log$");
+    private static final String CURSOR_FILE = "cursor";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path dir;
+    private final long segmentBytes;
+
+    // segment no -> path, μόνο όσα δεν έχουν γίνει πλήρως replay
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel active;
+    private long activeNo;
+    private long activeSize;
+    private Position cursor;
+
+    private long corruptSegments;
+    private long truncatedBytes;
+
+    public EventSpillLog(Path dir, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        Files.createDirectories(dir);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "events-*.log")) {
+            for (Path file : files) {
+                Matcher m = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (m.matches()) segments.put(Long.parseLong(m.group(1)), file);
+            }
+        }
+
+        cursor = readCursor();
+        if (cursor != null) {
+            // ό,τι είναι πριν το cursor έχει ήδη γίνει replay
+            for (Long no : List.copyOf(segments.headMap(cursor.segment()).keySet())) {
+                Files.deleteIfExists(segments.remove(no));
+            }
+        }
+
+        if (!segments.isEmpty()) {
+            truncateTornTail(segments.lastEntry().getValue());
+        }
+
+        openSegment(segments.isEmpty() ? 1 : segments.lastKey() + 1);
+
+        if (cursor == null || !segments.containsKey(cursor.segment())) {
+            cursor = new Position(segments.firstKey(), 0);
+        }
+    }
+
+    // =====================================================
+    //                  APPEND
+    // =====================================================
+    public synchronized void append(List<byte[]> records, boolean force) throws IOException {
+        if (records.isEmpty()) return;
+
+        int total = 0;
+        for (byte[] r : records) {
+            if (r.length > MAX_RECORD_BYTES) throw new IOException("record too large: " + r.length);
+            total += HEADER_BYTES + r.length;
+        }
+
+        if (activeSize > 0 && activeSize + total > segmentBytes) {
+            rotate();
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (byte[] r : records) {
+            crc.reset();
+            crc.update(r);
+            buf.putInt(r.length).putInt((int) crc.getValue()).put(r);
+        }
+        buf.flip();
+        while (buf.hasRemaining()) {
+            active.write(buf, activeSize + buf.position());
+        }
+        activeSize += total;
+
+        if (force) active.force(false);
+    }
+
+    public synchronized void force() throws IOException {
+        active.force(false);
+    }
+
+    // =====================================================
+    //                  REPLAY
+    // =====================================================
+    public synchronized boolean isEmpty() {
+        return cursor.segment() == activeNo && cursor.offset() >= activeSize;
+    }
+
+    /**
+     * Διαβάζει έως {@code max} records από το cursor, χωρίς να το μετακινεί.
+     * Μετά το επιτυχές write στη DB ο caller κάνει {@link #commit}.
+     */
+    public synchronized Batch read(int max) throws IOException {
+        List<byte[]> out = new ArrayList<>();
+        long seg = cursor.segment();
+        long off = cursor.offset();
+
+        while (out.size() < max) {
+            Path path = segments.get(seg);
+            if (path == null) break;
+            long size = seg == activeNo ? activeSize : Files.size(path);
+
+            if (off >= size) {
+                Long next = segments.higherKey(seg);
+                if (next == null) break;
+                seg = next;
+                off = 0;
+                continue;
+            }
+
+            long end = readSegment(path, off, size, max - out.size(), out);
+            if (end < 0) {
+                // χαλασμένο record: προσπερνάμε το υπόλοιπο segment
+                corruptSegments++;
+                Long next = segments.higherKey(seg);
+                if (next == null) {
+                    off = size;
+                    break;
+                }
+                seg = next;
+                off = 0;
+            } else {
+                off = end;
+            }
+        }
+        return new Batch(out, new Position(seg, off));
+    }
+
+    public synchronized void commit(Position next) throws IOException {
+        for (Long no : List.copyOf(segments.headMap(next.segment()).keySet())) {
+            Files.deleteIfExists(segments.remove(no));
+        }
+        cursor = next;
+        writeCursor(next);
+    }
+
+    /**
+     * Bytes που περιμένουν replay (προσεγγιστικά, μαζί με τα headers).
+     */
+    public synchronized long backlogBytes() throws IOException {
+        long total = 0;
+        for (var e : segments.tailMap(cursor.segment()).entrySet()) {
+            total += e.getKey() == activeNo ? activeSize : Files.size(e.getValue());
+        }
+        return Math.max(0, total - cursor.offset());
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public synchronized long corruptSegments() {
+        return corruptSegments;
+    }
+
+    public synchronized long truncatedBytes() {
+        return truncatedBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null && active.isOpen()) {
+            active.force(false);
+            active.close();
+        }
+    }
+
+    // =================== helpers ===================
+
+    private void openSegment(long no) throws IOException {
+        Path path = dir.resolve(String.format("events-%020d.log", no));
+        active = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeNo = no;
+        activeSize = active.size();
+        segments.put(no, path);
+    }
+
+    private void rotate() throws IOException {
+        active.force(false);
+        active.close();
+        openSegment(activeNo + 1);
+    }
+
+    /**
+     * @return το offset μετά το τελευταίο record που διαβάστηκε, ή -1 αν βρέθηκε χαλασμένο record
+     */
+    private long readSegment(Path path, long from, long size, int max, List<byte[]> out) throws IOException {
+        FileChannel ch = path.equals(segments.get(activeNo)) ? active : null;
+        boolean own = ch == null;
+        if (own) ch = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            long off = from;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            CRC32 crc = new CRC32();
+
+            for (int n = 0; n < max && off < size; n++) {
+                byte[] record = readRecord(ch, off, size, header, crc);
+                if (record == null) return -1;
+                out.add(record);
+                off += HEADER_BYTES + record.length;
+            }
+            return off;
+        } finally {
+            if (own) ch.close();
+        }
+    }
+
+    private static byte[] readRecord(FileChannel ch, long off, long size, ByteBuffer header, CRC32 crc) throws IOException {
+        if (off + HEADER_BYTES > size) return null;
+
+        header.clear();
+        readFully(ch, header, off);
+        header.flip();
+        int length = header.getInt();
+        int expected = header.getInt();
+        if (length < 0 || length > MAX_RECORD_BYTES || off + HEADER_BYTES + length > size) return null;
+
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(ch, body, off + HEADER_BYTES);
+        byte[] record = body.array();
+
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue() == expected ? record : null;
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, position + buf.position());
+            if (n < 0) throw new IOException("unexpected end of segment");
+        }
+    }
+
+    private void truncateTornTail(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            long off = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            CRC32 crc = new CRC32();
+
+            while (off < size) {
+                byte[] record = readRecord(ch, off, size, header, crc);
+                if (record == null) break;
+                off += HEADER_BYTES + record.length;
+            }
+            if (off < size) {
+                truncatedBytes += size - off;
+                ch.truncate(off);
+                ch.force(true);
+            }
+        }
+    }
+
+    private Position readCursor() throws IOException {
+        Path file = dir.resolve(CURSOR_FILE);
+        if (!Files.exists(file)) return null;
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length != 16) return null;
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        return new Position(buf.getLong(), buf.getLong());
+    }
+
+    private void writeCursor(Position position) throws IOException {
+        Path tmp = dir.resolve(CURSOR_FILE + ".tmp");
+        ByteBuffer buf = ByteBuffer.allocate(16).putLong(position.segment()).putLong(position.offset());
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve(CURSOR_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
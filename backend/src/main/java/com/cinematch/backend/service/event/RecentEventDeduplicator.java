@@ -0,0 +1,159 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.model.UserEventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * In-memory sliding-window dedupe των user events.
+ *
+ * Ανά user κρατάμε ένα μικρό ring buffer από (type + payload hash, timestamp).
+ * Ένα event είναι duplicate αν υπάρχει ίδιο key μέσα στο window. Οι users
+ * μοιράζονται σε stripes με δικό τους lock, οπότε κάθε check είναι O(ringSize)
+ * χωρίς global contention. Users χωρίς πρόσφατο event αφαιρούνται από το purge.
+ */
+@Component
+public class RecentEventDeduplicator {
+
+    private static final class Ring {
+        final long[] keys;
+        final long[] times;
+        int next;
+        long newest;
+
+        Ring(int size) {
+            keys = new long[size];
+            times = new long[size];
+        }
+    }
+
+    private static final class Stripe {
+        final Map<Long, Ring> users = new HashMap<>();
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final long windowMs;
+    private final int ringSize;
+    private final int maxUsersPerStripe;
+
+    public RecentEventDeduplicator(
+            @Value("${events.dedupe.window-ms:5000}") long windowMs,
+            @Value("${events.dedupe.ring-size:8}") int ringSize,
+            @Value("${events.dedupe.stripes:64}") int stripes,
+            @Value("${events.dedupe.max-users:100000}") int maxUsers
+    ) {
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1; // power of 2
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = n - 1;
+        this.windowMs = windowMs;
+        this.ringSize = Math.max(1, ringSize);
+        this.maxUsersPerStripe = Math.max(1, maxUsers / n);
+    }
+
+    /**
+     * true αν το ίδιο event (type + payload) καταγράφηκε μέσα στο window. Δεν καταγράφει τίποτα:
+     * ο caller κάνει {@link #record} μόνο όταν το event γίνει πράγματι δεκτό, ώστε ένα retry
+     * μετά από shed να μη χαθεί ως duplicate.
+     */
+    public boolean isDuplicate(long userId, UserEventType type, long payloadHash) {
+        return isDuplicate(userId, type, payloadHash, System.currentTimeMillis());
+    }
+
+    public void record(long userId, UserEventType type, long payloadHash) {
+        record(userId, type, payloadHash, System.currentTimeMillis());
+    }
+
+    boolean isDuplicate(long userId, UserEventType type, long payloadHash, long nowMs) {
+        long key = key(type, payloadHash);
+        long since = nowMs - windowMs;
+
+        Stripe stripe = stripeOf(userId);
+        synchronized (stripe) {
+            Ring ring = stripe.users.get(userId);
+            if (ring == null) return false;
+
+            for (int i = 0; i < ringSize; i++) {
+                if (ring.keys[i] == key && ring.times[i] > since) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    void record(long userId, UserEventType type, long payloadHash, long nowMs) {
+        long key = key(type, payloadHash);
+
+        Stripe stripe = stripeOf(userId);
+        synchronized (stripe) {
+            Ring ring = stripe.users.get(userId);
+            if (ring == null) {
+                if (stripe.users.size() >= maxUsersPerStripe) {
+                    purge(stripe, nowMs - windowMs);
+                }
+                ring = new Ring(ringSize);
+                stripe.users.put(userId, ring);
+            }
+
+            ring.keys[ring.next] = key;
+            ring.times[ring.next] = nowMs;
+            ring.next = (ring.next + 1) % ringSize;
+            ring.newest = nowMs;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.dedupe.purge-ms:30000}")
+    public void purgeExpired() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    void purgeExpired(long nowMs) {
+        long since = nowMs - windowMs;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                purge(stripe, since);
+            }
+        }
+    }
+
+    int trackedUsers() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.users.size();
+            }
+        }
+        return total;
+    }
+
+    // =================== helpers ===================
+
+    private void purge(Stripe stripe, long since) {
+        Iterator<Ring> it = stripe.users.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().newest <= since) it.remove();
+        }
+    }
+
+    private Stripe stripeOf(long userId) {
+        return stripes[spread(userId) & mask];
+    }
+
+    private static long key(UserEventType type, long payloadHash) {
+        return payloadHash * 31 + type.ordinal();
+    }
+
+    private static int spread(long userId) {
+        long h = userId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
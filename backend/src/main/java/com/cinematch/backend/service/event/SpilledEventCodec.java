@@ -0,0 +1,113 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Binary encoding ενός pending user event για το {@link EventSpillLog}.
+ *
+ * Κρατάμε μόνο ό,τι χρειάζεται το INSERT και τα preference upserts: το user γίνεται
+ * transient User με μόνο id (το preferenceScoresReady το διαβάζει ο writer από τη DB).
+ * Τα attributes μπαίνουν ως JSON string.
+ */
+final class SpilledEventCodec {
+
+    private static final byte VERSION = 2;
+    // v1: και το preferenceScoresReady του request (αγνοείται στο decode)
+    private static final byte VERSION_WITH_READY_FLAG = 1;
+
+    record Decoded(User user, UserEvent event, String attributesJson) {
+    }
+
+    private SpilledEventCodec() {
+    }
+
+    static byte[] encode(User user, UserEvent e, String attributesJson) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeByte(VERSION);
+            out.writeLong(user.getId());
+            out.writeUTF(e.getType().name());
+            writeLong(out, e.getMovieId());
+            writeLong(out, e.getPersonId());
+            writeLong(out, e.getGenreId());
+            writeLong(out, e.getCastId());
+            writeLong(out, e.getCrewId());
+            writeString(out, e.getSource());
+            writeString(out, attributesJson);
+            writeLong(out, e.getPayloadHash());
+            out.writeLong(e.getCreatedAt().getEpochSecond());
+            out.writeInt(e.getCreatedAt().getNano());
+
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // ByteArrayOutputStream δεν πετάει
+        }
+    }
+
+    static Decoded decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+
+        byte version = in.readByte();
+        if (version != VERSION && version != VERSION_WITH_READY_FLAG) {
+            throw new IOException("unknown spilled event version " + version);
+        }
+
+        User user = User.builder().id(in.readLong()).build();
+        if (version == VERSION_WITH_READY_FLAG) in.readBoolean();
+
+        UserEvent event = UserEvent.builder()
+                .user(user)
+                .type(UserEventType.valueOf(in.readUTF()))
+                .movieId(readLong(in))
+                .personId(readLong(in))
+                .genreId(readLong(in))
+                .castId(readLong(in))
+                .crewId(readLong(in))
+                .source(readString(in))
+                .build();
+        String attributesJson = readString(in);
+        event.setPayloadHash(readLong(in));
+        event.setCreatedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+
+        return new Decoded(user, event, attributesJson);
+    }
+
+    // =================== helpers ===================
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeLong(value);
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    // χωρίς writeUTF: τα attributes μπορεί να ξεπεράσουν τα 64KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,244 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.dto.UserEventDto;
+import com.cinematch.backend.dto.UserEventPageDto;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ανάγνωση του user_events ενός user χωρίς OFFSET και χωρίς να φορτώνουμε όλο το history.
+ *
+ *  - page: keyset pagination πάνω στο (created_at, id), newest-first. Το cursor είναι
+ *    το (created_at, id) του τελευταίου row, άρα κάθε σελίδα είναι ένα index range scan.
+ *  - export: NDJSON, oldest-first, με server-side cursor (fetch size σε read-only transaction)
+ *    και write κατευθείαν στο output stream, οπότε η μνήμη μένει σταθερή. Το transaction έχει
+ *    timeout (events.export.timeout-seconds): ένας αργός client δεν κρατάει για πάντα connection
+ *    και snapshot ανοιχτά.
+ */
+@Service
+public class UserEventExportService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final byte[] NEWLINE = {'\n'};
+
+    private static final String COLUMNS = """
+            SELECT id, user_id, type, movie_id, person_id, genre_id, cast_id, crew_id, source,
+                   attributes::text AS attributes, payload, created_at
+            FROM user_events
+            """;
+
+    private record Cursor(Instant createdAt, long id) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int fetchSize;
+    private final int timeoutSeconds;
+
+    public UserEventExportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${events.export.max-page-size:1000}") int maxPageSize,
+            @Value("${events.export.fetch-size:1000}") int fetchSize,
+            @Value("${events.export.timeout-seconds:300}") int timeoutSeconds
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        // γίνεται query timeout στο statement (DataSourceUtils.applyTimeout)
+        this.readOnlyTx.setTimeout(timeoutSeconds);
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.fetchSize = fetchSize;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    // =====================================================
+    //                  KEYSET PAGE
+    // =====================================================
+
+    /**
+     * @param cursor το nextCursor της προηγούμενης σελίδας, ή null για την πρώτη
+     * @throws IllegalArgumentException για malformed cursor
+     */
+    public UserEventPageDto page(long userId, UserEventType type, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+        Cursor after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        StringBuilder sql = new StringBuilder(COLUMNS).append("WHERE user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        if (type != null) {
+            sql.append(" AND type = ?");
+            args.add(type.name());
+        }
+        if (after != null) {
+            // row comparison: ίδιο created_at -> μικρότερο id.
+            // Το created_at <= ? ξεκινάει το index range scan από το cursor (το id δεν είναι στο index)
+            Timestamp at = Timestamp.from(after.createdAt());
+            sql.append(" AND created_at <= ? AND (created_at, id) < (?, ?)");
+            args.add(at);
+            args.add(at);
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(size + 1); // +1 για να ξέρουμε αν υπάρχει επόμενη σελίδα
+
+        List<UserEventDto> rows = jdbcTemplate.query(sql.toString(), (rs, i) -> toDto(rs), args.toArray());
+
+        String next = null;
+        if (rows.size() > size) {
+            rows = new ArrayList<>(rows.subList(0, size));
+            UserEventDto last = rows.get(size - 1);
+            next = encodeCursor(new Cursor(last.getCreatedAt(), last.getId()));
+        }
+
+        return UserEventPageDto.builder()
+                .items(rows)
+                .nextCursor(next)
+                .build();
+    }
+
+    // =====================================================
+    //                  NDJSON EXPORT
+    // =====================================================
+
+    /**
+     * Γράφει ένα JSON object ανά γραμμή στο {@code out}.
+     *
+     * @return πλήθος events που γράφτηκαν
+     */
+    public long exportNdjson(long userId, UserEventType type, OutputStream out) {
+        String sql = COLUMNS + "WHERE user_id = ?" + (type != null ? " AND type = ?" : "")
+                + " ORDER BY created_at, id";
+
+        long[] count = {0};
+        // το query timeout μετράει μόνο τον χρόνο στη DB, όχι το write στον client
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+
+        // ο PostgreSQL driver κάνει cursor fetch μόνο εκτός autocommit (μέσα σε transaction)
+        readOnlyTx.executeWithoutResult(tx -> jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    ps.setLong(1, userId);
+                    if (type != null) ps.setString(2, type.name());
+                    return ps;
+                },
+                rs -> {
+                    if (System.nanoTime() > deadline) {
+                        throw new QueryTimeoutException("user events export exceeded " + timeoutSeconds + " s");
+                    }
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(toDto(rs)));
+                        out.write(NEWLINE);
+                        if (++count[0] % fetchSize == 0) out.flush();
+                    } catch (IOException e) {
+                        // client disconnect: σταματάει το query και απελευθερώνει το connection
+                        throw new UncheckedIOException(e);
+                    }
+                }
+        ));
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    // =================== helpers ===================
+
+    private UserEventDto toDto(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+
+        UserEvent e = UserEvent.builder()
+                .type(UserEventType.valueOf(rs.getString("type")))
+                .movieId(getLong(rs, "movie_id"))
+                .personId(getLong(rs, "person_id"))
+                .genreId(getLong(rs, "genre_id"))
+                .castId(getLong(rs, "cast_id"))
+                .crewId(getLong(rs, "crew_id"))
+                .source(rs.getString("source"))
+                .payload(rs.getString("payload"))
+                .build();
+
+        String attributes = rs.getString("attributes");
+        if (attributes != null) {
+            try {
+                e.setAttributes(objectMapper.readValue(attributes, new TypeReference<Map<String, Object>>() {}));
+            } catch (Exception ignored) {
+                // το column είναι jsonb, άρα πάντα έγκυρο JSON object
+            }
+        }
+        UserEventPayloads.upgradeLegacy(e, objectMapper);
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(UserEventPayloads.toMap(e));
+        } catch (Exception ex) {
+            payload = e.getPayload();
+        }
+
+        return UserEventDto.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getLong("user_id"))
+                .type(e.getType())
+                .payload(payload)
+                .createdAt(createdAt != null ? createdAt.toInstant() : null)
+                .build();
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    private static String encodeCursor(Cursor cursor) {
+        byte[] body = ByteBuffer.allocate(Long.BYTES * 2 + Integer.BYTES)
+                .putLong(cursor.createdAt().getEpochSecond())
+                .putInt(cursor.createdAt().getNano())
+                .putLong(cursor.id())
+                .array();
+        return ENCODER.encodeToString(body);
+    }
+
+    private static Cursor decodeCursor(String token) {
+        byte[] body;
+        try {
+            body = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (body.length != Long.BYTES * 2 + Integer.BYTES) throw new IllegalArgumentException("Malformed cursor");
+
+        ByteBuffer buf = ByteBuffer.wrap(body);
+        Instant createdAt = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+        return new Cursor(createdAt, buf.getLong());
+    }
+}
@@ -0,0 +1,503 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.dto.EventIngestionStatsDto;
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+import com.cinematch.backend.service.UserPreferenceService;
+import com.cinematch.backend.service.preference.PreferenceLocks;
+import com.cinematch.backend.service.preference.PreferenceRecomputeWorker;
+import com.cinematch.backend.service.preference.PreferenceSignals;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ασύγχρονο ingestion των user events.
+ *
+ * Το request thread κάνει μόνο {@link #submit}: το event μπαίνει σε bounded queue και ένας
+ * writer thread το γράφει σε batched JDBC inserts (multi-row με reWriteBatchedInserts),
+ * μαζί με τα preference upserts, σε ένα transaction ανά batch.
+ *
+ * Backpressure:
+ *  - πάνω από το high watermark, τα "φθηνά" events (clicks / filters) περνάνε με sampling
+ *  - με γεμάτη queue πετιούνται. Τα explicit (quiz, like) περιμένουν λίγο πριν πεταχτούν.
+ * Στο shutdown η queue αδειάζει πριν κλείσει ο writer.
+ *
+ * Spill: όταν η DB αποτυγχάνει, ο writer γράφει το batch στο local {@link EventSpillLog} αντί
+ * να χαθεί. Όσο το log δεν είναι άδειο, και τα νέα batches πάνε εκεί, και ο writer κάνει replay
+ * με τη σειρά του log μόλις η DB απαντήσει ξανά. Μόνο ο writer γράφει στο log, άρα η σειρά
+ * queue -> log -> DB κρατιέται.
+ *
+ * Ένα batch του log που απορρίπτεται από τη DB (constraint / data error, όχι DB down) ξαναγράφεται
+ * ένα-ένα record: όποιο αποτύχει πάει στο dead-letter log ({@code <spill dir>/dead-letter})
+ * και το replay συνεχίζει μετά από αυτό.
+ */
+@Component
+@Slf4j
+public class UserEventIngestionPipeline {
+
+    private static final Set<UserEventType> PRIORITY_TYPES = EnumSet.of(
+            UserEventType.QUIZ_CORRECT,
+            UserEventType.QUIZ_WRONG,
+            UserEventType.LIKE_MOVIE
+    );
+
+    private static final String INSERT_EVENT = """
+            INSERT INTO user_events
+                (user_id, type, movie_id, person_id, genre_id, cast_id, crew_id, source,
+                 attributes, payload_hash, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?)
+            """;
+
+    private static final String SELECT_READY_USERS = """
+            SELECT id FROM users WHERE preference_scores_ready AND id = ANY(?)
+            """;
+
+    private record Pending(User user, UserEvent event) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserPreferenceService userPreferenceService;
+    private final PreferenceRecomputeWorker preferenceRecomputeWorker;
+
+    private final BlockingQueue<Pending> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long pollMs;
+    private final int highWatermark;
+    private final double sampleRate;
+    private final long priorityWaitMs;
+
+    private final EventSpillLog spillLog;
+    private final EventSpillLog deadLetterLog;
+    private final long replayRetryMs;
+    private long nextReplayAt;
+    // records του log που γράφονται ένα-ένα, μετά από batch με poison record
+    private int isolating;
+
+    private final Thread writer;
+    private volatile boolean closing;
+
+    // metrics
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong flushNanosTotal = new AtomicLong();
+    private volatile long lastFlushMicros;
+    private volatile long maxFlushMicros;
+
+    public UserEventIngestionPipeline(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            UserPreferenceService userPreferenceService,
+            PreferenceRecomputeWorker preferenceRecomputeWorker,
+            @Value("${events.ingestion.capacity:10000}") int capacity,
+            @Value("${events.ingestion.batch-size:500}") int batchSize,
+            @Value("${events.ingestion.poll-ms:200}") long pollMs,
+            @Value("${events.ingestion.high-watermark:0.8}") double highWatermark,
+            @Value("${events.ingestion.sample-rate:0.25}") double sampleRate,
+            @Value("${events.ingestion.priority-wait-ms:50}") long priorityWaitMs,
+            @Value("${events.spill.enabled:true}") boolean spillEnabled,
+            @Value("${events.spill.dir:./data/event-spill}") String spillDir,
+            @Value("${events.spill.segment-mb:16}") int segmentMb,
+            @Value("${events.spill.replay-retry-ms:5000}") long replayRetryMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.userPreferenceService = userPreferenceService;
+        this.preferenceRecomputeWorker = preferenceRecomputeWorker;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.pollMs = pollMs;
+        this.highWatermark = (int) (capacity * highWatermark);
+        this.sampleRate = sampleRate;
+        this.priorityWaitMs = priorityWaitMs;
+        this.replayRetryMs = replayRetryMs;
+        this.spillLog = spillEnabled ? openSpillLog(Path.of(spillDir), segmentMb) : null;
+        this.deadLetterLog = spillLog != null ? openDeadLetterLog(Path.of(spillDir, "dead-letter"), segmentMb) : null;
+
+        this.writer = new Thread(this::runWriter, "user-events-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // =====================================================
+    //                  REQUEST PATH
+    // =====================================================
+
+    /**
+     * @return false αν το event δεν μπήκε στην queue (sampling / γεμάτη / shutdown)
+     */
+    public boolean submit(User user, UserEvent event) {
+        if (closing) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        boolean priority = PRIORITY_TYPES.contains(event.getType());
+
+        if (!priority && queue.size() >= highWatermark
+                && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.incrementAndGet();
+            return false;
+        }
+
+        boolean offered;
+        try {
+            offered = priority
+                    ? queue.offer(new Pending(user, event), priorityWaitMs, TimeUnit.MILLISECONDS)
+                    : queue.offer(new Pending(user, event));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            offered = false;
+        }
+
+        if (!offered) {
+            // όχι spill από εδώ: θα έμπαινε στο log πριν από events που περιμένουν ακόμα στην queue
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    public EventIngestionStatsDto stats() {
+        long b = batches.get();
+        return EventIngestionStatsDto.builder()
+                .queueDepth(queue.size())
+                .capacity(capacity)
+                .accepted(accepted.get())
+                .sampledOut(sampledOut.get())
+                .dropped(dropped.get())
+                .written(written.get())
+                .failed(failed.get())
+                .spilled(spilled.get())
+                .replayed(replayed.get())
+                .deadLettered(deadLettered.get())
+                .spillBacklogBytes(spillBacklogBytes())
+                .batches(b)
+                .avgFlushMs(b == 0 ? 0 : flushNanosTotal.get() / 1_000_000.0 / b)
+                .lastFlushMs(lastFlushMicros / 1000.0)
+                .maxFlushMs(maxFlushMicros / 1000.0)
+                .build();
+    }
+
+    // =====================================================
+    //                  WRITER
+    // =====================================================
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+
+        while (!closing || !queue.isEmpty()) {
+            try {
+                // με backlog στο log δεν περιμένουμε νέα events για να συνεχίσουμε το replay
+                long wait = replayDue() ? 0 : pollMs;
+                Pending first = queue.poll(wait, TimeUnit.MILLISECONDS);
+
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+
+                    // η σειρά κρατιέται: όσο υπάρχει backlog, τα νέα μπαίνουν πίσω του
+                    if (hasBacklog()) {
+                        if (!spill(batch, true)) failed.addAndGet(batch.size());
+                    } else {
+                        flush(batch);
+                    }
+                }
+
+                if (replayDue()) replay();
+
+            } catch (InterruptedException e) {
+                // shutdown: ο βρόχος αδειάζει ό,τι έμεινε
+                closing = true;
+            } catch (Exception e) {
+                log.error("[UserEventIngestionPipeline] Writer error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        long started = System.nanoTime();
+
+        try {
+            write(batch);
+        } catch (Exception e) {
+            log.error("[UserEventIngestionPipeline] Failed to write {} events: {}", batch.size(), e.getMessage());
+            if (!spill(batch, true)) failed.addAndGet(batch.size());
+        } finally {
+            long nanos = System.nanoTime() - started;
+            batches.incrementAndGet();
+            flushNanosTotal.addAndGet(nanos);
+            lastFlushMicros = nanos / 1000;
+            maxFlushMicros = Math.max(maxFlushMicros, lastFlushMicros);
+        }
+    }
+
+    /**
+     * INSERT + preference upserts σε ένα transaction, μετά debounced recompute.
+     */
+    private void write(List<Pending> batch) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.batchUpdate(INSERT_EVENT, batch, batchSize, (ps, p) -> {
+                UserEvent e = p.event();
+                ps.setLong(1, p.user().getId());
+                ps.setString(2, e.getType().name());
+                setLong(ps, 3, e.getMovieId());
+                setLong(ps, 4, e.getPersonId());
+                setLong(ps, 5, e.getGenreId());
+                setLong(ps, 6, e.getCastId());
+                setLong(ps, 7, e.getCrewId());
+                ps.setString(8, e.getSource());
+                ps.setString(9, toJson(e.getAttributes()));
+                setLong(ps, 10, e.getPayloadHash());
+                ps.setTimestamp(11, Timestamp.from(e.getCreatedAt()));
+            });
+
+            // running preference aggregates στο ίδιο transaction, με τους users κλειδωμένους
+            // απέναντι στα rebuilds (PreferenceLocks)
+            List<Long> userIds = batch.stream()
+                    .filter(p -> PreferenceSignals.isRelevant(p.event().getType()))
+                    .map(p -> p.user().getId())
+                    .distinct()
+                    .toList();
+            PreferenceLocks.lockUsers(jdbcTemplate, userIds);
+
+            // το flag από τη DB μετά το lock, όχι το snapshot του request / spill log: ένα rebuild
+            // που τελείωσε όσο το event περίμενε δεν το είδε, άρα το increment πρέπει να γραφτεί
+            Set<Long> ready = readyUsers(userIds);
+            for (Pending p : batch) {
+                if (PreferenceSignals.isRelevant(p.event().getType()) && ready.contains(p.user().getId())) {
+                    userPreferenceService.recordEvent(p.user().getId(), p.event());
+                }
+            }
+        });
+
+        written.addAndGet(batch.size());
+
+        // debounced recompute μετά το commit
+        batch.stream()
+                .filter(p -> PreferenceSignals.isRelevant(p.event().getType()))
+                .map(p -> p.user().getId())
+                .distinct()
+                .forEach(preferenceRecomputeWorker::schedule);
+    }
+
+    // =====================================================
+    //                  SPILL / REPLAY
+    // =====================================================
+    private Set<Long> readyUsers(List<Long> userIds) {
+        if (userIds.isEmpty()) return Set.of();
+
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_READY_USERS);
+            ps.setArray(1, con.createArrayOf("int8", userIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+    }
+
+    private boolean hasBacklog() {
+        return spillLog != null && !spillLog.isEmpty();
+    }
+
+    private boolean replayDue() {
+        return hasBacklog() && !closing && System.currentTimeMillis() >= nextReplayAt;
+    }
+
+    private boolean spill(List<Pending> batch, boolean force) {
+        if (spillLog == null) return false;
+        try {
+            List<byte[]> records = new ArrayList<>(batch.size());
+            for (Pending p : batch) {
+                records.add(SpilledEventCodec.encode(p.user(), p.event(), toJson(p.event().getAttributes())));
+            }
+            spillLog.append(records, force);
+            spilled.addAndGet(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("[UserEventIngestionPipeline] Failed to spill {} events: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ένα batch από το log στη DB. Αν η DB δεν απαντάει ακόμα, ξαναδοκιμάζουμε μετά από replayRetryMs.
+     */
+    private void replay() {
+        try {
+            EventSpillLog.Batch chunk = spillLog.read(isolating > 0 ? 1 : batchSize);
+            List<Pending> pending = decode(chunk.records());
+
+            try {
+                if (!pending.isEmpty()) write(pending);
+                replayed.addAndGet(pending.size());
+            } catch (Exception e) {
+                if (!isPoison(e)) throw e;
+
+                if (chunk.records().size() > 1) {
+                    // κάποιο record του batch δεν θα γραφτεί ποτέ: ξανά ένα-ένα, για να βρεθεί ποιο
+                    isolating = chunk.records().size();
+                    log.warn("[UserEventIngestionPipeline] Replay batch rejected, retrying {} events one by one: {}",
+                            isolating, e.getMessage());
+                    return;
+                }
+
+                if (deadLetterLog == null) throw new IOException("dead-letter log unavailable", e);
+                deadLetterLog.append(chunk.records(), true);
+                deadLettered.addAndGet(chunk.records().size());
+                log.error("[UserEventIngestionPipeline] Moved a rejected spilled event to the dead-letter log: {}",
+                        e.getMessage());
+            }
+
+            spillLog.commit(chunk.next());
+            if (isolating > 0) isolating--;
+            nextReplayAt = 0;
+
+            if (!hasBacklog()) {
+                log.info("[UserEventIngestionPipeline] Spill log replayed, back to direct writes");
+            }
+        } catch (Exception e) {
+            nextReplayAt = System.currentTimeMillis() + replayRetryMs;
+            log.warn("[UserEventIngestionPipeline] Replay failed, retrying in {} ms: {}", replayRetryMs, e.getMessage());
+        }
+    }
+
+    private List<Pending> decode(List<byte[]> records) {
+        List<Pending> pending = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            try {
+                SpilledEventCodec.Decoded d = SpilledEventCodec.decode(record);
+                d.event().setAttributes(fromJson(d.attributesJson()));
+                pending.add(new Pending(d.user(), d.event()));
+            } catch (Exception e) {
+                // το CRC ήταν σωστό, άρα bug / παλιό format: δεν μπλοκάρουμε το replay
+                failed.incrementAndGet();
+                log.warn("[UserEventIngestionPipeline] Skipping unreadable spilled event: {}", e.getMessage());
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Η DB απέρριψε τα δεδομένα (constraint, τύπος, κ.λπ.): ένα retry δεν θα βοηθήσει.
+     * Το DataAccessResourceFailureException (DB down, connection) είναι κι αυτό non-transient
+     * στο Spring, αλλά περνάει όταν η DB γυρίσει.
+     */
+    static boolean isPoison(Throwable e) {
+        if (e instanceof DataAccessResourceFailureException) return false;
+        return e instanceof NonTransientDataAccessException;
+    }
+
+    private EventSpillLog openSpillLog(Path dir, int segmentMb) {
+        try {
+            EventSpillLog spill = new EventSpillLog(dir, segmentMb * 1024L * 1024L);
+            if (!spill.isEmpty()) {
+                log.info("[UserEventIngestionPipeline] Spill log has {} bytes to replay", spill.backlogBytes());
+            }
+            if (spill.truncatedBytes() > 0) {
+                log.warn("[UserEventIngestionPipeline] Truncated {} bytes of torn writes in the spill log",
+                        spill.truncatedBytes());
+            }
+            return spill;
+        } catch (IOException e) {
+            log.error("[UserEventIngestionPipeline] Spill log disabled, cannot open {}: {}", dir, e.getMessage());
+            return null;
+        }
+    }
+
+    private EventSpillLog openDeadLetterLog(Path dir, int segmentMb) {
+        try {
+            // δεν γίνεται ποτέ replay: τα records μένουν για έλεγχο με το χέρι
+            return new EventSpillLog(dir, segmentMb * 1024L * 1024L);
+        } catch (IOException e) {
+            log.error("[UserEventIngestionPipeline] Dead-letter log disabled, cannot open {}: {}", dir, e.getMessage());
+            return null;
+        }
+    }
+
+    private long spillBacklogBytes() {
+        if (spillLog == null) return 0;
+        try {
+            return spillLog.backlogBytes();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closing = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("[UserEventIngestionPipeline] {} events not flushed on shutdown", queue.size());
+        }
+        for (EventSpillLog spill : Arrays.asList(spillLog, deadLetterLog)) {
+            if (spill == null) continue;
+            try {
+                spill.close();
+            } catch (IOException e) {
+                log.warn("[UserEventIngestionPipeline] Failed to close spill log: {}", e.getMessage());
+            }
+        }
+    }
+
+    // =================== helpers ===================
+
+    private String toJson(Map<String, Object> attributes) {
+        if (attributes == null) return null;
+        try {
+            return objectMapper.writeValueAsString(attributes);
+        } catch (Exception e) {
+            return "{}";
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) throws IOException {
+        if (json == null) return null;
+        return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BIGINT);
+        else ps.setLong(index, value);
+    }
+}
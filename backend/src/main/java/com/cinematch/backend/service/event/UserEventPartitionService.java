@@ -0,0 +1,247 @@
+package com.cinematch.backend.service.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitioning του user_events πάνω στο created_at (UTC).
+ *
+ * Η μετατροπή ενός παλιού unpartitioned table γίνεται από το Flyway (V10__UserEventsPartitioned).
+ * Εδώ μόνο το maintenance, στο startup και κάθε μέρα: partitions για τους επόμενους months-ahead
+ * μήνες, και για τα partitions πέρα από το retention: rollup σε user_event_daily_rollups + DROP,
+ * στο ίδιο transaction.
+ *
+ * Το JPA entity / repository δεν αλλάζουν: το PK είναι (id, created_at) και ο Postgres
+ * κάνει routing στα partitions.
+ */
+@Service
+@Slf4j
+public class UserEventPartitionService implements SmartInitializingSingleton {
+
+    private static final String TABLE = "user_events";
+    private static final String DEFAULT_PARTITION = "user_events_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^user_events_p(\\d{4})(\\d{2})$");
+    // ιστορικό partition του V10: όλα τα rows πριν από αυτόν τον μήνα
+    private static final Pattern LEGACY_NAME = Pattern.compile("^user_events_legacy_(\\d{4})(\\d{2})$");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String ROLLUP = """
+            INSERT INTO user_event_daily_rollups (day, user_id, type, entity_kind, entity_id, event_count)
+            SELECT day, user_id, type, entity_kind, entity_id, COUNT(*)
+            FROM (
+                SELECT CAST(created_at AT TIME ZONE 'UTC' AS date) AS day, user_id, type,
+                       'MOVIE' AS entity_kind, movie_id AS entity_id
+                FROM %1$s WHERE movie_id IS NOT NULL
+                UNION ALL
+                SELECT CAST(created_at AT TIME ZONE 'UTC' AS date), user_id, type, 'PERSON', person_id
+                FROM %1$s WHERE person_id IS NOT NULL
+                UNION ALL
+                SELECT CAST(created_at AT TIME ZONE 'UTC' AS date), user_id, type, 'GENRE', genre_id
+                FROM %1$s WHERE genre_id IS NOT NULL
+                UNION ALL
+                SELECT CAST(created_at AT TIME ZONE 'UTC' AS date), user_id, type, 'CAST', cast_id
+                FROM %1$s WHERE cast_id IS NOT NULL
+                UNION ALL
+                SELECT CAST(created_at AT TIME ZONE 'UTC' AS date), user_id, type, 'CREW', crew_id
+                FROM %1$s WHERE crew_id IS NOT NULL
+                UNION ALL
+                SELECT CAST(created_at AT TIME ZONE 'UTC' AS date), user_id, type, 'NONE', 0
+                FROM %1$s
+                WHERE movie_id IS NULL AND person_id IS NULL AND genre_id IS NULL
+                  AND cast_id IS NULL AND crew_id IS NULL
+            ) x
+            GROUP BY day, user_id, type, entity_kind, entity_id
+            ON CONFLICT (day, user_id, type, entity_kind, entity_id)
+            DO UPDATE SET event_count = user_event_daily_rollups.event_count + EXCLUDED.event_count
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public UserEventPartitionService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${events.partitions.enabled:true}") boolean enabled,
+            @Value("${events.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${events.partitions.retention-months:12}") int retentionMonths
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = Math.max(1, retentionMonths);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.error("[UserEventPartitionService] Partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Καθημερινό maintenance: νέα partitions μπροστά, rollup + drop πίσω.
+     */
+    @Scheduled(cron = "${events.partitions.cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        if (!enabled || !isPartitioned()) return;
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<String> partitions = listPartitions();
+
+        // οι μήνες που καλύπτει ήδη το ιστορικό partition δεν παίρνουν δικό τους
+        YearMonth first = current;
+        for (String partition : partitions) {
+            YearMonth until = legacyUntil(partition);
+            if (until != null && until.isAfter(first)) first = until;
+        }
+        for (YearMonth month = first; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            try {
+                createPartition(month);
+            } catch (Exception e) {
+                log.warn("[UserEventPartitionService] Could not create partition {}: {}", month, e.getMessage());
+            }
+        }
+
+        YearMonth oldestKept = retentionCutoff(current, retentionMonths);
+        for (String partition : partitions) {
+            if (isExpired(partition, oldestKept)) {
+                rollupAndDrop(partition);
+            }
+        }
+    }
+
+    // =====================================================
+    //                  PARTITIONS
+    // =====================================================
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (
+                    SELECT 1 FROM pg_partitioned_table pt
+                    JOIN pg_class c ON c.oid = pt.partrelid
+                    WHERE c.relname = 'user_events'
+                )
+                """, Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Rows του νέου μήνα που έπεσαν ήδη στο default partition (π.χ. λάθος ρολόι client) κάνουν
+     * το CREATE ... PARTITION OF να αποτύχει. Τότε, στο ίδιο transaction: νέο table, move των rows
+     * από το default, ATTACH.
+     */
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        String from = month.atDay(1) + " 00:00:00+00";
+        String to = month.plusMonths(1).atDay(1) + " 00:00:00+00";
+
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) return;
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // μπλοκάρει τα inserts στο default μέχρι το ATTACH
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+
+            Boolean stray = jdbcTemplate.queryForObject(String.format("""
+                    SELECT EXISTS (SELECT 1 FROM %s WHERE created_at >= '%s' AND created_at < '%s')
+                    """, DEFAULT_PARTITION, from, to), Boolean.class);
+
+            if (!Boolean.TRUE.equals(stray)) {
+                jdbcTemplate.execute(String.format("""
+                        CREATE TABLE %s PARTITION OF %s
+                        FOR VALUES FROM ('%s') TO ('%s')
+                        """, name, TABLE, from, to));
+                return;
+            }
+
+            jdbcTemplate.execute(String.format("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS)", name, TABLE));
+            int moved = jdbcTemplate.update(String.format("""
+                    WITH moved AS (
+                        DELETE FROM %s WHERE created_at >= '%s' AND created_at < '%s'
+                        RETURNING *
+                    )
+                    INSERT INTO %s SELECT * FROM moved
+                    """, DEFAULT_PARTITION, from, to, name));
+            jdbcTemplate.execute(String.format("""
+                    ALTER TABLE %s ATTACH PARTITION %s
+                    FOR VALUES FROM ('%s') TO ('%s')
+                    """, TABLE, name, from, to));
+            log.info("[UserEventPartitionService] Moved {} rows from {} into {}", moved, DEFAULT_PARTITION, name);
+        });
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'user_events'
+                ORDER BY c.relname
+                """, String.class);
+    }
+
+    private void rollupAndDrop(String partition) {
+        // το όνομα έχει ήδη περάσει από το PARTITION_NAME / LEGACY_NAME pattern -> ασφαλές για το SQL
+        transactionTemplate.executeWithoutResult(tx -> {
+            int rows = jdbcTemplate.update(String.format(ROLLUP, partition));
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("[UserEventPartitionService] Rolled up {} into {} daily rows and dropped it", partition, rows);
+        });
+    }
+
+    static String partitionName(YearMonth month) {
+        return "user_events_p" + month.format(SUFFIX);
+    }
+
+    static YearMonth monthOf(String partition) {
+        return parse(PARTITION_NAME, partition);
+    }
+
+    static YearMonth legacyUntil(String partition) {
+        return parse(LEGACY_NAME, partition);
+    }
+
+    /**
+     * Ο παλαιότερος μήνας που κρατάμε: ο τρέχων μαζί με τους προηγούμενους retentionMonths - 1.
+     */
+    static YearMonth retentionCutoff(YearMonth current, int retentionMonths) {
+        return current.minusMonths(Math.max(1, retentionMonths) - 1L);
+    }
+
+    /**
+     * Monthly partition πριν από το cutoff, ή ιστορικό partition που τελειώνει μέχρι το cutoff.
+     * Το default partition δεν λήγει ποτέ.
+     */
+    static boolean isExpired(String partition, YearMonth oldestKept) {
+        YearMonth month = monthOf(partition);
+        if (month != null) return month.isBefore(oldestKept);
+
+        YearMonth until = legacyUntil(partition);
+        return until != null && !until.isAfter(oldestKept);
+    }
+
+    private static YearMonth parse(Pattern pattern, String partition) {
+        Matcher m = pattern.matcher(partition);
+        if (!m.matches()) return null;
+        return YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.model.UserEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.*;
+
+/**
+ * Μετατροπή payload map <-> typed columns του UserEvent.
+ *
+ * Τα γνωστά keys (movieId, personId/actorId/directorId, genreId, castId, crewId, source)
+ * πάνε σε typed columns, ό,τι άλλο στο JSONB attributes.
+ */
+public final class UserEventPayloads {
+
+    private static final Set<String> TYPED_KEYS = Set.of(
+            "movieId", "personId", "actorId", "directorId", "genreId", "castId", "crewId", "source"
+    );
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private UserEventPayloads() {
+    }
+
+    public static void apply(UserEvent event, Map<String, Object> payload) {
+        Map<String, Object> p = payload != null ? payload : Map.of();
+
+        event.setMovieId(asLong(p.get("movieId")));
+        event.setPersonId(firstLong(p, "personId", "actorId", "directorId"));
+        event.setGenreId(asLong(p.get("genreId")));
+        event.setCastId(asLong(p.get("castId")));
+        event.setCrewId(asLong(p.get("crewId")));
+
+        Object source = p.get("source");
+        event.setSource(source != null ? String.valueOf(source) : null);
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        p.forEach((k, v) -> {
+            if (!TYPED_KEYS.contains(k) && v != null) attributes.put(k, v);
+        });
+        event.setAttributes(attributes);
+        event.setPayloadHash(hash(p));
+    }
+
+    /**
+     * Legacy rows (μόνο TEXT payload, χωρίς backfill): γεμίζει τα typed fields in-memory.
+     */
+    public static void upgradeLegacy(UserEvent event, ObjectMapper objectMapper) {
+        if (event.getAttributes() != null) return;
+        if (event.getPayload() == null || event.getPayload().isBlank()) return;
+
+        try {
+            Map<String, Object> payload =
+                    objectMapper.readValue(event.getPayload(), new TypeReference<Map<String, Object>>() {});
+            apply(event, payload);
+        } catch (Exception ignored) {
+            // malformed legacy payload: μένει χωρίς typed fields
+        }
+    }
+
+    /**
+     * Το αρχικό payload (π.χ. για το debug endpoint).
+     */
+    public static Map<String, Object> toMap(UserEvent event) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        putIfNotNull(out, "movieId", event.getMovieId());
+        putIfNotNull(out, "personId", event.getPersonId());
+        putIfNotNull(out, "genreId", event.getGenreId());
+        putIfNotNull(out, "castId", event.getCastId());
+        putIfNotNull(out, "crewId", event.getCrewId());
+        putIfNotNull(out, "source", event.getSource());
+        if (event.getAttributes() != null) out.putAll(event.getAttributes());
+        return out;
+    }
+
+    /**
+     * 64-bit FNV-1a πάνω στα sorted key/value pairs, ώστε το dedupe να συγκρίνει ένα bigint
+     * αντί για ολόκληρο το payload. Ίδιο payload -> ίδιο hash ανεξάρτητα από σειρά / Integer vs Long.
+     */
+    public static long hash(Map<String, Object> payload) {
+        long h = FNV_OFFSET;
+        if (payload == null) return h;
+
+        for (Map.Entry<String, Object> e : new TreeMap<>(payload).entrySet()) {
+            if (e.getValue() == null) continue;
+            String part = e.getKey() + "=" + e.getValue() + ";";
+            for (int i = 0; i < part.length(); i++) {
+                h ^= part.charAt(i);
+                h *= FNV_PRIME;
+            }
+        }
+        return h;
+    }
+
+    public static Long asLong(Object value) {
+        if (value instanceof Number n) return n.longValue();
+        if (value instanceof String s) {
+            try {
+                return Long.parseLong(s.trim());
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Long firstLong(Map<String, Object> payload, String... keys) {
+        for (String k : keys) {
+            Long v = asLong(payload.get(k));
+            if (v != null) return v;
+        }
+        return null;
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+        if (value != null) map.put(key, value);
+    }
+}
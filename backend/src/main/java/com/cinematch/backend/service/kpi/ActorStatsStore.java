@@ -0,0 +1,190 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.kpi.PersonStatsService.PersonStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access στα actor_stats / movie_top_cast / actor_stats_sync (V8).
+ *
+ * Star Power από τη DB = ένα indexed join (movie_top_cast PK + actor_stats PK), χωρίς TMDb.
+ * Τα stale rows παραμένουν usable: είναι το πολύ λίγες ώρες πίσω, μέχρι το επόμενο refresh.
+ */
+@Service
+public class ActorStatsStore {
+
+    private static final RowMapper<PersonStats> STATS = (rs, i) -> new PersonStats(
+            rs.getLong("person_id"),
+            rs.getDouble("popularity"),
+            rs.getInt("credit_count"),
+            rs.getInt("highly_rated_count")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long castMaxAgeMs;
+
+    public ActorStatsStore(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${kpi.actor-stats.cast-max-age-ms:2592000000}") long castMaxAgeMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.castMaxAgeMs = castMaxAgeMs;
+    }
+
+    // =====================================================
+    //                  READS
+    // =====================================================
+
+    /**
+     * Stats των top-billed ηθοποιών της ταινίας, με τη σειρά του billing.
+     * Empty αν δεν ξέρουμε (ή είναι παλιό) το cast, ή αν λείπει έστω ένας ηθοποιός.
+     */
+    public Optional<List<PersonStats>> topCastStats(long movieId) {
+        Timestamp castNotBefore = Timestamp.from(Instant.now().minusMillis(castMaxAgeMs));
+
+        List<PersonStats> rows = jdbcTemplate.query("""
+                SELECT c.person_id, s.popularity, s.credit_count, s.highly_rated_count,
+                       s.person_id IS NOT NULL AS known
+                FROM movie_top_cast c
+                LEFT JOIN actor_stats s ON s.person_id = c.person_id
+                WHERE c.movie_id = ? AND c.refreshed_at >= ?
+                ORDER BY c.billing_order
+                """, (rs, i) -> rs.getBoolean("known") ? STATS.mapRow(rs, i) : null, movieId, castNotBefore);
+
+        if (rows.isEmpty() || rows.contains(null)) return Optional.empty();
+        return Optional.of(rows);
+    }
+
+    public Optional<PersonStats> findFresh(long personId) {
+        return jdbcTemplate.query("""
+                SELECT person_id, popularity, credit_count, highly_rated_count
+                FROM actor_stats
+                WHERE person_id = ? AND NOT stale
+                """, STATS, personId).stream().findFirst();
+    }
+
+    /**
+     * Ουρά του refresh: πρώτα όσοι άλλαξαν στο TMDb, μετά όσοι εμφανίζονται σε cast χωρίς stats.
+     */
+    public List<Long> staleOrMissing(int limit) {
+        List<Long> ids = new ArrayList<>(jdbcTemplate.queryForList("""
+                SELECT person_id FROM actor_stats
+                WHERE stale
+                ORDER BY refreshed_at
+                LIMIT ?
+                """, Long.class, limit));
+
+        if (ids.size() < limit) {
+            ids.addAll(jdbcTemplate.queryForList("""
+                    SELECT DISTINCT c.person_id
+                    FROM movie_top_cast c
+                    LEFT JOIN actor_stats s ON s.person_id = c.person_id
+                    WHERE s.person_id IS NULL
+                    LIMIT ?
+                    """, Long.class, limit - ids.size()));
+        }
+        return ids;
+    }
+
+    // =====================================================
+    //                  WRITES
+    // =====================================================
+    public void upsert(PersonStats stats) {
+        jdbcTemplate.update("""
+                INSERT INTO actor_stats (person_id, popularity, credit_count, highly_rated_count, stale, refreshed_at)
+                VALUES (?, ?, ?, ?, FALSE, now())
+                ON CONFLICT (person_id) DO UPDATE
+                SET popularity = EXCLUDED.popularity,
+                    credit_count = EXCLUDED.credit_count,
+                    highly_rated_count = EXCLUDED.highly_rated_count,
+                    stale = FALSE,
+                    refreshed_at = EXCLUDED.refreshed_at
+                """, stats.personId(), stats.popularity(), stats.creditCount(), stats.highlyRatedCount());
+    }
+
+    /**
+     * Refresh που απέτυχε: το row μένει stale, αλλά πάει στο τέλος της ουράς (ORDER BY refreshed_at).
+     */
+    public void deferRefresh(long personId) {
+        jdbcTemplate.update("UPDATE actor_stats SET refreshed_at = now() WHERE person_id = ? AND stale", personId);
+    }
+
+    /**
+     * Person που το TMDb δεν έχει πια (404): κρατάμε τα τελευταία stats (ή μηδενικά αν δεν υπήρχαν)
+     * χωρίς stale, ώστε να μη ξαναμπεί στην ουρά, ούτε ως stale ούτε ως missing.
+     */
+    public void markGone(long personId) {
+        jdbcTemplate.update("""
+                INSERT INTO actor_stats (person_id, popularity, credit_count, highly_rated_count, stale, refreshed_at)
+                VALUES (?, 0, 0, 0, FALSE, now())
+                ON CONFLICT (person_id) DO UPDATE
+                SET stale = FALSE,
+                    refreshed_at = EXCLUDED.refreshed_at
+                """, personId);
+    }
+
+    public void saveTopCast(long movieId, List<Long> personIds) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.update("DELETE FROM movie_top_cast WHERE movie_id = ?", movieId);
+
+            List<Object[]> rows = new ArrayList<>(personIds.size());
+            for (int order = 0; order < personIds.size(); order++) {
+                rows.add(new Object[]{movieId, order, personIds.get(order)});
+            }
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO movie_top_cast (movie_id, billing_order, person_id, refreshed_at)
+                    VALUES (?, ?, ?, now())
+                    """, rows);
+        });
+    }
+
+    /**
+     * Σημαδεύει ως stale όσα από τα ids υπάρχουν ήδη (τα υπόλοιπα δεν μας ενδιαφέρουν).
+     * @return πόσα rows άλλαξαν
+     */
+    public int markStale(Collection<Long> personIds) {
+        if (personIds.isEmpty()) return 0;
+
+        List<Object[]> rows = personIds.stream().map(id -> new Object[]{id}).toList();
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE actor_stats SET stale = TRUE WHERE person_id = ? AND NOT stale",
+                rows, 500, (ps, row) -> ps.setLong(1, (Long) row[0]));
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int n : batch) updated += Math.max(n, 0);
+        }
+        return updated;
+    }
+
+    // =====================================================
+    //                  SYNC CURSOR
+    // =====================================================
+    public Optional<LocalDate> changesSyncedTo() {
+        return jdbcTemplate.query(
+                "SELECT changes_synced_to FROM actor_stats_sync WHERE id = 1",
+                (rs, i) -> rs.getDate(1).toLocalDate()).stream().findFirst();
+    }
+
+    public void setChangesSyncedTo(LocalDate day) {
+        jdbcTemplate.update("""
+                INSERT INTO actor_stats_sync (id, changes_synced_to) VALUES (1, ?)
+                ON CONFLICT (id) DO UPDATE SET changes_synced_to = EXCLUDED.changes_synced_to
+                """, Date.valueOf(day));
+    }
+}
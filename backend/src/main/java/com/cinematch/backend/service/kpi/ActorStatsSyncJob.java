@@ -0,0 +1,150 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.TmdbService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Κρατάει το actor_stats φρέσκο με incremental δουλειά:
+ *
+ *  1. TMDb {@code /person/changes} από την τελευταία ημέρα που διαβάσαμε (έως 14 ημέρες πίσω,
+ *     όσο επιτρέπει το TMDb, βλ. {@link TmdbChangesFeed}) -> stale = true για όσους ηθοποιούς
+ *     έχουμε ήδη.
+ *  2. Refresh (details + movie_credits) μόνο για stale rows και για ηθοποιούς του
+ *     movie_top_cast που δεν έχουν ακόμα row. Κανείς άλλος δεν ξαναδιαβάζεται.
+ *
+ * Τρέχει σε δικό του thread (όχι στο scheduler). Τα refreshes γίνονται στο tmdbExecutor,
+ * μέχρι refresh-batch ανά κύκλο, αλλά το πολύ refresh-parallelism ταυτόχρονα: το pool το
+ * μοιράζονται τα user-facing requests (recommendations), που δεν πρέπει να περιμένουν πίσω
+ * από ένα ολόκληρο batch.
+ */
+@Service
+@Slf4j
+public class ActorStatsSyncJob {
+
+    private final TmdbService tmdbService;
+    private final ActorStatsStore actorStatsStore;
+    private final PersonStatsService personStatsService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final int maxChangePages;
+    private final int refreshBatch;
+    private final int refreshParallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "actor-stats-sync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ActorStatsSyncJob(
+            TmdbService tmdbService,
+            ActorStatsStore actorStatsStore,
+            PersonStatsService personStatsService,
+            @Value("${kpi.actor-stats.sync-enabled:true}") boolean enabled,
+            @Value("${kpi.actor-stats.max-change-pages:50}") int maxChangePages,
+            @Value("${kpi.actor-stats.refresh-batch:200}") int refreshBatch,
+            @Value("${kpi.actor-stats.refresh-parallelism:4}") int refreshParallelism
+    ) {
+        this.tmdbService = tmdbService;
+        this.actorStatsStore = actorStatsStore;
+        this.personStatsService = personStatsService;
+        this.enabled = enabled;
+        this.maxChangePages = maxChangePages;
+        this.refreshBatch = refreshBatch;
+        this.refreshParallelism = Math.max(1, refreshParallelism);
+    }
+
+    @Scheduled(
+            initialDelayString = "${kpi.actor-stats.initial-delay-ms:120000}",
+            fixedDelayString = "${kpi.actor-stats.sync-interval-ms:3600000}"
+    )
+    public void sync() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+
+        try {
+            worker.execute(this::runOnce);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // =================== helpers ===================
+
+    private void runOnce() {
+        long started = System.currentTimeMillis();
+        try {
+            int markedStale = syncChanges();
+            int[] refreshed = refreshQueued();
+            log.info("[ActorStatsSyncJob] {} actors marked stale, {} refreshed ({} failed) in {} ms",
+                    markedStale, refreshed[0], refreshed[1], System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            // shutdown
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("[ActorStatsSyncJob] Sync failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return πόσα actor_stats rows έγιναν stale
+     */
+    private int syncChanges() throws Exception {
+        TmdbChangesFeed.Changes changes = TmdbChangesFeed.read(tmdbService, objectMapper, "/person/changes",
+                actorStatsStore.changesSyncedTo().orElse(null), LocalDate.now(ZoneOffset.UTC), maxChangePages);
+
+        int marked = actorStatsStore.markStale(changes.ids());
+        actorStatsStore.setChangesSyncedTo(changes.syncedTo());
+        return marked;
+    }
+
+    /**
+     * @return {refreshed, failed}
+     */
+    private int[] refreshQueued() throws InterruptedException {
+        List<Long> ids = actorStatsStore.staleOrMissing(refreshBatch);
+
+        // ο worker περιμένει permit πριν το επόμενο submit
+        Semaphore permits = new Semaphore(refreshParallelism);
+        List<CompletableFuture<PersonStatsService.PersonStats>> tasks = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            permits.acquire();
+            tasks.add(personStatsService.refreshAsync(id)
+                    .whenComplete((stats, e) -> permits.release()));
+        }
+
+        int failed = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                tasks.get(i).join();
+            } catch (Exception e) {
+                failed++;
+                log.debug("[ActorStatsSyncJob] Refresh failed for person {}: {}", ids.get(i), e.getMessage());
+            }
+        }
+        return new int[]{tasks.size() - failed, failed};
+    }
+}
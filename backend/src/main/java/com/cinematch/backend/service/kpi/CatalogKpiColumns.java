@@ -0,0 +1,242 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.KpiService;
+import com.cinematch.backend.util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Ο κατάλογος σε column-oriented primitive arrays, για scoring εκατοντάδων χιλιάδων ταινιών.
+ *
+ *  - Ένα slot ανά ταινία (movieId -> slot μέσω {@link LongIntHashMap}), ένα slot ανά ηθοποιό.
+ *  - Το top cast κάθε ταινίας είναι {@link #CAST_SLOTS} actor slots στο {@code cast[]}.
+ *  - Τα genres γίνονται bitmask: κάθε TMDb genre id παίρνει ένα bit με τη σειρά που εμφανίζεται.
+ *
+ * Ταινίες / ηθοποιοί μπορεί να εμφανιστούν πρώτα από το movie_top_cast: παίρνουν slot αλλά
+ * μένουν εκτός leaderboards (inCatalog = false / score NaN) μέχρι να φορτωθούν τα δικά τους data.
+ *
+ * Δεν είναι thread-safe: τα updates και το {@link #scoreAll()} γίνονται από ένα thread.
+ */
+public final class CatalogKpiColumns {
+
+    public static final int CAST_SLOTS = 5;
+    public static final int MAX_GENRES = 64;
+
+    private static final int NONE = -1;
+
+    // ---- movies ----
+    private int size;
+    private long[] movieIds;
+    private String[] titles;
+    private short[] years;          // 0 = άγνωστο
+    private long[] genreMasks;
+    private float[] popularity;
+    private float[] voteAverage;
+    private int[] voteCount;
+    private boolean[] inCatalog;
+    private int[] cast;             // size * CAST_SLOTS actor slots, NONE = κενό
+    private float[] engagement;
+    private float[] starPower;      // NaN = άγνωστο cast ή ηθοποιός χωρίς stats
+    private final LongIntHashMap movieIndex;
+
+    // ---- actors ----
+    private int actorCount;
+    private long[] actorIds;
+    private float[] actorScores;    // NaN = χωρίς actor_stats ακόμα
+    private final LongIntHashMap actorIndex;
+
+    // ---- genres ----
+    private final LongIntHashMap genreBits = new LongIntHashMap(MAX_GENRES, NONE);
+    private final int[] bitGenres = new int[MAX_GENRES];
+    private int genreCount;
+
+    public CatalogKpiColumns(int expectedMovies) {
+        int capacity = Math.max(16, expectedMovies);
+        movieIds = new long[capacity];
+        titles = new String[capacity];
+        years = new short[capacity];
+        genreMasks = new long[capacity];
+        popularity = new float[capacity];
+        voteAverage = new float[capacity];
+        voteCount = new int[capacity];
+        inCatalog = new boolean[capacity];
+        cast = new int[capacity * CAST_SLOTS];
+        engagement = new float[capacity];
+        starPower = new float[capacity];
+        movieIndex = new LongIntHashMap(capacity, NONE);
+
+        int actorCapacity = Math.max(16, expectedMovies);
+        actorIds = new long[actorCapacity];
+        actorScores = new float[actorCapacity];
+        actorIndex = new LongIntHashMap(actorCapacity, NONE);
+    }
+
+    // =====================================================
+    //                  UPDATES
+    // =====================================================
+    public void upsertMovie(long movieId, String title, int year, int[] genreIds,
+                            double popularity, double voteAverage, int voteCount) {
+        int i = movieSlot(movieId);
+        titles[i] = title;
+        years[i] = (short) Math.max(0, Math.min(year, Short.MAX_VALUE));
+        genreMasks[i] = genreMask(genreIds);
+        this.popularity[i] = (float) popularity;
+        this.voteAverage[i] = (float) voteAverage;
+        this.voteCount[i] = voteCount;
+        inCatalog[i] = true;
+    }
+
+    /**
+     * Αντικαθιστά το top cast της ταινίας (με σειρά billing, έως {@link #CAST_SLOTS}).
+     */
+    public void setTopCast(long movieId, long[] personIds) {
+        int base = movieSlot(movieId) * CAST_SLOTS;
+        for (int s = 0; s < CAST_SLOTS; s++) {
+            cast[base + s] = s < personIds.length ? actorSlot(personIds[s]) : NONE;
+        }
+    }
+
+    public void upsertActor(long personId, double popularity, int creditCount, int highlyRatedCount) {
+        actorScores[actorSlot(personId)] = (float) KpiService.actorScore(popularity, creditCount, highlyRatedCount);
+    }
+
+    // =====================================================
+    //                  SCORING
+    // =====================================================
+
+    /**
+     * Audience Engagement και Star Power για όλο τον κατάλογο, παράλληλα (common fork-join pool).
+     * Κάθε slot γράφεται από ένα μόνο task, οπότε δεν χρειάζεται συγχρονισμός.
+     */
+    public void scoreAll() {
+        IntStream.range(0, size).parallel().forEach(i -> {
+            engagement[i] = inCatalog[i]
+                    ? (float) KpiService.engagementScore(voteCount[i], voteAverage[i], popularity[i])
+                    : Float.NaN;
+            starPower[i] = inCatalog[i] ? starPowerOf(i) : Float.NaN;
+        });
+    }
+
+    private float starPowerOf(int movie) {
+        int base = movie * CAST_SLOTS;
+        double total = 0.0;
+        int actors = 0;
+        for (int s = 0; s < CAST_SLOTS; s++) {
+            int a = cast[base + s];
+            if (a == NONE) break;
+            float score = actorScores[a];
+            if (Float.isNaN(score)) return Float.NaN;
+            total += score;
+            actors++;
+        }
+        // ίδιος τύπος με το KpiService: μέσος όρος των top ηθοποιών
+        return actors == 0 ? Float.NaN : (float) Math.min(100.0, total / actors);
+    }
+
+    // =====================================================
+    //                  READ ACCESS (KpiLeaderboards)
+    // =====================================================
+    public int size() {
+        return size;
+    }
+
+    public int catalogSize() {
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (inCatalog[i]) n++;
+        }
+        return n;
+    }
+
+    long[] movieIds() {
+        return movieIds;
+    }
+
+    String[] titles() {
+        return titles;
+    }
+
+    short[] years() {
+        return years;
+    }
+
+    long[] genreMasks() {
+        return genreMasks;
+    }
+
+    float[] scores(KpiLeaderboards.Metric metric) {
+        return metric == KpiLeaderboards.Metric.STAR_POWER ? starPower : engagement;
+    }
+
+    int genreCount() {
+        return genreCount;
+    }
+
+    int genreOfBit(int bit) {
+        return bitGenres[bit];
+    }
+
+    // =================== helpers ===================
+
+    private int movieSlot(long movieId) {
+        int i = movieIndex.get(movieId);
+        if (i != NONE) return i;
+
+        if (size == movieIds.length) growMovies();
+        i = size++;
+        movieIds[i] = movieId;
+        Arrays.fill(cast, i * CAST_SLOTS, (i + 1) * CAST_SLOTS, NONE);
+        engagement[i] = Float.NaN;
+        starPower[i] = Float.NaN;
+        movieIndex.put(movieId, i);
+        return i;
+    }
+
+    private int actorSlot(long personId) {
+        int a = actorIndex.get(personId);
+        if (a != NONE) return a;
+
+        if (actorCount == actorIds.length) {
+            int capacity = actorIds.length * 2;
+            actorIds = Arrays.copyOf(actorIds, capacity);
+            actorScores = Arrays.copyOf(actorScores, capacity);
+        }
+        a = actorCount++;
+        actorIds[a] = personId;
+        actorScores[a] = Float.NaN;
+        actorIndex.put(personId, a);
+        return a;
+    }
+
+    private void growMovies() {
+        int capacity = movieIds.length * 2;
+        movieIds = Arrays.copyOf(movieIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        years = Arrays.copyOf(years, capacity);
+        genreMasks = Arrays.copyOf(genreMasks, capacity);
+        popularity = Arrays.copyOf(popularity, capacity);
+        voteAverage = Arrays.copyOf(voteAverage, capacity);
+        voteCount = Arrays.copyOf(voteCount, capacity);
+        inCatalog = Arrays.copyOf(inCatalog, capacity);
+        cast = Arrays.copyOf(cast, capacity * CAST_SLOTS);
+        engagement = Arrays.copyOf(engagement, capacity);
+        starPower = Arrays.copyOf(starPower, capacity);
+    }
+
+    private long genreMask(int[] genreIds) {
+        long mask = 0;
+        if (genreIds == null) return mask;
+        for (int genreId : genreIds) {
+            int bit = genreBits.get(genreId);
+            if (bit == NONE) {
+                if (genreCount == MAX_GENRES) continue; // το TMDb έχει ~19 movie genres
+                bit = genreCount++;
+                bitGenres[bit] = genreId;
+                genreBits.put(genreId, bit);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,163 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.dto.AudienceEngagementResponse;
+import com.cinematch.backend.dto.KpiBatchResponse;
+import com.cinematch.backend.dto.MovieKpiDto;
+import com.cinematch.backend.dto.StarPowerResponse;
+import com.cinematch.backend.service.KpiService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * KPIs για ένα grid ταινιών σε ένα request, μέσα σε deadline.
+ *
+ *  - Όλες οι ταινίες ξεκινούν μαζί (cached values επιστρέφονται αμέσως).
+ *  - Κοινοί ηθοποιοί ανάμεσα στις ταινίες φορτώνονται μία φορά: το {@link PersonStatsService}
+ *    μοιράζει το ίδιο in-flight future σε όποια ταινία τους χρειάζεται.
+ *  - Στο deadline επιστρέφουμε ό,τι έχει ολοκληρωθεί. Τα υπόλοιπα συνεχίζουν στο background
+ *    και μπαίνουν στο cache, οπότε το επόμενο request (ή retry του frontend) τα βρίσκει έτοιμα.
+ *  - Ό,τι απέρριψε ο kpiExecutor (γεμάτο pool) δίνεται κι αυτό ως pending: ένα retry θα περάσει.
+ *  - Το endpoint είναι public, οπότε το πλήθος των ταυτόχρονων batches έχει όριο
+ *    (kpi.batch.max-concurrent). Πάνω από αυτό ο controller απαντάει 429.
+ */
+@Service
+@Slf4j
+public class KpiBatchService {
+
+    private final KpiService kpiService;
+    private final int maxMovies;
+    private final long defaultTimeoutMs;
+    private final long maxTimeoutMs;
+    private final Semaphore running;
+
+    public KpiBatchService(
+            KpiService kpiService,
+            @Value("${kpi.batch.max-movies:60}") int maxMovies,
+            @Value("${kpi.batch.timeout-ms:2000}") long defaultTimeoutMs,
+            @Value("${kpi.batch.max-timeout-ms:5000}") long maxTimeoutMs,
+            @Value("${kpi.batch.max-concurrent:8}") int maxConcurrent
+    ) {
+        this.kpiService = kpiService;
+        this.maxMovies = maxMovies;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    public int maxMovies() {
+        return maxMovies;
+    }
+
+    /**
+     * @return empty αν τρέχουν ήδη max-concurrent batches
+     */
+    public Optional<KpiBatchResponse> tryCalculate(List<Long> movieIds, Long timeoutMs) {
+        if (!running.tryAcquire()) return Optional.empty();
+        try {
+            return Optional.of(calculate(movieIds, timeoutMs));
+        } finally {
+            running.release();
+        }
+    }
+
+    public KpiBatchResponse calculate(List<Long> movieIds, Long timeoutMs) {
+        long started = System.currentTimeMillis();
+        long timeout = Math.min(Math.max(timeoutMs != null ? timeoutMs : defaultTimeoutMs, 1), maxTimeoutMs);
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(movieIds.stream()
+                .filter(Objects::nonNull)
+                .toList()));
+
+        List<CompletableFuture<StarPowerResponse>> starPower = new ArrayList<>(ids.size());
+        List<CompletableFuture<AudienceEngagementResponse>> engagement = new ArrayList<>(ids.size());
+        for (Long movieId : ids) {
+            starPower.add(kpiService.starPowerAsync(movieId));
+            engagement.add(kpiService.audienceEngagementAsync(movieId));
+        }
+
+        List<CompletableFuture<?>> all = new ArrayList<>(starPower);
+        all.addAll(engagement);
+        awaitUntil(all, started + timeout);
+
+        List<MovieKpiDto> results = new ArrayList<>(ids.size());
+        List<Long> pending = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            CompletableFuture<StarPowerResponse> sp = starPower.get(i);
+            CompletableFuture<AudienceEngagementResponse> ae = engagement.get(i);
+
+            StarPowerResponse spValue = valueOrNull(sp);
+            AudienceEngagementResponse aeValue = valueOrNull(ae);
+
+            results.add(MovieKpiDto.builder()
+                    .movieId(ids.get(i))
+                    .starPower(spValue != null ? spValue.getStarPower() : null)
+                    .audienceEngagement(aeValue != null ? aeValue.getEngagement() : null)
+                    .build());
+
+            if (rejected(sp) || rejected(ae) || !sp.isDone() || !ae.isDone()) {
+                pending.add(ids.get(i));
+            } else if (sp.isCompletedExceptionally() || ae.isCompletedExceptionally()) {
+                failed.add(ids.get(i));
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - started;
+        if (!pending.isEmpty()) {
+            log.debug("[KpiBatchService] {} of {} movies missed the {} ms deadline", pending.size(), ids.size(), timeout);
+        }
+
+        return KpiBatchResponse.builder()
+                .results(results)
+                .pending(pending)
+                .failed(failed)
+                .elapsedMs(elapsed)
+                .build();
+    }
+
+    // =================== helpers ===================
+
+    private static void awaitUntil(List<CompletableFuture<?>> futures, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) return;
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // partial: τα αποτελέσματα διαβάζονται ανά future παρακάτω
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean rejected(CompletableFuture<?> future) {
+        if (!future.isCompletedExceptionally()) return false;
+
+        Throwable e = future.handle((v, error) -> error).getNow(null);
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e instanceof RejectedExecutionException;
+    }
+
+    private static <T> T valueOrNull(CompletableFuture<T> future) {
+        if (!future.isDone() || future.isCompletedExceptionally()) return null;
+        return future.getNow(null);
+    }
+}
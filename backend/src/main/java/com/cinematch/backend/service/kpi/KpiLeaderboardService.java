@@ -0,0 +1,277 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.dto.KpiLeaderboardDto;
+import com.cinematch.backend.dto.KpiLeaderboardEntryDto;
+import com.cinematch.backend.service.kpi.KpiLeaderboards.Board;
+import com.cinematch.backend.service.kpi.KpiLeaderboards.Metric;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Catalog-wide KPI leaderboards (Audience Engagement / Star Power), φιλτραρισμένα ανά genre και έτος.
+ *
+ * Τίποτα δεν υπολογίζεται στο request: τα endpoints διαβάζουν το τελευταίο materialized
+ * {@link KpiLeaderboards} snapshot. Κάθε refresh:
+ *  1. φορτώνει incrementally (updated_at / refreshed_at > watermark) τα rows που άλλαξαν
+ *     στα movie_catalog, movie_top_cast, actor_stats, μέσα στα primitive columns
+ *  2. αν άλλαξε κάτι: scoring όλου του καταλόγου παράλληλα + rebuild των buckets, και swap
+ *
+ * Το watermark κρατιέται λίγο πίσω ({@code overlap-ms}), γιατί το now() ενός transaction είναι
+ * η ώρα έναρξής του: ένα αργό commit μπορεί να φέρει rows με "παλιό" timestamp.
+ * Τα upserts στα columns είναι idempotent, άρα η επικάλυψη δεν πειράζει.
+ */
+@Service
+@Slf4j
+public class KpiLeaderboardService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+    private final int topK;
+    private final int fetchSize;
+    private final long overlapMs;
+
+    // μόνο από το worker thread
+    private final CatalogKpiColumns columns;
+    private Instant moviesSeen = Instant.EPOCH;
+    private Instant castSeen = Instant.EPOCH;
+    private Instant actorsSeen = Instant.EPOCH;
+    private boolean dirty = true; // columns άλλαξαν χωρίς να έχει γίνει build (π.χ. μετά από error)
+
+    private volatile KpiLeaderboards snapshot = KpiLeaderboards.empty();
+    private volatile Instant refreshedAt;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "kpi-leaderboards");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public KpiLeaderboardService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${kpi.leaderboards.enabled:true}") boolean enabled,
+            @Value("${kpi.leaderboards.top-k:100}") int topK,
+            @Value("${kpi.leaderboards.expected-movies:200000}") int expectedMovies,
+            @Value("${kpi.leaderboards.fetch-size:5000}") int fetchSize,
+            @Value("${kpi.leaderboards.overlap-ms:60000}") long overlapMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTx = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+        this.topK = topK;
+        this.fetchSize = fetchSize;
+        this.overlapMs = overlapMs;
+        this.columns = new CatalogKpiColumns(expectedMovies);
+    }
+
+    public KpiLeaderboardDto leaderboard(Metric metric, Integer genreId, Integer year, int limit) {
+        KpiLeaderboards current = snapshot;
+        Board board = current.board(metric, genreId, year);
+
+        int n = Math.min(Math.max(limit, 1), board.size());
+        List<KpiLeaderboardEntryDto> entries = new ArrayList<>(n);
+        for (int r = 0; r < n; r++) {
+            entries.add(KpiLeaderboardEntryDto.builder()
+                    .rank(r + 1)
+                    .movieId(board.movieIds()[r])
+                    .title(board.titles()[r])
+                    .score(Math.round(board.scores()[r] * 10.0) / 10.0)
+                    .build());
+        }
+
+        return KpiLeaderboardDto.builder()
+                .metric(metric.name())
+                .genreId(genreId)
+                .year(year)
+                .catalogSize(current.catalogSize())
+                .refreshedAt(refreshedAt)
+                .entries(entries)
+                .build();
+    }
+
+    public int maxLimit() {
+        return topK;
+    }
+
+    // =====================================================
+    //                  REFRESH
+    // =====================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(
+            initialDelayString = "${kpi.leaderboards.refresh-ms:300000}",
+            fixedDelayString = "${kpi.leaderboards.refresh-ms:300000}"
+    )
+    public void refresh() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+
+        try {
+            worker.execute(this::runOnce);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // =================== helpers ===================
+
+    private void runOnce() {
+        long started = System.currentTimeMillis();
+        try {
+            int changed = loadMovies();
+            changed += loadTopCast();
+            changed += loadActors();
+            if (!dirty) return;
+
+            long loaded = System.currentTimeMillis();
+            columns.scoreAll();
+            snapshot = KpiLeaderboards.build(columns, topK);
+            refreshedAt = Instant.now();
+            dirty = false;
+
+            log.info("[KpiLeaderboardService] {} changed rows, {} catalog movies: load {} ms, score + build {} ms",
+                    changed, snapshot.catalogSize(), loaded - started, System.currentTimeMillis() - loaded);
+        } catch (Exception e) {
+            log.warn("[KpiLeaderboardService] Refresh failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int loadMovies() {
+        Instant[] max = {moviesSeen};
+        int rows = stream("""
+                SELECT movie_id, title, release_year, genre_ids, popularity, vote_average, vote_count, updated_at
+                FROM movie_catalog
+                WHERE updated_at > ?
+                """, since(moviesSeen), rs -> {
+            int year = rs.getInt(3); // NULL -> 0
+            columns.upsertMovie(rs.getLong(1), rs.getString(2), year, parseGenres(rs.getString(4)),
+                    rs.getDouble(5), rs.getDouble(6), rs.getInt(7));
+            max[0] = later(max[0], rs.getTimestamp(8));
+        });
+        moviesSeen = max[0];
+        return rows;
+    }
+
+    private int loadTopCast() {
+        // τα rows μιας ταινίας γράφονται μαζί (ActorStatsStore.saveTopCast) με το ίδιο refreshed_at
+        Instant[] max = {castSeen};
+        long[] movie = {-1};
+        long[] cast = new long[CatalogKpiColumns.CAST_SLOTS];
+        int[] filled = {0};
+
+        int rows = stream("""
+                SELECT movie_id, billing_order, person_id, refreshed_at
+                FROM movie_top_cast
+                WHERE refreshed_at > ?
+                ORDER BY movie_id, billing_order
+                """, since(castSeen), rs -> {
+            long movieId = rs.getLong(1);
+            if (movieId != movie[0]) {
+                if (movie[0] != -1) columns.setTopCast(movie[0], Arrays.copyOf(cast, filled[0]));
+                movie[0] = movieId;
+                filled[0] = 0;
+            }
+            if (filled[0] < cast.length) cast[filled[0]++] = rs.getLong(3);
+            max[0] = later(max[0], rs.getTimestamp(4));
+        });
+        if (movie[0] != -1) columns.setTopCast(movie[0], Arrays.copyOf(cast, filled[0]));
+
+        castSeen = max[0];
+        return rows;
+    }
+
+    private int loadActors() {
+        Instant[] max = {actorsSeen};
+        int rows = stream("""
+                SELECT person_id, popularity, credit_count, highly_rated_count, refreshed_at
+                FROM actor_stats
+                WHERE refreshed_at > ?
+                """, since(actorsSeen), rs -> {
+            columns.upsertActor(rs.getLong(1), rs.getDouble(2), rs.getInt(3), rs.getInt(4));
+            max[0] = later(max[0], rs.getTimestamp(5));
+        });
+        actorsSeen = max[0];
+        return rows;
+    }
+
+    /**
+     * Cursor fetch (μέσα σε read-only transaction), ώστε ένα full load να μη φέρνει
+     * όλο τον κατάλογο στη μνήμη του driver.
+     */
+    private int stream(String sql, Timestamp since, RowCallbackHandler handler) {
+        int[] count = {0};
+        readOnlyTx.executeWithoutResult(tx -> jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    ps.setTimestamp(1, since);
+                    return ps;
+                },
+                rs -> {
+                    dirty = true;
+                    handler.processRow(rs);
+                    count[0]++;
+                }
+        ));
+        return count[0];
+    }
+
+    private Timestamp since(Instant seen) {
+        return Timestamp.from(seen.equals(Instant.EPOCH) ? seen : seen.minusMillis(overlapMs));
+    }
+
+    private static Instant later(Instant current, Timestamp candidate) {
+        if (candidate == null) return current;
+        Instant t = candidate.toInstant();
+        return t.isAfter(current) ? t : current;
+    }
+
+    static int[] parseGenres(String csv) {
+        if (csv == null || csv.isBlank()) return new int[0];
+        String[] parts = csv.split(",");
+        int[] ids = new int[parts.length];
+        int n = 0;
+        for (String p : parts) {
+            try {
+                ids[n] = Integer.parseInt(p.trim());
+                n++;
+            } catch (NumberFormatException ignored) {
+                // αγνοούμε χαλασμένα entries
+            }
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+}
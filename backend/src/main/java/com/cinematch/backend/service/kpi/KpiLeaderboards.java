@@ -0,0 +1,176 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Materialized leaderboards (top-K ανά metric και filter bucket) πάνω σε {@link CatalogKpiColumns}.
+ *
+ * Buckets: όλος ο κατάλογος, ανά genre, ανά έτος, ανά (genre, έτος).
+ * Build ανά metric:
+ *  1. κάθε ταινία γίνεται ένα long key = (αντεστραμμένο score << 32) | slot, παράλληλα
+ *  2. {@link Arrays#parallelSort(long[])} -> φθίνουσα σειρά score
+ *  3. ένα πέρασμα: κάθε ταινία μπαίνει σε όσα buckets της δεν έχουν γεμίσει ακόμα
+ *
+ * Immutable μετά το build: το service κάνει atomic swap ολόκληρου του object.
+ */
+public final class KpiLeaderboards {
+
+    public enum Metric {
+        ENGAGEMENT, STAR_POWER;
+
+        public static Metric fromPath(String value) {
+            return switch (value.toLowerCase()) {
+                case "engagement", "audience-engagement" -> ENGAGEMENT;
+                case "star-power", "starpower" -> STAR_POWER;
+                default -> null;
+            };
+        }
+    }
+
+    public record Board(long[] movieIds, String[] titles, float[] scores) {
+        public int size() {
+            return movieIds.length;
+        }
+    }
+
+    private static final Board EMPTY = new Board(new long[0], new String[0], new float[0]);
+    private static final long NO_SCORE = Long.MAX_VALUE;
+    private static final int ANY = 0;
+
+    private final Map<Metric, Map<Integer, Board>> boards;
+    private final Map<Integer, Integer> genreBits;
+    private final int catalogSize;
+
+    private KpiLeaderboards(Map<Metric, Map<Integer, Board>> boards, Map<Integer, Integer> genreBits, int catalogSize) {
+        this.boards = boards;
+        this.genreBits = genreBits;
+        this.catalogSize = catalogSize;
+    }
+
+    public static KpiLeaderboards empty() {
+        return new KpiLeaderboards(Map.of(), Map.of(), 0);
+    }
+
+    public static KpiLeaderboards build(CatalogKpiColumns columns, int topK) {
+        Map<Metric, Map<Integer, Board>> boards = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            boards.put(metric, buildMetric(columns, columns.scores(metric), topK));
+        }
+
+        Map<Integer, Integer> genreBits = new HashMap<>();
+        for (int bit = 0; bit < columns.genreCount(); bit++) {
+            genreBits.put(columns.genreOfBit(bit), bit);
+        }
+        return new KpiLeaderboards(boards, genreBits, columns.catalogSize());
+    }
+
+    /**
+     * @param genreId TMDb genre id ή null για όλα
+     * @param year    έτος κυκλοφορίας ή null για όλα
+     */
+    public Board board(Metric metric, Integer genreId, Integer year) {
+        int bit = -1;
+        if (genreId != null) {
+            Integer known = genreBits.get(genreId);
+            if (known == null) return EMPTY;
+            bit = known;
+        }
+        int y = year != null ? year : ANY;
+        if (y < 0 || y > Short.MAX_VALUE) return EMPTY;
+
+        Map<Integer, Board> byBucket = boards.get(metric);
+        if (byBucket == null) return EMPTY;
+        return byBucket.getOrDefault(bucket(bit, y), EMPTY);
+    }
+
+    public int catalogSize() {
+        return catalogSize;
+    }
+
+    // =================== build ===================
+
+    private static Map<Integer, Board> buildMetric(CatalogKpiColumns columns, float[] scores, int topK) {
+        int n = columns.size();
+        long[] keys = new long[n];
+
+        IntStream.range(0, n).parallel().forEach(i -> keys[i] = sortKey(scores[i], i));
+        Arrays.parallelSort(keys);
+
+        short[] years = columns.years();
+        long[] genreMasks = columns.genreMasks();
+
+        LongIntHashMap bucketIndex = new LongIntHashMap(1024, -1);
+        List<int[]> slots = new ArrayList<>();   // ανά bucket: τα slots των ταινιών, με σειρά rank
+        List<int[]> counts = new ArrayList<>();  // ανά bucket: {count}
+        List<Integer> bucketKeys = new ArrayList<>();
+
+        for (long key : keys) {
+            if (key == NO_SCORE) break;
+            int i = (int) key;
+            int year = years[i];
+            long mask = genreMasks[i];
+
+            offer(bucket(-1, ANY), i, topK, bucketIndex, slots, counts, bucketKeys);
+            if (year != ANY) offer(bucket(-1, year), i, topK, bucketIndex, slots, counts, bucketKeys);
+            while (mask != 0) {
+                int bit = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                offer(bucket(bit, ANY), i, topK, bucketIndex, slots, counts, bucketKeys);
+                if (year != ANY) offer(bucket(bit, year), i, topK, bucketIndex, slots, counts, bucketKeys);
+            }
+        }
+
+        long[] movieIds = columns.movieIds();
+        String[] titles = columns.titles();
+        Map<Integer, Board> out = new HashMap<>(bucketKeys.size() * 2);
+        for (int b = 0; b < bucketKeys.size(); b++) {
+            int count = counts.get(b)[0];
+            int[] rows = slots.get(b);
+            long[] ids = new long[count];
+            String[] names = new String[count];
+            float[] values = new float[count];
+            for (int r = 0; r < count; r++) {
+                ids[r] = movieIds[rows[r]];
+                names[r] = titles[rows[r]];
+                values[r] = scores[rows[r]];
+            }
+            out.put(bucketKeys.get(b), new Board(ids, names, values));
+        }
+        return out;
+    }
+
+    private static void offer(int bucket, int slot, int topK, LongIntHashMap bucketIndex,
+                              List<int[]> slots, List<int[]> counts, List<Integer> bucketKeys) {
+        int b = bucketIndex.get(bucket);
+        if (b == -1) {
+            b = bucketKeys.size();
+            bucketIndex.put(bucket, b);
+            bucketKeys.add(bucket);
+            slots.add(new int[topK]);
+            counts.add(new int[1]);
+        }
+        int[] count = counts.get(b);
+        if (count[0] < topK) slots.get(b)[count[0]++] = slot;
+    }
+
+    // ascending sort των keys = φθίνον score, και για ίδιο score μικρότερο slot πρώτα
+    static long sortKey(float score, int slot) {
+        if (Float.isNaN(score)) return NO_SCORE;
+        // για score ≥ 0 τα float bits είναι μονότονα, άρα αρκεί η αντιστροφή τους
+        int bits = Float.floatToIntBits(Math.max(0f, score));
+        return ((long) (Integer.MAX_VALUE - bits) << 32) | slot;
+    }
+
+    // (genre bit + 1) στα πάνω 16 bits, έτος στα κάτω: 0 = "όλα"
+    static int bucket(int genreBit, int year) {
+        return ((genreBit + 1) << 16) | (year & 0xFFFF);
+    }
+}
@@ -0,0 +1,137 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.dto.InAppTrendingDto;
+import com.cinematch.backend.dto.TrendingMovieDto;
+import com.cinematch.backend.service.KpiService;
+import com.cinematch.backend.service.TmdbService;
+import com.cinematch.backend.service.trending.InAppTrendingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precompute των KPIs για τις "ζεστές" ταινίες: TMDb trending (day) + τα πιο ανοιγμένα
+ * στο CineMatch. Τρέχει πιο συχνά από το TTL του cache, οπότε τα widgets των δημοφιλών
+ * titles δεν περιμένουν ποτέ TMDb.
+ *
+ * Η δουλειά γίνεται σε δικό της thread, όχι στο scheduler thread. Οι ταινίες υπολογίζονται
+ * η μία μετά την άλλη: ο παραλληλισμός είναι στα per-actor fetches του {@link PersonStatsService}
+ * (kpiExecutor). Αν τα movie tasks έτρεχαν κι αυτά στο kpiExecutor και περίμεναν (join)
+ * tasks του ίδιου pool, ένα γεμάτο pool θα μπορούσε να κολλήσει. Όταν το kpiExecutor είναι
+ * γεμάτο από batch requests, τα fetches τρέχουν στο thread του job ({@link KpiService#refresh}).
+ */
+@Service
+@Slf4j
+public class KpiPrecomputeJob {
+
+    private final KpiService kpiService;
+    private final TmdbService tmdbService;
+    private final InAppTrendingService inAppTrendingService;
+    private final boolean enabled;
+    private final int trendingLimit;
+    private final int inAppLimit;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "kpi-precompute");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public KpiPrecomputeJob(
+            KpiService kpiService,
+            TmdbService tmdbService,
+            InAppTrendingService inAppTrendingService,
+            @Value("${kpi.precompute.enabled:true}") boolean enabled,
+            @Value("${kpi.precompute.trending-limit:20}") int trendingLimit,
+            @Value("${kpi.precompute.in-app-limit:20}") int inAppLimit
+    ) {
+        this.kpiService = kpiService;
+        this.tmdbService = tmdbService;
+        this.inAppTrendingService = inAppTrendingService;
+        this.enabled = enabled;
+        this.trendingLimit = trendingLimit;
+        this.inAppLimit = inAppLimit;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        precompute();
+    }
+
+    @Scheduled(
+            initialDelayString = "${kpi.precompute.interval-ms:1800000}",
+            fixedDelayString = "${kpi.precompute.interval-ms:1800000}"
+    )
+    public void precompute() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+
+        try {
+            worker.execute(this::runOnce);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // =================== helpers ===================
+
+    private void runOnce() {
+        long started = System.currentTimeMillis();
+        int refreshed = 0;
+        int failed = 0;
+        try {
+            for (Long movieId : hotMovies()) {
+                if (Thread.currentThread().isInterrupted()) break;
+                try {
+                    kpiService.refresh(movieId);
+                    refreshed++;
+                } catch (Exception e) {
+                    failed++;
+                    log.debug("[KpiPrecomputeJob] Refresh failed for movie {}: {}", movieId, e.getMessage());
+                }
+            }
+            log.info("[KpiPrecomputeJob] Refreshed KPIs for {} movies ({} failed) in {} ms",
+                    refreshed, failed, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("[KpiPrecomputeJob] Precompute failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<Long> hotMovies() {
+        Set<Long> ids = new LinkedHashSet<>();
+
+        try {
+            List<TrendingMovieDto> trending = tmdbService.getTrendingMovies("day");
+            trending.stream()
+                    .limit(trendingLimit)
+                    .forEach(m -> ids.add(m.getId()));
+        } catch (Exception e) {
+            log.warn("[KpiPrecomputeJob] Could not load TMDb trending: {}", e.getMessage());
+        }
+
+        for (InAppTrendingDto m : inAppTrendingService.topMovies(inAppLimit)) {
+            ids.add(m.getId());
+        }
+        return new ArrayList<>(ids);
+    }
+}
@@ -0,0 +1,144 @@
+package com.cinematch.backend.service.kpi;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access στα movie_catalog / movie_catalog_sync (V9).
+ */
+@Service
+public class MovieCatalogStore {
+
+    public record CatalogRow(long movieId, String title, Integer releaseYear, String genreIds,
+                             double popularity, double voteAverage, int voteCount) {
+    }
+
+    public record SyncState(int discoverYear, int discoverPage, LocalDate changesSyncedTo) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovieCatalogStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void upsert(List<CatalogRow> rows) {
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO movie_catalog (movie_id, title, release_year, genre_ids, popularity,
+                                           vote_average, vote_count, stale, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, now())
+                ON CONFLICT (movie_id) DO UPDATE
+                SET title = EXCLUDED.title,
+                    release_year = EXCLUDED.release_year,
+                    genre_ids = EXCLUDED.genre_ids,
+                    popularity = EXCLUDED.popularity,
+                    vote_average = EXCLUDED.vote_average,
+                    vote_count = EXCLUDED.vote_count,
+                    stale = FALSE,
+                    updated_at = EXCLUDED.updated_at
+                """, rows, 500, (ps, r) -> {
+            ps.setLong(1, r.movieId());
+            ps.setString(2, r.title());
+            ps.setObject(3, r.releaseYear());
+            ps.setString(4, r.genreIds());
+            ps.setDouble(5, r.popularity());
+            ps.setDouble(6, r.voteAverage());
+            ps.setInt(7, r.voteCount());
+        });
+    }
+
+    /**
+     * Σημαδεύει ως stale όσα από τα ids υπάρχουν ήδη στον κατάλογο.
+     * @return πόσα rows άλλαξαν
+     */
+    public int markStale(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) return 0;
+
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE movie_catalog SET stale = TRUE WHERE movie_id = ? AND NOT stale",
+                List.copyOf(movieIds), 500, (ps, id) -> ps.setLong(1, id));
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int n : batch) updated += Math.max(n, 0);
+        }
+        return updated;
+    }
+
+    /**
+     * Σημαδεύει ως stale όσες ταινίες δεν έχουν ακόμα top cast (movie_top_cast), ώστε το refresh
+     * να φέρει και τα credits τους.
+     */
+    public int markMissingCast(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) return 0;
+
+        int[][] counts = jdbcTemplate.batchUpdate("""
+                UPDATE movie_catalog m SET stale = TRUE
+                WHERE m.movie_id = ? AND NOT m.stale
+                  AND NOT EXISTS (SELECT 1 FROM movie_top_cast c WHERE c.movie_id = m.movie_id)
+                """, List.copyOf(movieIds), 500, (ps, id) -> ps.setLong(1, id));
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int n : batch) updated += Math.max(n, 0);
+        }
+        return updated;
+    }
+
+    /**
+     * Refresh που απέτυχε: μένει stale, αλλά πάει στο τέλος της ουράς (ORDER BY updated_at).
+     */
+    public void deferRefresh(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate("UPDATE movie_catalog SET updated_at = now() WHERE movie_id = ?",
+                List.copyOf(movieIds), 500, (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * Ταινίες που το TMDb δεν έχει πια (404).
+     */
+    public void delete(Collection<Long> movieIds) {
+        if (movieIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate("DELETE FROM movie_catalog WHERE movie_id = ?",
+                List.copyOf(movieIds), 500, (ps, id) -> ps.setLong(1, id));
+    }
+
+    public List<Long> stale(int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT movie_id FROM movie_catalog
+                WHERE stale
+                ORDER BY updated_at
+                LIMIT ?
+                """, Long.class, limit);
+    }
+
+    public Optional<SyncState> syncState() {
+        return jdbcTemplate.query("""
+                SELECT discover_year, discover_page, changes_synced_to
+                FROM movie_catalog_sync WHERE id = 1
+                """, (rs, i) -> {
+            Date changes = rs.getDate(3);
+            return new SyncState(rs.getInt(1), rs.getInt(2), changes != null ? changes.toLocalDate() : null);
+        }).stream().findFirst();
+    }
+
+    public void saveSyncState(SyncState state) {
+        jdbcTemplate.update("""
+                INSERT INTO movie_catalog_sync (id, discover_year, discover_page, changes_synced_to)
+                VALUES (1, ?, ?, ?)
+                ON CONFLICT (id) DO UPDATE
+                SET discover_year = EXCLUDED.discover_year,
+                    discover_page = EXCLUDED.discover_page,
+                    changes_synced_to = EXCLUDED.changes_synced_to
+                """, state.discoverYear(), state.discoverPage(),
+                state.changesSyncedTo() != null ? Date.valueOf(state.changesSyncedTo()) : null);
+    }
+}
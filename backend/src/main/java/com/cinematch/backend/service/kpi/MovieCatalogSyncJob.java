@@ -0,0 +1,249 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.KpiService;
+import com.cinematch.backend.service.TmdbNotFoundException;
+import com.cinematch.backend.service.TmdbService;
+import com.cinematch.backend.service.kpi.MovieCatalogStore.CatalogRow;
+import com.cinematch.backend.service.kpi.MovieCatalogStore.SyncState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Γεμίζει και ανανεώνει τον τοπικό κατάλογο (movie_catalog) σε μικρά, resumable βήματα:
+ *
+ *  1. Changes: TMDb {@code /movie/changes} από την τελευταία ημέρα ({@link TmdbChangesFeed})
+ *     -> stale = true για όσες ταινίες υπάρχουν ήδη στον κατάλογο.
+ *  2. Refresh: {@code /movie/{id}?append_to_response=credits} μόνο για τις stale ταινίες
+ *     (έως refresh-batch ανά run). Με το ίδιο request γεμίζει και το movie_top_cast.
+ *     404 -> η ταινία σβήνεται· άλλη αποτυχία -> μένει stale, αλλά πάει στο τέλος της ουράς.
+ *  3. Seeding: {@code /discover/movie} ανά έτος κυκλοφορίας (popularity desc), έως
+ *     pages-per-run σελίδες ανά run. Η θέση (έτος, σελίδα) κρατιέται στο movie_catalog_sync,
+ *     οπότε μετά από restart συνεχίζει από εκεί. Όταν φτάσει στο τρέχον έτος το ξανασαρώνει.
+ *     Το discover δεν έχει credits: όσες ταινίες δεν έχουν ακόμα top cast γίνονται stale,
+ *     ώστε να τα φέρει το επόμενο refresh.
+ *
+ * Τρέχει σε δικό του thread, όπως το ActorStatsSyncJob.
+ */
+@Service
+@Slf4j
+public class MovieCatalogSyncJob {
+
+    // όριο του TMDb API
+    static final int MAX_DISCOVER_PAGE = 500;
+
+    private final TmdbService tmdbService;
+    private final MovieCatalogStore catalogStore;
+    private final ActorStatsStore actorStatsStore;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final int seedFromYear;
+    private final int pagesPerRun;
+    private final int maxChangePages;
+    private final int refreshBatch;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-sync");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public MovieCatalogSyncJob(
+            TmdbService tmdbService,
+            MovieCatalogStore catalogStore,
+            ActorStatsStore actorStatsStore,
+            @Value("${kpi.catalog.sync-enabled:true}") boolean enabled,
+            @Value("${kpi.catalog.seed-from-year:1950}") int seedFromYear,
+            @Value("${kpi.catalog.pages-per-run:40}") int pagesPerRun,
+            @Value("${kpi.catalog.max-change-pages:50}") int maxChangePages,
+            @Value("${kpi.catalog.refresh-batch:200}") int refreshBatch
+    ) {
+        this.tmdbService = tmdbService;
+        this.catalogStore = catalogStore;
+        this.actorStatsStore = actorStatsStore;
+        this.enabled = enabled;
+        this.seedFromYear = seedFromYear;
+        this.pagesPerRun = pagesPerRun;
+        this.maxChangePages = maxChangePages;
+        this.refreshBatch = refreshBatch;
+    }
+
+    @Scheduled(
+            initialDelayString = "${kpi.catalog.initial-delay-ms:60000}",
+            fixedDelayString = "${kpi.catalog.sync-interval-ms:900000}"
+    )
+    public void sync() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+
+        try {
+            worker.execute(this::runOnce);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // =================== helpers ===================
+
+    private void runOnce() {
+        long started = System.currentTimeMillis();
+        try {
+            SyncState state = catalogStore.syncState()
+                    .orElse(new SyncState(seedFromYear, 1, null));
+
+            LocalDate changesSyncedTo = syncChanges(state.changesSyncedTo());
+            int refreshed = refreshStale();
+            SyncState next = seed(new SyncState(state.discoverYear(), state.discoverPage(), changesSyncedTo));
+            catalogStore.saveSyncState(next);
+
+            log.info("[MovieCatalogSyncJob] {} stale movies refreshed, seeding at {}/{} in {} ms",
+                    refreshed, next.discoverYear(), next.discoverPage(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.warn("[MovieCatalogSyncJob] Sync failed: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return η ημέρα από την οποία συνεχίζει το επόμενο run ({@link TmdbChangesFeed})
+     */
+    private LocalDate syncChanges(LocalDate syncedTo) throws Exception {
+        TmdbChangesFeed.Changes changes = TmdbChangesFeed.read(tmdbService, objectMapper, "/movie/changes",
+                syncedTo, LocalDate.now(ZoneOffset.UTC), maxChangePages);
+
+        catalogStore.markStale(changes.ids());
+        return changes.syncedTo();
+    }
+
+    @SuppressWarnings("unchecked")
+    int refreshStale() {
+        List<CatalogRow> rows = new ArrayList<>();
+        List<Long> gone = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (Long movieId : catalogStore.stale(refreshBatch)) {
+            try {
+                String json = tmdbService.fetchFromTmdb("/movie/" + movieId, Map.of(
+                        "language", "en-US",
+                        "append_to_response", "credits"
+                ));
+                Map<String, Object> movie = objectMapper.readValue(json, Map.class);
+                CatalogRow row = toRow(movie);
+                if (row == null) {
+                    failed.add(movieId);
+                    continue;
+                }
+                actorStatsStore.saveTopCast(movieId,
+                        KpiService.topBilledCast((Map<String, Object>) movie.get("credits")));
+                rows.add(row);
+            } catch (TmdbNotFoundException e) {
+                gone.add(movieId);
+            } catch (Exception e) {
+                failed.add(movieId);
+                log.debug("[MovieCatalogSyncJob] Refresh failed for movie {}: {}", movieId, e.getMessage());
+            }
+        }
+        catalogStore.upsert(rows);
+        catalogStore.delete(gone);
+        catalogStore.deferRefresh(failed);
+        return rows.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private SyncState seed(SyncState state) throws Exception {
+        int currentYear = LocalDate.now(ZoneOffset.UTC).getYear();
+        int year = Math.min(Math.max(state.discoverYear(), seedFromYear), currentYear);
+        int page = Math.max(1, state.discoverPage());
+
+        for (int n = 0; n < pagesPerRun; n++) {
+            String json = tmdbService.fetchFromTmdb("/discover/movie", Map.of(
+                    "primary_release_year", String.valueOf(year),
+                    "sort_by", "popularity.desc",
+                    "include_adult", "false",
+                    "language", "en-US",
+                    "page", String.valueOf(page)
+            ));
+            Map<String, Object> body = objectMapper.readValue(json, Map.class);
+
+            List<CatalogRow> rows = new ArrayList<>();
+            List<Map<String, Object>> results = (List<Map<String, Object>>) body.get("results");
+            if (results != null) {
+                for (Map<String, Object> r : results) {
+                    CatalogRow row = toRow(r);
+                    if (row != null) rows.add(row);
+                }
+            }
+            catalogStore.upsert(rows);
+            catalogStore.markMissingCast(rows.stream().map(CatalogRow::movieId).toList());
+
+            int totalPages = body.get("total_pages") instanceof Number t ? t.intValue() : 0;
+            if (page >= Math.min(totalPages, MAX_DISCOVER_PAGE)) {
+                // τέλος του έτους: επόμενο, ή ξανά το τρέχον (νέες κυκλοφορίες)
+                year = year < currentYear ? year + 1 : currentYear;
+                page = 1;
+            } else {
+                page++;
+            }
+        }
+        return new SyncState(year, page, state.changesSyncedTo());
+    }
+
+    /**
+     * Δέχεται και discover results ({@code genre_ids}) και movie details ({@code genres}).
+     */
+    @SuppressWarnings("unchecked")
+    static CatalogRow toRow(Map<String, Object> movie) {
+        if (!(movie.get("id") instanceof Number id)) return null;
+
+        StringJoiner genres = new StringJoiner(",");
+        if (movie.get("genre_ids") instanceof List<?> ids) {
+            for (Object g : ids) {
+                if (g instanceof Number n) genres.add(String.valueOf(n.intValue()));
+            }
+        } else if (movie.get("genres") instanceof List<?> objects) {
+            for (Object g : objects) {
+                if (g instanceof Map<?, ?> m && m.get("id") instanceof Number n) {
+                    genres.add(String.valueOf(n.intValue()));
+                }
+            }
+        }
+
+        Integer year = null;
+        if (movie.get("release_date") instanceof String date && date.length() >= 4) {
+            try {
+                year = Integer.parseInt(date.substring(0, 4));
+            } catch (NumberFormatException ignored) {
+                // κενό / χαλασμένο release_date
+            }
+        }
+
+        return new CatalogRow(
+                id.longValue(),
+                (String) movie.get("title"),
+                year,
+                genres.toString(),
+                movie.get("popularity") instanceof Number p ? p.doubleValue() : 0.0,
+                movie.get("vote_average") instanceof Number v ? v.doubleValue() : 0.0,
+                movie.get("vote_count") instanceof Number c ? c.intValue() : 0
+        );
+    }
+}
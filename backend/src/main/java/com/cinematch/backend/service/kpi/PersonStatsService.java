@@ -0,0 +1,196 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.TmdbNotFoundException;
+import com.cinematch.backend.service.TmdbService;
+import com.cinematch.backend.util.TtlCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Στατιστικά ανά person από το TMDb (popularity, πλήθος credits, titles με vote_average ≥ 7.5),
+ * κοινά για όλους τους KPI υπολογισμούς.
+ *
+ * Οι ίδιοι ηθοποιοί εμφανίζονται σε πολλές ταινίες, οπότε:
+ *  - TTL cache ανά personId
+ *  - ένα μόνο in-flight fetch ανά personId (ταυτόχρονα requests μοιράζονται το ίδιο future)
+ *  - τα fetches τρέχουν στο kpiExecutor, άρα οι actors μιας ταινίας φορτώνονται παράλληλα.
+ *    Με γεμάτο pool το future τελειώνει με RejectedExecutionException (το batch το δίνει ως pending),
+ *    εκτός αν ο caller ζητήσει να τρέξει το fetch στο δικό του thread (σύγχρονα paths)
+ *  - πριν το TMDb κοιτάμε το actor_stats ({@link ActorStatsStore}), και κάθε TMDb fetch
+ *    γράφεται εκεί, ώστε να το βρίσκουν και τα άλλα nodes / τα restarts
+ */
+@Service
+@Slf4j
+public class PersonStatsService {
+
+    public record PersonStats(long personId, double popularity, int creditCount, int highlyRatedCount) {
+    }
+
+    static final double HIGHLY_RATED = 7.5;
+
+    private final TmdbService tmdbService;
+    private final ActorStatsStore actorStatsStore;
+    private final Executor kpiExecutor;
+    private final Executor tmdbExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TtlCache<Long, PersonStats> cache;
+    private final Map<Long, CompletableFuture<PersonStats>> inFlight = new ConcurrentHashMap<>();
+
+    public PersonStatsService(
+            TmdbService tmdbService,
+            ActorStatsStore actorStatsStore,
+            @Qualifier("kpiExecutor") Executor kpiExecutor,
+            @Qualifier("tmdbExecutor") Executor tmdbExecutor,
+            @Value("${kpi.person-stats.ttl-ms:86400000}") long ttlMs,
+            @Value("${kpi.person-stats.max-entries:20000}") int maxEntries
+    ) {
+        this.tmdbService = tmdbService;
+        this.actorStatsStore = actorStatsStore;
+        this.kpiExecutor = kpiExecutor;
+        this.tmdbExecutor = tmdbExecutor;
+        this.cache = new TtlCache<>(ttlMs, maxEntries);
+    }
+
+    public CompletableFuture<PersonStats> statsAsync(long personId) {
+        return statsAsync(personId, false);
+    }
+
+    /**
+     * @param callerRunsWhenFull με γεμάτο kpiExecutor το fetch τρέχει στο thread του caller,
+     *                           αντί να τελειώσει το future με RejectedExecutionException
+     */
+    public CompletableFuture<PersonStats> statsAsync(long personId, boolean callerRunsWhenFull) {
+        PersonStats cached = cache.get(personId);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        CompletableFuture<PersonStats> created = new CompletableFuture<>();
+        CompletableFuture<PersonStats> existing = inFlight.putIfAbsent(personId, created);
+        if (existing != null) return existing;
+
+        Runnable load = () -> {
+            try {
+                PersonStats stats = loadStored(personId);
+                if (stats == null) {
+                    stats = fetch(personId);
+                    store(stats);
+                }
+                cache.put(personId, stats);
+                created.complete(stats);
+            } catch (Exception e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(personId, created);
+            }
+        };
+
+        try {
+            kpiExecutor.execute(load);
+        } catch (RejectedExecutionException e) {
+            if (callerRunsWhenFull) {
+                load.run();
+            } else {
+                inFlight.remove(personId, created);
+                created.completeExceptionally(e);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Ξαναδιαβάζει το person από το TMDb (για stale / missing rows), χωρίς cache ή actor_stats.
+     * Σε αποτυχία το row δεν μένει στην αρχή της ουράς: 404 -> όχι πια stale, αλλιώς στο τέλος.
+     */
+    public CompletableFuture<PersonStats> refreshAsync(long personId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PersonStats stats = fetch(personId);
+                actorStatsStore.upsert(stats);
+                cache.put(personId, stats);
+                return stats;
+            } catch (Exception e) {
+                requeue(personId, e);
+                throw new IllegalStateException("Failed to refresh person " + personId, e);
+            }
+        }, tmdbExecutor);
+    }
+
+    @Scheduled(fixedDelayString = "${kpi.cache.purge-ms:600000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    // =================== helpers ===================
+
+    // η DB είναι βελτιστοποίηση: αν δεν απαντάει, πάμε κατευθείαν στο TMDb
+    private PersonStats loadStored(long personId) {
+        try {
+            return actorStatsStore.findFresh(personId).orElse(null);
+        } catch (Exception e) {
+            log.debug("[PersonStatsService] actor_stats lookup failed for {}: {}", personId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void requeue(long personId, Exception failure) {
+        try {
+            if (failure instanceof TmdbNotFoundException) {
+                actorStatsStore.markGone(personId);
+            } else {
+                actorStatsStore.deferRefresh(personId);
+            }
+        } catch (Exception e) {
+            log.debug("[PersonStatsService] Could not requeue person {}: {}", personId, e.getMessage());
+        }
+    }
+
+    private void store(PersonStats stats) {
+        try {
+            actorStatsStore.upsert(stats);
+        } catch (Exception e) {
+            log.debug("[PersonStatsService] actor_stats upsert failed for {}: {}", stats.personId(), e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private PersonStats fetch(long personId) throws Exception {
+        String detailsJson = tmdbService.fetchFromTmdb(
+                "/person/" + personId,
+                Map.of("language", "en-US")
+        );
+        Map<String, Object> details = objectMapper.readValue(detailsJson, Map.class);
+        double popularity = details.get("popularity") != null
+                ? ((Number) details.get("popularity")).doubleValue()
+                : 0.0;
+
+        String creditsJson = tmdbService.fetchFromTmdb(
+                "/person/" + personId + "/movie_credits",
+                Map.of("language", "en-US")
+        );
+        Map<String, Object> credits = objectMapper.readValue(creditsJson, Map.class);
+        List<Map<String, Object>> cast = (List<Map<String, Object>>) credits.get("cast");
+
+        int creditCount = cast != null ? cast.size() : 0;
+        int highlyRated = 0;
+        if (cast != null) {
+            for (Map<String, Object> m : cast) {
+                if (m.get("vote_average") != null
+                        && ((Number) m.get("vote_average")).doubleValue() >= HIGHLY_RATED) {
+                    highlyRated++;
+                }
+            }
+        }
+
+        return new PersonStats(personId, popularity, creditCount, highlyRated);
+    }
+}
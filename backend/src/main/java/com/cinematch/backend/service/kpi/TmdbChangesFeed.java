@@ -0,0 +1,83 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.TmdbService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental read ενός TMDb changes endpoint ({@code /person/changes}, {@code /movie/changes})
+ * για τα ActorStatsSyncJob / MovieCatalogSyncJob.
+ *
+ * Μία ημέρα ανά request window και το πολύ maxPages σελίδες ανά run: ο cursor πάει στην πρώτη
+ * ημέρα που δεν διαβάστηκε ολόκληρη, άρα ένα μεγάλο backlog τελειώνει σε λίγα runs αντί να
+ * ξαναδιαβάζονται οι ίδιες πρώτες σελίδες. Μια ημέρα με περισσότερες από maxPages σελίδες
+ * δεν χωράει ποτέ: διαβάζονται οι πρώτες και ο cursor προχωράει (warn).
+ * Η σημερινή ημέρα ξαναδιαβάζεται στο επόμενο run (το stale είναι idempotent).
+ */
+@Slf4j
+final class TmdbChangesFeed {
+
+    // το TMDb δέχεται start_date έως 14 ημέρες πίσω
+    static final int MAX_CHANGE_DAYS = 14;
+
+    /**
+     * @param syncedTo η πρώτη ημέρα που δεν έχει διαβαστεί ολόκληρη (αυτή που θα διαβαστεί πρώτη)
+     */
+    record Changes(Set<Long> ids, LocalDate syncedTo) {
+    }
+
+    private TmdbChangesFeed() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Changes read(TmdbService tmdbService, ObjectMapper objectMapper, String path,
+                        LocalDate syncedTo, LocalDate today, int maxPages) throws Exception {
+        LocalDate oldest = today.minusDays(MAX_CHANGE_DAYS - 1L);
+        LocalDate day = syncedTo != null ? syncedTo : today.minusDays(1);
+        if (day.isBefore(oldest)) day = oldest;
+
+        Set<Long> changed = new LinkedHashSet<>();
+        int budget = Math.max(1, maxPages);
+        boolean firstDay = true;
+
+        while (!day.isAfter(today) && budget > 0) {
+            int page = 1;
+            int totalPages = 1;
+            while (page <= totalPages && budget > 0) {
+                String json = tmdbService.fetchFromTmdb(path, Map.of(
+                        "start_date", day.toString(),
+                        "end_date", day.toString(),
+                        "page", String.valueOf(page)
+                ));
+                Map<String, Object> body = objectMapper.readValue(json, Map.class);
+
+                List<Map<String, Object>> results = (List<Map<String, Object>>) body.get("results");
+                if (results != null) {
+                    for (Map<String, Object> r : results) {
+                        if (r.get("id") instanceof Number id) changed.add(id.longValue());
+                    }
+                }
+                totalPages = body.get("total_pages") instanceof Number n ? n.intValue() : 1;
+                page++;
+                budget--;
+            }
+
+            if (page <= totalPages) {
+                // η ημέρα δεν τελείωσε: συνεχίζει το επόμενο run, εκτός αν δεν χωράει σε κανένα run
+                if (!firstDay) break;
+                log.warn("[TmdbChangesFeed] {} on {} has {} pages, read only the first {}",
+                        path, day, totalPages, page - 1);
+            }
+            day = day.plusDays(1);
+            firstDay = false;
+        }
+
+        return new Changes(changed, day.isAfter(today) ? today : day);
+    }
+}
@@ -0,0 +1,43 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.model.UserEventType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Half-life (σε ημέρες) των preference scores ανά event type.
+ *
+ * preferences.decay.default-half-life-days=30
+ * preferences.decay.half-life-days.CHOOSE_FILTER=14
+ */
+@Component
+@ConfigurationProperties(prefix = "preferences.decay")
+@Getter
+@Setter
+public class PreferenceDecayProperties {
+
+    private static final double SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private double defaultHalfLifeDays = 30;
+
+    private Map<UserEventType, Double> halfLifeDays = new EnumMap<>(UserEventType.class);
+
+    public double halfLifeSeconds(UserEventType type) {
+        Double days = type != null ? halfLifeDays.get(type) : null;
+        double d = days != null && days > 0 ? days : defaultHalfLifeDays;
+        return Math.max(d, 1.0 / 24) * SECONDS_PER_DAY; // τουλάχιστον 1 ώρα
+    }
+
+    /**
+     * score * 0.5^(age / halfLife). Αρνητικό age (clock skew) = χωρίς decay.
+     */
+    public static double decay(double score, double ageSeconds, double halfLifeSeconds) {
+        if (ageSeconds <= 0) return score;
+        return score * Math.pow(0.5, ageSeconds / halfLifeSeconds);
+    }
+}
@@ -0,0 +1,53 @@
+package com.cinematch.backend.service.preference;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Per-user transaction advisory locks για τα user_preference_scores.
+ *
+ * Τα κρατάνε ο ingestion writer (πριν τα upserts ενός batch) και το bulk rebuild (πριν διαβάσει
+ * τα events ενός chunk), ώστε ένα increment να μη χαθεί ανάμεσα στο read και στο replace των scores.
+ * Πάντα σε αύξουσα σειρά key, άρα δύο transactions με πολλούς users δεν κάνουν deadlock.
+ * Απελευθερώνονται στο commit / rollback, οπότε πρέπει να καλούνται μέσα σε transaction.
+ */
+public final class PreferenceLocks {
+
+    // namespace (classid) του two-key advisory lock, για να μη συγκρούεται με άλλα locks
+    static final int NAMESPACE = 0x50524546; // "PREF"
+
+    private static final String LOCK_ALL = """
+            SELECT count(pg_advisory_xact_lock(?, k)) FROM unnest(?::int[]) AS k
+            """;
+
+    private PreferenceLocks() {
+    }
+
+    public static void lockUsers(JdbcTemplate jdbcTemplate, Collection<Long> userIds) {
+        Integer[] keys = keys(userIds);
+        if (keys.length == 0) return;
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_ALL);
+            ps.setInt(1, NAMESPACE);
+            ps.setArray(2, con.createArrayOf("int4", keys));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    /**
+     * Distinct, sorted keys. Δύο users με ίδιο key απλώς σειριοποιούνται μεταξύ τους.
+     */
+    static Integer[] keys(Collection<Long> userIds) {
+        return userIds.stream()
+                .filter(Objects::nonNull)
+                .map(id -> (int) (id ^ (id >>> 32)))
+                .distinct()
+                .sorted()
+                .toArray(Integer[]::new);
+    }
+}
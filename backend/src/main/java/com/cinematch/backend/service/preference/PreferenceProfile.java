@@ -0,0 +1,31 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceScoreDto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Decoded preference profile ενός user (top genres / actors / directors).
+ * Immutable, ώστε να μπορεί να μοιράζεται από το cache χωρίς αντίγραφα.
+ */
+public record PreferenceProfile(
+        List<PreferenceScoreDto> genres,     // id = genreId
+        List<PreferenceScoreDto> actors,     // id = personId
+        List<PreferenceScoreDto> directors,  // id = personId
+        Instant updatedAt
+) {
+
+    public static final PreferenceProfile EMPTY =
+            new PreferenceProfile(List.of(), List.of(), List.of(), null);
+
+    public PreferenceProfile {
+        genres = genres == null ? List.of() : List.copyOf(genres);
+        actors = actors == null ? List.of() : List.copyOf(actors);
+        directors = directors == null ? List.of() : List.copyOf(directors);
+    }
+
+    public boolean isEmpty() {
+        return genres.isEmpty() && actors.isEmpty() && directors.isEmpty();
+    }
+}
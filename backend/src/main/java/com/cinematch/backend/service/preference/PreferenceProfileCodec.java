@@ -0,0 +1,86 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceScoreDto;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary format για το users.preference_profile (bytea).
+ *
+ * [version:1][updatedAtMillis:8] και για genres, actors, directors:
+ * [count:2][id:8, score:8]*
+ *
+ * Ένα profile με 3 x 5 entries είναι 255 bytes, χωρίς JSON parsing στο read.
+ */
+public final class PreferenceProfileCodec {
+
+    private static final byte VERSION = 1;
+    private static final int ENTRY_BYTES = Long.BYTES + Double.BYTES;
+
+    private PreferenceProfileCodec() {
+    }
+
+    public static byte[] encode(PreferenceProfile profile) {
+        int size = 1 + Long.BYTES
+                + 3 * Short.BYTES
+                + ENTRY_BYTES * (profile.genres().size() + profile.actors().size() + profile.directors().size());
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.put(VERSION);
+        buf.putLong(profile.updatedAt() != null ? profile.updatedAt().toEpochMilli() : 0L);
+        writeScores(buf, profile.genres());
+        writeScores(buf, profile.actors());
+        writeScores(buf, profile.directors());
+        return buf.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException για άγνωστο version ή κομμένα bytes
+     */
+    public static PreferenceProfile decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return PreferenceProfile.EMPTY;
+
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            byte version = buf.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported preference profile version " + version);
+            }
+
+            long updatedAtMillis = buf.getLong();
+            List<PreferenceScoreDto> genres = readScores(buf);
+            List<PreferenceScoreDto> actors = readScores(buf);
+            List<PreferenceScoreDto> directors = readScores(buf);
+
+            return new PreferenceProfile(
+                    genres,
+                    actors,
+                    directors,
+                    updatedAtMillis > 0 ? Instant.ofEpochMilli(updatedAtMillis) : null
+            );
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) throw e;
+            throw new IllegalArgumentException("Corrupted preference profile", e);
+        }
+    }
+
+    private static void writeScores(ByteBuffer buf, List<PreferenceScoreDto> scores) {
+        buf.putShort((short) scores.size());
+        for (PreferenceScoreDto s : scores) {
+            buf.putLong(s.getId() != null ? s.getId() : 0L);
+            buf.putDouble(s.getScore());
+        }
+    }
+
+    private static List<PreferenceScoreDto> readScores(ByteBuffer buf) {
+        int count = Short.toUnsignedInt(buf.getShort());
+        List<PreferenceScoreDto> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(new PreferenceScoreDto(buf.getLong(), buf.getDouble()));
+        }
+        return out;
+    }
+}
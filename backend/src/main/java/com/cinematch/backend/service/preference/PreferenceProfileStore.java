@@ -0,0 +1,112 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceScoreDto;
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.util.TtlCache;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read / write του typed preference profile πάνω στο User, με in-memory cache
+ * του decoded profile ανά user.
+ *
+ * Το cache entry ισχύει όσο το preferencesLastUpdated του User είναι ίδιο με αυτό
+ * του profile. Κάθε write το αντικαθιστά, οπότε τα hot read paths
+ * (recommendations, quiz) δεν κάνουν ούτε decode ούτε JSON parsing.
+ * Όταν γεμίσει, φεύγει μόνο το least-recently-used profile ({@link TtlCache}).
+ */
+@Component
+@Slf4j
+public class PreferenceProfileStore {
+
+    private final ObjectMapper objectMapper;
+    private final TtlCache<Long, PreferenceProfile> cache;
+
+    public PreferenceProfileStore(
+            ObjectMapper objectMapper,
+            @Value("${preferences.profile-cache.ttl-ms:3600000}") long ttlMs,
+            @Value("${preferences.profile-cache.max-entries:50000}") int maxEntries
+    ) {
+        this.objectMapper = objectMapper;
+        this.cache = new TtlCache<>(ttlMs, maxEntries);
+    }
+
+    public PreferenceProfile load(User user) {
+        if (user == null) return PreferenceProfile.EMPTY;
+
+        Long userId = user.getId();
+        PreferenceProfile cached = userId != null ? cache.get(userId) : null;
+        if (cached != null && sameVersion(cached.updatedAt(), user.getPreferencesLastUpdated())) {
+            return cached;
+        }
+
+        PreferenceProfile profile = decode(user);
+        if (userId != null) remember(userId, profile);
+        return profile;
+    }
+
+    /**
+     * Γράφει το profile στο entity (ο caller κάνει save) και ανανεώνει το cache.
+     */
+    public void write(User user, PreferenceProfile profile) {
+        user.setPreferenceProfile(PreferenceProfileCodec.encode(profile));
+        user.setPreferencesLastUpdated(profile.updatedAt());
+        if (user.getId() != null) remember(user.getId(), profile);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) cache.invalidate(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${preferences.profile-cache.purge-ms:600000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    // =================== helpers ===================
+
+    private PreferenceProfile decode(User user) {
+        if (user.getPreferenceProfile() != null) {
+            try {
+                return PreferenceProfileCodec.decode(user.getPreferenceProfile());
+            } catch (IllegalArgumentException e) {
+                log.warn("[PreferenceProfileStore] Bad profile for user {}: {}", user.getId(), e.getMessage());
+                return PreferenceProfile.EMPTY;
+            }
+        }
+
+        // legacy rows: JSON στα top_* columns μέχρι το επόμενο recompute
+        return new PreferenceProfile(
+                parseLegacy(user.getTopGenres()),
+                parseLegacy(user.getTopActors()),
+                parseLegacy(user.getTopDirectors()),
+                user.getPreferencesLastUpdated()
+        );
+    }
+
+    private List<PreferenceScoreDto> parseLegacy(String json) {
+        if (json == null || json.isBlank()) return Collections.emptyList();
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<PreferenceScoreDto>>() {});
+        } catch (Exception e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private void remember(Long userId, PreferenceProfile profile) {
+        cache.put(userId, profile);
+    }
+
+    private boolean sameVersion(Instant a, Instant b) {
+        if (a == null || b == null) return a == b;
+        return a.toEpochMilli() == b.toEpochMilli();
+    }
+}
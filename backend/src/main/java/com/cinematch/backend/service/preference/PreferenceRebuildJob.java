@@ -0,0 +1,417 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceRebuildStatusDto;
+import com.cinematch.backend.dto.PreferenceScoreDto;
+import com.cinematch.backend.model.PreferenceDimension;
+import com.cinematch.backend.model.PreferenceRebuildCheckpoint;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+import com.cinematch.backend.model.UserPreferenceScore;
+import com.cinematch.backend.repository.PreferenceRebuildCheckpointRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin-triggered rebuild των preference scores + profiles για όλους τους users.
+ *
+ * Οι users χωρίζονται σε partitions με βάση το id range, κάθε partition τρέχει σε δικό
+ * του worker και προχωράει σε chunks από ids. Ανά chunk:
+ *  - streaming read των events (fetch-size cursor, ταξινομημένα ανά user)
+ *  - batched writes σε user_preference_scores και users
+ *  - checkpoint (lastUserId), ώστε ένα resume να συνεχίζει από το τελευταίο chunk.
+ *
+ * Οι users του chunk κλειδώνονται ({@link PreferenceLocks}) πριν το read των events: ο ingestion
+ * writer περιμένει, οπότε κανένα live upsert δεν χάνεται από το replace των scores.
+ * Users χωρίς events (π.χ. μετά το retention drop) χάνουν τα scores και το profile
+ * και γυρνάνε σε not-ready, ώστε να ξαναχτιστούν από το ιστορικό στο επόμενο compute.
+ */
+@Service
+@Slf4j
+public class PreferenceRebuildJob {
+
+    private static final int MAX_EVENTS_PER_USER = 2000; // ίδιο με το rebuild ανά user
+
+    private static final String SELECT_EVENTS = """
+            SELECT user_id, type, genre_id, cast_id, crew_id, person_id,
+                   attributes -> 'genreIds' AS genre_ids, created_at
+            FROM user_events
+            WHERE user_id > ? AND user_id <= ?
+              AND type IN ('CHOOSE_FILTER', 'OPEN_MOVIE', 'OPEN_ACTOR', 'OPEN_DIRECTOR')
+            ORDER BY user_id, created_at DESC
+            """;
+
+    private static final String DELETE_SCORES = """
+            DELETE FROM user_preference_scores WHERE user_id = ?
+            """;
+
+    private static final String INSERT_SCORE = """
+            INSERT INTO user_preference_scores
+                (user_id, dimension, entity_id, event_type, score, half_life_seconds, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_USER = """
+            UPDATE users
+            SET preference_profile = ?, preferences_last_updated = ?, preference_scores_ready = TRUE
+            WHERE id = ?
+            """;
+
+    private static final String RESET_USER = """
+            UPDATE users
+            SET preference_profile = ?, preferences_last_updated = ?, preference_scores_ready = FALSE
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PreferenceRebuildCheckpointRepository checkpointRepository;
+    private final PreferenceDecayProperties decayProperties;
+    private final PreferenceProfileStore preferenceProfileStore;
+    private final ObjectMapper objectMapper;
+
+    private final int fetchSize;
+    private final long chunkIds;
+    private final int batchSize;
+    private final int topN;
+
+    // τρέχον run
+    private volatile boolean running;
+    private volatile boolean stopRequested;
+    private volatile Instant startedAt;
+    private volatile String lastError;
+    private final AtomicLong runUsers = new AtomicLong();
+    private final AtomicLong runEvents = new AtomicLong();
+
+    public PreferenceRebuildJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PreferenceRebuildCheckpointRepository checkpointRepository,
+            PreferenceDecayProperties decayProperties,
+            PreferenceProfileStore preferenceProfileStore,
+            ObjectMapper objectMapper,
+            @Value("${preferences.rebuild.fetch-size:1000}") int fetchSize,
+            @Value("${preferences.rebuild.chunk-ids:500}") long chunkIds,
+            @Value("${preferences.rebuild.batch-size:500}") int batchSize,
+            @Value("${preferences.rebuild.top-n:5}") int topN
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.decayProperties = decayProperties;
+        this.preferenceProfileStore = preferenceProfileStore;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.chunkIds = Math.max(1, chunkIds);
+        this.batchSize = batchSize;
+        this.topN = topN;
+    }
+
+    // =====================================================
+    //                  CONTROL
+    // =====================================================
+
+    /**
+     * @param resume true: συνεχίζει τα partitions που δεν τελείωσαν (αν υπάρχουν)
+     * @return false αν τρέχει ήδη
+     */
+    public synchronized boolean start(int parallelism, boolean resume) {
+        if (running) return false;
+
+        List<PreferenceRebuildCheckpoint> partitions = checkpointRepository.findAllByOrderByPartitionNoAsc();
+        boolean canResume = resume && partitions.stream().anyMatch(p -> !p.isDone());
+
+        if (!canResume) {
+            partitions = planPartitions(Math.max(1, parallelism));
+        }
+
+        List<PreferenceRebuildCheckpoint> pending = partitions.stream().filter(p -> !p.isDone()).toList();
+        if (pending.isEmpty()) return true;
+
+        running = true;
+        stopRequested = false;
+        lastError = null;
+        startedAt = Instant.now();
+        runUsers.set(0);
+        runEvents.set(0);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(pending.size(), r -> {
+            Thread t = new Thread(r, "prefs-rebuild-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        CompletableFuture<?>[] workers = pending.stream()
+                .map(p -> CompletableFuture.runAsync(() -> runPartition(p), pool))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(workers).whenComplete((v, error) -> {
+            if (error != null) {
+                lastError = error.getMessage();
+                log.error("[PreferenceRebuildJob] Rebuild failed: {}", error.getMessage());
+            }
+            pool.shutdown();
+            running = false;
+            log.info("[PreferenceRebuildJob] Finished: {} users, {} events in {} s",
+                    runUsers.get(), runEvents.get(),
+                    ChronoUnit.SECONDS.between(startedAt, Instant.now()));
+        });
+
+        log.info("[PreferenceRebuildJob] Started {} partitions (resume={})", pending.size(), canResume);
+        return true;
+    }
+
+    /**
+     * Σταματάει μετά το τρέχον chunk κάθε partition. Το επόμενο start(resume=true) συνεχίζει.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public PreferenceRebuildStatusDto status() {
+        List<PreferenceRebuildCheckpoint> partitions = checkpointRepository.findAllByOrderByPartitionNoAsc();
+
+        long totalSpan = 0;
+        long doneSpan = 0;
+        long users = 0;
+        long events = 0;
+        int done = 0;
+        for (PreferenceRebuildCheckpoint p : partitions) {
+            totalSpan += p.getRangeEnd() - p.getRangeStart();
+            doneSpan += p.getLastUserId() - p.getRangeStart();
+            users += p.getUsersProcessed();
+            events += p.getEventsProcessed();
+            if (p.isDone()) done++;
+        }
+
+        double seconds = startedAt == null ? 0 : Math.max(1, ChronoUnit.MILLIS.between(startedAt, Instant.now())) / 1000.0;
+
+        return PreferenceRebuildStatusDto.builder()
+                .running(running)
+                .partitions(partitions.size())
+                .partitionsDone(done)
+                .progressPercent(totalSpan == 0 ? 0 : 100.0 * doneSpan / totalSpan)
+                .usersProcessed(users)
+                .eventsProcessed(events)
+                .eventsPerSecond(seconds == 0 ? 0 : runEvents.get() / seconds)
+                .usersPerSecond(seconds == 0 ? 0 : runUsers.get() / seconds)
+                .startedAt(startedAt)
+                .lastError(lastError)
+                .build();
+    }
+
+    // =====================================================
+    //                  PARTITIONS
+    // =====================================================
+    private List<PreferenceRebuildCheckpoint> planPartitions(int parallelism) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM users");
+        checkpointRepository.deleteAllInBatch();
+
+        if (bounds.get("lo") == null) return List.of();
+
+        long lo = ((Number) bounds.get("lo")).longValue() - 1;
+        long hi = ((Number) bounds.get("hi")).longValue();
+        long span = Math.max(1, (hi - lo + parallelism - 1) / parallelism);
+
+        List<PreferenceRebuildCheckpoint> out = new ArrayList<>();
+        int no = 0;
+        for (long start = lo; start < hi; start += span) {
+            long end = Math.min(start + span, hi);
+            out.add(PreferenceRebuildCheckpoint.builder()
+                    .partitionNo(no++)
+                    .rangeStart(start)
+                    .rangeEnd(end)
+                    .lastUserId(start)
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        return checkpointRepository.saveAll(out);
+    }
+
+    private void runPartition(PreferenceRebuildCheckpoint partition) {
+        while (!stopRequested && partition.getLastUserId() < partition.getRangeEnd()) {
+            long from = partition.getLastUserId();
+            long to = Math.min(from + chunkIds, partition.getRangeEnd());
+
+            ChunkResult result = transactionTemplate.execute(tx -> {
+                ChunkResult r = rebuildChunk(from, to);
+
+                partition.setLastUserId(to);
+                partition.setUsersProcessed(partition.getUsersProcessed() + r.users().size());
+                partition.setEventsProcessed(partition.getEventsProcessed() + r.events());
+                partition.setDone(to >= partition.getRangeEnd());
+                partition.setUpdatedAt(Instant.now());
+                checkpointRepository.save(partition);
+                return r;
+            });
+
+            if (result != null) {
+                result.users().forEach(preferenceProfileStore::invalidate);
+                runUsers.addAndGet(result.users().size());
+                runEvents.addAndGet(result.events());
+            }
+        }
+    }
+
+    // =====================================================
+    //                  CHUNK
+    // =====================================================
+    private record ChunkResult(List<Long> users, long events) {
+    }
+
+    private ChunkResult rebuildChunk(long fromExclusive, long toInclusive) {
+
+        // μόνο οι users που κλειδώσαμε: όποιος δημιουργηθεί μετά δεν αγγίζεται
+        List<Long> lockedIds = jdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id > ? AND id <= ? ORDER BY id",
+                Long.class, fromExclusive, toInclusive);
+        if (lockedIds.isEmpty()) return new ChunkResult(List.of(), 0);
+
+        PreferenceLocks.lockUsers(jdbcTemplate, lockedIds);
+        Set<Long> locked = new HashSet<>(lockedIds);
+
+        List<UserPreferenceScore> scoreRows = new ArrayList<>();
+        List<Object[]> userRows = new ArrayList<>();
+        List<Long> users = new ArrayList<>();
+        long[] events = {0};
+
+        // ανά user: τα events έρχονται newest-first, άρα το πρώτο δίνει το reference time
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        PreferenceScoreAccumulator[] current = {null};
+        long[] currentUser = {-1};
+        int[] userEvents = {0};
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            SELECT_EVENTS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    ps.setLong(1, fromExclusive);
+                    ps.setLong(2, toInclusive);
+                    return ps;
+                },
+                rs -> {
+                    long userId = rs.getLong("user_id");
+                    if (!locked.contains(userId)) return;
+                    UserEvent e = toEvent(rs);
+
+                    if (userId != currentUser[0]) {
+                        if (current[0] != null) {
+                            finishUser(currentUser[0], current[0], scoreRows, userRows, users);
+                        }
+                        currentUser[0] = userId;
+                        userEvents[0] = 0;
+                        Instant reference = e.getCreatedAt() != null
+                                ? e.getCreatedAt().truncatedTo(ChronoUnit.MILLIS)
+                                : now;
+                        current[0] = new PreferenceScoreAccumulator(userId, reference, decayProperties);
+                    }
+
+                    if (userEvents[0]++ < MAX_EVENTS_PER_USER) {
+                        current[0].add(e);
+                        events[0]++;
+                    }
+                }
+        );
+        if (current[0] != null) {
+            finishUser(currentUser[0], current[0], scoreRows, userRows, users);
+        }
+
+        // writes: replace των scores ανά κλειδωμένο user, batched deletes / inserts / updates
+        jdbcTemplate.batchUpdate(DELETE_SCORES, lockedIds, batchSize, (ps, userId) -> ps.setLong(1, userId));
+
+        jdbcTemplate.batchUpdate(INSERT_SCORE, scoreRows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.getUserId());
+            ps.setString(2, row.getDimension().name());
+            ps.setLong(3, row.getEntityId());
+            ps.setString(4, row.getEventType().name());
+            ps.setDouble(5, row.getScore());
+            ps.setDouble(6, row.getHalfLifeSeconds());
+            ps.setTimestamp(7, Timestamp.from(row.getUpdatedAt()));
+        });
+
+        jdbcTemplate.batchUpdate(UPDATE_USER, userRows, batchSize, (ps, row) -> {
+            ps.setBytes(1, (byte[]) row[0]);
+            ps.setTimestamp(2, (Timestamp) row[1]);
+            ps.setLong(3, (Long) row[2]);
+        });
+
+        // χωρίς events πια: κενό profile + not-ready (αλλιώς θα κρατούσαν το παλιό profile)
+        Set<Long> rebuilt = new HashSet<>(users);
+        List<Long> emptied = lockedIds.stream().filter(id -> !rebuilt.contains(id)).toList();
+        byte[] emptyProfile = PreferenceProfileCodec.encode(new PreferenceProfile(List.of(), List.of(), List.of(), now));
+        jdbcTemplate.batchUpdate(RESET_USER, emptied, batchSize, (ps, userId) -> {
+            ps.setBytes(1, emptyProfile);
+            ps.setTimestamp(2, Timestamp.from(now));
+            ps.setLong(3, userId);
+        });
+
+        return new ChunkResult(lockedIds, events[0]);
+    }
+
+    private void finishUser(long userId,
+                            PreferenceScoreAccumulator scores,
+                            List<UserPreferenceScore> scoreRows,
+                            List<Object[]> userRows,
+                            List<Long> users) {
+
+        scoreRows.addAll(scores.rows());
+
+        List<PreferenceScoreDto> genres = scores.top(PreferenceDimension.GENRE, topN);
+        List<PreferenceScoreDto> actors = scores.top(PreferenceDimension.ACTOR, topN);
+        List<PreferenceScoreDto> directors = scores.top(PreferenceDimension.DIRECTOR, topN);
+
+        // scores και profile στο ίδιο reference time: τα reads κάνουν decay από εκεί και πέρα
+        Instant reference = scores.reference();
+        byte[] profile = PreferenceProfileCodec.encode(new PreferenceProfile(genres, actors, directors, reference));
+        userRows.add(new Object[]{profile, Timestamp.from(reference), userId});
+        users.add(userId);
+    }
+
+    private UserEvent toEvent(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+
+        UserEvent e = UserEvent.builder()
+                .type(UserEventType.valueOf(rs.getString("type")))
+                .genreId(getLong(rs, "genre_id"))
+                .castId(getLong(rs, "cast_id"))
+                .crewId(getLong(rs, "crew_id"))
+                .personId(getLong(rs, "person_id"))
+                .createdAt(createdAt != null ? createdAt.toInstant() : null)
+                .build();
+
+        String genreIds = rs.getString("genre_ids");
+        if (genreIds != null) {
+            try {
+                e.setAttributes(Map.of("genreIds",
+                        objectMapper.readValue(genreIds, new TypeReference<List<Object>>() {})));
+            } catch (Exception ignored) {
+                // όχι array: αγνοείται, όπως και στο PreferenceSignals
+            }
+        }
+        return e;
+    }
+
+    private Long getLong(ResultSet rs, String column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? null : v;
+    }
+}
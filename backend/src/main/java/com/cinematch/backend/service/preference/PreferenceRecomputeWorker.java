@@ -0,0 +1,141 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.repository.UserRepository;
+import com.cinematch.backend.service.UserPreferenceService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background, debounced recompute του preference profile.
+ *
+ * Κάθε event κάνει μόνο {@link #schedule(Long)}: ένα entry ανά user, που μετατίθεται
+ * σε κάθε νέο event (debounce) αλλά όχι πέρα από max-delay από το πρώτο.
+ * Ένα burst από clicks -> ένα computeAndPersist, εκτός request thread.
+ * Αν η ουρά είναι γεμάτη, νέοι users αγνοούνται: τα aggregates ενημερώνονται
+ * ήδη στο event και το profile θα ξαναϋπολογιστεί στο επόμενο read.
+ */
+@Component
+@Slf4j
+public class PreferenceRecomputeWorker {
+
+    private record Pending(long firstAt, long dueAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final UserPreferenceService userPreferenceService;
+    private final long debounceMs;
+    private final long maxDelayMs;
+    private final int maxPending;
+    private final int topN;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "prefs-recompute");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PreferenceRecomputeWorker(
+            UserRepository userRepository,
+            UserPreferenceService userPreferenceService,
+            @Value("${preferences.recompute.debounce-ms:2000}") long debounceMs,
+            @Value("${preferences.recompute.max-delay-ms:10000}") long maxDelayMs,
+            @Value("${preferences.recompute.max-pending:10000}") int maxPending,
+            @Value("${preferences.recompute.top-n:5}") int topN,
+            @Value("${preferences.recompute.poll-ms:250}") long pollMs
+    ) {
+        this.userRepository = userRepository;
+        this.userPreferenceService = userPreferenceService;
+        this.debounceMs = debounceMs;
+        this.maxDelayMs = Math.max(debounceMs, maxDelayMs);
+        this.maxPending = maxPending;
+        this.topN = topN;
+
+        scheduler.scheduleWithFixedDelay(this::drain, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Προγραμματίζει recompute για τον user. Μέσα σε transaction μπαίνει στην ουρά
+     * μόνο μετά το commit, ώστε ο worker να βλέπει το νέο event.
+     */
+    public void schedule(Long userId) {
+        if (userId == null) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(userId);
+                }
+            });
+        } else {
+            enqueue(userId);
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    // =================== worker ===================
+
+    private void enqueue(Long userId) {
+        long now = System.currentTimeMillis();
+
+        if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        pending.compute(userId, (id, p) -> {
+            long firstAt = p != null ? p.firstAt() : now;
+            long dueAt = Math.min(now + debounceMs, firstAt + maxDelayMs);
+            return new Pending(firstAt, dueAt);
+        });
+    }
+
+    private void drain() {
+        long now = System.currentTimeMillis();
+
+        List<Long> due = new ArrayList<>();
+        pending.forEach((userId, p) -> {
+            if (p.dueAt() <= now) due.add(userId);
+        });
+
+        for (Long userId : due) {
+            // νέο event στο μεταξύ -> μένει για τον επόμενο γύρο
+            Pending p = pending.get(userId);
+            if (p == null || p.dueAt() > now || !pending.remove(userId, p)) continue;
+
+            try {
+                userRepository.findById(userId)
+                        .ifPresent(user -> userPreferenceService.computeAndPersist(user, topN));
+            } catch (Exception e) {
+                log.warn("[PreferenceRecomputeWorker] Recompute failed for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,87 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceScoreDto;
+import com.cinematch.backend.model.PreferenceDimension;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+import com.cinematch.backend.model.UserPreferenceScore;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Χτίζει τα preference scores ενός user από το history του.
+ *
+ * Κάθε event φθίνει μέχρι το reference time (το πιο πρόσφατο event), που γίνεται
+ * και το updated_at των rows. Κοινό για το rebuild ανά user και το bulk job.
+ */
+public final class PreferenceScoreAccumulator {
+
+    private final Long userId;
+    private final Instant reference;
+    private final PreferenceDecayProperties decay;
+
+    private final Map<PreferenceDimension, Map<Long, Double>> totals = new EnumMap<>(PreferenceDimension.class);
+    // ανά (dimension, entity, event type) -> ένα row
+    private final Map<String, UserPreferenceScore> rows = new LinkedHashMap<>();
+
+    public PreferenceScoreAccumulator(Long userId, Instant reference, PreferenceDecayProperties decay) {
+        this.userId = userId;
+        this.reference = reference;
+        this.decay = decay;
+        for (PreferenceDimension d : PreferenceDimension.values()) {
+            totals.put(d, new HashMap<>());
+        }
+    }
+
+    public void add(UserEvent e) {
+        UserEventType type = e.getType();
+        double halfLife = decay.halfLifeSeconds(type);
+        double ageSeconds = e.getCreatedAt() == null
+                ? 0
+                : (reference.toEpochMilli() - e.getCreatedAt().toEpochMilli()) / 1000.0;
+
+        PreferenceSignals.extract(e, (dimension, entityId, weight) -> {
+            double decayed = PreferenceDecayProperties.decay(weight, ageSeconds, halfLife);
+            totals.get(dimension).merge(entityId, decayed, Double::sum);
+
+            UserPreferenceScore row = rows.computeIfAbsent(dimension + ":" + entityId + ":" + type, k ->
+                    UserPreferenceScore.builder()
+                            .userId(userId)
+                            .dimension(dimension)
+                            .entityId(entityId)
+                            .eventType(type)
+                            .halfLifeSeconds(halfLife)
+                            .updatedAt(reference)
+                            .build());
+            row.setScore(row.getScore() + decayed);
+        });
+    }
+
+    public Instant reference() {
+        return reference;
+    }
+
+    public Collection<UserPreferenceScore> rows() {
+        return rows.values();
+    }
+
+    public List<PreferenceScoreDto> top(PreferenceDimension dimension, int topN) {
+        return toTopList(totals.get(dimension), topN);
+    }
+
+    public static List<PreferenceScoreDto> toTopList(Map<Long, Double> scores, int topN) {
+        return scores.entrySet().stream()
+                .sorted((a, b) -> {
+                    int cmp = Double.compare(b.getValue(), a.getValue());
+                    if (cmp != 0) return cmp;
+                    return Long.compare(a.getKey(), b.getKey());
+                })
+                .limit(topN)
+                .map(e -> PreferenceScoreDto.builder()
+                        .id(e.getKey())
+                        .score(e.getValue())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.model.PreferenceDimension;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+
+import java.util.Collection;
+
+/**
+ * Ποια genres / actors / directors "μετράει" ένα event και με τι βάρος.
+ * Κοινό για το incremental update (ανά event) και το rebuild από το history.
+ */
+public final class PreferenceSignals {
+
+    @FunctionalInterface
+    public interface Sink {
+        void accept(PreferenceDimension dimension, long entityId, double weight);
+    }
+
+    private static final double FILTER_WEIGHT = 1.0;
+    private static final double OPEN_WEIGHT = 1.0;
+
+    private PreferenceSignals() {
+    }
+
+    public static boolean isRelevant(UserEventType type) {
+        return type == UserEventType.CHOOSE_FILTER
+                || type == UserEventType.OPEN_MOVIE
+                || type == UserEventType.OPEN_ACTOR
+                || type == UserEventType.OPEN_DIRECTOR;
+    }
+
+    public static void extract(UserEvent event, Sink sink) {
+        UserEventType type = event.getType();
+        if (type == null) return;
+
+        // Σήμερα έχεις σίγουρα CHOOSE_FILTER. (OPEN_MOVIE μπορεί να εμπλουτιστεί αργότερα)
+        if (type == UserEventType.CHOOSE_FILTER) {
+            // genreId
+            if (event.getGenreId() != null) sink.accept(PreferenceDimension.GENRE, event.getGenreId(), FILTER_WEIGHT);
+            // castId (actor)
+            if (event.getCastId() != null) sink.accept(PreferenceDimension.ACTOR, event.getCastId(), FILTER_WEIGHT);
+            // crewId (director)
+            if (event.getCrewId() != null) sink.accept(PreferenceDimension.DIRECTOR, event.getCrewId(), FILTER_WEIGHT);
+        }
+
+        // Optional: αν στο μέλλον βάλεις OPEN_MOVIE payload με genreIds/castId/crewId, θα “πιάσει” εδώ.
+        if (type == UserEventType.OPEN_MOVIE) {
+            Object genreIds = event.getAttributes() != null ? event.getAttributes().get("genreIds") : null;
+            if (genreIds instanceof Collection<?> ids) {
+                for (Object g : ids) {
+                    if (g instanceof Number n) sink.accept(PreferenceDimension.GENRE, n.longValue(), OPEN_WEIGHT);
+                }
+            }
+            if (event.getCastId() != null) sink.accept(PreferenceDimension.ACTOR, event.getCastId(), OPEN_WEIGHT);
+            if (event.getCrewId() != null) sink.accept(PreferenceDimension.DIRECTOR, event.getCrewId(), OPEN_WEIGHT);
+        }
+
+        // actor click event (payload: personId / actorId, παλιά και castId)
+        if (type == UserEventType.OPEN_ACTOR) {
+            Long pid = event.getPersonId() != null ? event.getPersonId() : event.getCastId();
+            if (pid != null) sink.accept(PreferenceDimension.ACTOR, pid, OPEN_WEIGHT);
+        }
+
+        if (type == UserEventType.OPEN_DIRECTOR) {
+            Long pid = event.getPersonId() != null ? event.getPersonId() : event.getCrewId();
+            if (pid != null) sink.accept(PreferenceDimension.DIRECTOR, pid, OPEN_WEIGHT);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.cinematch.backend.service.recommendation;
+
+import com.cinematch.backend.util.LongIntHashMap;
+
+import java.util.*;
+
+/**
+ * Sparse item-item co-occurrence matrix που ενημερώνεται incremental.
+ *
+ * - Κάθε item κρατάει το πολύ {@code neighbourCap} γείτονες σε primitive arrays.
+ *   Όταν γεμίσει η γραμμή, ο πιο αδύναμος γείτονας αντικαθίσταται (space-saving),
+ *   οπότε οι ισχυροί γείτονες επιβιώνουν χωρίς να μεγαλώνει η μνήμη.
+ * - Ο αριθμός items και users είναι φραγμένος ({@code maxItems}, {@code maxUsers}),
+ *   άρα η μνήμη δεν εξαρτάται από το πλήθος των events.
+ *
+ * Similarity = cosine πάνω στα co-occurrence counts: c(a,b) / sqrt(w(a) * w(b)), κομμένο στο [0, 1]
+ * γιατί το space-saving υπερεκτιμά το c(a,b).
+ *
+ * Όταν ένα item γίνεται evict, βγαίνει και από τις γραμμές των γειτόνων του. Μετά το space-saving
+ * οι γραμμές δεν είναι πάντα συμμετρικές, οπότε κάθε γείτονας κρατάει και το epoch του slot του:
+ * ένα entry από προηγούμενη "ζωή" του ίδιου id δεν μετράει ποτέ.
+ */
+public class ItemCooccurrenceIndex {
+
+    private static final int EVICTION_SAMPLES = 8;
+
+    public record Neighbour(long itemId, double score) {
+    }
+
+    private final int maxItems;
+    private final int neighbourCap;
+    private final int historySize;
+
+    // item index: itemId -> slot
+    private final LongIntHashMap itemSlots;
+    private final long[] slotItemId;
+    private final float[] slotWeight;
+    private final int[] slotEpoch;
+    private final long[][] neighbourIds;
+    private final int[][] neighbourEpochs;
+    private final float[][] neighbourWeights;
+    private final int[] neighbourCount;
+    private int usedSlots;
+    private int nextEpoch;
+
+    // πρόσφατα items ανά user (LRU, φραγμένο)
+    private final Map<Long, long[]> histories;
+
+    private final Random random;
+
+    public ItemCooccurrenceIndex(int maxItems, int neighbourCap, int historySize, int maxUsers) {
+        this(maxItems, neighbourCap, historySize, maxUsers, new Random());
+    }
+
+    ItemCooccurrenceIndex(int maxItems, int neighbourCap, int historySize, int maxUsers, Random random) {
+        this.maxItems = maxItems;
+        this.neighbourCap = neighbourCap;
+        this.historySize = historySize;
+
+        this.itemSlots = new LongIntHashMap(maxItems, -1);
+        this.slotItemId = new long[maxItems];
+        this.slotWeight = new float[maxItems];
+        this.slotEpoch = new int[maxItems];
+        this.neighbourIds = new long[maxItems][];
+        this.neighbourEpochs = new int[maxItems][];
+        this.neighbourWeights = new float[maxItems][];
+        this.neighbourCount = new int[maxItems];
+        this.random = random;
+
+        this.histories = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Καταγράφει ότι ο user αλληλεπίδρασε με το item.
+     * Κάθε νέο item συνδέεται με τα πρόσφατα items του ίδιου user.
+     */
+    public synchronized void record(long userId, long itemId, float weight) {
+        long[] history = histories.get(userId);
+        if (history == null) {
+            history = new long[historySize];
+            histories.put(userId, history);
+        }
+
+        // επαναλαμβανόμενο open του ίδιου item: μόνο recency, όχι νέο co-occurrence
+        int existing = indexOf(history, itemId);
+        if (existing >= 0) {
+            moveToFront(history, existing);
+            return;
+        }
+
+        int slot = slotFor(itemId);
+        slotWeight[slot] += weight;
+
+        for (long other : history) {
+            if (other == 0L) break;
+            int otherSlot = itemSlots.get(other);
+            if (otherSlot < 0) continue; // έχει γίνει evict
+
+            addNeighbour(slot, other, slotEpoch[otherSlot], weight);
+            addNeighbour(otherSlot, itemId, slotEpoch[slot], weight);
+        }
+
+        System.arraycopy(history, 0, history, 1, history.length - 1);
+        history[0] = itemId;
+    }
+
+    /**
+     * "Users who opened X also opened": οι top γείτονες του item.
+     */
+    public synchronized List<Neighbour> neighbours(long itemId, int limit) {
+        int slot = itemSlots.get(itemId);
+        if (slot < 0 || limit <= 0) return List.of();
+
+        List<Neighbour> out = new ArrayList<>(neighbourCount[slot]);
+        for (int i = 0; i < neighbourCount[slot]; i++) {
+            double score = similarity(slot, i);
+            if (score > 0) out.add(new Neighbour(neighbourIds[slot][i], score));
+        }
+
+        out.sort(Comparator.comparingDouble(Neighbour::score).reversed());
+        return out.size() > limit ? out.subList(0, limit) : out;
+    }
+
+    /**
+     * Item-to-item προτάσεις για τον user: άθροισμα γειτόνων των πρόσφατων items,
+     * με μεγαλύτερο βάρος στα πιο πρόσφατα.
+     */
+    public synchronized List<Neighbour> recommendForUser(long userId, int limit) {
+        long[] history = histories.get(userId);
+        if (history == null || limit <= 0) return List.of();
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (int h = 0; h < history.length && history[h] != 0L; h++) {
+            int slot = itemSlots.get(history[h]);
+            if (slot < 0) continue;
+
+            double recency = 1.0 / (1 + h);
+            for (int i = 0; i < neighbourCount[slot]; i++) {
+                long candidate = neighbourIds[slot][i];
+                if (indexOf(history, candidate) >= 0) continue;
+
+                double score = similarity(slot, i);
+                if (score > 0) scores.merge(candidate, score * recency, Double::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted((a, b) -> {
+                    int cmp = Double.compare(b.getValue(), a.getValue());
+                    if (cmp != 0) return cmp;
+                    return Long.compare(a.getKey(), b.getKey());
+                })
+                .limit(limit)
+                .map(e -> new Neighbour(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    public synchronized long[] recentItems(long userId) {
+        long[] history = histories.get(userId);
+        if (history == null) return new long[0];
+
+        int n = 0;
+        while (n < history.length && history[n] != 0L) n++;
+        return Arrays.copyOf(history, n);
+    }
+
+    public synchronized int itemCount() {
+        return itemSlots.size();
+    }
+
+    // =================== helpers ===================
+
+    private double similarity(int slot, int i) {
+        int neighbourSlot = liveSlot(neighbourIds[slot][i], neighbourEpochs[slot][i]);
+        if (neighbourSlot < 0) return 0.0;
+
+        double norm = Math.sqrt((double) slotWeight[slot] * slotWeight[neighbourSlot]);
+        return norm == 0.0 ? 0.0 : Math.min(1.0, neighbourWeights[slot][i] / norm);
+    }
+
+    // το slot του γείτονα, μόνο αν είναι ακόμα η ίδια "ζωή" του item
+    private int liveSlot(long itemId, int epoch) {
+        int slot = itemSlots.get(itemId);
+        return slot >= 0 && slotEpoch[slot] == epoch ? slot : -1;
+    }
+
+    private int slotFor(long itemId) {
+        int slot = itemSlots.get(itemId);
+        if (slot >= 0) return slot;
+
+        if (usedSlots < maxItems) {
+            slot = usedSlots++;
+            neighbourIds[slot] = new long[neighbourCap];
+            neighbourEpochs[slot] = new int[neighbourCap];
+            neighbourWeights[slot] = new float[neighbourCap];
+        } else {
+            slot = evictWeakestSample();
+        }
+
+        itemSlots.put(itemId, slot);
+        slotItemId[slot] = itemId;
+        slotWeight[slot] = 0f;
+        slotEpoch[slot] = ++nextEpoch;
+        neighbourCount[slot] = 0;
+        return slot;
+    }
+
+    // Approximate LFU: από ένα μικρό τυχαίο δείγμα βγάζουμε το item με το μικρότερο βάρος
+    private int evictWeakestSample() {
+        int victim = random.nextInt(maxItems);
+        for (int i = 1; i < EVICTION_SAMPLES; i++) {
+            int s = random.nextInt(maxItems);
+            if (slotWeight[s] < slotWeight[victim]) victim = s;
+        }
+
+        long victimId = slotItemId[victim];
+        for (int i = 0; i < neighbourCount[victim]; i++) {
+            int neighbourSlot = liveSlot(neighbourIds[victim][i], neighbourEpochs[victim][i]);
+            if (neighbourSlot >= 0) removeNeighbour(neighbourSlot, victimId);
+        }
+        itemSlots.remove(victimId);
+        return victim;
+    }
+
+    private void addNeighbour(int slot, long neighbourId, int neighbourEpoch, float weight) {
+        long[] ids = neighbourIds[slot];
+        int[] epochs = neighbourEpochs[slot];
+        float[] weights = neighbourWeights[slot];
+        int count = neighbourCount[slot];
+
+        int min = -1;
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == neighbourId) {
+                // entry από προηγούμενη ζωή του item: το παλιό count δεν ισχύει
+                weights[i] = epochs[i] == neighbourEpoch ? weights[i] + weight : weight;
+                epochs[i] = neighbourEpoch;
+                return;
+            }
+            if (min < 0 || weights[i] < weights[min]) min = i;
+        }
+
+        if (count < ids.length) {
+            ids[count] = neighbourId;
+            epochs[count] = neighbourEpoch;
+            weights[count] = weight;
+            neighbourCount[slot] = count + 1;
+            return;
+        }
+
+        // space-saving: ο νέος γείτονας "κληρονομεί" το βάρος του πιο αδύναμου
+        ids[min] = neighbourId;
+        epochs[min] = neighbourEpoch;
+        weights[min] += weight;
+    }
+
+    private void removeNeighbour(int slot, long neighbourId) {
+        int count = neighbourCount[slot];
+        for (int i = 0; i < count; i++) {
+            if (neighbourIds[slot][i] != neighbourId) continue;
+
+            // swap με το τελευταίο: η σειρά στη γραμμή δεν έχει σημασία
+            int last = count - 1;
+            neighbourIds[slot][i] = neighbourIds[slot][last];
+            neighbourEpochs[slot][i] = neighbourEpochs[slot][last];
+            neighbourWeights[slot][i] = neighbourWeights[slot][last];
+            neighbourCount[slot] = last;
+            return;
+        }
+    }
+
+    private static int indexOf(long[] history, long itemId) {
+        for (int i = 0; i < history.length && history[i] != 0L; i++) {
+            if (history[i] == itemId) return i;
+        }
+        return -1;
+    }
+
+    private static void moveToFront(long[] history, int index) {
+        long item = history[index];
+        System.arraycopy(history, 0, history, 1, index);
+        history[0] = item;
+    }
+}
@@ -0,0 +1,106 @@
+package com.cinematch.backend.service.recommendation;
+
+import com.cinematch.backend.dto.SimilarItemDto;
+import com.cinematch.backend.model.UserEventType;
+import com.cinematch.backend.repository.UserEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Item-to-item collaborative filtering πάνω στα OPEN_MOVIE / LIKE_MOVIE events.
+ * Ενημερώνεται incremental από το UserEventService και δεν χτυπάει ποτέ DB στο read path.
+ */
+@Service
+@Slf4j
+public class ItemSimilarityService {
+
+    private static final Set<UserEventType> TRACKED_TYPES =
+            Set.of(UserEventType.OPEN_MOVIE, UserEventType.LIKE_MOVIE);
+
+    private static final float OPEN_WEIGHT = 1.0f;
+    private static final float LIKE_WEIGHT = 3.0f;
+
+    private static final int WARM_UP_EVENTS = 20000;
+
+    private final UserEventRepository userEventRepository;
+    private final ItemCooccurrenceIndex index;
+
+    public ItemSimilarityService(
+            UserEventRepository userEventRepository,
+            @Value("${recommendations.cooccurrence.max-items:50000}") int maxItems,
+            @Value("${recommendations.cooccurrence.neighbours-per-item:32}") int neighbourCap,
+            @Value("${recommendations.cooccurrence.history-per-user:20}") int historySize,
+            @Value("${recommendations.cooccurrence.max-users:100000}") int maxUsers
+    ) {
+        this.userEventRepository = userEventRepository;
+        this.index = new ItemCooccurrenceIndex(maxItems, neighbourCap, historySize, maxUsers);
+    }
+
+    // =====================================================
+    //          WARM-UP ΑΠΟ ΤΑ ΠΡΟΣΦΑΤΑ EVENTS
+    // =====================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<UserEventRepository.MovieEventView> recent =
+                    userEventRepository.findRecentMovieEvents(TRACKED_TYPES, PageRequest.of(0, WARM_UP_EVENTS));
+
+            // replay με χρονολογική σειρά (τα πιο παλιά πρώτα)
+            for (int i = recent.size() - 1; i >= 0; i--) {
+                UserEventRepository.MovieEventView e = recent.get(i);
+                record(e.getUserId(), e.getType(), e.getMovieId());
+            }
+
+            log.info("[ItemSimilarityService] Warm-up replayed {} events, {} items indexed",
+                    recent.size(), index.itemCount());
+
+        } catch (Exception e) {
+            log.warn("[ItemSimilarityService] Warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Καλείται από το UserEventService για κάθε νέο movie event.
+     */
+    public void record(Long userId, UserEventType type, Long movieId) {
+        if (userId == null || movieId == null || movieId <= 0) return;
+        if (!TRACKED_TYPES.contains(type)) return;
+
+        float weight = type == UserEventType.LIKE_MOVIE ? LIKE_WEIGHT : OPEN_WEIGHT;
+        index.record(userId, movieId, weight);
+    }
+
+    /**
+     * "Users who opened X also opened"
+     */
+    public List<SimilarItemDto> alsoOpened(Long movieId, int limit) {
+        if (movieId == null) return List.of();
+        return toDtos(index.neighbours(movieId, limit));
+    }
+
+    /**
+     * Item-to-item προτάσεις με βάση τα πρόσφατα movies του user.
+     */
+    public List<SimilarItemDto> recommendForUser(Long userId, int limit) {
+        if (userId == null) return List.of();
+        return toDtos(index.recommendForUser(userId, limit));
+    }
+
+    // =================== helpers ===================
+
+    private List<SimilarItemDto> toDtos(List<ItemCooccurrenceIndex.Neighbour> neighbours) {
+        return neighbours.stream()
+                .map(n -> SimilarItemDto.builder()
+                        .movieId(n.itemId())
+                        .score(n.score())
+                        .build())
+                .toList();
+    }
+}
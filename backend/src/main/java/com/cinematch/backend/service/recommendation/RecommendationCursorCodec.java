@@ -0,0 +1,95 @@
+package com.cinematch.backend.service.recommendation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Opaque, HMAC-signed cursor για το paging των recommendations.
+ *
+ * Format: base64url(userId | snapshotId | offset) + "." + base64url(HMAC-SHA256).
+ * Ο client δεν μπορεί να αλλάξει offset ή να διαβάσει snapshot άλλου user.
+ */
+@Component
+@Slf4j
+public class RecommendationCursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Cursor(long userId, long snapshotId, int offset) {
+    }
+
+    private final SecretKeySpec key;
+
+    public RecommendationCursorCodec(@Value("${recommendations.cursor.secret:${jwt.secret:}}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // χωρίς secret: τυχαίο key ανά instance (τα snapshots είναι έτσι κι αλλιώς in-memory)
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("[RecommendationCursorCodec] No cursor secret configured, using a random per-instance key");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String encode(Cursor cursor) {
+        byte[] body = ByteBuffer.allocate(Long.BYTES * 2 + Integer.BYTES)
+                .putLong(cursor.userId())
+                .putLong(cursor.snapshotId())
+                .putInt(cursor.offset())
+                .array();
+
+        return ENCODER.encodeToString(body) + "." + ENCODER.encodeToString(sign(body));
+    }
+
+    /**
+     * @throws IllegalArgumentException αν το cursor είναι malformed ή δεν έχει έγκυρη υπογραφή
+     */
+    public Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        int dot = token.indexOf('.');
+        if (dot <= 0) throw new IllegalArgumentException("Invalid cursor");
+
+        byte[] body;
+        byte[] signature;
+        try {
+            body = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (body.length != Long.BYTES * 2 + Integer.BYTES
+                || !MessageDigest.isEqual(sign(body), signature)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(body);
+        return new Cursor(buf.getLong(), buf.getLong(), buf.getInt());
+    }
+
+    private byte[] sign(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(body);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to sign cursor", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cinematch.backend.service.recommendation;
+
+import com.cinematch.backend.dto.MovieResultDto;
+import com.cinematch.backend.util.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Κρατάει τη ranked λίστα recommendations που υπολογίστηκε στην πρώτη σελίδα,
+ * ώστε οι επόμενες σελίδες να διαβάζονται από το ίδιο snapshot χωρίς TMDb calls.
+ */
+@Component
+public class RecommendationSnapshotStore {
+
+    public record Snapshot(long id, long userId, long seed, List<MovieResultDto> items) {
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final TtlCache<Long, Snapshot> snapshots;
+
+    public RecommendationSnapshotStore(
+            @Value("${recommendations.snapshot.ttl-ms:900000}") long ttlMs,
+            @Value("${recommendations.snapshot.max-entries:10000}") int maxEntries
+    ) {
+        this.snapshots = new TtlCache<>(ttlMs, maxEntries);
+    }
+
+    public long newSeed() {
+        return random.nextLong();
+    }
+
+    public Snapshot save(long userId, long seed, List<MovieResultDto> items) {
+        long id = random.nextLong() & Long.MAX_VALUE;
+        Snapshot snapshot = new Snapshot(id, userId, seed, List.copyOf(items));
+        snapshots.put(id, snapshot);
+        return snapshot;
+    }
+
+    public Snapshot find(long snapshotId) {
+        return snapshots.get(snapshotId);
+    }
+
+    @Scheduled(fixedDelayString = "${recommendations.snapshot.purge-ms:60000}")
+    public void purgeExpired() {
+        snapshots.purgeExpired();
+    }
+}
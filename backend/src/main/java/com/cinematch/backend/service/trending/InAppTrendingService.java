@@ -0,0 +1,79 @@
+package com.cinematch.backend.service.trending;
+
+import com.cinematch.backend.dto.InAppTrendingDto;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * "Trending on CineMatch": τα πιο δημοφιλή movies / actors από τα δικά μας events
+ * (OPEN_MOVIE, LIKE_MOVIE, OPEN_ACTOR) σε sliding window, αντί για το global trending του TMDb.
+ *
+ * Ενημερώνεται από το UserEventService και απαντάει μόνο από τη μνήμη.
+ */
+@Service
+public class InAppTrendingService {
+
+    private final SlidingWindowHeavyHitters movies;
+    private final SlidingWindowHeavyHitters actors;
+    private final int openWeight;
+    private final int likeWeight;
+
+    public InAppTrendingService(
+            @Value("${trending.in-app.bucket-minutes:60}") long bucketMinutes,
+            @Value("${trending.in-app.buckets:24}") int buckets,
+            @Value("${trending.in-app.sketch-depth:4}") int depth,
+            @Value("${trending.in-app.sketch-width:4096}") int width,
+            @Value("${trending.in-app.candidates:200}") int candidates,
+            @Value("${trending.in-app.open-weight:1}") int openWeight,
+            @Value("${trending.in-app.like-weight:3}") int likeWeight
+    ) {
+        long bucketMs = bucketMinutes * 60_000L;
+        this.movies = new SlidingWindowHeavyHitters(depth, width, buckets, bucketMs, candidates);
+        this.actors = new SlidingWindowHeavyHitters(depth, width, buckets, bucketMs, candidates);
+        this.openWeight = openWeight;
+        this.likeWeight = likeWeight;
+    }
+
+    /**
+     * Καλείται από το UserEventService για κάθε event που μπήκε στην ingestion pipeline.
+     */
+    public void record(UserEvent event) {
+        if (event == null || event.getType() == null) return;
+        long now = System.currentTimeMillis();
+
+        if (event.getType() == UserEventType.OPEN_MOVIE || event.getType() == UserEventType.LIKE_MOVIE) {
+            Long movieId = event.getMovieId();
+            if (movieId == null || movieId <= 0) return;
+            int weight = event.getType() == UserEventType.LIKE_MOVIE ? likeWeight : openWeight;
+            movies.add(movieId, weight, now);
+
+        } else if (event.getType() == UserEventType.OPEN_ACTOR) {
+            Long personId = event.getPersonId();
+            if (personId == null || personId <= 0) return;
+            actors.add(personId, openWeight, now);
+        }
+    }
+
+    public List<InAppTrendingDto> topMovies(int limit) {
+        return toDtos(movies.top(limit, System.currentTimeMillis()));
+    }
+
+    public List<InAppTrendingDto> topActors(int limit) {
+        return toDtos(actors.top(limit, System.currentTimeMillis()));
+    }
+
+    // =================== helpers ===================
+
+    private List<InAppTrendingDto> toDtos(List<SlidingWindowHeavyHitters.Entry> entries) {
+        return entries.stream()
+                .map(e -> InAppTrendingDto.builder()
+                        .id(e.id())
+                        .score(e.count())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,227 @@
+package com.cinematch.backend.service.trending;
+
+import com.cinematch.backend.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Heavy hitters (top-K ids) σε sliding time window, με σταθερή μνήμη.
+ *
+ * - Count-min sketch ανά time bucket (depth x width counters). Κρατάμε και το άθροισμα
+ *   των buckets του window, οπότε το estimate είναι O(depth) και το "γλίστρημα" του window
+ *   είναι ένα subtract του bucket που λήγει.
+ * - Indexed min-heap με τους {@code capacity} καλύτερους υποψηφίους. Ένα id μπαίνει όταν
+ *   το estimate του ξεπεράσει τον πιο αδύναμο υποψήφιο.
+ *
+ * Η μνήμη εξαρτάται μόνο από buckets x depth x width + capacity, όχι από το πλήθος των ids.
+ * Το count-min μόνο υπερεκτιμά, άρα τα counts είναι άνω φράγματα.
+ */
+public class SlidingWindowHeavyHitters {
+
+    public record Entry(long id, long count) {
+    }
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+    };
+
+    private final int depth;
+    private final int widthMask;
+    private final int bucketCount;
+    private final long bucketMs;
+
+    // bucketCounters[b][d * width + cell]
+    private final int[][] bucketCounters;
+    private final long[] windowCounters;
+    private long currentBucket = Long.MIN_VALUE;
+
+    // indexed min-heap (ρίζα = ο πιο αδύναμος υποψήφιος)
+    private final int capacity;
+    private final long[] heapIds;
+    private final long[] heapCounts;
+    private final LongIntHashMap heapSlots;
+    private int heapSize;
+
+    public SlidingWindowHeavyHitters(int depth, int width, int bucketCount, long bucketMs, int capacity) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        int w = Integer.highestOneBit(Math.max(2, width) - 1) << 1; // power of 2
+        this.depth = depth;
+        this.widthMask = w - 1;
+        this.bucketCount = Math.max(1, bucketCount);
+        this.bucketMs = Math.max(1, bucketMs);
+
+        this.bucketCounters = new int[this.bucketCount][depth * w];
+        this.windowCounters = new long[depth * w];
+
+        this.capacity = Math.max(1, capacity);
+        this.heapIds = new long[this.capacity];
+        this.heapCounts = new long[this.capacity];
+        this.heapSlots = new LongIntHashMap(this.capacity, -1);
+    }
+
+    public synchronized void add(long id, int weight, long nowMs) {
+        advance(nowMs);
+        int[] bucket = bucketCounters[(int) Math.floorMod(currentBucket, (long) bucketCount)];
+
+        long estimate = Long.MAX_VALUE;
+        for (int d = 0; d < depth; d++) {
+            int cell = cell(id, d);
+            bucket[cell] += weight;
+            windowCounters[cell] += weight;
+            estimate = Math.min(estimate, windowCounters[cell]);
+        }
+        offer(id, estimate);
+    }
+
+    public synchronized long estimate(long id, long nowMs) {
+        advance(nowMs);
+        return estimate(id);
+    }
+
+    /**
+     * Top-{@code k} του window. Διαβάζει μόνο τους υποψηφίους του heap (O(capacity)).
+     */
+    public synchronized List<Entry> top(int k, long nowMs) {
+        advance(nowMs);
+
+        Entry[] entries = new Entry[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            entries[i] = new Entry(heapIds[i], heapCounts[i]);
+        }
+        Arrays.sort(entries, Comparator.comparingLong(Entry::count).reversed()
+                .thenComparingLong(Entry::id));
+
+        int n = Math.min(Math.max(0, k), entries.length);
+        List<Entry> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) result.add(entries[i]);
+        return result;
+    }
+
+    // =====================================================
+    //                  WINDOW
+    // =====================================================
+    private void advance(long nowMs) {
+        long bucket = Math.floorDiv(nowMs, bucketMs);
+        if (currentBucket == Long.MIN_VALUE) {
+            currentBucket = bucket;
+            return;
+        }
+        if (bucket <= currentBucket) return;
+
+        if (bucket - currentBucket >= bucketCount) {
+            // όλο το window έληξε
+            for (int[] b : bucketCounters) Arrays.fill(b, 0);
+            Arrays.fill(windowCounters, 0);
+            clearCandidates();
+        } else {
+            for (long b = currentBucket + 1; b <= bucket; b++) {
+                int[] expired = bucketCounters[(int) Math.floorMod(b, (long) bucketCount)];
+                for (int i = 0; i < expired.length; i++) {
+                    windowCounters[i] -= expired[i];
+                }
+                Arrays.fill(expired, 0);
+            }
+            refreshCandidates();
+        }
+        currentBucket = bucket;
+    }
+
+    private long estimate(long id) {
+        long estimate = Long.MAX_VALUE;
+        for (int d = 0; d < depth; d++) {
+            estimate = Math.min(estimate, windowCounters[cell(id, d)]);
+        }
+        return estimate;
+    }
+
+    private int cell(long id, int d) {
+        long h = (id ^ SEEDS[d]) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        return d * (widthMask + 1) + ((int) h & widthMask);
+    }
+
+    // =====================================================
+    //                  CANDIDATES (MIN-HEAP)
+    // =====================================================
+    private void offer(long id, long count) {
+        int slot = heapSlots.get(id);
+        if (slot >= 0) {
+            heapCounts[slot] = count;
+            siftDown(slot);
+            return;
+        }
+        if (heapSize < capacity) {
+            place(heapSize, id, count);
+            siftUp(heapSize++);
+            return;
+        }
+        if (count > heapCounts[0]) {
+            heapSlots.remove(heapIds[0]);
+            place(0, id, count);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Μετά το γλίστρημα του window: νέα estimates, έξω όσοι έπεσαν στο 0, re-heapify.
+     */
+    private void refreshCandidates() {
+        int kept = 0;
+        heapSlots.clear();
+        for (int i = 0; i < heapSize; i++) {
+            long count = estimate(heapIds[i]);
+            if (count > 0) {
+                heapIds[kept] = heapIds[i];
+                heapCounts[kept] = count;
+                heapSlots.put(heapIds[kept], kept);
+                kept++;
+            }
+        }
+        heapSize = kept;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) siftDown(i);
+    }
+
+    private void clearCandidates() {
+        heapSlots.clear();
+        heapSize = 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapCounts[parent] <= heapCounts[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= heapSize) break;
+            int smallest = left + 1 < heapSize && heapCounts[left + 1] < heapCounts[left] ? left + 1 : left;
+            if (heapCounts[i] <= heapCounts[smallest]) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void place(int slot, long id, long count) {
+        heapIds[slot] = id;
+        heapCounts[slot] = count;
+        heapSlots.put(id, slot);
+    }
+
+    private void swap(int a, int b) {
+        long id = heapIds[a];
+        long count = heapCounts[a];
+        place(a, heapIds[b], heapCounts[b]);
+        place(b, id, count);
+    }
+}
@@ -0,0 +1,260 @@
+package com.cinematch.backend.service.trending;
+
+import com.cinematch.backend.dto.UniqueViewersDto;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.ViewedEntityKind;
+import com.cinematch.backend.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unique viewers (distinct users που άνοιξαν ένα movie / actor / director) με HyperLogLog.
+ *
+ *  - Τα OPEN_* events μπαίνουν σε in-memory sketch ανά (entity, UTC ημέρα).
+ *  - Κάθε flush τα κάνει merge (register-wise max) στο daily και στο all-time row του
+ *    entity_unique_viewers, με row lock, άρα πολλά nodes γράφουν στο ίδιο row με ασφάλεια.
+ *  - Read: all-time = ένα row + τα pending sketches, ανεξάρτητα από το πλήθος των users.
+ *    Για window N ημερών γίνεται merge των N daily rows.
+ *
+ * Standard error ≈ 1.04 / sqrt(2^PRECISION) ≈ 2.3%.
+ */
+@Service
+@Slf4j
+public class UniqueViewerService {
+
+    static final int PRECISION = 11;
+
+    // sentinel ημέρα του all-time row
+    public static final LocalDate ALL_TIME = LocalDate.of(1970, 1, 1);
+
+    private static final String ENSURE_ROW = """
+            INSERT INTO entity_unique_viewers (entity_kind, entity_id, bucket_day, registers, estimate, updated_at)
+            VALUES (?, ?, ?, ?, 0, now())
+            ON CONFLICT (entity_kind, entity_id, bucket_day) DO NOTHING
+            """;
+
+    private record Key(ViewedEntityKind kind, long entityId, LocalDate day) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPending;
+    private final int retentionDays;
+    private final int maxWindowDays;
+
+    private final ConcurrentHashMap<Key, HyperLogLog> pending = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public UniqueViewerService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${viewers.unique.max-pending:20000}") int maxPending,
+            @Value("${viewers.unique.retention-days:90}") int retentionDays,
+            @Value("${viewers.unique.max-window-days:90}") int maxWindowDays
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxPending = maxPending;
+        this.retentionDays = retentionDays;
+        this.maxWindowDays = maxWindowDays;
+    }
+
+    /**
+     * Καλείται από το UserEventService για κάθε event που μπήκε στην ingestion pipeline.
+     */
+    public void record(UserEvent event) {
+        if (event == null || event.getType() == null || event.getUser() == null) return;
+
+        ViewedEntityKind kind;
+        Long entityId;
+        switch (event.getType()) {
+            case OPEN_MOVIE -> {
+                kind = ViewedEntityKind.MOVIE;
+                entityId = event.getMovieId();
+            }
+            case OPEN_ACTOR -> {
+                kind = ViewedEntityKind.ACTOR;
+                entityId = event.getPersonId();
+            }
+            case OPEN_DIRECTOR -> {
+                kind = ViewedEntityKind.DIRECTOR;
+                entityId = event.getPersonId();
+            }
+            default -> {
+                return;
+            }
+        }
+        Long userId = event.getUser().getId();
+        if (entityId == null || entityId <= 0 || userId == null) return;
+
+        Key key = new Key(kind, entityId, LocalDate.now(ZoneOffset.UTC));
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            // φραγμένη μνήμη μέχρι το επόμενο flush
+            dropped.incrementAndGet();
+            return;
+        }
+
+        // το compute κρατάει το lock του key: κανείς άλλος δεν αγγίζει το sketch ταυτόχρονα
+        pending.compute(key, (k, sketch) -> {
+            if (sketch == null) sketch = new HyperLogLog(PRECISION);
+            sketch.addLong(userId);
+            return sketch;
+        });
+    }
+
+    // =====================================================
+    //                  READS
+    // =====================================================
+
+    /**
+     * @param days null για all-time, αλλιώς οι τελευταίες N UTC ημέρες (μαζί με τη σημερινή)
+     */
+    public UniqueViewersDto uniqueViewers(ViewedEntityKind kind, long entityId, Integer days) {
+        HyperLogLog merged = new HyperLogLog(PRECISION);
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        List<LocalDate> pendingDays = new ArrayList<>();
+        List<byte[]> rows;
+
+        if (days == null) {
+            rows = jdbcTemplate.query("""
+                    SELECT registers FROM entity_unique_viewers
+                    WHERE entity_kind = ? AND entity_id = ? AND bucket_day = ?
+                    """, (rs, i) -> rs.getBytes(1), kind.name(), entityId, Date.valueOf(ALL_TIME));
+            // ό,τι δεν έχει γίνει ακόμα flush (σήμερα, ή χθες αμέσως μετά τα μεσάνυχτα)
+            pendingDays.add(today);
+            pendingDays.add(today.minusDays(1));
+        } else {
+            int n = Math.min(Math.max(days, 1), maxWindowDays);
+            LocalDate from = today.minusDays(n - 1L);
+            rows = jdbcTemplate.query("""
+                    SELECT registers FROM entity_unique_viewers
+                    WHERE entity_kind = ? AND entity_id = ? AND bucket_day BETWEEN ? AND ?
+                    """, (rs, i) -> rs.getBytes(1), kind.name(), entityId, Date.valueOf(from), Date.valueOf(today));
+            for (LocalDate d = from; !d.isAfter(today); d = d.plusDays(1)) {
+                pendingDays.add(d);
+            }
+            days = n;
+        }
+
+        for (byte[] row : rows) {
+            merged.merge(HyperLogLog.fromBytes(row));
+        }
+        for (LocalDate d : pendingDays) {
+            pending.computeIfPresent(new Key(kind, entityId, d), (k, sketch) -> {
+                merged.merge(sketch);
+                return sketch;
+            });
+        }
+
+        return UniqueViewersDto.builder()
+                .kind(kind.name())
+                .entityId(entityId)
+                .days(days)
+                .uniqueViewers(merged.estimate())
+                .standardError(merged.standardError())
+                .build();
+    }
+
+    /**
+     * Ranking με βάση το αποθηκευμένο all-time estimate (μέχρι το τελευταίο flush).
+     */
+    public List<UniqueViewersDto> top(ViewedEntityKind kind, int limit) {
+        double standardError = new HyperLogLog(PRECISION).standardError();
+
+        return jdbcTemplate.query("""
+                SELECT entity_id, estimate FROM entity_unique_viewers
+                WHERE entity_kind = ? AND bucket_day = ?
+                ORDER BY estimate DESC
+                LIMIT ?
+                """, (rs, i) -> UniqueViewersDto.builder()
+                .kind(kind.name())
+                .entityId(rs.getLong(1))
+                .uniqueViewers(rs.getLong(2))
+                .standardError(standardError)
+                .build(), kind.name(), Date.valueOf(ALL_TIME), limit);
+    }
+
+    // =====================================================
+    //                  FLUSH / RETENTION
+    // =====================================================
+    @Scheduled(fixedDelayString = "${viewers.unique.flush-ms:60000}")
+    public void flush() {
+        int flushed = 0;
+
+        for (Key key : List.copyOf(pending.keySet())) {
+            HyperLogLog sketch = pending.remove(key);
+            if (sketch == null) continue;
+
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    mergeInto(key.kind(), key.entityId(), key.day(), sketch);
+                    mergeInto(key.kind(), key.entityId(), ALL_TIME, sketch);
+                });
+                flushed++;
+            } catch (Exception e) {
+                // ξαναμπαίνει στα pending για το επόμενο flush (το merge είναι idempotent)
+                pending.merge(key, sketch, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+                log.warn("[UniqueViewerService] Flush failed for {}: {}", key, e.getMessage());
+            }
+        }
+
+        if (flushed > 0 || dropped.get() > 0) {
+            log.debug("[UniqueViewerService] Flushed {} sketches ({} events dropped so far)", flushed, dropped.get());
+        }
+    }
+
+    @Scheduled(cron = "${viewers.unique.retention-cron:0 30 3 * * *}", zone = "UTC")
+    public void purgeOldBuckets() {
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+        int deleted = jdbcTemplate.update("""
+                DELETE FROM entity_unique_viewers
+                WHERE bucket_day < ? AND bucket_day > ?
+                """, Date.valueOf(cutoff), Date.valueOf(ALL_TIME));
+        log.info("[UniqueViewerService] Purged {} daily sketches older than {}", deleted, cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // =================== helpers ===================
+
+    private void mergeInto(ViewedEntityKind kind, long entityId, LocalDate day, HyperLogLog sketch) {
+        // το row πρέπει να υπάρχει για να το κλειδώσουμε (αλλιώς δύο nodes θα έκαναν insert ταυτόχρονα)
+        jdbcTemplate.update(ENSURE_ROW, kind.name(), entityId, Date.valueOf(day),
+                new HyperLogLog(PRECISION).toBytes());
+
+        byte[] current = jdbcTemplate.queryForObject("""
+                SELECT registers FROM entity_unique_viewers
+                WHERE entity_kind = ? AND entity_id = ? AND bucket_day = ?
+                FOR UPDATE
+                """, byte[].class, kind.name(), entityId, Date.valueOf(day));
+
+        HyperLogLog merged = sketch.copy();
+        merged.merge(HyperLogLog.fromBytes(current));
+
+        jdbcTemplate.update("""
+                UPDATE entity_unique_viewers
+                SET registers = ?, estimate = ?, updated_at = now()
+                WHERE entity_kind = ? AND entity_id = ? AND bucket_day = ?
+                """, merged.toBytes(), merged.estimate(), kind.name(), entityId, Date.valueOf(day));
+    }
+}
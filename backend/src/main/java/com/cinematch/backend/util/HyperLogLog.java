@@ -0,0 +1,172 @@
+package com.cinematch.backend.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog cardinality sketch (distinct count) με 2^p registers του ενός byte.
+ *
+ * - add: O(1), estimate: O(m) με m = 2^p (ανεξάρτητο από το πλήθος των users)
+ * - standard error ≈ 1.04 / sqrt(m), π.χ. p = 11 -> ~2.3%
+ * - merge = register-wise max, άρα sketches από διαφορετικά time buckets ή nodes
+ *   ενώνονται χωρίς απώλεια (το union έχει το ίδιο error bound)
+ *
+ * Serialization: dense (όλα τα registers) ή sparse (index, value) για λίγους users,
+ * ό,τι βγαίνει μικρότερο. Δεν είναι thread-safe.
+ */
+public class HyperLogLog {
+
+    private static final byte DENSE = 1;
+    private static final byte SPARSE = 2;
+
+    private final int p;
+    private final byte[] registers;
+
+    public HyperLogLog(int p) {
+        if (p < 4 || p > 16) throw new IllegalArgumentException("precision must be between 4 and 16");
+        this.p = p;
+        this.registers = new byte[1 << p];
+    }
+
+    public int precision() {
+        return p;
+    }
+
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * @return true αν άλλαξε κάποιο register (δηλαδή το estimate μπορεί να άλλαξε)
+     */
+    public boolean addLong(long value) {
+        long h = mix(value);
+        int index = (int) (h >>> (64 - p));
+        // leading zeros των υπόλοιπων bits (+1), με sentinel ώστε να μη βγει πάνω από 64 - p + 1
+        int rank = Long.numberOfLeadingZeros((h << p) | (1L << (p - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+            return true;
+        }
+        return false;
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.p != p) throw new IllegalArgumentException("precision mismatch: " + p + " vs " + other.p);
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // small-range correction (linear counting)
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte r : registers) {
+            if (r != 0) return false;
+        }
+        return true;
+    }
+
+    // =====================================================
+    //                  SERIALIZATION
+    // =====================================================
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte r : registers) {
+            if (r != 0) nonZero++;
+        }
+
+        // sparse: 2 bytes index + 1 byte value ανά register
+        if (4 + nonZero * 3 < 2 + registers.length) {
+            ByteBuffer buf = ByteBuffer.allocate(4 + nonZero * 3);
+            buf.put(SPARSE).put((byte) p).putShort((short) nonZero);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    buf.putShort((short) i).put(registers[i]);
+                }
+            }
+            return buf.array();
+        }
+
+        byte[] out = new byte[2 + registers.length];
+        out[0] = DENSE;
+        out[1] = (byte) p;
+        System.arraycopy(registers, 0, out, 2, registers.length);
+        return out;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) throw new IllegalArgumentException("empty sketch");
+
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        byte format = buf.get();
+        HyperLogLog hll = new HyperLogLog(buf.get());
+
+        if (format == DENSE) {
+            if (bytes.length != 2 + hll.registers.length) throw new IllegalArgumentException("bad dense sketch");
+            buf.get(hll.registers);
+        } else if (format == SPARSE) {
+            int n = Short.toUnsignedInt(buf.getShort());
+            if (bytes.length != 4 + n * 3) throw new IllegalArgumentException("bad sparse sketch");
+            for (int i = 0; i < n; i++) {
+                int index = Short.toUnsignedInt(buf.getShort());
+                if (index >= hll.registers.length) throw new IllegalArgumentException("bad register index");
+                hll.registers[index] = buf.get();
+            }
+        } else {
+            throw new IllegalArgumentException("unknown sketch format " + format);
+        }
+        return hll;
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog c = new HyperLogLog(p);
+        System.arraycopy(registers, 0, c.registers, 0, registers.length);
+        return c;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && other.p == p && Arrays.equals(other.registers, registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+
+    // =================== helpers ===================
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    // splitmix64 finalizer: τα user ids είναι σειριακά, θέλουμε ομοιόμορφα bits
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,88 @@
+package com.cinematch.backend.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Απλό in-memory cache με TTL ανά entry και άνω όριο entries.
+ *
+ * Τα expired entries αγνοούνται στο read και καθαρίζονται από {@link #purgeExpired()}
+ * (το καλεί ο owner από ένα @Scheduled job). Thread-safe.
+ *
+ * Όταν γεμίσει, φεύγει το least-recently-used entry (LinkedHashMap σε access order):
+ * O(1) ανά put, χωρίς scan του map στο request path.
+ */
+public class TtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries;
+    private final long ttlMs;
+
+    public TtlCache(long ttlMs, int maxEntries) {
+        this.ttlMs = ttlMs;
+        int limit = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > limit;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> e = entries.get(key);
+        if (e == null) return null;
+        if (e.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return e.value();
+    }
+
+    public void put(K key, V value) {
+        put(key, value, ttlMs);
+    }
+
+    public synchronized void put(K key, V value, long customTtlMs) {
+        if (value == null) return;
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + customTtlMs));
+    }
+
+    /**
+     * Επιστρέφει το cached value ή το υπολογίζει. Ο loader τρέχει εκτός lock,
+     * οπότε σε ταυτόχρονα misses μπορεί να τρέξει παραπάνω από μία φορά.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null) return cached;
+
+        V loaded = loader.apply(key);
+        put(key, loaded);
+        return loaded;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt() < now) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,25 @@
+-- Columns που πρόσθεσε η σειρά αλλαγών μετά το ddl-auto=update.
+-- Μια βάση από εκείνη την εποχή (baseline-on-migrate, version 0) έχει τα tables του V1 χωρίς αυτά,
+-- και τα επόμενα migrations (V2 backfill) και το ddl-auto=validate τα χρειάζονται.
+-- Σε νέες βάσεις τα φτιάχνει ήδη το V1, οπότε όλα είναι no-op.
+-- Μόνο nullable columns / columns με default: metadata-only, χωρίς rewrite του table.
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS preference_profile      BYTEA,
+    ADD COLUMN IF NOT EXISTS preference_scores_ready BOOLEAN;
+
+ALTER TABLE user_events
+    ADD COLUMN IF NOT EXISTS movie_id     BIGINT,
+    ADD COLUMN IF NOT EXISTS person_id    BIGINT,
+    ADD COLUMN IF NOT EXISTS genre_id     BIGINT,
+    ADD COLUMN IF NOT EXISTS cast_id      BIGINT,
+    ADD COLUMN IF NOT EXISTS crew_id      BIGINT,
+    ADD COLUMN IF NOT EXISTS source       VARCHAR(50),
+    ADD COLUMN IF NOT EXISTS attributes   JSONB,
+    ADD COLUMN IF NOT EXISTS payload_hash BIGINT;
+
+-- τα νέα events δεν γράφουν πλέον TEXT payload
+ALTER TABLE user_events ALTER COLUMN payload DROP NOT NULL;
+
+ALTER TABLE user_preference_scores
+    ADD COLUMN IF NOT EXISTS half_life_seconds DOUBLE PRECISION DEFAULT 2592000 NOT NULL;
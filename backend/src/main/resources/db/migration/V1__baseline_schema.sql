@@ -0,0 +1,129 @@
+-- Baseline: το schema όπως το άφηνε το Hibernate ddl-auto=update.
+-- Σε υπάρχουσες βάσεις (baseline-on-migrate, version 0) τα tables υπάρχουν ήδη (IF NOT EXISTS),
+-- αλλά χωρίς τα νεότερα columns: αυτά τα προσθέτει το V1_1.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username                 VARCHAR(255),
+    email                    VARCHAR(255)   NOT NULL,
+    password                 VARCHAR(255)   NOT NULL,
+    role                     VARCHAR(255)   NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    quiz_score               INTEGER        NOT NULL,
+    created_at               TIMESTAMP(6)   NOT NULL,
+    preference_profile       BYTEA,
+    top_genres               TEXT,
+    top_actors               TEXT,
+    top_directors            TEXT,
+    preferences_last_updated TIMESTAMP(6) WITH TIME ZONE,
+    preference_scores_ready  BOOLEAN,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS posts (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    movie_id   BIGINT,
+    media_url  VARCHAR(255) NOT NULL,
+    media_type VARCHAR(255) NOT NULL,
+    caption    TEXT,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS post_comments (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id    BIGINT       NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    text       TEXT         NOT NULL,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS post_ratings (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id BIGINT  NOT NULL,
+    user_id BIGINT  NOT NULL,
+    value   INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS movie_sentiment (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    movie_id BIGINT           NOT NULL,
+    tag      VARCHAR(255)     NOT NULL,
+    score    DOUBLE PRECISION NOT NULL,
+    source   VARCHAR(255)     NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS actor_embeddings (
+    actor_id       BIGINT PRIMARY KEY,
+    name           VARCHAR(255),
+    image_url      VARCHAR(255),
+    embedding_json TEXT
+);
+
+CREATE TABLE IF NOT EXISTS user_preference_scores (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id           BIGINT                      NOT NULL,
+    dimension         VARCHAR(20)                 NOT NULL,
+    entity_id         BIGINT                      NOT NULL,
+    event_type        VARCHAR(50)                 NOT NULL,
+    score             DOUBLE PRECISION            NOT NULL,
+    half_life_seconds DOUBLE PRECISION DEFAULT 2592000 NOT NULL,
+    updated_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_user_preference_scores UNIQUE (user_id, dimension, entity_id, event_type)
+);
+
+CREATE TABLE IF NOT EXISTS preference_rebuild_checkpoints (
+    partition_no     INTEGER PRIMARY KEY,
+    range_start      BIGINT  NOT NULL,
+    range_end        BIGINT  NOT NULL,
+    last_user_id     BIGINT  NOT NULL,
+    users_processed  BIGINT  NOT NULL,
+    events_processed BIGINT  NOT NULL,
+    done             BOOLEAN NOT NULL,
+    updated_at       TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS user_event_daily_rollups (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    day         DATE        NOT NULL,
+    user_id     BIGINT      NOT NULL,
+    type        VARCHAR(50) NOT NULL,
+    entity_kind VARCHAR(10) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    event_count BIGINT      NOT NULL,
+    CONSTRAINT uk_user_event_daily_rollups UNIQUE (day, user_id, type, entity_kind, entity_id)
+);
+
+-- user_events: σε νέα βάση δημιουργείται κατευθείαν partitioned (βλ. UserEventPartitionService).
+-- Ένα υπάρχον unpartitioned table μετατρέπεται από το V10__UserEventsPartitioned.
+DO $$
+BEGIN
+    IF to_regclass('public.user_events') IS NULL THEN
+        CREATE SEQUENCE user_events_id_part_seq;
+
+        CREATE TABLE user_events (
+            id           BIGINT                      NOT NULL DEFAULT nextval('user_events_id_part_seq'),
+            user_id      BIGINT                      NOT NULL,
+            type         VARCHAR(50)                 NOT NULL,
+            movie_id     BIGINT,
+            person_id    BIGINT,
+            genre_id     BIGINT,
+            cast_id      BIGINT,
+            crew_id      BIGINT,
+            source       VARCHAR(50),
+            attributes   JSONB,
+            payload_hash BIGINT,
+            payload      TEXT,
+            created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+            CONSTRAINT user_events_pkey_part PRIMARY KEY (id, created_at),
+            CONSTRAINT fk_user_events_user FOREIGN KEY (user_id) REFERENCES users (id)
+        ) PARTITION BY RANGE (created_at);
+
+        ALTER SEQUENCE user_events_id_part_seq OWNED BY user_events.id;
+
+        CREATE TABLE user_events_default PARTITION OF user_events DEFAULT;
+
+        CREATE INDEX idx_user_events_type_movie ON user_events (type, movie_id);
+        CREATE INDEX idx_user_events_type_person ON user_events (type, person_id);
+        CREATE INDEX idx_user_events_genre ON user_events (genre_id);
+    END IF;
+END $$;
@@ -0,0 +1,7 @@
+-- Πριν το unique (post_id, user_id) του V4: κρατάμε το πιο πρόσφατο rating ανά (post, user).
+-- Χωρίς αυτό ένα διπλό row (race στο rate) θα άφηνε το unique index INVALID.
+DELETE FROM post_ratings r
+USING post_ratings newer
+WHERE newer.post_id = r.post_id
+  AND newer.user_id = r.user_id
+  AND newer.id > r.id;
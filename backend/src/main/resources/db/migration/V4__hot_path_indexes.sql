@@ -0,0 +1,36 @@
+-- Indexes για τα hot repository queries (βλ. docs/research/query_plans.md).
+-- Μόνο CONCURRENTLY statements: το Flyway τα τρέχει εκτός transaction, χωρίς write lock στα tables.
+-- Αν ένα build αποτύχει μένει INVALID index: DROP INDEX CONCURRENTLY και ξανά migrate.
+-- Τα user_events indexes είναι στο V5 (Java), επειδή το table είναι partitioned.
+
+-- PostRatingRepository: findBy / existsBy / deleteBy (postId, userId)
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_post_ratings_post_user
+    ON post_ratings (post_id, user_id);
+
+-- PostRatingRepository.countByPostIdAndValue (index-only count)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_ratings_post_value
+    ON post_ratings (post_id, value);
+
+-- PostCommentRepository.findByPostIdOrderByCreatedAtAsc / deleteByPostId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_post_comments_post_created
+    ON post_comments (post_id, created_at);
+
+-- PostRepository.findAllByOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_created
+    ON posts (created_at DESC);
+
+-- PostRepository.findByUserIdOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_user_created
+    ON posts (user_id, created_at DESC);
+
+-- PostRepository.findByMovieIdOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_posts_movie_created
+    ON posts (movie_id, created_at DESC);
+
+-- MovieSentimentRepository.findTop200ByTagOrderByScoreDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movie_sentiment_tag_score
+    ON movie_sentiment (tag, score DESC);
+
+-- MovieSentimentRepository.findByMovieId / existsByMovieIdAndTagAndSource
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movie_sentiment_movie_tag_source
+    ON movie_sentiment (movie_id, tag, source);
@@ -0,0 +1,8 @@
+-- Το unique index του V4 γίνεται constraint (μόνο catalog update, χωρίς νέο scan).
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_post_ratings_post_user') THEN
+        ALTER TABLE post_ratings
+            ADD CONSTRAINT uk_post_ratings_post_user UNIQUE USING INDEX uk_post_ratings_post_user;
+    END IF;
+END $$;
@@ -0,0 +1,16 @@
+-- HyperLogLog sketches των unique viewers ανά entity (βλ. UniqueViewerService).
+-- Ένα row ανά UTC ημέρα + ένα all-time row με bucket_day = 1970-01-01.
+CREATE TABLE IF NOT EXISTS entity_unique_viewers (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_kind VARCHAR(10)                 NOT NULL,
+    entity_id   BIGINT                      NOT NULL,
+    bucket_day  DATE                        NOT NULL,
+    registers   BYTEA                       NOT NULL,
+    estimate    BIGINT                      NOT NULL,
+    updated_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_entity_unique_viewers UNIQUE (entity_kind, entity_id, bucket_day)
+);
+
+-- ranking: top entities ανά kind στο all-time row
+CREATE INDEX IF NOT EXISTS idx_entity_unique_viewers_rank
+    ON entity_unique_viewers (entity_kind, bucket_day, estimate DESC);
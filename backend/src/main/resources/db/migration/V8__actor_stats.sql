@@ -0,0 +1,32 @@
+-- Persisted per-actor stats για το Star Power (βλ. ActorStatsStore / ActorStatsSyncJob).
+-- stale = true όταν το TMDb /person/changes ανέφερε αλλαγή: το row μένει usable μέχρι το refresh.
+CREATE TABLE IF NOT EXISTS actor_stats (
+    person_id          BIGINT PRIMARY KEY,
+    popularity         DOUBLE PRECISION            NOT NULL,
+    credit_count       INTEGER                     NOT NULL,
+    highly_rated_count INTEGER                     NOT NULL,
+    stale              BOOLEAN                     NOT NULL DEFAULT FALSE,
+    refreshed_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- ουρά του refresh: μόνο τα stale rows, τα παλαιότερα πρώτα
+CREATE INDEX IF NOT EXISTS idx_actor_stats_stale
+    ON actor_stats (refreshed_at) WHERE stale;
+
+-- top-billed cast ανά ταινία (έως 5), όπως το διαβάζει το KpiService από το /movie/{id}/credits
+CREATE TABLE IF NOT EXISTS movie_top_cast (
+    movie_id      BIGINT                      NOT NULL,
+    billing_order INTEGER                     NOT NULL,
+    person_id     BIGINT                      NOT NULL,
+    refreshed_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_movie_top_cast PRIMARY KEY (movie_id, billing_order)
+);
+
+CREATE INDEX IF NOT EXISTS idx_movie_top_cast_person
+    ON movie_top_cast (person_id);
+
+-- μέχρι ποια ημέρα έχουν διαβαστεί τα TMDb person changes (ένα row, id = 1)
+CREATE TABLE IF NOT EXISTS actor_stats_sync (
+    id                SMALLINT PRIMARY KEY,
+    changes_synced_to DATE NOT NULL
+);
@@ -0,0 +1,36 @@
+-- Τοπικός κατάλογος ταινιών για τα catalog-wide KPI leaderboards (βλ. MovieCatalogSyncJob /
+-- KpiLeaderboardService). Γεμίζει από το TMDb /discover/movie και ανανεώνεται από το /movie/changes.
+CREATE TABLE IF NOT EXISTS movie_catalog (
+    movie_id      BIGINT PRIMARY KEY,
+    title         VARCHAR(512),
+    release_year  SMALLINT,
+    -- TMDb genre ids, comma separated (π.χ. "28,12")
+    genre_ids     VARCHAR(128)                NOT NULL DEFAULT '',
+    popularity    DOUBLE PRECISION            NOT NULL,
+    vote_average  DOUBLE PRECISION            NOT NULL,
+    vote_count    INTEGER                     NOT NULL,
+    stale         BOOLEAN                     NOT NULL DEFAULT FALSE,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- incremental load των leaderboards: WHERE updated_at > watermark
+CREATE INDEX IF NOT EXISTS idx_movie_catalog_updated
+    ON movie_catalog (updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_movie_catalog_stale
+    ON movie_catalog (updated_at) WHERE stale;
+
+-- το ίδιο για τα V8 tables (star power των leaderboards)
+CREATE INDEX IF NOT EXISTS idx_movie_top_cast_refreshed
+    ON movie_top_cast (refreshed_at);
+
+CREATE INDEX IF NOT EXISTS idx_actor_stats_refreshed
+    ON actor_stats (refreshed_at);
+
+-- πρόοδος του seeding (ανά έτος / σελίδα του /discover) και των movie changes (ένα row, id = 1)
+CREATE TABLE IF NOT EXISTS movie_catalog_sync (
+    id                SMALLINT PRIMARY KEY,
+    discover_year     INTEGER NOT NULL,
+    discover_page     INTEGER NOT NULL,
+    changes_synced_to DATE
+);
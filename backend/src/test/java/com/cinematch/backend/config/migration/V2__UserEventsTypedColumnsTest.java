@@ -0,0 +1,138 @@
+package com.cinematch.backend.config.migration;
+
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.service.event.UserEventPayloads;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class V2__UserEventsTypedColumnsTest {
+
+    @Test
+    void parse_shouldBackfillTypedColumnsAndTheAppPayloadHash() {
+
+        UserEvent event = V2__UserEventsTypedColumns.parse(
+                "{\"movieId\": \"550\", \"directorId\": 7467, \"context\": \"HOME\"}");
+
+        assertNotNull(event);
+        assertEquals(550L, event.getMovieId());
+        assertEquals(7467L, event.getPersonId());
+        assertEquals(Map.of("context", "HOME"), event.getAttributes());
+        // ίδιο hash με ένα event που γράφει σήμερα το app
+        assertEquals(UserEventPayloads.hash(Map.of("movieId", "550", "directorId", 7467, "context", "HOME")),
+                event.getPayloadHash());
+    }
+
+    @Test
+    void parse_shouldSkipMalformedOrNonObjectPayloads() {
+
+        assertNull(V2__UserEventsTypedColumns.parse("{\"movieId\": 550"));
+        assertNull(V2__UserEventsTypedColumns.parse("[1, 2, 3]"));
+        assertNull(V2__UserEventsTypedColumns.parse("null"));
+        assertNull(V2__UserEventsTypedColumns.parse("  "));
+    }
+
+    @Test
+    void parse_shouldTruncateSourceToTheColumnLength() {
+
+        UserEvent event = V2__UserEventsTypedColumns.parse("{\"source\": \"" + "x".repeat(80) + "\"}");
+
+        assertEquals(50, event.getSource().length());
+    }
+
+    @Test
+    void migrate_shouldBackfillALegacyTable_inKeysetBatches() throws Exception {
+        OffsetDateTime at = OffsetDateTime.parse("2024-03-01T10:00:00Z");
+        // legacy user_events: μόνο id, created_at, TEXT payload (τα typed columns είναι NULL)
+        ResultSet first = rows(new Object[]{1L, at, "{\"movieId\": 550, \"source\": \"home\"}"},
+                new Object[]{2L, at, "not json"});
+        ResultSet second = rows(new Object[]{3L, at, "{\"genreId\": 28}"});
+        PreparedStatement select = mock(PreparedStatement.class);
+        when(select.executeQuery()).thenReturn(first, second);
+        PreparedStatement update = mock(PreparedStatement.class);
+        Connection connection = connection(select, update);
+
+        new V2__UserEventsTypedColumns(2).migrate(context(connection));
+
+        // δεύτερο batch μετά το τελευταίο id του πρώτου, και τέλος όταν επιστρέψει λιγότερα από 2
+        InOrder order = inOrder(select, connection);
+        order.verify(select).setLong(1, 0L);
+        order.verify(connection).commit();
+        order.verify(select).setLong(1, 2L);
+        order.verify(connection).commit();
+        verify(select, times(2)).executeQuery();
+
+        // malformed payload: μένει όπως είναι
+        verify(update, times(2)).addBatch();
+        verify(update, never()).setLong(9, 2L);
+
+        verify(update).setLong(1, 550L);
+        verify(update).setString(6, "home");
+        verify(update).setLong(9, 1L);
+        verify(update).setLong(3, 28L);
+        verify(update).setLong(9, 3L);
+        verify(update, times(2)).setObject(10, at);
+        verify(update, atLeastOnce()).setNull(2, Types.BIGINT);
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void migrate_shouldRollBackTheCurrentBatchOnFailure() throws Exception {
+        ResultSet batch = rows(new Object[]{1L, OffsetDateTime.now(), "{\"movieId\": 1}"});
+        PreparedStatement select = mock(PreparedStatement.class);
+        when(select.executeQuery()).thenReturn(batch);
+        PreparedStatement update = mock(PreparedStatement.class);
+        when(update.executeBatch()).thenThrow(new java.sql.SQLException("boom"));
+        Connection connection = connection(select, update);
+
+        assertThrows(java.sql.SQLException.class,
+                () -> new V2__UserEventsTypedColumns(10).migrate(context(connection)));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    // =================== helpers ===================
+
+    private static Context context(Connection connection) {
+        Context context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+        return context;
+    }
+
+    private static Connection connection(PreparedStatement select, PreparedStatement update) throws Exception {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(contains("SELECT id, created_at, payload"))).thenReturn(select);
+        when(connection.prepareStatement(startsWith("UPDATE user_events"))).thenReturn(update);
+        return connection;
+    }
+
+    private static ResultSet rows(Object[]... rows) throws Exception {
+        Iterator<Object[]> it = List.of(rows).iterator();
+        Object[][] current = new Object[1][];
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenAnswer(inv -> {
+            current[0] = it.hasNext() ? it.next() : null;
+            return current[0] != null;
+        });
+        when(rs.getLong(1)).thenAnswer(inv -> current[0][0]);
+        when(rs.getObject(2, OffsetDateTime.class)).thenAnswer(inv -> current[0][1]);
+        when(rs.getString(3)).thenAnswer(inv -> current[0][2]);
+        return rs;
+    }
+}
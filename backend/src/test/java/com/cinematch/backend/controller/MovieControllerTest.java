@@ -4,6 +4,7 @@ import com.cinematch.backend.dto.MovieSearchResponse;
 import com.cinematch.backend.service.CurrentUserService;
 import com.cinematch.backend.service.TmdbService;
 import com.cinematch.backend.service.UserEventService;
+import com.cinematch.backend.service.trending.InAppTrendingService;
 import com.cinematch.backend.security.jwt.JwtUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +35,9 @@ class MovieControllerTest {
     @MockBean
     private UserEventService userEventService;
 
+    @MockBean
+    private InAppTrendingService inAppTrendingService;
+
     // ✅ ΑΠΑΡΑΙΤΗΤΟ για να φορτώσει το JwtAuthenticationFilter bean χωρίς να σκάσει
     @MockBean
     private JwtUtil jwtUtil;
@@ -0,0 +1,67 @@
+package com.cinematch.backend.service;
+
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.service.preference.PreferenceProfile;
+import com.cinematch.backend.service.preference.PreferenceProfileStore;
+import com.cinematch.backend.service.recommendation.ItemSimilarityService;
+import com.cinematch.backend.service.recommendation.RecommendationCursorCodec;
+import com.cinematch.backend.service.recommendation.RecommendationSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieRecommendationServiceTest {
+
+    @Mock
+    private TmdbService tmdbService;
+
+    @Mock
+    private PreferenceProfileStore preferenceProfileStore;
+
+    @Mock
+    private ItemSimilarityService itemSimilarityService;
+
+    @Mock
+    private QuizCandidatePoolService quizCandidatePoolService;
+
+    @Mock
+    private RecommendationSnapshotStore snapshotStore;
+
+    @Mock
+    private RecommendationCursorCodec cursorCodec;
+
+    private MovieRecommendationService service;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        service = new MovieRecommendationService(tmdbService, preferenceProfileStore, itemSimilarityService,
+                quizCandidatePoolService, snapshotStore, cursorCodec, Runnable::run);
+
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    void streamRecommendations_withoutPreferences_shouldFetchTrendingOnce() {
+        when(preferenceProfileStore.load(user)).thenReturn(PreferenceProfile.EMPTY);
+        when(itemSimilarityService.recommendForUser(eq(1L), anyInt())).thenReturn(List.of());
+        when(tmdbService.getTrendingMovies("day")).thenReturn(List.of());
+
+        int emitted = service.streamRecommendations(user, batch -> { }).join();
+
+        assertEquals(0, emitted);
+        verify(tmdbService, times(1)).getTrendingMovies("day");
+        verify(tmdbService, never()).discoverMovies(anyInt(), any(), any(), any(), any());
+    }
+}
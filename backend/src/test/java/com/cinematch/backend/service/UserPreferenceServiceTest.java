@@ -5,7 +5,10 @@ import com.cinematch.backend.model.User;
 import com.cinematch.backend.model.UserEvent;
 import com.cinematch.backend.model.UserEventType;
 import com.cinematch.backend.repository.UserEventRepository;
+import com.cinematch.backend.repository.UserPreferenceScoreRepository;
 import com.cinematch.backend.repository.UserRepository;
+import com.cinematch.backend.service.preference.PreferenceDecayProperties;
+import com.cinematch.backend.service.preference.PreferenceProfileStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
 import java.util.List;
@@ -30,6 +37,21 @@ class UserPreferenceServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PreferenceProfileStore preferenceProfileStore;
+
+    @Mock
+    private UserPreferenceScoreRepository userPreferenceScoreRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private PreferenceDecayProperties preferenceDecayProperties = new PreferenceDecayProperties();
+
     // ✔️ Spy για να γίνει σωστό inject
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
@@ -136,4 +158,148 @@ class UserPreferenceServiceTest {
         assertTrue(response.getTopActors().isEmpty());
         assertTrue(response.getTopDirectors().isEmpty());
     }
+
+    @Test
+    void computeAndPersist_withReadyAggregates_shouldNotScanHistory() {
+
+        user.setPreferenceScoresReady(true);
+
+        UserPreferenceScoreRepository.ScoreView view = mock(UserPreferenceScoreRepository.ScoreView.class);
+        when(view.getId()).thenReturn(28L);
+        when(view.getScore()).thenReturn(3.0);
+
+        when(userPreferenceScoreRepository.findTopScores(eq(1L), eq("GENRE"), any(Instant.class), eq(5)))
+                .thenReturn(List.of(view));
+        when(userPreferenceScoreRepository.findTopScores(eq(1L), eq("ACTOR"), any(Instant.class), eq(5)))
+                .thenReturn(List.of());
+        when(userPreferenceScoreRepository.findTopScores(eq(1L), eq("DIRECTOR"), any(Instant.class), eq(5)))
+                .thenReturn(List.of());
+
+        UserPreferencesResponseDto response =
+                userPreferenceService.computeAndPersist(user, 5);
+
+        assertEquals(1, response.getTopGenres().size());
+        assertEquals(28L, response.getTopGenres().get(0).getId());
+        assertEquals(3.0, response.getTopGenres().get(0).getScore());
+        verifyNoInteractions(userEventRepository);
+    }
+
+    @Test
+    void recordEvent_shouldUpsertEachSignal() {
+
+        UserEvent event = UserEvent.builder()
+                .type(UserEventType.CHOOSE_FILTER)
+                .genreId(28L)
+                .castId(287L)
+                .build();
+
+        userPreferenceService.recordEvent(1L, event);
+
+        verify(userPreferenceScoreRepository).upsertScore(
+                eq(1L), eq("GENRE"), eq(28L), eq("CHOOSE_FILTER"), eq(1.0), anyDouble(), any(Instant.class));
+        verify(userPreferenceScoreRepository).upsertScore(
+                eq(1L), eq("ACTOR"), eq(287L), eq("CHOOSE_FILTER"), eq(1.0), anyDouble(), any(Instant.class));
+    }
+
+    @Test
+    void recordEvent_shouldDecayFromTheEventTime_notTheWriteTime() {
+
+        Instant happened = Instant.now().minusSeconds(3600);
+
+        UserEvent event = UserEvent.builder()
+                .type(UserEventType.CHOOSE_FILTER)
+                .genreId(28L)
+                .createdAt(happened)
+                .build();
+
+        userPreferenceService.recordEvent(1L, event);
+
+        verify(userPreferenceScoreRepository).upsertScore(
+                eq(1L), eq("GENRE"), eq(28L), eq("CHOOSE_FILTER"), eq(1.0), anyDouble(), eq(happened));
+    }
+
+    @Test
+    void computeAndPersist_rebuild_shouldDecayOlderEvents() {
+
+        preferenceDecayProperties.setDefaultHalfLifeDays(1);
+
+        Instant now = Instant.now();
+
+        UserEvent recent = new UserEvent();
+        recent.setType(UserEventType.CHOOSE_FILTER);
+        recent.setPayload("{\"genreId\":10}");
+        recent.setCreatedAt(now);
+
+        // 2 half-lives πριν -> 0.25 το καθένα
+        UserEvent old1 = new UserEvent();
+        old1.setType(UserEventType.CHOOSE_FILTER);
+        old1.setPayload("{\"genreId\":5}");
+        old1.setCreatedAt(now.minusSeconds(2 * 24 * 3600));
+
+        UserEvent old2 = new UserEvent();
+        old2.setType(UserEventType.CHOOSE_FILTER);
+        old2.setPayload("{\"genreId\":5}");
+        old2.setCreatedAt(now.minusSeconds(2 * 24 * 3600));
+
+        when(userEventRepository
+                .findTop2000ByUser_IdOrderByCreatedAtDesc(1L))
+                .thenReturn(List.of(recent, old1, old2));
+
+        UserPreferencesResponseDto response =
+                userPreferenceService.computeAndPersist(user, 5);
+
+        assertEquals(10L, response.getTopGenres().get(0).getId());
+        assertEquals(1.0, response.getTopGenres().get(0).getScore(), 1e-9);
+        assertEquals(5L, response.getTopGenres().get(1).getId());
+        assertEquals(0.5, response.getTopGenres().get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void computeAndPersist_whenScoreWriteFails_shouldStillReturnAndPersistTheProfile() {
+
+        UserEvent event = new UserEvent();
+        event.setType(UserEventType.CHOOSE_FILTER);
+        event.setPayload("{\"genreId\":28}");
+        event.setCreatedAt(Instant.now());
+
+        when(userEventRepository
+                .findTop2000ByUser_IdOrderByCreatedAtDesc(1L))
+                .thenReturn(List.of(event));
+        doThrow(new RuntimeException("constraint violation"))
+                .when(userPreferenceScoreRepository).saveAll(any());
+
+        UserPreferencesResponseDto response =
+                userPreferenceService.computeAndPersist(user, 5);
+
+        assertEquals(28L, response.getTopGenres().get(0).getId());
+        // το inner transaction έκανε rollback, ο user μένει not-ready για retry
+        verify(transactionManager).rollback(any());
+        assertNotEquals(Boolean.TRUE, user.getPreferenceScoresReady());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void computeAndPersist_rebuild_shouldLockTheUserBeforeReadingAndMarkReadyInTheSameTransaction() {
+
+        UserEvent event = new UserEvent();
+        event.setType(UserEventType.CHOOSE_FILTER);
+        event.setPayload("{\"genreId\":28}");
+        event.setCreatedAt(Instant.now());
+
+        when(userEventRepository
+                .findTop2000ByUser_IdOrderByCreatedAtDesc(1L))
+                .thenReturn(List.of(event));
+
+        userPreferenceService.computeAndPersist(user, 5);
+
+        var order = inOrder(jdbcTemplate, userEventRepository, userPreferenceScoreRepository, transactionManager);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        order.verify(userEventRepository).findTop2000ByUser_IdOrderByCreatedAtDesc(1L);
+        order.verify(userPreferenceScoreRepository).deleteByUserId(1L);
+        order.verify(userPreferenceScoreRepository).saveAll(any());
+        order.verify(jdbcTemplate).update("UPDATE users SET preference_scores_ready = TRUE WHERE id = ?", 1L);
+        order.verify(transactionManager).commit(any());
+        assertEquals(Boolean.TRUE, user.getPreferenceScoresReady());
+    }
 }
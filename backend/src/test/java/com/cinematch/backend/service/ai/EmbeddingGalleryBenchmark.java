@@ -0,0 +1,120 @@
+package com.cinematch.backend.service.ai;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Χειροκίνητο benchmark (όχι JUnit): μνήμη και χρόνος scan του παλιού layout
+ * (ConcurrentHashMap&lt;Long, object με double[]&gt;) έναντι του {@link EmbeddingGallery}.
+ *
+ * Κάθε layout τρέχει σε δικό του JVM, για καθαρή μέτρηση heap:
+ * <pre>
+ *   java -Xmx4g -cp target/classes:target/test-classes \
+ *        com.cinematch.backend.service.ai.EmbeddingGalleryBenchmark gallery 500000
+ *   java -Xmx4g ... EmbeddingGalleryBenchmark legacy 500000
+ * </pre>
+ * Τα αποτελέσματα είναι στο docs/research/embedding_gallery.md.
+ */
+public class EmbeddingGalleryBenchmark {
+
+    private static final int DIM = 512;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 20;
+
+    // το παλιό ActorEmbeddingService.CachedEmbedding
+    private record Legacy(Long actorId, String name, String imageUrl, double[] embedding) {
+    }
+
+    public static void main(String[] args) {
+        String layout = args.length > 0 ? args[0] : "gallery";
+        int actors = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        Random random = new Random(42);
+        double[] query = randomVector(random);
+
+        long before = usedHeap();
+        Runnable scan;
+        Object[] keepAlive = new Object[1];
+
+        if (layout.equals("legacy")) {
+            Map<Long, Legacy> cache = new ConcurrentHashMap<>();
+            for (long id = 0; id < actors; id++) {
+                cache.put(id, new Legacy(id, "actor " + id, null, normalized(randomVector(random))));
+            }
+            keepAlive[0] = cache;
+            scan = () -> {
+                double best = -1;
+                for (Legacy candidate : cache.values()) {
+                    best = Math.max(best, cosine(query, candidate.embedding()));
+                }
+                sink = best;
+            };
+        } else {
+            EmbeddingGallery gallery = new EmbeddingGallery(DIM, actors);
+            for (long id = 0; id < actors; id++) {
+                gallery.put(id, "actor " + id, null, randomVector(random));
+            }
+            keepAlive[0] = gallery;
+            scan = () -> sink = gallery.bestMatch(query).similarity();
+        }
+
+        long bytes = usedHeap() - before;
+
+        for (int i = 0; i < WARMUP; i++) scan.run();
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            scan.run();
+            times[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(times);
+
+        System.out.printf("%-8s actors=%,d heap=%,d MB (%.0f B/actor) scan median=%.2f ms p90=%.2f ms%n",
+                layout, actors, bytes / (1024 * 1024), (double) bytes / actors,
+                times[RUNS / 2] / 1e6, times[(int) (RUNS * 0.9)] / 1e6);
+
+        if (keepAlive[0] == null) System.out.println(sink);
+    }
+
+    private static volatile double sink;
+
+    private static double[] randomVector(Random random) {
+        double[] v = new double[DIM];
+        for (int i = 0; i < DIM; i++) v[i] = random.nextGaussian();
+        return v;
+    }
+
+    private static double[] normalized(double[] v) {
+        double norm = 0;
+        for (double x : v) norm += x * x;
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < v.length; i++) v[i] /= norm;
+        return v;
+    }
+
+    // ίδιο με το παλιό ActorEmbeddingService.cosineSimilarity
+    private static double cosine(double[] a, double[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return dot / (Math.sqrt(na) * Math.sqrt(nb));
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
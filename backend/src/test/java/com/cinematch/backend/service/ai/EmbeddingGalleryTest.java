@@ -0,0 +1,104 @@
+package com.cinematch.backend.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingGalleryTest {
+
+    @Test
+    void bestMatch_shouldUseCosineOnNormalizedVectors() {
+        EmbeddingGallery gallery = new EmbeddingGallery(3, 2);
+        gallery.put(1, "a", null, new double[]{10, 0, 0});
+        gallery.put(2, "b", null, new double[]{0, 0.1, 0.1});
+        gallery.put(3, "c", null, new double[]{1, 1, 0});
+
+        // το μέτρο δεν μετράει: μόνο η γωνία
+        EmbeddingGallery.Match match = gallery.bestMatch(new double[]{0, 5, 5});
+
+        assertEquals(2, match.actorId());
+        assertEquals("b", match.name());
+        assertEquals(1.0, match.similarity(), 1e-6);
+        assertEquals(3, gallery.size());
+    }
+
+    @Test
+    void put_shouldReplaceTheExistingRow() {
+        EmbeddingGallery gallery = new EmbeddingGallery(2, 4);
+        gallery.put(7, "old", "x.jpg", new double[]{1, 0});
+        gallery.put(7, "new", "y.jpg", new double[]{0, 1});
+
+        EmbeddingGallery.Match match = gallery.bestMatch(new double[]{0, 1});
+
+        assertEquals(1, gallery.size());
+        assertEquals("new", match.name());
+        assertEquals("y.jpg", match.imageUrl());
+        assertEquals(1.0, match.similarity(), 1e-6);
+    }
+
+    @Test
+    void put_shouldRejectWrongDimensionAndZeroVectors() {
+        EmbeddingGallery gallery = new EmbeddingGallery(2, 4);
+
+        assertFalse(gallery.put(1, "a", null, new double[]{1, 2, 3}));
+        assertFalse(gallery.put(2, "b", null, new double[]{0, 0}));
+        assertFalse(gallery.contains(1));
+        assertNull(gallery.bestMatch(new double[]{1, 0}));
+    }
+
+    @Test
+    void put_shouldGrowPastTheInitialCapacity() {
+        EmbeddingGallery gallery = new EmbeddingGallery(4, 1);
+        for (long id = 0; id < 100; id++) {
+            gallery.put(id, "actor " + id, null, new double[]{id + 1, 1, 0, 0});
+        }
+
+        assertEquals(100, gallery.size());
+        assertEquals(99, gallery.bestMatch(new double[]{1, 0, 0, 0}).actorId());
+    }
+
+    @Test
+    void topK_shouldReturnTheClosestActorsInDescendingOrder() {
+        int dim = 8;
+        Random random = new Random(3);
+        EmbeddingGallery gallery = new EmbeddingGallery(dim, 16);
+        double[][] vectors = new double[500][dim];
+        for (int id = 0; id < vectors.length; id++) {
+            for (int i = 0; i < dim; i++) vectors[id][i] = random.nextGaussian();
+            gallery.put(id, "actor " + id, null, vectors[id]);
+        }
+        double[] query = vectors[42];
+
+        List<EmbeddingGallery.Match> top = gallery.topK(query, 5);
+
+        // brute force: όλα τα scores ταξινομημένα
+        float[] q = EmbeddingGallery.normalize(query);
+        double[] expected = new double[vectors.length];
+        for (int id = 0; id < vectors.length; id++) {
+            expected[id] = EmbeddingGallery.dot(q, EmbeddingGallery.normalize(vectors[id]), 0);
+        }
+        Arrays.sort(expected);
+
+        assertEquals(5, top.size());
+        assertEquals(42, top.get(0).actorId());
+        for (int r = 0; r < 5; r++) {
+            assertEquals(expected[expected.length - 1 - r], top.get(r).similarity(), 1e-6);
+        }
+    }
+
+    @Test
+    void topK_shouldReturnEveryActorWhenKExceedsTheGallery() {
+        EmbeddingGallery gallery = new EmbeddingGallery(2, 4);
+        gallery.put(1, "a", null, new double[]{1, 0});
+        gallery.put(2, "b", null, new double[]{0, 1});
+
+        List<EmbeddingGallery.Match> top = gallery.topK(new double[]{1, 0.1}, 5);
+
+        assertEquals(List.of(1L, 2L), top.stream().map(EmbeddingGallery.Match::actorId).toList());
+        assertTrue(gallery.topK(new double[]{1, 0, 0}, 5).isEmpty());
+    }
+}
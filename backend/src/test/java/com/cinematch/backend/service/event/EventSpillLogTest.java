@@ -0,0 +1,85 @@
+package com.cinematch.backend.service.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSpillLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replay_shouldReturnRecordsInAppendOrderAcrossSegments() throws Exception {
+        try (EventSpillLog log = new EventSpillLog(dir, 64 * 1024)) {
+            for (int b = 0; b < 50; b++) {
+                log.append(records(b * 100, 100), false);
+            }
+            assertTrue(log.segmentCount() > 1);
+
+            List<String> replayed = drain(log);
+
+            assertEquals(5000, replayed.size());
+            assertEquals("event-0", replayed.get(0));
+            assertEquals("event-4999", replayed.get(4999));
+            assertTrue(log.isEmpty());
+            assertEquals(1, log.segmentCount()); // τα replayed segments σβήνονται
+        }
+    }
+
+    @Test
+    void reopen_shouldResumeFromCursorAndDropTornTail() throws Exception {
+        try (EventSpillLog log = new EventSpillLog(dir, 64 * 1024)) {
+            log.append(records(0, 10), true);
+            EventSpillLog.Batch batch = log.read(4);
+            log.commit(batch.next());
+        }
+
+        // crash στη μέση ενός write: header χωρίς ολόκληρο payload
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(p -> p.toString().endsWith(".log")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        try (EventSpillLog log = new EventSpillLog(dir, 64 * 1024)) {
+            assertEquals(7, log.truncatedBytes());
+
+            List<String> replayed = drain(log);
+            assertEquals(List.of("event-4", "event-5", "event-6", "event-7", "event-8", "event-9"), replayed);
+        }
+    }
+
+    // =================== helpers ===================
+
+    private static List<byte[]> records(int from, int count) {
+        List<byte[]> out = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            out.add(("event-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static List<String> drain(EventSpillLog log) throws Exception {
+        List<String> out = new ArrayList<>();
+        while (!log.isEmpty()) {
+            EventSpillLog.Batch batch = log.read(333);
+            batch.records().forEach(r -> out.add(new String(r, StandardCharsets.UTF_8)));
+            log.commit(batch.next());
+        }
+        return out;
+    }
+}
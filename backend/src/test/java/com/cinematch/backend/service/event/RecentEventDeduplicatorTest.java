@@ -0,0 +1,54 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.model.UserEventType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentEventDeduplicatorTest {
+
+    private final RecentEventDeduplicator dedupe = new RecentEventDeduplicator(5000, 4, 8, 1000);
+
+    @Test
+    void sameEventWithinWindow_isDuplicate() {
+        assertFalse(dedupe.isDuplicate(1L, UserEventType.OPEN_MOVIE, 42L, 1_000));
+        dedupe.record(1L, UserEventType.OPEN_MOVIE, 42L, 1_000);
+
+        assertTrue(dedupe.isDuplicate(1L, UserEventType.OPEN_MOVIE, 42L, 3_000));
+    }
+
+    @Test
+    void sameEventAfterWindow_isNotDuplicate() {
+        dedupe.record(1L, UserEventType.OPEN_MOVIE, 42L, 1_000);
+
+        assertFalse(dedupe.isDuplicate(1L, UserEventType.OPEN_MOVIE, 42L, 7_000));
+    }
+
+    @Test
+    void differentUserTypeOrPayload_isNotDuplicate() {
+        dedupe.record(1L, UserEventType.OPEN_MOVIE, 42L, 1_000);
+
+        assertFalse(dedupe.isDuplicate(2L, UserEventType.OPEN_MOVIE, 42L, 1_000));
+        assertFalse(dedupe.isDuplicate(1L, UserEventType.LIKE_MOVIE, 42L, 1_000));
+        assertFalse(dedupe.isDuplicate(1L, UserEventType.OPEN_MOVIE, 43L, 1_000));
+    }
+
+    @Test
+    void checkWithoutRecord_shouldNotHideTheRetry() {
+        // το πρώτο event έγινε shed: έγινε μόνο check, όχι record
+        assertFalse(dedupe.isDuplicate(1L, UserEventType.OPEN_MOVIE, 42L, 1_000));
+
+        assertFalse(dedupe.isDuplicate(1L, UserEventType.OPEN_MOVIE, 42L, 2_000));
+        assertEquals(0, dedupe.trackedUsers());
+    }
+
+    @Test
+    void purge_shouldForgetIdleUsers() {
+        dedupe.record(1L, UserEventType.OPEN_MOVIE, 42L, 1_000);
+        dedupe.record(2L, UserEventType.OPEN_MOVIE, 42L, 9_000);
+
+        dedupe.purgeExpired(10_000);
+
+        assertEquals(1, dedupe.trackedUsers());
+    }
+}
@@ -0,0 +1,262 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.dto.EventIngestionStatsDto;
+import com.cinematch.backend.model.User;
+import com.cinematch.backend.model.UserEvent;
+import com.cinematch.backend.model.UserEventType;
+import com.cinematch.backend.service.UserPreferenceService;
+import com.cinematch.backend.service.preference.PreferenceRecomputeWorker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserEventIngestionPipelineTest {
+
+    @TempDir
+    Path spillDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager txManager;
+    private UserPreferenceService userPreferenceService;
+    private UserEventIngestionPipeline pipeline;
+
+    // μέγεθος κάθε batch που έφτασε στο INSERT, και τα movieIds με τη σειρά που έγιναν commit
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final List<Long> writtenMovies = new CopyOnWriteArrayList<>();
+    // μόνο από τον writer thread: τα movieIds του τρέχοντος transaction
+    private final List<Long> inTx = new ArrayList<>();
+    // users.preference_scores_ready στη "DB"
+    private final Set<Long> readyUsers = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        txManager = mock(PlatformTransactionManager.class);
+        userPreferenceService = mock(UserPreferenceService.class);
+
+        readyUsers.add(1L);
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenAnswer(inv -> List.copyOf(readyUsers));
+
+        doAnswer(inv -> {
+            writtenMovies.addAll(inTx);
+            inTx.clear();
+            return null;
+        }).when(txManager).commit(any());
+        doAnswer(inv -> {
+            inTx.clear();
+            return null;
+        }).when(txManager).rollback(any());
+
+        doAnswer(inv -> {
+            inTx.add(inv.<UserEvent>getArgument(1).getMovieId());
+            return null;
+        }).when(userPreferenceService).recordEvent(anyLong(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) pipeline.shutdown();
+    }
+
+    @Test
+    void writer_shouldDrainTheQueueInBatches() throws Exception {
+        CountDownLatch gate = blockFirstInsert();
+        pipeline = pipeline(100, 10, 1.0, false);
+
+        submit(0);
+        waitFor(s -> batchSizes.size() == 1);
+        for (int i = 1; i <= 25; i++) submit(i);
+        gate.countDown();
+
+        waitFor(s -> s.getWritten() == 26);
+        assertEquals(List.of(1, 10, 10, 5), batchSizes);
+    }
+
+    @Test
+    void submit_shouldSampleCheapEventsAboveTheWatermark_andDropWhenFull() throws Exception {
+        CountDownLatch gate = blockFirstInsert();
+        pipeline = pipeline(10, 10, 0.0, false);
+
+        submit(0);
+        waitFor(s -> batchSizes.size() == 1); // ο writer κρατάει το πρώτο batch
+
+        for (int i = 1; i <= 5; i++) assertTrue(submit(i));        // μέχρι το watermark (5)
+        for (int i = 6; i <= 8; i++) assertFalse(submit(i));       // cheap events: sampled out
+        for (int i = 9; i <= 13; i++) assertTrue(submit(i, UserEventType.LIKE_MOVIE)); // priority
+        assertFalse(submit(14, UserEventType.LIKE_MOVIE));          // γεμάτη queue: drop, όχι spill
+
+        EventIngestionStatsDto stats = pipeline.stats();
+        assertEquals(3, stats.getSampledOut());
+        assertEquals(1, stats.getDropped());
+
+        gate.countDown();
+        waitFor(s -> s.getWritten() == 11);
+    }
+
+    @Test
+    void flush_whenTheDbIsDown_shouldSpillAndReplayInOrder() throws Exception {
+        AtomicBoolean dbDown = new AtomicBoolean(true);
+        doAnswer(inv -> {
+            if (dbDown.get()) throw new CannotGetJdbcConnectionException("db down");
+            batchSizes.add(inv.<Collection<?>>getArgument(1).size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        pipeline = pipeline(100, 10, 1.0, true);
+
+        submit(1);
+        waitFor(s -> s.getSpilled() == 1);
+        // με backlog στο log τα νέα events μπαίνουν πίσω του, όχι κατευθείαν στη DB
+        submit(2);
+        submit(3);
+        waitFor(s -> s.getSpilled() == 3);
+
+        dbDown.set(false);
+
+        waitFor(s -> s.getReplayed() == 3 && s.getSpillBacklogBytes() == 0);
+        assertEquals(List.of(1L, 2L, 3L), writtenMovies);
+        assertEquals(3, pipeline.stats().getWritten());
+        assertEquals(0, pipeline.stats().getFailed());
+    }
+
+    @Test
+    void replay_whenTheDbRejectsAnEvent_shouldDeadLetterItAndContinue() throws Exception {
+        AtomicBoolean dbDown = new AtomicBoolean(true);
+        doAnswer(inv -> {
+            if (dbDown.get()) throw new CannotGetJdbcConnectionException("db down");
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        doAnswer(inv -> {
+            UserEvent event = inv.getArgument(1);
+            if (event.getMovieId() == 2L) throw new DataIntegrityViolationException("bad row");
+            inTx.add(event.getMovieId());
+            return null;
+        }).when(userPreferenceService).recordEvent(anyLong(), any());
+        pipeline = pipeline(100, 10, 1.0, true);
+
+        submit(1);
+        waitFor(s -> s.getSpilled() == 1);
+        submit(2);
+        submit(3);
+        waitFor(s -> s.getSpilled() == 3);
+
+        dbDown.set(false);
+
+        waitFor(s -> s.getDeadLettered() == 1 && s.getReplayed() == 2 && s.getSpillBacklogBytes() == 0);
+        assertEquals(List.of(1L, 3L), writtenMovies);
+
+        pipeline.shutdown();
+        pipeline = null;
+        try (EventSpillLog deadLetters = new EventSpillLog(spillDir.resolve("dead-letter"), 1024 * 1024)) {
+            List<byte[]> records = deadLetters.read(10).records();
+            assertEquals(1, records.size());
+            assertEquals(2L, SpilledEventCodec.decode(records.get(0)).event().getMovieId());
+        }
+    }
+
+    @Test
+    void writer_shouldReadTheReadyFlagFromTheDb_notFromTheRequestSnapshot() throws Exception {
+        doAnswer(inv -> new int[0][]).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        readyUsers.clear();
+        pipeline = pipeline(100, 10, 1.0, false);
+
+        // το request snapshot λέει ready, η DB όχι: το increment το αφήνουμε στο rebuild
+        submit(1);
+        waitFor(s -> s.getWritten() == 1);
+        assertEquals(List.of(), writtenMovies);
+
+        // ένα rebuild έγινε όσο το event περίμενε: το snapshot δεν μετράει πια
+        readyUsers.add(1L);
+        submit(2, UserEventType.OPEN_MOVIE, false);
+        waitFor(s -> s.getWritten() == 2);
+        assertEquals(List.of(2L), writtenMovies);
+    }
+
+    @Test
+    void isPoison_shouldRetryWhenTheDbIsDown() {
+        assertTrue(UserEventIngestionPipeline.isPoison(new DataIntegrityViolationException("bad row")));
+        assertFalse(UserEventIngestionPipeline.isPoison(new CannotGetJdbcConnectionException("db down")));
+        assertFalse(UserEventIngestionPipeline.isPoison(new IllegalStateException("bug")));
+    }
+
+    // =================== helpers ===================
+
+    private UserEventIngestionPipeline pipeline(int capacity, int batchSize, double sampleRate, boolean spill) {
+        return new UserEventIngestionPipeline(
+                jdbcTemplate,
+                new TransactionTemplate(txManager),
+                new ObjectMapper(),
+                userPreferenceService,
+                mock(PreferenceRecomputeWorker.class),
+                capacity, batchSize, 5, 0.5, sampleRate, 10,
+                spill, spillDir.toString(), 1, 20
+        );
+    }
+
+    private CountDownLatch blockFirstInsert() {
+        CountDownLatch gate = new CountDownLatch(1);
+        doAnswer(inv -> {
+            batchSizes.add(inv.<Collection<?>>getArgument(1).size());
+            gate.await(5, TimeUnit.SECONDS);
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        return gate;
+    }
+
+    private boolean submit(long movieId) {
+        return submit(movieId, UserEventType.OPEN_MOVIE);
+    }
+
+    private boolean submit(long movieId, UserEventType type) {
+        return submit(movieId, type, true);
+    }
+
+    private boolean submit(long movieId, UserEventType type, boolean readySnapshot) {
+        User user = User.builder().id(1L).preferenceScoresReady(readySnapshot).build();
+        UserEvent event = UserEvent.builder()
+                .type(type)
+                .movieId(movieId)
+                .createdAt(Instant.now())
+                .build();
+        return pipeline.submit(user, event);
+    }
+
+    private void waitFor(Predicate<EventIngestionStatsDto> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.test(pipeline.stats())) {
+            if (System.currentTimeMillis() > deadline) fail("timed out, stats = " + pipeline.stats());
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cinematch.backend.service.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventPartitionServiceTest {
+
+    @Test
+    void partitionName_andMonthOf_shouldRoundTrip() {
+        YearMonth month = YearMonth.of(2026, 3);
+
+        assertEquals("user_events_p202603", UserEventPartitionService.partitionName(month));
+        assertEquals(month, UserEventPartitionService.monthOf("user_events_p202603"));
+        assertNull(UserEventPartitionService.monthOf("user_events_default"));
+        assertNull(UserEventPartitionService.monthOf("user_events_p2026031"));
+        assertEquals(YearMonth.of(2026, 11), UserEventPartitionService.legacyUntil("user_events_legacy_202611"));
+        assertNull(UserEventPartitionService.legacyUntil("user_events_p202611"));
+    }
+
+    @Test
+    void retentionCutoff_shouldKeepTheCurrentAndThePreviousMonths() {
+        YearMonth current = YearMonth.of(2026, 3);
+
+        assertEquals(YearMonth.of(2025, 4), UserEventPartitionService.retentionCutoff(current, 12));
+        assertEquals(current, UserEventPartitionService.retentionCutoff(current, 1));
+        assertEquals(current, UserEventPartitionService.retentionCutoff(current, 0));
+    }
+
+    @Test
+    void isExpired_shouldDropOnlyPartitionsFullyBeforeTheCutoff() {
+        YearMonth oldestKept = YearMonth.of(2025, 4);
+
+        assertTrue(UserEventPartitionService.isExpired("user_events_p202503", oldestKept));
+        assertFalse(UserEventPartitionService.isExpired("user_events_p202504", oldestKept));
+        // το ιστορικό partition περιέχει rows μέχρι (όχι μαζί) τον μήνα του ονόματος
+        assertTrue(UserEventPartitionService.isExpired("user_events_legacy_202504", oldestKept));
+        assertFalse(UserEventPartitionService.isExpired("user_events_legacy_202505", oldestKept));
+        assertFalse(UserEventPartitionService.isExpired("user_events_default", oldestKept));
+    }
+}
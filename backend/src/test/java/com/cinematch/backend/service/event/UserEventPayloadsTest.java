@@ -0,0 +1,55 @@
+package com.cinematch.backend.service.event;
+
+import com.cinematch.backend.model.UserEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventPayloadsTest {
+
+    @Test
+    void apply_shouldMapKnownKeysToColumns_andRestToAttributes() {
+
+        UserEvent event = new UserEvent();
+        UserEventPayloads.apply(event, Map.of(
+                "actorId", 287,
+                "source", "ACTOR_DETAILS",
+                "context", "HOME"
+        ));
+
+        assertEquals(287L, event.getPersonId());
+        assertEquals("ACTOR_DETAILS", event.getSource());
+        assertNull(event.getMovieId());
+        assertEquals(Map.of("context", "HOME"), event.getAttributes());
+    }
+
+    @Test
+    void hash_shouldIgnoreKeyOrder_andNumberType() {
+
+        Map<String, Object> a = new LinkedHashMap<>();
+        a.put("movieId", 550);
+        a.put("source", "HOME");
+
+        Map<String, Object> b = new LinkedHashMap<>();
+        b.put("source", "HOME");
+        b.put("movieId", 550L);
+
+        assertEquals(UserEventPayloads.hash(a), UserEventPayloads.hash(b));
+        assertNotEquals(UserEventPayloads.hash(a), UserEventPayloads.hash(Map.of("movieId", 551)));
+    }
+
+    @Test
+    void toMap_shouldRestoreOriginalPayload() {
+
+        UserEvent event = new UserEvent();
+        UserEventPayloads.apply(event, Map.of("movieId", 550, "genreIds", List.of(28, 12)));
+
+        Map<String, Object> restored = UserEventPayloads.toMap(event);
+        assertEquals(550L, restored.get("movieId"));
+        assertEquals(List.of(28, 12), restored.get("genreIds"));
+    }
+}
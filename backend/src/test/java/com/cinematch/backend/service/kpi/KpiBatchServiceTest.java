@@ -0,0 +1,90 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.dto.AudienceEngagementResponse;
+import com.cinematch.backend.dto.KpiBatchResponse;
+import com.cinematch.backend.dto.StarPowerResponse;
+import com.cinematch.backend.service.KpiService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KpiBatchServiceTest {
+
+    @Mock
+    private KpiService kpiService;
+
+    @Test
+    void calculate_shouldReturnAtTheDeadline_withPendingAndFailedMovies() {
+        KpiBatchService service = new KpiBatchService(kpiService, 60, 2000, 5000, 8);
+
+        // 1: έτοιμο, 2: δεν τελειώνει πριν το deadline, 3: αποτυχία, 4: γεμάτο kpiExecutor
+        stub(1L, starPower(80), engagement(1L, 70));
+        stub(2L, new CompletableFuture<>(), engagement(2L, 50));
+        stub(3L, CompletableFuture.failedFuture(new IllegalStateException("tmdb down")), engagement(3L, 40));
+        stub(4L, CompletableFuture.failedFuture(new CompletionException(new RejectedExecutionException("full"))),
+                engagement(4L, 30));
+
+        KpiBatchResponse response = service.calculate(List.of(1L, 2L, 3L, 4L, 1L), 100L);
+
+        assertTrue(response.getElapsedMs() < 2000);
+        assertEquals(4, response.getResults().size());
+        assertEquals(80, response.getResults().get(0).getStarPower());
+        assertEquals(70, response.getResults().get(0).getAudienceEngagement());
+        assertNull(response.getResults().get(1).getStarPower());
+        assertEquals(50, response.getResults().get(1).getAudienceEngagement());
+
+        assertEquals(List.of(2L, 4L), response.getPending());
+        assertEquals(List.of(3L), response.getFailed());
+    }
+
+    @Test
+    void tryCalculate_shouldRejectBatchesAboveTheConcurrencyLimit() throws Exception {
+        KpiBatchService service = new KpiBatchService(kpiService, 60, 2000, 5000, 1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        when(kpiService.starPowerAsync(1L)).thenAnswer(inv -> {
+            started.countDown();
+            return new CompletableFuture<StarPowerResponse>();
+        });
+        when(kpiService.audienceEngagementAsync(1L)).thenReturn(engagement(1L, 70));
+
+        CompletableFuture<Optional<KpiBatchResponse>> first =
+                CompletableFuture.supplyAsync(() -> service.tryCalculate(List.of(1L), 500L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(service.tryCalculate(List.of(1L), 500L).isEmpty());
+
+        assertEquals(List.of(1L), first.get(5, TimeUnit.SECONDS).orElseThrow().getPending());
+        // το permit επιστρέφει μετά το πρώτο batch
+        assertTrue(service.tryCalculate(List.of(1L), 10L).isPresent());
+    }
+
+    // =================== helpers ===================
+
+    private void stub(long movieId, CompletableFuture<StarPowerResponse> starPower,
+                      CompletableFuture<AudienceEngagementResponse> engagement) {
+        when(kpiService.starPowerAsync(movieId)).thenReturn(starPower);
+        when(kpiService.audienceEngagementAsync(movieId)).thenReturn(engagement);
+    }
+
+    private static CompletableFuture<StarPowerResponse> starPower(int value) {
+        return CompletableFuture.completedFuture(new StarPowerResponse(null, value));
+    }
+
+    private static CompletableFuture<AudienceEngagementResponse> engagement(long movieId, int value) {
+        return CompletableFuture.completedFuture(new AudienceEngagementResponse(movieId, value));
+    }
+}
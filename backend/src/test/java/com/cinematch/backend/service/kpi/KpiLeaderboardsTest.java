@@ -0,0 +1,86 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.kpi.KpiLeaderboards.Board;
+import com.cinematch.backend.service.kpi.KpiLeaderboards.Metric;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KpiLeaderboardsTest {
+
+    private static final int ACTION = 28;
+    private static final int DRAMA = 18;
+
+    @Test
+    void board_shouldRankByScoreWithinEachGenreAndYearBucket() {
+        CatalogKpiColumns columns = new CatalogKpiColumns(4);
+        // engagement αυξάνεται με vote_count / vote_average / popularity
+        columns.upsertMovie(1, "a", 2019, new int[]{ACTION}, 10, 6.0, 1000);
+        columns.upsertMovie(2, "b", 2019, new int[]{ACTION, DRAMA}, 200, 8.5, 40000);
+        columns.upsertMovie(3, "c", 2020, new int[]{DRAMA}, 100, 7.0, 20000);
+        columns.upsertMovie(4, "d", 2019, new int[]{DRAMA}, 50, 7.0, 5000);
+        columns.scoreAll();
+
+        KpiLeaderboards boards = KpiLeaderboards.build(columns, 10);
+
+        assertArrayEquals(new long[]{2, 3, 4, 1}, boards.board(Metric.ENGAGEMENT, null, null).movieIds());
+        assertArrayEquals(new long[]{2, 1}, boards.board(Metric.ENGAGEMENT, ACTION, null).movieIds());
+        assertArrayEquals(new long[]{2, 4}, boards.board(Metric.ENGAGEMENT, DRAMA, 2019).movieIds());
+        assertArrayEquals(new long[]{3}, boards.board(Metric.ENGAGEMENT, null, 2020).movieIds());
+        assertEquals(0, boards.board(Metric.ENGAGEMENT, 99, null).size());
+        assertEquals(4, boards.catalogSize());
+    }
+
+    @Test
+    void starPower_shouldNeedStatsForTheWholeTopCast() {
+        CatalogKpiColumns columns = new CatalogKpiColumns(4);
+        columns.upsertMovie(1, "a", 2019, new int[]{ACTION}, 10, 6.0, 1000);
+        columns.upsertMovie(2, "b", 2019, new int[]{ACTION}, 10, 6.0, 1000);
+        columns.setTopCast(1, new long[]{100, 101});
+        columns.setTopCast(2, new long[]{100, 102});
+        columns.upsertActor(100, 25, 100, 25); // 100
+        columns.upsertActor(101, 0, 0, 0);     // 0
+        // 102 χωρίς stats ακόμα -> η ταινία 2 μένει εκτός
+        // cast για ταινία που δεν είναι (ακόμα) στον κατάλογο
+        columns.setTopCast(3, new long[]{100});
+        columns.scoreAll();
+
+        Board board = KpiLeaderboards.build(columns, 10).board(Metric.STAR_POWER, null, null);
+
+        assertArrayEquals(new long[]{1}, board.movieIds());
+        assertEquals(50.0f, board.scores()[0], 1e-4);
+    }
+
+    @Test
+    void build_shouldMatchSortedTopKOverManyMovies() {
+        int n = 50_000;
+        Random random = new Random(7);
+        CatalogKpiColumns columns = new CatalogKpiColumns(16);
+        for (int i = 0; i < n; i++) {
+            columns.upsertMovie(i, "m" + i, 1990 + random.nextInt(30), new int[]{random.nextInt(5)},
+                    random.nextDouble() * 300, random.nextDouble() * 10, random.nextInt(50000));
+        }
+        columns.scoreAll();
+
+        Board board = KpiLeaderboards.build(columns, 25).board(Metric.ENGAGEMENT, null, null);
+
+        float[] scores = columns.scores(Metric.ENGAGEMENT);
+        float[] expected = Arrays.copyOf(scores, n);
+        Arrays.sort(expected);
+        float[] top = new float[25];
+        IntStream.range(0, 25).forEach(r -> top[r] = expected[n - 1 - r]);
+
+        assertArrayEquals(top, board.scores());
+    }
+
+    @Test
+    void sortKey_shouldOrderHigherScoresFirst() {
+        assertTrue(KpiLeaderboards.sortKey(90f, 5) < KpiLeaderboards.sortKey(10f, 1));
+        assertTrue(KpiLeaderboards.sortKey(10f, 1) < KpiLeaderboards.sortKey(10f, 2));
+        assertEquals(Long.MAX_VALUE, KpiLeaderboards.sortKey(Float.NaN, 0));
+    }
+}
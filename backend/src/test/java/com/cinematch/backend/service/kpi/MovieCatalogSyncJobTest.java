@@ -0,0 +1,76 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.TmdbNotFoundException;
+import com.cinematch.backend.service.TmdbService;
+import com.cinematch.backend.service.kpi.MovieCatalogStore.CatalogRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieCatalogSyncJobTest {
+
+    @Mock
+    private TmdbService tmdbService;
+
+    @Mock
+    private MovieCatalogStore catalogStore;
+
+    @Mock
+    private ActorStatsStore actorStatsStore;
+
+    @Test
+    void refreshStale_shouldStoreTheMovieAndItsTopCast_fromOneRequest() throws Exception {
+        when(catalogStore.stale(200)).thenReturn(List.of(550L));
+        when(tmdbService.fetchFromTmdb(eq("/movie/550"), anyMap())).thenReturn("""
+                {"id": 550, "title": "Fight Club", "release_date": "1999-10-15", "genres": [{"id": 18}],
+                 "popularity": 60.5, "vote_average": 8.4, "vote_count": 30000,
+                 "credits": {"cast": [
+                    {"id": 287, "order": 1}, {"id": 819, "order": 0}, {"id": 1283, "order": 2},
+                    {"id": 7499, "order": 4}, {"id": 7470, "order": 3}, {"id": 7471, "order": 5}
+                 ]}}
+                """);
+
+        assertEquals(1, job().refreshStale());
+
+        verify(tmdbService).fetchFromTmdb("/movie/550", Map.of("language", "en-US", "append_to_response", "credits"));
+        verify(actorStatsStore).saveTopCast(550L, List.of(819L, 287L, 1283L, 7470L, 7499L));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CatalogRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(catalogStore).upsert(rows.capture());
+        assertEquals(550L, rows.getValue().get(0).movieId());
+        assertEquals(1999, rows.getValue().get(0).releaseYear());
+        verify(catalogStore).delete(List.of());
+        verify(catalogStore).deferRefresh(List.of());
+    }
+
+    @Test
+    void refreshStale_shouldDeleteMissingMovies_andMoveFailuresToTheBackOfTheQueue() throws Exception {
+        when(catalogStore.stale(200)).thenReturn(List.of(1L, 2L));
+        when(tmdbService.fetchFromTmdb(eq("/movie/1"), anyMap())).thenThrow(new TmdbNotFoundException("/movie/1"));
+        when(tmdbService.fetchFromTmdb(eq("/movie/2"), anyMap())).thenThrow(new IllegalStateException("timeout"));
+
+        assertEquals(0, job().refreshStale());
+
+        verify(catalogStore).upsert(List.of());
+        verify(catalogStore).delete(List.of(1L));
+        verify(catalogStore).deferRefresh(List.of(2L));
+        verifyNoInteractions(actorStatsStore);
+    }
+
+    // =================== helpers ===================
+
+    private MovieCatalogSyncJob job() {
+        return new MovieCatalogSyncJob(tmdbService, catalogStore, actorStatsStore, false, 1950, 40, 50, 200);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.TmdbService;
+import com.cinematch.backend.service.kpi.PersonStatsService.PersonStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonStatsServiceTest {
+
+    @Mock
+    private TmdbService tmdbService;
+
+    @Mock
+    private ActorStatsStore actorStatsStore;
+
+    // γεμάτο kpiExecutor (AbortPolicy)
+    private final Executor fullPool = task -> {
+        throw new RejectedExecutionException("full");
+    };
+
+    private PersonStatsService service;
+
+    @BeforeEach
+    void setup() {
+        service = new PersonStatsService(tmdbService, actorStatsStore, fullPool, Runnable::run, 60_000, 100);
+    }
+
+    @Test
+    void statsAsync_withFullPool_shouldFail() {
+        CompletableFuture<PersonStats> stats = service.statsAsync(7L);
+
+        CompletionException e = assertThrows(CompletionException.class, stats::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        verifyNoInteractions(actorStatsStore, tmdbService);
+    }
+
+    @Test
+    void statsAsync_withFullPool_shouldRunInTheCaller_whenAsked() {
+        PersonStats stored = new PersonStats(7L, 42.0, 30, 5);
+        when(actorStatsStore.findFresh(7L)).thenReturn(Optional.of(stored));
+
+        CompletableFuture<PersonStats> stats = service.statsAsync(7L, true);
+
+        assertTrue(stats.isDone());
+        assertEquals(stored, stats.join());
+        // στο cache: το επόμενο request δεν ξαναπάει στη DB
+        assertEquals(stored, service.statsAsync(7L).join());
+        verify(actorStatsStore, times(1)).findFresh(7L);
+    }
+}
@@ -0,0 +1,97 @@
+package com.cinematch.backend.service.kpi;
+
+import com.cinematch.backend.service.TmdbService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TmdbChangesFeedTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    @Mock
+    private TmdbService tmdbService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void read_shouldCoverTheWindowDayByDay_andKeepTodayForTheNextRun() throws Exception {
+        stubDay(TODAY.minusDays(1), 1, 10L);
+        stubDay(TODAY, 1, 20L);
+
+        TmdbChangesFeed.Changes changes = read(TODAY.minusDays(1), 50);
+
+        assertEquals(Set.of(10L, 20L), changes.ids());
+        assertEquals(TODAY, changes.syncedTo());
+    }
+
+    @Test
+    void read_whenTheBacklogExceedsThePageBudget_shouldResumeFromTheFirstUnfinishedDay() throws Exception {
+        LocalDate first = TODAY.minusDays(3);
+        stubDay(first, 3, 1L);
+        stubDay(first.plusDays(1), 3, 2L);
+
+        // run 1: ολόκληρη η πρώτη ημέρα + 1 σελίδα της δεύτερης
+        TmdbChangesFeed.Changes run1 = read(first, 4);
+        assertEquals(first.plusDays(1), run1.syncedTo());
+        verify(tmdbService, times(4)).fetchFromTmdb(eq("/person/changes"), anyMap());
+        clearInvocations(tmdbService);
+
+        // run 2: ξεκινάει από τη δεύτερη, όχι από τις ίδιες πρώτες σελίδες
+        stubDay(first.plusDays(2), 1, 3L);
+        stubDay(TODAY, 1, 4L);
+        TmdbChangesFeed.Changes run2 = read(run1.syncedTo(), 4);
+        assertEquals(Set.of(2L, 3L), run2.ids());
+        assertEquals(TODAY, run2.syncedTo());
+        verify(tmdbService, never()).fetchFromTmdb(eq("/person/changes"), eq(params(first, 1)));
+    }
+
+    @Test
+    void read_whenOneDayNeverFits_shouldStillAdvance() throws Exception {
+        LocalDate first = TODAY.minusDays(2);
+        stubDay(first, 9, 1L);
+
+        TmdbChangesFeed.Changes changes = read(first, 3);
+
+        assertEquals(first.plusDays(1), changes.syncedTo());
+        verify(tmdbService, times(3)).fetchFromTmdb(eq("/person/changes"), anyMap());
+    }
+
+    @Test
+    void read_shouldClampTheStartToTheTmdbLimit() throws Exception {
+        LocalDate oldest = TODAY.minusDays(TmdbChangesFeed.MAX_CHANGE_DAYS - 1L);
+        stubDay(oldest, 1, 1L);
+
+        TmdbChangesFeed.Changes changes = read(TODAY.minusDays(60), 1);
+
+        assertEquals(oldest.plusDays(1), changes.syncedTo());
+    }
+
+    // =================== helpers ===================
+
+    private TmdbChangesFeed.Changes read(LocalDate syncedTo, int maxPages) throws Exception {
+        return TmdbChangesFeed.read(tmdbService, objectMapper, "/person/changes", syncedTo, TODAY, maxPages);
+    }
+
+    private void stubDay(LocalDate day, int totalPages, long id) throws Exception {
+        for (int page = 1; page <= totalPages; page++) {
+            lenient().when(tmdbService.fetchFromTmdb("/person/changes", params(day, page)))
+                    .thenReturn("{\"results\": [{\"id\": " + id + "}], \"total_pages\": " + totalPages + "}");
+        }
+    }
+
+    private static Map<String, String> params(LocalDate day, int page) {
+        return Map.of("start_date", day.toString(), "end_date", day.toString(), "page", String.valueOf(page));
+    }
+}
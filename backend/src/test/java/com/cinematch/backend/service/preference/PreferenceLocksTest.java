@@ -0,0 +1,28 @@
+package com.cinematch.backend.service.preference;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreferenceLocksTest {
+
+    @Test
+    void keys_shouldBeDistinctAndSortedSoLockOrderIsGlobal() {
+        Integer[] keys = PreferenceLocks.keys(Arrays.asList(42L, 7L, null, 42L, 1L));
+
+        assertArrayEquals(new Integer[]{1, 7, 42}, keys);
+    }
+
+    @Test
+    void keys_shouldFoldLargeIdsIntoInts() {
+        long big = (1L << 40) + 5;
+
+        Integer[] keys = PreferenceLocks.keys(List.of(big));
+
+        assertEquals((int) (big ^ (big >>> 32)), keys[0]);
+        assertEquals(0, PreferenceLocks.keys(List.of()).length);
+    }
+}
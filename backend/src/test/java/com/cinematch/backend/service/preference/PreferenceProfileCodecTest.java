@@ -0,0 +1,47 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceScoreDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreferenceProfileCodecTest {
+
+    @Test
+    void encodeDecode_shouldRoundTrip() {
+        Instant updatedAt = Instant.ofEpochMilli(1_700_000_000_123L);
+        PreferenceProfile profile = new PreferenceProfile(
+                List.of(new PreferenceScoreDto(28L, 3.0), new PreferenceScoreDto(12L, 1.5)),
+                List.of(new PreferenceScoreDto(287L, 2.0)),
+                List.of(),
+                updatedAt
+        );
+
+        PreferenceProfile decoded = PreferenceProfileCodec.decode(PreferenceProfileCodec.encode(profile));
+
+        assertEquals(2, decoded.genres().size());
+        assertEquals(28L, decoded.genres().get(0).getId());
+        assertEquals(3.0, decoded.genres().get(0).getScore());
+        assertEquals(287L, decoded.actors().get(0).getId());
+        assertTrue(decoded.directors().isEmpty());
+        assertEquals(updatedAt, decoded.updatedAt());
+    }
+
+    @Test
+    void decode_withEmptyBytes_shouldReturnEmptyProfile() {
+        assertTrue(PreferenceProfileCodec.decode(new byte[0]).isEmpty());
+    }
+
+    @Test
+    void decode_withTruncatedBytes_shouldThrow() {
+        byte[] bytes = PreferenceProfileCodec.encode(new PreferenceProfile(
+                List.of(new PreferenceScoreDto(28L, 3.0)), List.of(), List.of(), Instant.now()));
+
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length - 4);
+
+        assertThrows(IllegalArgumentException.class, () -> PreferenceProfileCodec.decode(truncated));
+    }
+}
@@ -0,0 +1,60 @@
+package com.cinematch.backend.service.preference;
+
+import com.cinematch.backend.dto.PreferenceScoreDto;
+import com.cinematch.backend.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreferenceProfileStoreTest {
+
+    private final PreferenceProfileStore store = new PreferenceProfileStore(new ObjectMapper(), 60_000, 2);
+
+    @Test
+    void fullCache_shouldEvictOnlyTheLeastRecentlyUsedProfile() {
+        User hot = user(1L);
+        User cold = user(2L);
+
+        PreferenceProfile hotProfile = store.load(hot);
+        PreferenceProfile coldProfile = store.load(cold);
+        store.load(hot);
+
+        store.load(user(3L)); // γεμάτο: φεύγει μόνο το 2
+
+        // cache hit = ίδιο instance, χωρίς decode
+        assertSame(hotProfile, store.load(hot));
+        assertNotSame(coldProfile, store.load(cold));
+    }
+
+    @Test
+    void load_shouldDecodeAgain_whenTheProfileVersionChanged() {
+        User user = user(1L);
+        PreferenceProfile first = store.load(user);
+
+        store.write(user, profile(Instant.ofEpochMilli(2_000)));
+        PreferenceProfile written = store.load(user);
+
+        assertNotSame(first, written);
+        assertEquals(Instant.ofEpochMilli(2_000), written.updatedAt());
+    }
+
+    // =================== helpers ===================
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        PreferenceProfile profile = profile(Instant.ofEpochMilli(1_000));
+        user.setPreferenceProfile(PreferenceProfileCodec.encode(profile));
+        user.setPreferencesLastUpdated(profile.updatedAt());
+        return user;
+    }
+
+    private static PreferenceProfile profile(Instant updatedAt) {
+        return new PreferenceProfile(
+                List.of(PreferenceScoreDto.builder().id(28L).score(1.0).build()), List.of(), List.of(), updatedAt);
+    }
+}
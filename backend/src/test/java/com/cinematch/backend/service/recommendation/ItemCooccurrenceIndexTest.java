@@ -0,0 +1,133 @@
+package com.cinematch.backend.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCooccurrenceIndexTest {
+
+    @Test
+    void neighbours_shouldRankByCosineSimilarity() {
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(100, 8, 10, 10);
+
+        // user 1: 10 -> 20, user 2: 10 -> 20 -> 30
+        index.record(1L, 10L, 1f);
+        index.record(1L, 20L, 1f);
+        index.record(2L, 10L, 1f);
+        index.record(2L, 20L, 1f);
+        index.record(2L, 30L, 1f);
+
+        List<ItemCooccurrenceIndex.Neighbour> result = index.neighbours(10L, 5);
+
+        assertEquals(2, result.size());
+        assertEquals(20L, result.get(0).itemId());
+        assertEquals(1.0, result.get(0).score(), 1e-9);
+        assertEquals(30L, result.get(1).itemId());
+    }
+
+    @Test
+    void recommendForUser_shouldExcludeAlreadySeenItems() {
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(100, 8, 10, 10);
+
+        index.record(1L, 10L, 1f);
+        index.record(1L, 20L, 1f);
+        index.record(2L, 10L, 1f);
+        index.record(2L, 30L, 1f);
+
+        List<ItemCooccurrenceIndex.Neighbour> result = index.recommendForUser(1L, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(30L, result.get(0).itemId());
+    }
+
+    @Test
+    void repeatedOpen_shouldNotInflateCooccurrence() {
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(100, 8, 10, 10);
+
+        index.record(1L, 10L, 1f);
+        index.record(1L, 20L, 1f);
+        index.record(1L, 10L, 1f);
+        index.record(1L, 20L, 1f);
+
+        assertEquals(1.0, index.neighbours(10L, 1).get(0).score(), 1e-9);
+    }
+
+    @Test
+    void evictThenReadd_shouldNotRestoreOldCooccurrence() {
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(3, 4, 10, 10, firstSlotVictim());
+
+        index.record(1L, 10L, 1f); // slot 0
+        index.record(1L, 20L, 1f); // slot 1
+        index.record(2L, 20L, 1f);
+        index.record(2L, 30L, 1f); // slot 2
+
+        index.record(3L, 40L, 1f); // evict 10
+        index.record(4L, 10L, 1f); // evict 40, το 10 ξαναμπαίνει χωρίς ιστορικό
+
+        List<ItemCooccurrenceIndex.Neighbour> result = index.neighbours(20L, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(30L, result.get(0).itemId());
+        assertTrue(index.neighbours(10L, 5).isEmpty());
+    }
+
+    @Test
+    void evictThenReadd_shouldIgnoreStaleEntries_inAsymmetricRows() {
+        // neighbourCap 1: το 30 αντικαθιστά το 20 στη γραμμή του 10, αλλά το 20 κρατάει ακόμα το 10
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(3, 1, 10, 10, firstSlotVictim());
+
+        index.record(1L, 10L, 1f); // slot 0
+        index.record(1L, 20L, 1f); // slot 1
+        index.record(2L, 10L, 1f);
+        index.record(2L, 30L, 1f); // slot 2
+
+        index.record(3L, 40L, 1f); // evict 10
+        index.record(4L, 10L, 1f); // evict 40
+
+        assertTrue(index.neighbours(20L, 5).isEmpty());
+        assertTrue(index.neighbours(30L, 5).isEmpty());
+        assertTrue(index.recommendForUser(1L, 5).isEmpty());
+    }
+
+    @Test
+    void similarity_shouldNotExceedOne_afterSpaceSavingOverestimate() {
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(100, 1, 10, 10);
+
+        index.record(1L, 10L, 1f);
+        index.record(1L, 20L, 1f);
+        index.record(2L, 10L, 1f);
+        index.record(2L, 30L, 1f); // το 30 κληρονομεί το count του 20: c(10,30) = 2 > sqrt(w10 * w30)
+
+        List<ItemCooccurrenceIndex.Neighbour> result = index.neighbours(10L, 5);
+
+        assertEquals(1, result.size());
+        assertEquals(30L, result.get(0).itemId());
+        assertEquals(1.0, result.get(0).score(), 1e-9);
+    }
+
+    @Test
+    void memory_shouldStayBoundedByMaxItems() {
+        ItemCooccurrenceIndex index = new ItemCooccurrenceIndex(50, 4, 5, 5);
+
+        for (long i = 1; i <= 10_000; i++) {
+            index.record(i % 7, i, 1f);
+        }
+
+        assertTrue(index.itemCount() <= 50);
+    }
+
+    // =================== helpers ===================
+
+    // το δείγμα του eviction είναι πάντα το slot 0
+    private static Random firstSlotVictim() {
+        return new Random() {
+            @Override
+            public int nextInt(int bound) {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.cinematch.backend.service.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowHeavyHittersTest {
+
+    private static final long BUCKET_MS = 1000;
+
+    @Test
+    void top_shouldRankHeavyHittersAmongManyDistinctIds() {
+        SlidingWindowHeavyHitters hh = new SlidingWindowHeavyHitters(4, 1024, 10, BUCKET_MS, 20);
+
+        // long tail από 10k διαφορετικά ids, από μία φορά το καθένα
+        for (long id = 1000; id < 11000; id++) {
+            hh.add(id, 1, 0);
+        }
+        for (int i = 0; i < 500; i++) hh.add(1L, 1, 0);
+        for (int i = 0; i < 300; i++) hh.add(2L, 1, 0);
+        for (int i = 0; i < 100; i++) hh.add(3L, 1, 0);
+
+        List<SlidingWindowHeavyHitters.Entry> top = hh.top(3, 0);
+
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(SlidingWindowHeavyHitters.Entry::id).toList());
+        // count-min: μόνο υπερεκτίμηση
+        assertTrue(top.get(0).count() >= 500);
+    }
+
+    @Test
+    void expiredBuckets_shouldLeaveTheWindow() {
+        SlidingWindowHeavyHitters hh = new SlidingWindowHeavyHitters(4, 256, 3, BUCKET_MS, 10);
+
+        hh.add(1L, 10, 0);              // bucket 0
+        hh.add(2L, 4, BUCKET_MS);       // bucket 1
+
+        assertEquals(1L, hh.top(1, BUCKET_MS).get(0).id());
+
+        // στο bucket 3 το window είναι [1, 3]: το bucket 0 έληξε
+        List<SlidingWindowHeavyHitters.Entry> top = hh.top(5, 3 * BUCKET_MS);
+        assertEquals(1, top.size());
+        assertEquals(2L, top.get(0).id());
+        assertEquals(0, hh.estimate(1L, 3 * BUCKET_MS));
+
+        // πολύ αργότερα: άδειο
+        assertTrue(hh.top(5, 100 * BUCKET_MS).isEmpty());
+    }
+
+    @Test
+    void weights_shouldCount() {
+        SlidingWindowHeavyHitters hh = new SlidingWindowHeavyHitters(4, 256, 5, BUCKET_MS, 10);
+
+        hh.add(7L, 1, 0);
+        hh.add(7L, 3, 0);
+        hh.add(8L, 2, 0);
+
+        List<SlidingWindowHeavyHitters.Entry> top = hh.top(2, 0);
+        assertEquals(7L, top.get(0).id());
+        assertEquals(4, top.get(0).count());
+        assertEquals(2, top.get(1).count());
+    }
+}
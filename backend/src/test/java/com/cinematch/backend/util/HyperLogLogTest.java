@@ -0,0 +1,54 @@
+package com.cinematch.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_shouldStayWithinErrorBound() {
+        HyperLogLog hll = new HyperLogLog(11);
+        for (long userId = 1; userId <= 100_000; userId++) {
+            hll.addLong(userId);
+            hll.addLong(userId); // τα duplicates δεν μετράνε
+        }
+
+        double error = Math.abs(hll.estimate() - 100_000) / 100_000.0;
+        assertTrue(error < 4 * hll.standardError(), "relative error " + error);
+    }
+
+    @Test
+    void merge_shouldEstimateTheUnion() {
+        HyperLogLog a = new HyperLogLog(11);
+        HyperLogLog b = new HyperLogLog(11);
+        for (long i = 0; i < 50_000; i++) a.addLong(i);
+        for (long i = 25_000; i < 75_000; i++) b.addLong(i);
+
+        a.merge(b);
+
+        double error = Math.abs(a.estimate() - 75_000) / 75_000.0;
+        assertTrue(error < 4 * a.standardError(), "relative error " + error);
+    }
+
+    @Test
+    void serialization_shouldRoundTripSparseAndDense() {
+        HyperLogLog small = new HyperLogLog(11);
+        for (long i = 0; i < 10; i++) small.addLong(i);
+        byte[] sparse = small.toBytes();
+        assertTrue(sparse.length < 64);
+        assertEquals(small, HyperLogLog.fromBytes(sparse));
+        assertEquals(10, small.estimate());
+
+        HyperLogLog big = new HyperLogLog(11);
+        for (long i = 0; i < 10_000; i++) big.addLong(i);
+        byte[] dense = big.toBytes();
+        assertEquals(2 + 2048, dense.length);
+        assertEquals(big, HyperLogLog.fromBytes(dense));
+    }
+
+    @Test
+    void merge_shouldRejectDifferentPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(11).merge(new HyperLogLog(12)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.cinematch.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    @Test
+    void put_shouldEvictTheLeastRecentlyUsedEntryWhenFull() {
+        TtlCache<Integer, String> cache = new TtlCache<>(60_000, 3);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+
+        cache.get(1); // το 1 γίνεται most-recently-used
+        cache.put(4, "d");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertEquals("a", cache.get(1));
+        assertEquals("d", cache.get(4));
+    }
+
+    @Test
+    void get_shouldIgnoreExpiredEntries() {
+        TtlCache<Integer, String> cache = new TtlCache<>(60_000, 10);
+        cache.put(1, "a", -1);
+        cache.put(2, "b");
+        cache.put(3, "c", -1);
+
+        assertNull(cache.get(1));
+        assertEquals(1, cache.purgeExpired());
+        assertEquals(1, cache.size());
+        assertEquals("b", cache.get(2));
+    }
+}
@@ -0,0 +1,274 @@
+-- CineMatch – EXPLAIN των hot queries (βλ. query_plans.md)
+--
+-- Τρέχει σε μια άδεια βάση μετά το Flyway migrate (V1–V10), π.χ.:
+--   psql -v ON_ERROR_STOP=1 -d cinematch_explain -f docs/research/query_plans_explain.sql > plans.txt
+-- Γεμίζει με δεδομένα production μεγέθους μέσα σε transaction και κάνει ROLLBACK στο τέλος.
+-- Οι τιμές των parameters είναι literals· το Hibernate στέλνει bind parameters, αλλά με
+-- plan_cache_mode = auto τα πρώτα 5 executions παίρνουν custom plan, δηλαδή αυτά εδώ.
+
+BEGIN;
+
+-- =====================================================
+--                  SEED
+-- =====================================================
+INSERT INTO users (id, username, email, password, role, quiz_score, created_at, preference_scores_ready)
+SELECT g, 'user' || g, 'user' || g || '@explain.local', 'x', 'USER', 0, now(), TRUE
+FROM generate_series(1, 50000) g;
+
+-- monthly partitions όπως τα φτιάχνει το UserEventPartitionService.maintain()
+-- (ο τρέχων μήνας, 3 πίσω για τα δεδομένα, 3 μπροστά)
+DO $$
+DECLARE
+    m DATE;
+BEGIN
+    FOR i IN -3..3 LOOP
+        m := date_trunc('month', now() AT TIME ZONE 'UTC')::date + make_interval(months => i);
+        EXECUTE format('CREATE TABLE user_events_p%s PARTITION OF user_events FOR VALUES FROM (%L) TO (%L)',
+                       to_char(m, 'YYYYMM'), m::timestamp AT TIME ZONE 'UTC',
+                       (m + interval '1 month')::timestamp AT TIME ZONE 'UTC');
+    END LOOP;
+END $$;
+
+-- 5M events στους τελευταίους 90 ημέρες, ~100 ανά user
+INSERT INTO user_events (user_id, type, movie_id, genre_id, created_at)
+SELECT 1 + (g % 50000),
+       (ARRAY['OPEN_MOVIE', 'LIKE_MOVIE', 'CHOOSE_FILTER', 'SEARCH_MOVIE'])[1 + g % 4],
+       CASE WHEN g % 4 < 2 THEN 1 + g % 20000 END,
+       CASE WHEN g % 4 = 2 THEN 1 + g % 20 END,
+       now() - (g % (90 * 24 * 60)) * interval '1 minute'
+FROM generate_series(1, 5000000) g;
+
+-- ένας heavy user (id 7) με 50k events: εκεί φαίνεται αν το LIMIT σταματάει νωρίς
+INSERT INTO user_events (user_id, type, movie_id, created_at)
+SELECT 7, (ARRAY['OPEN_MOVIE', 'LIKE_MOVIE'])[1 + g % 2], 1 + g % 20000,
+       now() - (g % (90 * 24 * 60)) * interval '1 minute' - interval '30 seconds'
+FROM generate_series(1, 50000) g;
+
+INSERT INTO posts (id, user_id, movie_id, media_url, media_type, caption, created_at)
+SELECT g, 1 + g % 50000, 1 + g % 20000, 'https://example.org/' || g, 'IMAGE', NULL,
+       now() - g * interval '1 minute'
+FROM generate_series(1, 200000) g;
+
+INSERT INTO post_ratings (post_id, user_id, value)
+SELECT 1 + g % 200000, 1 + (g / 200000) % 50000, 1 + g % 5
+FROM generate_series(1, 2000000) g;
+
+INSERT INTO post_comments (post_id, user_id, text, created_at)
+SELECT 1 + g % 200000, 1 + g % 50000, 'comment', now() - g * interval '1 second'
+FROM generate_series(1, 1000000) g;
+
+-- 20k ταινίες × 10 tags
+INSERT INTO movie_sentiment (movie_id, tag, score, source)
+SELECT 1 + g / 10, 'tag' || (g % 10), random(), 'REVIEWS'
+FROM generate_series(0, 199999) g;
+
+-- ~30 rows ανά user
+INSERT INTO user_preference_scores (user_id, dimension, entity_id, event_type, score, half_life_seconds, updated_at)
+SELECT 1 + g / 30,
+       (ARRAY['GENRE', 'ACTOR', 'DIRECTOR'])[1 + g % 3],
+       1 + (g::bigint * 7919) % 5000,
+       (ARRAY['CHOOSE_FILTER', 'OPEN_MOVIE'])[1 + (g / 3) % 2],
+       random() * 5, 2592000, now() - (g % 1000) * interval '1 hour'
+FROM generate_series(0, 1499999) g
+ON CONFLICT DO NOTHING;
+
+-- 100k ηθοποιοί (2% stale), top cast για τις 20k ταινίες
+INSERT INTO actor_stats (person_id, popularity, credit_count, highly_rated_count, stale, refreshed_at)
+SELECT g, random() * 50, g % 80, g % 20, g % 50 = 0, now() - (g % 10000) * interval '1 minute'
+FROM generate_series(1, 100000) g;
+
+INSERT INTO movie_top_cast (movie_id, billing_order, person_id, refreshed_at)
+SELECT 1 + g / 5, g % 5, 1 + (g * 31) % 110000, now()
+FROM generate_series(0, 99999) g;
+
+-- 100k ταινίες στον κατάλογο (2% stale)
+INSERT INTO movie_catalog (movie_id, title, release_year, genre_ids, popularity, vote_average, vote_count, stale, updated_at)
+SELECT g, 'movie ' || g, 1950 + g % 75, (1 + g % 20)::text, random() * 100, random() * 10, g % 5000,
+       g % 50 = 0, now() - (g % 10000) * interval '1 minute'
+FROM generate_series(1, 100000) g;
+
+ANALYZE users, user_events, posts, post_comments, post_ratings, movie_sentiment, user_preference_scores,
+        actor_stats, movie_top_cast, movie_catalog;
+
+-- =====================================================
+--                  user_events
+-- =====================================================
+-- findTop200ByUser_IdOrderByCreatedAtDesc (findTop2000… ίδιο με LIMIT 2000)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events WHERE user_id = 42 ORDER BY created_at DESC LIMIT 200;
+
+-- ίδιο για τον heavy user
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events WHERE user_id = 7 ORDER BY created_at DESC LIMIT 200;
+
+-- findTop200ByUser_IdAndTypeOrderByCreatedAtDesc
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events WHERE user_id = 42 AND type = 'LIKE_MOVIE' ORDER BY created_at DESC LIMIT 200;
+
+-- ίδιο για τον heavy user
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events WHERE user_id = 7 AND type = 'LIKE_MOVIE' ORDER BY created_at DESC LIMIT 200;
+
+-- findRecentMovieEvents (warm-up, μία φορά στο startup)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT user_id, type, movie_id FROM user_events
+WHERE type IN ('OPEN_MOVIE', 'LIKE_MOVIE') AND movie_id IS NOT NULL
+ORDER BY created_at DESC LIMIT 20000;
+
+-- UserEventExportService.page (keyset cursor: μια εβδομάδα πίσω)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events
+WHERE user_id = 42 AND created_at <= now() AND (created_at, id) < (now() - interval '7 days', 9223372036854775807)
+ORDER BY created_at DESC, id DESC LIMIT 100;
+
+-- ίδιο για τον heavy user
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events
+WHERE user_id = 7 AND created_at <= now() AND (created_at, id) < (now() - interval '7 days', 9223372036854775807)
+ORDER BY created_at DESC, id DESC LIMIT 100;
+
+-- UserEventExportService.exportNdjson
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events WHERE user_id = 42 ORDER BY created_at, id;
+
+-- ίδιο για τον heavy user
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM user_events WHERE user_id = 7 ORDER BY created_at, id;
+
+-- PreferenceRebuildJob (ένα chunk των 500 users)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT user_id, type, genre_id, cast_id, crew_id, person_id, attributes -> 'genreIds' AS genre_ids, created_at
+FROM user_events
+WHERE user_id > 1000 AND user_id <= 1500
+  AND type IN ('CHOOSE_FILTER', 'OPEN_MOVIE', 'OPEN_ACTOR', 'OPEN_DIRECTOR')
+ORDER BY user_id, created_at DESC;
+
+-- partition pruning: μόνο ο τρέχων μήνας
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT count(*) FROM user_events
+WHERE created_at >= date_trunc('month', now() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC';
+
+-- =====================================================
+--                  posts / comments / ratings
+-- =====================================================
+-- PostRepository.findAllByOrderByCreatedAtDesc (χωρίς LIMIT: όλο το table)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM posts ORDER BY created_at DESC;
+
+-- PostRepository.findByUserIdOrderByCreatedAtDesc
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM posts WHERE user_id = 42 ORDER BY created_at DESC;
+
+-- PostRepository.findByMovieIdOrderByCreatedAtDesc
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM posts WHERE movie_id = 550 ORDER BY created_at DESC;
+
+-- PostCommentRepository.findByPostIdOrderByCreatedAtAsc
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM post_comments WHERE post_id = 42 ORDER BY created_at;
+
+-- PostRatingRepository.findByPostIdAndUserId / existsBy… / deleteBy…
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM post_ratings WHERE post_id = 42 AND user_id = 7;
+
+-- PostRatingRepository.countByPostIdAndValue
+-- Index Only Scan μόνο μετά από VACUUM (visibility map)· εδώ, μέσα στο transaction, περιμένουμε
+-- Index Only Scan με Heap Fetches = όλα τα rows
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT count(*) FROM post_ratings WHERE post_id = 42 AND value = 2;
+
+-- PostCommentRepository.deleteByPostId
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+DELETE FROM post_comments WHERE post_id = 43;
+
+-- PostRatingRepository.deleteByPostId
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+DELETE FROM post_ratings WHERE post_id = 43;
+
+-- =====================================================
+--                  movie_sentiment
+-- =====================================================
+-- findTop200ByTagOrderByScoreDesc
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM movie_sentiment WHERE tag = 'tag3' ORDER BY score DESC LIMIT 200;
+
+-- findByMovieId
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM movie_sentiment WHERE movie_id = 550;
+
+-- existsByMovieIdAndTagAndSource
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT id FROM movie_sentiment WHERE movie_id = 550 AND tag = 'tag3' AND source = 'REVIEWS' LIMIT 1;
+
+-- =====================================================
+--                  users / user_preference_scores
+-- =====================================================
+-- UserRepository.findByEmail / existsByEmail
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT * FROM users WHERE email = 'user42@explain.local';
+
+-- UserPreferenceScoreRepository.findTopScores
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT s.entity_id AS id,
+       SUM(s.score * power(0.5, GREATEST(CAST(EXTRACT(EPOCH FROM (now() - s.updated_at)) AS double precision), 0)
+           / s.half_life_seconds)) AS score
+FROM user_preference_scores s
+WHERE s.user_id = 42 AND s.dimension = 'GENRE'
+GROUP BY s.entity_id
+ORDER BY 2 DESC, s.entity_id ASC
+LIMIT 5;
+
+-- UserPreferenceScoreRepository.upsertScore
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+INSERT INTO user_preference_scores (user_id, dimension, entity_id, event_type, score, half_life_seconds, updated_at)
+VALUES (42, 'GENRE', 28, 'CHOOSE_FILTER', 1.0, 2592000, now())
+ON CONFLICT (user_id, dimension, entity_id, event_type)
+DO UPDATE SET score = user_preference_scores.score * power(0.5, GREATEST(
+                          CAST(EXTRACT(EPOCH FROM (EXCLUDED.updated_at - user_preference_scores.updated_at)) AS double precision),
+                          0) / EXCLUDED.half_life_seconds)
+                      + EXCLUDED.score * power(0.5, GREATEST(
+                          CAST(EXTRACT(EPOCH FROM (user_preference_scores.updated_at - EXCLUDED.updated_at)) AS double precision),
+                          0) / EXCLUDED.half_life_seconds),
+              half_life_seconds = EXCLUDED.half_life_seconds,
+              updated_at = GREATEST(EXCLUDED.updated_at, user_preference_scores.updated_at);
+
+-- UserPreferenceScoreRepository.deleteByUserId
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+DELETE FROM user_preference_scores WHERE user_id = 43;
+
+-- UserEventIngestionPipeline: users με ready aggregates ενός batch
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT id FROM users WHERE preference_scores_ready AND id = ANY('{1,42,4711,9000}'::int8[]);
+
+-- =====================================================
+--                  actor_stats / movie_top_cast / movie_catalog
+-- =====================================================
+-- ActorStatsStore.topCastStats
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT c.person_id, s.popularity, s.credit_count, s.highly_rated_count, s.person_id IS NOT NULL AS known
+FROM movie_top_cast c
+LEFT JOIN actor_stats s ON s.person_id = c.person_id
+WHERE c.movie_id = 550 AND c.refreshed_at >= now() - interval '7 days'
+ORDER BY c.billing_order;
+
+-- ActorStatsStore.findFresh
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT person_id, popularity, credit_count, highly_rated_count FROM actor_stats WHERE person_id = 287 AND NOT stale;
+
+-- ActorStatsStore.staleOrMissing (stale)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT person_id FROM actor_stats WHERE stale ORDER BY refreshed_at LIMIT 200;
+
+-- ActorStatsStore.staleOrMissing (missing)
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT DISTINCT c.person_id
+FROM movie_top_cast c
+LEFT JOIN actor_stats s ON s.person_id = c.person_id
+WHERE s.person_id IS NULL
+LIMIT 200;
+
+-- MovieCatalogStore.stale
+EXPLAIN (ANALYZE, BUFFERS, SETTINGS)
+SELECT movie_id FROM movie_catalog WHERE stale ORDER BY updated_at LIMIT 200;
+
+ROLLBACK;